@@ -22,6 +22,12 @@ CREATE TABLE IF NOT EXISTS loan_applications (
     duration_months INT NOT NULL,
     interest_rate DECIMAL(5,2),
     status ENUM('PENDING', 'APPROVED', 'REJECTED') DEFAULT 'PENDING',
+    idempotency_key VARCHAR(36) UNIQUE,
+    version INT NOT NULL DEFAULT 0,
+    claimed_by INT,
+    claim_expires_at TIMESTAMP NULL,
+    INDEX idx_status_claim (status, claimed_by),
+    INDEX idx_application_date (application_date),
     FOREIGN KEY (user_id) REFERENCES users(user_id)
 );
 
@@ -45,11 +51,80 @@ CREATE TABLE IF NOT EXISTS loan_decisions (
     decision_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     status ENUM('APPROVED', 'REJECTED') NOT NULL,
     comments TEXT,
+    version INT NOT NULL DEFAULT 0,
     FOREIGN KEY (application_id) REFERENCES loan_applications(application_id),
     FOREIGN KEY (officer_id) REFERENCES users(user_id)
 );
 
+-- One row per decided application. loan_decisions may be partitioned by date, which rules out
+-- a unique key on its application_id; this table is never partitioned, so its primary key
+-- keeps every application to one decision. It has no foreign key, as applications may be on shards.
+CREATE TABLE IF NOT EXISTS decided_applications (
+    application_id INT PRIMARY KEY
+);
+
+-- Append-only history of every decision; loan_decisions holds the latest decision per application.
+-- Clustered by application, so an application's history is read in one range scan.
+CREATE TABLE IF NOT EXISTS loan_decision_events (
+    event_id BIGINT AUTO_INCREMENT,
+    application_id INT NOT NULL,
+    decision_id INT NOT NULL,
+    officer_id INT NOT NULL,
+    event_type ENUM('DECIDED', 'REVISED', 'WITHDRAWN') NOT NULL,
+    status ENUM('APPROVED', 'REJECTED') NOT NULL,
+    comments TEXT,
+    event_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (application_id, event_id),
+    KEY idx_event_id (event_id)
+);
+
+CREATE TABLE IF NOT EXISTS decision_audit_log (
+    audit_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_id VARCHAR(36) NOT NULL UNIQUE,
+    event_time TIMESTAMP(3) NOT NULL,
+    officer_id INT NOT NULL,
+    application_id INT NOT NULL,
+    old_status VARCHAR(20) NOT NULL,
+    new_status VARCHAR(20) NOT NULL,
+    INDEX idx_audit_application (application_id)
+);
+
+-- Monthly reporting summaries, kept current by the DAOs in the same transaction as the
+-- loan applications and decisions they count. Rebuild with ipcapstone.dao.ReportRebuilder.
+CREATE TABLE IF NOT EXISTS report_monthly_applications (
+    month DATE NOT NULL,
+    loan_purpose VARCHAR(255) NOT NULL,
+    applications INT NOT NULL,
+    total_amount DECIMAL(17,2) NOT NULL,
+    PRIMARY KEY (month, loan_purpose)
+);
+
+CREATE TABLE IF NOT EXISTS report_monthly_decisions (
+    month DATE NOT NULL,
+    officer_id INT NOT NULL,
+    approved INT NOT NULL,
+    rejected INT NOT NULL,
+    PRIMARY KEY (month, officer_id)
+);
+
 INSERT INTO users (username, password, full_name, email, phone, user_type)
 VALUES ('arya2012', 'arya2012@', 'Arya Tiwari', 'arya@tcet.com', '123-456-7890', 'OFFICER');
 INSERT INTO users (username, password, full_name, email, phone, address, user_type)
-VALUES ('anant1302', 'anant1302@', 'Anant Singh', 'anant@gmail.com', '987-654-3210', 'Malad, Mumbai', 'USER'); 
\ No newline at end of file
+VALUES ('anant1302', 'anant1302@', 'Anant Singh', 'anant@gmail.com', '987-654-3210', 'Malad, Mumbai', 'USER'); 
+
+-- Upgrading an existing database:
+-- ALTER TABLE loan_applications ADD COLUMN idempotency_key VARCHAR(36) UNIQUE;
+-- ALTER TABLE loan_applications ADD COLUMN version INT NOT NULL DEFAULT 0;
+-- ALTER TABLE loan_decisions ADD COLUMN version INT NOT NULL DEFAULT 0;
+-- ALTER TABLE loan_applications ADD COLUMN claimed_by INT, ADD COLUMN claim_expires_at TIMESTAMP NULL,
+--     ADD INDEX idx_status_claim (status, claimed_by);
+-- ALTER TABLE loan_applications ADD INDEX idx_application_date (application_date);
+-- Create decided_applications above and fill it from the existing decisions:
+-- INSERT IGNORE INTO decided_applications (application_id) SELECT application_id FROM loan_decisions;
+-- ALTER TABLE decision_audit_log ADD COLUMN event_id VARCHAR(36) NULL;
+-- UPDATE decision_audit_log SET event_id = UUID() WHERE event_id IS NULL;
+-- ALTER TABLE decision_audit_log MODIFY event_id VARCHAR(36) NOT NULL UNIQUE;
+-- Then create the report tables above and run: java ipcapstone.dao.ReportRebuilder
+-- Create loan_decision_events above and seed it with the existing decisions:
+-- INSERT INTO loan_decision_events (application_id, decision_id, officer_id, event_type, status, comments, event_time)
+--     SELECT application_id, decision_id, officer_id, 'DECIDED', status, comments, decision_date FROM loan_decisions;
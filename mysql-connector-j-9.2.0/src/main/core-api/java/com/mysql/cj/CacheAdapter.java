@@ -22,6 +22,8 @@ package com.mysql.cj;
 
 import java.util.Set;
 
+import com.mysql.cj.util.WeightedCache;
+
 public interface CacheAdapter<K, V> {
 
     V get(K key);
@@ -34,4 +36,13 @@ public interface CacheAdapter<K, V> {
 
     void invalidateAll();
 
+    /**
+     * Returns the hit and eviction statistics of the cache, if it keeps any.
+     *
+     * @return the statistics, or null
+     */
+    default WeightedCache.Stats getStats() {
+        return null;
+    }
+
 }
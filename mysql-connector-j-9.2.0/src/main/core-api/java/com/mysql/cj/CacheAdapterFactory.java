@@ -26,4 +26,23 @@ public interface CacheAdapterFactory<K, V> {
 
     CacheAdapter<K, V> getInstance(Lock lock, String url, int cacheMaxSize, int maxKeySize);
 
+    /**
+     * Creates a cache that is also bounded by the approximate size of its entries. Factories that do not weigh their entries ignore maxWeight.
+     *
+     * @param lock
+     *            the connection lock, for caches that are not thread-safe
+     * @param url
+     *            the connection URL
+     * @param cacheMaxSize
+     *            the maximum number of entries
+     * @param maxKeySize
+     *            the maximum length of a cached key
+     * @param maxWeight
+     *            the maximum total size of the entries in bytes, or 0 for no limit
+     * @return the cache
+     */
+    default CacheAdapter<K, V> getInstance(Lock lock, String url, int cacheMaxSize, int maxKeySize, long maxWeight) {
+        return getInstance(lock, url, cacheMaxSize, maxKeySize);
+    }
+
 }
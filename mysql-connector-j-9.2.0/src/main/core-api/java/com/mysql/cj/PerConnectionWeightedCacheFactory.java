@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj;
+
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import com.mysql.cj.util.WeightedCache;
+
+/**
+ * Creates a {@link WeightedCache} per connection for the parsed representation of prepared statements, bounded by the number of statements and by their
+ * approximate size.
+ */
+public class PerConnectionWeightedCacheFactory implements CacheAdapterFactory<String, QueryInfo> {
+
+    @Override
+    public CacheAdapter<String, QueryInfo> getInstance(Lock lock, String url, int cacheMaxSize, int maxKeySize) {
+        return new PerConnectionWeightedCache(cacheMaxSize, 0, maxKeySize);
+    }
+
+    @Override
+    public CacheAdapter<String, QueryInfo> getInstance(Lock lock, String url, int cacheMaxSize, int maxKeySize, long maxWeight) {
+        return new PerConnectionWeightedCache(cacheMaxSize, maxWeight, maxKeySize);
+    }
+
+    /**
+     * Approximate size of a cached QueryInfo in bytes: the SQL string, the static SQL chunks and the bookkeeping around them.
+     *
+     * @param sql
+     *            the SQL
+     * @return the weight
+     */
+    static long weigh(String sql) {
+        return 168 + 3L * sql.length();
+    }
+
+    static class PerConnectionWeightedCache implements CacheAdapter<String, QueryInfo> {
+
+        private final int cacheSqlLimit;
+        private final WeightedCache<String, QueryInfo> cache;
+
+        protected PerConnectionWeightedCache(int cacheMaxSize, long maxWeight, int maxKeySize) {
+            this.cacheSqlLimit = maxKeySize;
+            this.cache = new WeightedCache<>(cacheMaxSize, maxWeight, (sql, queryInfo) -> weigh(sql), null);
+        }
+
+        @Override
+        public QueryInfo get(String key) {
+            if (key == null || key.length() > this.cacheSqlLimit) {
+                return null;
+            }
+            return this.cache.get(key);
+        }
+
+        @Override
+        public void put(String key, QueryInfo value) {
+            if (key == null || key.length() > this.cacheSqlLimit) {
+                return;
+            }
+            this.cache.put(key, value);
+        }
+
+        @Override
+        public void invalidate(String key) {
+            this.cache.remove(key);
+        }
+
+        @Override
+        public void invalidateAll(Set<String> keys) {
+            for (String key : keys) {
+                this.cache.remove(key);
+            }
+        }
+
+        @Override
+        public void invalidateAll() {
+            this.cache.clear();
+        }
+
+        @Override
+        public WeightedCache.Stats getStats() {
+            return this.cache.getStats();
+        }
+
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj;
+
+import com.mysql.cj.conf.PropertyDefinitions;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.util.WeightedCache;
+
+/**
+ * A JVM-wide cache of {@link QueryInfo} instances, shared by all connections that enable
+ * {@link com.mysql.cj.conf.PropertyKey#useSharedQueryInfoCache}. Pooled connections running the same statements then parse each of them once instead of
+ * once per connection.
+ *
+ * A {@link QueryInfo} is never modified after it is built, so one instance can be used by many connections at once. The result of parsing depends on the
+ * character encoding of the static SQL parts and on some connection settings, so these are part of the cache key together with the SQL. The total size of
+ * the cache is bounded by the system property {@link PropertyDefinitions#SYSP_sharedQueryInfoCacheMaxMemory}, in bytes.
+ */
+public class SharedQueryInfoCache {
+
+    private static final long DEFAULT_MAX_MEMORY = 16 * 1024 * 1024;
+    // Smallest weight of a cached entry, used to derive the entry limit from the memory limit.
+    private static final int MIN_ENTRY_WEIGHT = 256;
+
+    private static final int FLAG_NO_BACKSLASH_ESCAPES = 1;
+    private static final int FLAG_REWRITE_BATCHED_STATEMENTS = 1 << 1;
+    private static final int FLAG_DONT_CHECK_ON_DUPLICATE_KEY_UPDATE = 1 << 2;
+
+    private static final SharedQueryInfoCache INSTANCE = new SharedQueryInfoCache(
+            Long.getLong(PropertyDefinitions.SYSP_sharedQueryInfoCacheMaxMemory, DEFAULT_MAX_MEMORY));
+
+    private final WeightedCache<Key, QueryInfo> cache;
+
+    /**
+     * Returns the cache shared by all connections of this class loader.
+     *
+     * @return the shared cache
+     */
+    public static SharedQueryInfoCache getInstance() {
+        return INSTANCE;
+    }
+
+    SharedQueryInfoCache(long maxMemory) {
+        long maxEntries = Math.max(1, maxMemory / MIN_ENTRY_WEIGHT);
+        this.cache = new WeightedCache<>((int) Math.min(maxEntries, Integer.MAX_VALUE - 1), Math.max(1, maxMemory),
+                (key, queryInfo) -> PerConnectionWeightedCacheFactory.weigh(key.sql), null);
+    }
+
+    /**
+     * Returns the {@link QueryInfo} for a query, parsing it only if no connection with the same encoding and parsing settings has done so already. Queries
+     * longer than the session's {@link PropertyKey#prepStmtCacheSqlLimit} are parsed without being cached.
+     *
+     * @param sql
+     *            the query SQL string
+     * @param session
+     *            the {@link Session} under which the query is prepared
+     * @param encoding
+     *            the characters encoding of the query static parts
+     * @return the {@link QueryInfo}
+     */
+    public QueryInfo getQueryInfo(String sql, Session session, String encoding) {
+        if (sql == null || sql.length() > session.getPropertySet().getIntegerProperty(PropertyKey.prepStmtCacheSqlLimit).getValue()) {
+            return new QueryInfo(sql, session, encoding);
+        }
+
+        int flags = 0;
+        if (session.getServerSession().isNoBackslashEscapesSet()) {
+            flags |= FLAG_NO_BACKSLASH_ESCAPES;
+        }
+        if (session.getPropertySet().getBooleanProperty(PropertyKey.rewriteBatchedStatements).getValue()) {
+            flags |= FLAG_REWRITE_BATCHED_STATEMENTS;
+        }
+        if (session.getPropertySet().getBooleanProperty(PropertyKey.dontCheckOnDuplicateKeyUpdateInSQL).getValue()) {
+            flags |= FLAG_DONT_CHECK_ON_DUPLICATE_KEY_UPDATE;
+        }
+
+        Key key = new Key(sql, encoding, flags);
+        QueryInfo queryInfo = this.cache.get(key);
+        if (queryInfo == null) {
+            // Connections racing on the same query each parse it; the results are equivalent, so the last one cached wins.
+            queryInfo = new QueryInfo(sql, session, encoding);
+            this.cache.put(key, queryInfo);
+        }
+        return queryInfo;
+    }
+
+    /**
+     * Returns the hit rate and eviction statistics of the cache.
+     *
+     * @return the statistics
+     */
+    public WeightedCache.Stats getStats() {
+        return this.cache.getStats();
+    }
+
+    /**
+     * Removes all cached entries.
+     */
+    public void clear() {
+        this.cache.clear();
+    }
+
+    private static final class Key {
+
+        final String sql;
+        final String encoding;
+        final int flags;
+        private final int hashCode;
+
+        Key(String sql, String encoding, int flags) {
+            this.sql = sql;
+            this.encoding = encoding;
+            this.flags = flags;
+            this.hashCode = (sql.hashCode() * 31 + (encoding == null ? 0 : encoding.hashCode())) * 31 + flags;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.hashCode == other.hashCode && this.flags == other.flags && this.sql.equals(other.sql)
+                    && (this.encoding == null ? other.encoding == null : this.encoding.equals(other.encoding));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+    }
+
+}
@@ -25,7 +25,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.mysql.cj.Messages;
-import com.mysql.cj.PerConnectionLRUFactory;
+import com.mysql.cj.PerConnectionWeightedCacheFactory;
 import com.mysql.cj.callback.OpenidConnectIdTokenFromFileCallbackHandler;
 import com.mysql.cj.log.Log;
 import com.mysql.cj.log.StandardLogger;
@@ -48,6 +48,8 @@ public class PropertyDefinitions {
      * Operational system properties.
      */
     public static final String SYSP_disableAbandonedConnectionCleanup = "com.mysql.cj.disableAbandonedConnectionCleanup";
+    public static final String SYSP_cancelQueryPoolSize = "com.mysql.cj.cancelQueryPoolSize";
+    public static final String SYSP_sharedQueryInfoCacheMaxMemory = "com.mysql.cj.sharedQueryInfoCacheMaxMemory";
 
     /*
      * Testsuite system properties.
@@ -671,6 +673,10 @@ public class PropertyDefinitions {
                 //
                 // CATEGORY_PERFORMANCE
                 //
+                new MemorySizePropertyDefinition(PropertyKey.adaptiveStreamingThreshold, 0, RUNTIME_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.adaptiveStreamingThreshold"), "9.2.0", CATEGORY_PERFORMANCE, Integer.MIN_VALUE, 0,
+                        Integer.MAX_VALUE),
+
                 new BooleanPropertyDefinition(PropertyKey.alwaysSendSetIsolation, DEFAULT_VALUE_TRUE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.alwaysSendSetIsolation"), "3.1.7", CATEGORY_PERFORMANCE, Integer.MAX_VALUE),
 
@@ -717,12 +723,18 @@ public class PropertyDefinitions {
                 new IntegerPropertyDefinition(PropertyKey.prepStmtCacheSqlLimit, 256, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.prepStmtCacheSqlLimit"), "3.0.10", CATEGORY_PERFORMANCE, 11, 1, Integer.MAX_VALUE),
 
-                new StringPropertyDefinition(PropertyKey.queryInfoCacheFactory, PerConnectionLRUFactory.class.getName(), RUNTIME_MODIFIABLE,
+                new StringPropertyDefinition(PropertyKey.queryInfoCacheFactory, PerConnectionWeightedCacheFactory.class.getName(), RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.queryInfoCacheFactory"), "5.1.1", CATEGORY_PERFORMANCE, 12),
 
+                new MemorySizePropertyDefinition(PropertyKey.statementCacheMaxMemory, 1024 * 1024, RUNTIME_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.statementCacheMaxMemory"), "9.2.0", CATEGORY_PERFORMANCE, 13, 0, Integer.MAX_VALUE),
+
                 new BooleanPropertyDefinition(PropertyKey.rewriteBatchedStatements, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.rewriteBatchedStatements"), "3.1.13", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
 
+                new BooleanPropertyDefinition(PropertyKey.useCompactRowStorage, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.useCompactRowStorage"), "9.2.0", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
+
                 new BooleanPropertyDefinition(PropertyKey.useCursorFetch, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.useCursorFetch"), "5.0.0", CATEGORY_PERFORMANCE, Integer.MAX_VALUE),
 
@@ -735,6 +747,9 @@ public class PropertyDefinitions {
                 new BooleanPropertyDefinition(PropertyKey.useReadAheadInput, DEFAULT_VALUE_TRUE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.useReadAheadInput"), "3.1.5", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
 
+                new BooleanPropertyDefinition(PropertyKey.useSharedQueryInfoCache, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.useSharedQueryInfoCache"), "9.2.0", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
+
                 new BooleanPropertyDefinition(PropertyKey.dontCheckOnDuplicateKeyUpdateInSQL, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.dontCheckOnDuplicateKeyUpdateInSQL"), "5.1.32", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
 
@@ -52,6 +52,7 @@ public enum PropertyKey {
     /** The database value from the properties instance passed to the driver. */
     DBNAME("dbname", false), //
 
+    adaptiveStreamingThreshold("adaptiveStreamingThreshold", true), //
     allowLoadLocalInfile("allowLoadLocalInfile", true), //
     allowLoadLocalInfileInPath("allowLoadLocalInfileInPath", true), //
     allowMultiQueries("allowMultiQueries", true), //
@@ -218,6 +219,7 @@ public enum PropertyKey {
     socksProxyRemoteDns("socksProxyRemoteDns", true), //
     sslContextProvider("sslContextProvider", true), //
     sslMode("sslMode", true), //
+    statementCacheMaxMemory("statementCacheMaxMemory", true), //
     strictUpdates("strictUpdates", true), //
     tcpKeepAlive("tcpKeepAlive", true), //
     tcpNoDelay("tcpNoDelay", true), //
@@ -239,6 +241,7 @@ public enum PropertyKey {
     ultraDevHack("ultraDevHack", true), //
     useAffectedRows("useAffectedRows", true), //
     useColumnNamesInFindColumn("useColumnNamesInFindColumn", true), //
+    useCompactRowStorage("useCompactRowStorage", true), //
     useCompression("useCompression", true), //
     useConfigs("useConfigs", true), //
     useCursorFetch("useCursorFetch", true), //
@@ -251,6 +254,7 @@ public enum PropertyKey {
     useOnlyServerErrorMessages("useOnlyServerErrorMessages", true), //
     useReadAheadInput("useReadAheadInput", true), //
     useServerPrepStmts("useServerPrepStmts", true), //
+    useSharedQueryInfoCache("useSharedQueryInfoCache", true), //
     useSSL("useSSL", true), //
     useStreamLengthsInPrepStmts("useStreamLengthsInPrepStmts", true), //
     useUnbufferedInput("useUnbufferedInput", true), //
@@ -20,8 +20,7 @@
 
 package com.mysql.cj.protocol;
 
-import java.util.Map;
-
+import com.mysql.cj.result.ColumnLabelIndex;
 import com.mysql.cj.result.Field;
 
 /**
@@ -45,21 +44,15 @@ public interface ColumnDefinition extends ProtocolEntity {
 
     boolean hasBuiltIndexMapping();
 
-    public Map<String, Integer> getColumnLabelToIndex();
-
-    void setColumnLabelToIndex(Map<String, Integer> columnLabelToIndex);
-
-    public Map<String, Integer> getFullColumnNameToIndex();
-
-    void setFullColumnNameToIndex(Map<String, Integer> fullColNameToIndex);
-
-    public Map<String, Integer> getColumnNameToIndex();
-
-    void setColumnNameToIndex(Map<String, Integer> colNameToIndex);
-
-    public Map<String, Integer> getColumnToIndexCache();
+    /**
+     * Returns the column name index built by {@link #buildIndexMapping()}. The index is immutable and may be shared between column definitions with the same
+     * fields.
+     *
+     * @return {@link ColumnLabelIndex} or null if it's not built yet
+     */
+    ColumnLabelIndex getColumnLabelIndex();
 
-    public void setColumnToIndexCache(Map<String, Integer> columnToIndexCache);
+    void setColumnLabelIndex(ColumnLabelIndex columnLabelIndex);
 
     void initializeFrom(ColumnDefinition columnDefinition);
 
@@ -20,6 +20,9 @@
 
 package com.mysql.cj.protocol;
 
+import com.mysql.cj.Messages;
+import com.mysql.cj.exceptions.CJOperationNotSupportedException;
+import com.mysql.cj.exceptions.ExceptionFactory;
 import com.mysql.cj.result.Field;
 import com.mysql.cj.result.ValueFactory;
 
@@ -69,4 +72,37 @@ public interface ValueDecoder {
 
     <T> T decodeYear(byte[] bytes, int offset, int length, ValueFactory<T> vf);
 
+    /**
+     * Decode an integer value of any size up to a signed 64-bit integer without passing it through a {@link ValueFactory}. Unsigned 64-bit values must be
+     * decoded with {@link #decodeUInt8(byte[], int, int, ValueFactory)}.
+     *
+     * @param bytes
+     *            bytes array with the value
+     * @param offset
+     *            offset of the value in the array
+     * @param length
+     *            length of the value
+     * @param unsigned
+     *            whether the value is of an unsigned type
+     * @return the decoded value
+     */
+    default long decodeIntegerAsLong(byte[] bytes, int offset, int length, boolean unsigned) {
+        throw ExceptionFactory.createException(CJOperationNotSupportedException.class, Messages.getString("OperationNotSupportedException.0"));
+    }
+
+    /**
+     * Decode a FLOAT or DOUBLE value without passing it through a {@link ValueFactory}.
+     *
+     * @param bytes
+     *            bytes array with the value
+     * @param offset
+     *            offset of the value in the array
+     * @param length
+     *            length of the value
+     * @return the decoded value
+     */
+    default double decodeFloatingPointAsDouble(byte[] bytes, int offset, int length) {
+        throw ExceptionFactory.createException(CJOperationNotSupportedException.class, Messages.getString("OperationNotSupportedException.0"));
+    }
+
 }
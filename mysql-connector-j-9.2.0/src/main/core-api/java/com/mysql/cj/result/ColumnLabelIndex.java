@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.result;
+
+import java.util.Arrays;
+
+/**
+ * Case-insensitive lookup of column indices by column label, original column name or full column name ("table.column").
+ *
+ * The index is an open-addressed hash table built once from the result set fields and never modified afterwards, so it can be shared by all result sets
+ * with the same metadata. Each key is stored once with the indices of the first column having it as label, original name and full name, which makes a lookup
+ * a single probe sequence regardless of which kind of name matches.
+ *
+ * Quoting the JDBC Spec: "Column names used as input to getter methods are case insensitive. When a getter method is called with a column name and several
+ * columns have the same name, the value of the first matching column will be returned."
+ */
+public final class ColumnLabelIndex {
+
+    private static final int NOT_FOUND = -1;
+
+    private final int mask;
+    private final String[] keys;
+    private final int[] hashes;
+    private final int[] labelIndices;
+    private final int[] nameIndices;
+    private final int[] fullNameIndices;
+
+    /**
+     * Builds the index for the given fields.
+     *
+     * @param fields
+     *            result set fields
+     */
+    public ColumnLabelIndex(Field[] fields) {
+        // up to three keys per field, keep the load factor at or below 1/2
+        int capacity = Integer.highestOneBit(Math.max(fields.length * 3, 1)) << 2;
+        this.mask = capacity - 1;
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.labelIndices = new int[capacity];
+        this.nameIndices = new int[capacity];
+        this.fullNameIndices = new int[capacity];
+        Arrays.fill(this.labelIndices, NOT_FOUND);
+        Arrays.fill(this.nameIndices, NOT_FOUND);
+        Arrays.fill(this.fullNameIndices, NOT_FOUND);
+
+        for (int i = 0; i < fields.length; i++) {
+            int slot = add(fields[i].getName());
+            if (slot != NOT_FOUND && this.labelIndices[slot] == NOT_FOUND) {
+                this.labelIndices[slot] = i;
+            }
+            slot = add(fields[i].getOriginalName());
+            if (slot != NOT_FOUND && this.nameIndices[slot] == NOT_FOUND) {
+                this.nameIndices[slot] = i;
+            }
+            slot = add(fields[i].getFullName());
+            if (slot != NOT_FOUND && this.fullNameIndices[slot] == NOT_FOUND) {
+                this.fullNameIndices[slot] = i;
+            }
+        }
+    }
+
+    /**
+     * Finds a column index. Column labels take precedence over original column names, which take precedence over full column names.
+     *
+     * @param columnName
+     *            column label or name to look up, case-insensitive
+     * @param useColumnNames
+     *            whether original column names are matched too
+     * @return 0-based column index, or -1 if no column matches
+     */
+    public int find(String columnName, boolean useColumnNames) {
+        if (columnName == null) {
+            return NOT_FOUND;
+        }
+        int slot = slotOf(columnName, hash(columnName));
+        if (slot == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        if (this.labelIndices[slot] != NOT_FOUND) {
+            return this.labelIndices[slot];
+        }
+        if (useColumnNames && this.nameIndices[slot] != NOT_FOUND) {
+            return this.nameIndices[slot];
+        }
+        return this.fullNameIndices[slot];
+    }
+
+    private int add(String key) {
+        if (key == null) {
+            return NOT_FOUND;
+        }
+        int h = hash(key);
+        int slot = slotOf(key, h);
+        if (slot != NOT_FOUND) {
+            return slot;
+        }
+        slot = h & this.mask;
+        while (this.keys[slot] != null) {
+            slot = slot + 1 & this.mask;
+        }
+        this.keys[slot] = key;
+        this.hashes[slot] = h;
+        return slot;
+    }
+
+    private int slotOf(String key, int h) {
+        for (int slot = h & this.mask;; slot = slot + 1 & this.mask) {
+            String k = this.keys[slot];
+            if (k == null) {
+                return NOT_FOUND;
+            }
+            if (k == key || this.hashes[slot] == h && k.equalsIgnoreCase(key)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Hash code consistent with {@link String#equalsIgnoreCase(String)}.
+     *
+     * @param key
+     *            string
+     * @return hash code
+     */
+    private static int hash(String key) {
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
+        }
+        // spread the low bits used for the slot
+        return h ^ h >>> 16;
+    }
+
+}
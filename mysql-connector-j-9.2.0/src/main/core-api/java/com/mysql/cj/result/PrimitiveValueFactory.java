@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.result;
+
+/**
+ * A {@link ValueFactory} for a primitive type that can also return its values unboxed. Rows use the specialized methods for integer and floating point
+ * columns, so reading such a column as a primitive does not allocate; other source types are converted through the boxed {@link ValueFactory} methods.
+ *
+ * @param <T>
+ *            the boxed value type
+ */
+public interface PrimitiveValueFactory<T> extends ValueFactory<T> {
+
+    /**
+     * A {@link PrimitiveValueFactory} of int values.
+     */
+    interface OfInt extends PrimitiveValueFactory<Integer> {
+
+        int createIntFromLong(long l);
+
+        int createIntFromDouble(double d);
+
+    }
+
+    /**
+     * A {@link PrimitiveValueFactory} of long values.
+     */
+    interface OfLong extends PrimitiveValueFactory<Long> {
+
+        long createLongFromLong(long l);
+
+        long createLongFromDouble(double d);
+
+    }
+
+    /**
+     * A {@link PrimitiveValueFactory} of double values.
+     */
+    interface OfDouble extends PrimitiveValueFactory<Double> {
+
+        double createDoubleFromLong(long l);
+
+        double createDoubleFromDouble(double d);
+
+    }
+
+}
@@ -45,6 +45,49 @@ public interface Row extends ProtocolEntity {
      */
     <T> T getValue(int columnIndex, ValueFactory<T> vf);
 
+    /**
+     * Retrieve a value for the given column as an int. Rows that can decode numeric columns directly into the primitive factory methods do so without
+     * boxing; others delegate to {@link #getValue(int, ValueFactory)}.
+     *
+     * @param columnIndex
+     *            index of column to retrieve value from (0-indexed, not JDBC 1-indexed)
+     * @param vf
+     *            value factory used to create the return value after decoding
+     * @return the value, or 0 if the value is SQL <code>NULL</code>
+     */
+    default int getInt(int columnIndex, PrimitiveValueFactory.OfInt vf) {
+        Integer value = getValue(columnIndex, vf);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Retrieve a value for the given column as a long. See {@link #getInt(int, PrimitiveValueFactory.OfInt)}.
+     *
+     * @param columnIndex
+     *            index of column to retrieve value from (0-indexed, not JDBC 1-indexed)
+     * @param vf
+     *            value factory used to create the return value after decoding
+     * @return the value, or 0 if the value is SQL <code>NULL</code>
+     */
+    default long getLong(int columnIndex, PrimitiveValueFactory.OfLong vf) {
+        Long value = getValue(columnIndex, vf);
+        return value == null ? 0L : value;
+    }
+
+    /**
+     * Retrieve a value for the given column as a double. See {@link #getInt(int, PrimitiveValueFactory.OfInt)}.
+     *
+     * @param columnIndex
+     *            index of column to retrieve value from (0-indexed, not JDBC 1-indexed)
+     * @param vf
+     *            value factory used to create the return value after decoding
+     * @return the value, or 0 if the value is SQL <code>NULL</code>
+     */
+    default double getDouble(int columnIndex, PrimitiveValueFactory.OfDouble vf) {
+        Double value = getValue(columnIndex, vf);
+        return value == null ? 0d : value;
+    }
+
     /**
      * Set metadata to enable getValue functionality.
      *
@@ -57,6 +57,20 @@ public interface ValueFactory<T> {
 
     T createFromBigDecimal(BigDecimal d);
 
+    /**
+     * Creates a value from a decimal given as an unscaled value and a scale, i.e., <code>unscaledValue &times; 10<sup>-scale</sup></code>. Decoders use it
+     * for decimals small enough to be parsed without a {@link BigDecimal}; factories that do not need one may override it.
+     *
+     * @param unscaledValue
+     *            the unscaled value
+     * @param scale
+     *            the number of digits after the decimal point
+     * @return value
+     */
+    default T createFromDecimal(long unscaledValue, int scale) {
+        return createFromBigDecimal(BigDecimal.valueOf(unscaledValue, scale));
+    }
+
     T createFromBytes(byte[] bytes, int offset, int length, Field f);
 
     T createFromBit(byte[] bytes, int offset, int length);
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A hierarchical timer wheel running short tasks after a delay on a single daemon thread.
+ *
+ * Scheduling and cancelling a timeout only add it to a lock-free queue, so they never contend with each other or with the timer thread; the timer thread
+ * places new timeouts into buckets and unlinks cancelled ones. The root wheel has 256 buckets of one tick each, and each of the three higher wheels has 64
+ * buckets covering a whole turn of the wheel below it. Timeouts in a higher wheel are cascaded into the wheel below when it completes a turn, so every
+ * operation is O(1). The timer thread parks while no timeouts are pending.
+ *
+ * Tasks run on the timer thread and must not block; hand longer work to an executor.
+ */
+public class TimerWheel {
+
+    private static final int ROOT_BITS = 8;
+    private static final int ROOT_SIZE = 1 << ROOT_BITS;
+    private static final int ROOT_MASK = ROOT_SIZE - 1;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVEL_SIZE = 1 << LEVEL_BITS;
+    private static final int LEVEL_MASK = LEVEL_SIZE - 1;
+    private static final int LEVELS = 3;
+    private static final long MAX_DELTA = (1L << ROOT_BITS + LEVELS * LEVEL_BITS) - 1;
+
+    private static final TimerWheel QUERY_TIMEOUT_WHEEL = new TimerWheel("mysql-cj-query-timeout-timer", 10, TimeUnit.MILLISECONDS);
+
+    /**
+     * Returns the JVM-wide timer wheel used for statement timeouts, with a 10 ms tick.
+     *
+     * @return the timer wheel
+     */
+    public static TimerWheel getInstance() {
+        return QUERY_TIMEOUT_WHEEL;
+    }
+
+    /**
+     * A scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimerWheel wheel;
+        private final Runnable task;
+        private final long deadlineNanos;
+        private volatile int state = PENDING;
+
+        // Owned by the timer thread.
+        private long deadlineTick;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        Timeout(TimerWheel wheel, Runnable task, long deadlineNanos) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return true if the task was cancelled by this call and will not run
+         */
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            this.wheel.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return this.state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return this.state == EXPIRED;
+        }
+
+    }
+
+    private static final class Bucket {
+
+        Timeout head;
+        Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = this.tail;
+            timeout.next = null;
+            if (this.tail == null) {
+                this.head = timeout;
+            } else {
+                this.tail.next = timeout;
+            }
+            this.tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                this.head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                this.tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        Timeout clear() {
+            Timeout first = this.head;
+            this.head = null;
+            this.tail = null;
+            return first;
+        }
+
+    }
+
+    private final String threadName;
+    private final long tickNanos;
+    private final long startNanos;
+    private final Bucket[] root = new Bucket[ROOT_SIZE];
+    private final Bucket[][] levels = new Bucket[LEVELS][LEVEL_SIZE];
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final Lock startLock = new ReentrantLock();
+
+    private volatile Thread thread;
+    private volatile boolean idle = false;
+
+    // Owned by the timer thread.
+    private long currentTick;
+    private int timeoutCount;
+
+    /**
+     * Creates a timer wheel. Its thread is started when the first task is scheduled.
+     *
+     * @param threadName
+     *            the name of the timer thread
+     * @param tickDuration
+     *            the resolution of the timer
+     * @param unit
+     *            the unit of tickDuration
+     */
+    public TimerWheel(String threadName, long tickDuration, TimeUnit unit) {
+        this.threadName = threadName;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startNanos = System.nanoTime();
+        for (int i = 0; i < ROOT_SIZE; i++) {
+            this.root[i] = new Bucket();
+        }
+        for (int l = 0; l < LEVELS; l++) {
+            for (int i = 0; i < LEVEL_SIZE; i++) {
+                this.levels[l][i] = new Bucket();
+            }
+        }
+    }
+
+    /**
+     * Schedules a task to run once after the given delay. The task runs on the timer thread, up to one tick late.
+     *
+     * @param task
+     *            the task to run; it must not block
+     * @param delay
+     *            the delay
+     * @param unit
+     *            the unit of delay
+     * @return the timeout, which can be used to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(this, task, System.nanoTime() + unit.toNanos(Math.max(delay, 0)));
+        this.newTimeouts.add(timeout);
+
+        Thread timerThread = this.thread;
+        if (timerThread == null) {
+            startThread();
+        } else if (this.idle) {
+            LockSupport.unpark(timerThread);
+        }
+        return timeout;
+    }
+
+    private void startThread() {
+        this.startLock.lock();
+        try {
+            if (this.thread == null) {
+                Thread t = new Thread(this::run, this.threadName);
+                t.setDaemon(true);
+                // Don't keep the context ClassLoader of whichever thread happened to schedule the first task.
+                t.setContextClassLoader(TimerWheel.class.getClassLoader());
+                t.start();
+                this.thread = t;
+            }
+        } finally {
+            this.startLock.unlock();
+        }
+    }
+
+    private long ticksSinceStart(long nanos) {
+        return (nanos - this.startNanos) / this.tickNanos;
+    }
+
+    private void run() {
+        this.currentTick = ticksSinceStart(System.nanoTime());
+        while (true) {
+            transferTimeouts();
+
+            if (this.timeoutCount == 0) {
+                this.idle = true;
+                if (this.newTimeouts.isEmpty()) {
+                    LockSupport.park(this);
+                }
+                this.idle = false;
+                // Nothing is in the buckets, so the wheel can jump to the present.
+                this.currentTick = ticksSinceStart(System.nanoTime());
+                continue;
+            }
+
+            long nowTick = ticksSinceStart(System.nanoTime());
+            while (this.currentTick <= nowTick) {
+                tick();
+            }
+
+            long sleepNanos = this.startNanos + this.currentTick * this.tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+        }
+    }
+
+    private void transferTimeouts() {
+        Timeout timeout;
+        while ((timeout = this.cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+                this.timeoutCount--;
+            }
+        }
+        while ((timeout = this.newTimeouts.poll()) != null) {
+            if (timeout.state == Timeout.PENDING) {
+                long ticks = timeout.deadlineNanos - this.startNanos;
+                timeout.deadlineTick = ticks <= 0 ? 0 : (ticks + this.tickNanos - 1) / this.tickNanos;
+                place(timeout);
+                this.timeoutCount++;
+            }
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long deadline = Math.max(timeout.deadlineTick, this.currentTick);
+        long delta = deadline - this.currentTick;
+
+        if (delta < ROOT_SIZE) {
+            this.root[(int) (deadline & ROOT_MASK)].add(timeout);
+            return;
+        }
+        if (delta > MAX_DELTA) {
+            // Parked in the top wheel, and placed again when it is cascaded.
+            deadline = this.currentTick + MAX_DELTA;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ROOT_BITS + (level + 1) * LEVEL_BITS) {
+            level++;
+        }
+        this.levels[level][(int) (deadline >>> ROOT_BITS + level * LEVEL_BITS & LEVEL_MASK)].add(timeout);
+    }
+
+    private void tick() {
+        int index = (int) (this.currentTick & ROOT_MASK);
+        if (index == 0) {
+            for (int level = 0; level < LEVELS && cascade(level) == 0; level++) {
+                // cascade the next wheel when this one completed a turn too
+            }
+        }
+        this.currentTick++;
+
+        Timeout timeout = this.root[index].clear();
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+            this.timeoutCount--;
+
+            if (Timeout.STATE_UPDATER.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+                try {
+                    timeout.task.run();
+                } catch (Throwable t) {
+                    // the task failed, keep the timer running for the others
+                }
+            }
+            timeout = next;
+        }
+    }
+
+    private int cascade(int level) {
+        int index = (int) (this.currentTick >>> ROOT_BITS + level * LEVEL_BITS & LEVEL_MASK);
+        Timeout timeout = this.levels[level][index].clear();
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            place(timeout);
+            timeout = next;
+        }
+        return index;
+    }
+
+}
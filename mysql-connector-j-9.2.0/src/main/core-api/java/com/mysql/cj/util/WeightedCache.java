@@ -0,0 +1,560 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent cache bounded by both the number of entries and their total weight, e.g. their approximate size in bytes.
+ *
+ * Reads are lock-free: a hit only marks the entry as referenced and counts the access in a frequency sketch. Writes and evictions take a lock. Eviction
+ * follows the W-TinyLFU scheme: new entries go to a small window region, and an entry leaving the window is only admitted to the main region if it was
+ * accessed more often than the entry the main region would evict for it. Both regions pick their victims with the CLOCK algorithm. This keeps a burst of
+ * one-off entries, such as statements with literals, from flushing the frequently used ones.
+ *
+ * @param <K>
+ *            the type of the keys
+ * @param <V>
+ *            the type of the values
+ */
+public class WeightedCache<K, V> {
+
+    /**
+     * Computes the weight of an entry.
+     *
+     * @param <K>
+     *            the type of the keys
+     * @param <V>
+     *            the type of the values
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+
+        long weigh(K key, V value);
+
+    }
+
+    /**
+     * Notified of entries evicted to make room for others, after the cache lock is released.
+     *
+     * @param <K>
+     *            the type of the keys
+     * @param <V>
+     *            the type of the values
+     */
+    @FunctionalInterface
+    public interface EvictionListener<K, V> {
+
+        void evicted(K key, V value);
+
+    }
+
+    /**
+     * A snapshot of the cache statistics.
+     */
+    public static class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long rejections;
+        private final int size;
+        private final long weight;
+
+        Stats(long hits, long misses, long evictions, long rejections, int size, long weight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.rejections = rejections;
+            this.size = size;
+            this.weight = weight;
+        }
+
+        public long getHits() {
+            return this.hits;
+        }
+
+        public long getMisses() {
+            return this.misses;
+        }
+
+        public double getHitRate() {
+            long requests = this.hits + this.misses;
+            return requests == 0 ? 1.0 : (double) this.hits / requests;
+        }
+
+        /**
+         * Returns the number of entries evicted to make room for others, including the ones that were not admitted.
+         *
+         * @return the number of evictions
+         */
+        public long getEvictions() {
+            return this.evictions;
+        }
+
+        /**
+         * Returns the number of new entries that were evicted because they were used less often than the entry they would have replaced.
+         *
+         * @return the number of rejected entries
+         */
+        public long getRejections() {
+            return this.rejections;
+        }
+
+        public int getSize() {
+            return this.size;
+        }
+
+        public long getWeight() {
+            return this.weight;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, hitRate=%.3f, evictions=%d, rejections=%d, size=%d, weight=%d", this.hits, this.misses, getHitRate(),
+                    this.evictions, this.rejections, this.size, this.weight);
+        }
+
+    }
+
+    private static final int WINDOW = 0;
+    private static final int MAIN = 1;
+
+    private static final class Node<K, V> {
+
+        final K key;
+        volatile V value;
+        long weight;
+        int region;
+        volatile boolean referenced;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+
+    }
+
+    /**
+     * A doubly linked list of nodes, swept by the CLOCK hand from the head.
+     */
+    private static final class Clock<K, V> {
+
+        Node<K, V> head;
+        Node<K, V> tail;
+        int size;
+        long weight;
+
+        void addLast(Node<K, V> node) {
+            node.prev = this.tail;
+            node.next = null;
+            if (this.tail == null) {
+                this.head = node;
+            } else {
+                this.tail.next = node;
+            }
+            this.tail = node;
+            this.size++;
+            this.weight += node.weight;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                this.head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                this.tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            this.size--;
+            this.weight -= node.weight;
+        }
+
+        /**
+         * Returns the next victim, giving referenced nodes a second chance by moving them to the tail.
+         */
+        Node<K, V> victim() {
+            for (int i = 0; i <= this.size && this.head != null; i++) {
+                Node<K, V> node = this.head;
+                if (!node.referenced) {
+                    return node;
+                }
+                node.referenced = false;
+                remove(node);
+                addLast(node);
+            }
+            return this.head;
+        }
+
+    }
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final int windowMaxEntries;
+    private final long windowMaxWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final EvictionListener<K, V> evictionListener;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final Lock evictionLock = new ReentrantLock();
+    private final Clock<K, V> window = new Clock<>();
+    private final Clock<K, V> main = new Clock<>();
+    private final FrequencySketch sketch;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Creates a cache bounded by the number of entries only.
+     *
+     * @param maxEntries
+     *            the maximum number of entries
+     */
+    public WeightedCache(int maxEntries) {
+        this(maxEntries, Long.MAX_VALUE, (k, v) -> 1, null);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries
+     *            the maximum number of entries, or Integer.MAX_VALUE for no entry limit
+     * @param maxWeight
+     *            the maximum total weight of the entries, or 0 for no weight limit
+     * @param weigher
+     *            computes the weight of an entry when it is put in the cache
+     * @param evictionListener
+     *            notified of evicted entries, may be null
+     */
+    public WeightedCache(int maxEntries, long maxWeight, Weigher<? super K, ? super V> weigher, EvictionListener<K, V> evictionListener) {
+        this.maxEntries = Math.max(maxEntries, 0);
+        this.maxWeight = maxWeight <= 0 ? Long.MAX_VALUE : maxWeight;
+        this.windowMaxEntries = Math.max(1, this.maxEntries / 100);
+        this.windowMaxWeight = this.maxWeight == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(1, this.maxWeight / 100);
+        this.weigher = weigher;
+        this.evictionListener = evictionListener;
+        this.sketch = new FrequencySketch(this.maxEntries);
+    }
+
+    /**
+     * Returns the value cached for a key.
+     *
+     * @param key
+     *            the key
+     * @return the value, or null if the key is not cached
+     */
+    public V get(K key) {
+        this.sketch.increment(key.hashCode());
+        Node<K, V> node = this.data.get(key);
+        if (node == null) {
+            this.misses.increment();
+            return null;
+        }
+        node.referenced = true;
+        this.hits.increment();
+        return node.value;
+    }
+
+    /**
+     * Caches a value. An entry heavier than the whole cache is not cached.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @return the value previously cached for the key, or null
+     */
+    public V put(K key, V value) {
+        long weight = this.weigher.weigh(key, value);
+        List<Node<K, V>> evicted = null;
+        V previous = null;
+
+        this.evictionLock.lock();
+        try {
+            this.sketch.increment(key.hashCode());
+
+            Node<K, V> node = this.data.get(key);
+            if (node != null) {
+                previous = node.value;
+                node.value = value;
+                clockOf(node).remove(node);
+                node.weight = weight;
+                node.referenced = true;
+                clockOf(node).addLast(node);
+            } else if (this.maxEntries > 0 && weight <= this.maxWeight) {
+                node = new Node<>(key, value, weight);
+                node.region = WINDOW;
+                this.data.put(key, node);
+                this.window.addLast(node);
+            } else {
+                return null;
+            }
+            evicted = evict();
+        } finally {
+            this.evictionLock.unlock();
+        }
+
+        notifyEvicted(evicted);
+        return previous;
+    }
+
+    /**
+     * Removes a key from the cache.
+     *
+     * @param key
+     *            the key
+     * @return the value that was cached for the key, or null
+     */
+    public V remove(K key) {
+        this.evictionLock.lock();
+        try {
+            Node<K, V> node = this.data.remove(key);
+            if (node == null) {
+                return null;
+            }
+            clockOf(node).remove(node);
+            return node.value;
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries. The eviction listener is not notified.
+     */
+    public void clear() {
+        this.evictionLock.lock();
+        try {
+            for (Node<K, V> node : this.data.values()) {
+                clockOf(node).remove(node);
+            }
+            this.data.clear();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    public int size() {
+        return this.data.size();
+    }
+
+    /**
+     * Returns the total weight of the cached entries.
+     *
+     * @return the weight
+     */
+    public long weightedSize() {
+        this.evictionLock.lock();
+        try {
+            return this.window.weight + this.main.weight;
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cached values, in no particular order.
+     *
+     * @return the values
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(this.data.size());
+        for (Map.Entry<K, Node<K, V>> entry : this.data.entrySet()) {
+            values.add(entry.getValue().value);
+        }
+        return values;
+    }
+
+    public Stats getStats() {
+        return new Stats(this.hits.sum(), this.misses.sum(), this.evictions.sum(), this.rejections.sum(), size(), weightedSize());
+    }
+
+    private Clock<K, V> clockOf(Node<K, V> node) {
+        return node.region == WINDOW ? this.window : this.main;
+    }
+
+    private List<Node<K, V>> evict() {
+        List<Node<K, V>> evicted = null;
+
+        // Entries leaving the window are candidates for the main region.
+        while (this.window.size > this.windowMaxEntries || this.window.weight > this.windowMaxWeight) {
+            Node<K, V> candidate = this.window.victim();
+            this.window.remove(candidate);
+            evicted = admit(candidate, evicted);
+        }
+
+        // The window itself may hold more than the main region has room for.
+        while (this.window.size + this.main.size > this.maxEntries || this.window.weight + this.main.weight > this.maxWeight) {
+            Clock<K, V> clock = this.main.head != null ? this.main : this.window;
+            Node<K, V> victim = clock.victim();
+            clock.remove(victim);
+            evicted = discard(victim, evicted);
+        }
+        return evicted;
+    }
+
+    private List<Node<K, V>> admit(Node<K, V> candidate, List<Node<K, V>> evicted) {
+        int mainMaxEntries = this.maxEntries - this.windowMaxEntries;
+        long mainMaxWeight = this.maxWeight == Long.MAX_VALUE ? Long.MAX_VALUE : this.maxWeight - this.windowMaxWeight;
+
+        if (candidate.weight > mainMaxWeight || mainMaxEntries <= 0) {
+            this.rejections.increment();
+            return discard(candidate, evicted);
+        }
+
+        int candidateFrequency = this.sketch.frequency(candidate.key.hashCode());
+        while (this.main.size + 1 > mainMaxEntries || this.main.weight + candidate.weight > mainMaxWeight) {
+            Node<K, V> victim = this.main.victim();
+            if (candidateFrequency <= this.sketch.frequency(victim.key.hashCode())) {
+                this.rejections.increment();
+                return discard(candidate, evicted);
+            }
+            this.main.remove(victim);
+            evicted = discard(victim, evicted);
+        }
+
+        candidate.region = MAIN;
+        this.main.addLast(candidate);
+        return evicted;
+    }
+
+    private List<Node<K, V>> discard(Node<K, V> node, List<Node<K, V>> evicted) {
+        this.data.remove(node.key, node);
+        this.evictions.increment();
+        if (this.evictionListener == null) {
+            return evicted;
+        }
+        List<Node<K, V>> list = evicted == null ? new ArrayList<>() : evicted;
+        list.add(node);
+        return list;
+    }
+
+    private void notifyEvicted(List<Node<K, V>> evicted) {
+        if (evicted != null) {
+            for (Node<K, V> node : evicted) {
+                this.evictionListener.evicted(node.key, node.value);
+            }
+        }
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters estimating how often keys were accessed. The counters are halved periodically so that the estimates follow
+     * changes in popularity.
+     */
+    static final class FrequencySketch {
+
+        private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final AtomicLongArray table;
+        private final int tableMask;
+        private final int sampleSize;
+        private final AtomicInteger additions = new AtomicInteger();
+
+        FrequencySketch(int maxEntries) {
+            // Without an entry limit the sketch is only consulted when the weight limit is reached; keep it small.
+            int expectedEntries = maxEntries == Integer.MAX_VALUE ? 256 : Math.min(maxEntries, 1 << 20);
+            int length = Integer.highestOneBit(Math.max(8, expectedEntries) - 1) << 1;
+            this.table = new AtomicLongArray(length);
+            this.tableMask = length - 1;
+            this.sampleSize = 10 * length;
+        }
+
+        int frequency(int hashCode) {
+            int hash = spread(hashCode);
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int count = (int) (this.table.get(index) >>> (start + i << 2) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(int hashCode) {
+            int hash = spread(hashCode);
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                added |= incrementAt(indexOf(hash, i), start + i);
+            }
+            if (added && this.additions.incrementAndGet() >= this.sampleSize) {
+                reset();
+            }
+        }
+
+        private boolean incrementAt(int index, int counter) {
+            int offset = counter << 2;
+            long mask = 0xfL << offset;
+            while (true) {
+                long value = this.table.get(index);
+                if ((value & mask) == mask) {
+                    return false;
+                }
+                if (this.table.compareAndSet(index, value, value + (1L << offset))) {
+                    return true;
+                }
+            }
+        }
+
+        private void reset() {
+            this.additions.set(this.sampleSize / 2);
+            for (int i = 0; i < this.table.length(); i++) {
+                long value;
+                do {
+                    value = this.table.get(i);
+                } while (!this.table.compareAndSet(i, value, value >>> 1 & RESET_MASK));
+            }
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & this.tableMask;
+        }
+
+        private static int spread(int hashCode) {
+            int h = hashCode * 0x9e3779b9;
+            return h ^ h >>> 16;
+        }
+
+    }
+
+}
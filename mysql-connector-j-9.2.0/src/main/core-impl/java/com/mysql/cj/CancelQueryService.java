@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mysql.cj.conf.HostInfo;
+import com.mysql.cj.conf.PropertyDefinitions;
+import com.mysql.cj.exceptions.CJCommunicationsException;
+import com.mysql.cj.exceptions.ConnectionIsClosedException;
+import com.mysql.cj.protocol.a.NativeMessageBuilder;
+import com.mysql.cj.telemetry.TelemetryAttribute;
+import com.mysql.cj.telemetry.TelemetryScope;
+import com.mysql.cj.telemetry.TelemetrySpan;
+import com.mysql.cj.telemetry.TelemetrySpanName;
+import com.mysql.cj.util.TimerWheel;
+
+/**
+ * Sends KILL QUERY to a server on behalf of the connections to it.
+ *
+ * There is one service per server and user, shared by all connections in the JVM. Each runs the kills on a small number of daemon threads (2 by default,
+ * see {@link PropertyDefinitions#SYSP_cancelQueryPoolSize}) over at most as many kill connections, which are kept open between kills and closed after a
+ * minute of inactivity. Many statements timing out at once therefore queue up for these connections instead of opening a new thread and connection each.
+ * A service that has had nothing to do for a minute is removed, so servers and users no longer connected to do not keep their services.
+ */
+public class CancelQueryService {
+
+    private static final int POOL_SIZE = Math.max(1, Integer.getInteger(PropertyDefinitions.SYSP_cancelQueryPoolSize, 2));
+    private static final long IDLE_TIMEOUT_MILLIS = 60000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 30000;
+
+    private static final ConcurrentHashMap<String, CancelQueryService> SERVICES = new ConcurrentHashMap<>();
+
+    private static final LongAdder cancelsIssued = new LongAdder();
+    private static final LongAdder cancelFailures = new LongAdder();
+    private static final LongAdder cancelLatencyNanos = new LongAdder();
+    private static final AtomicLong maxCancelLatencyNanos = new AtomicLong();
+
+    private static class KillSession {
+
+        final NativeSession session;
+        long lastUsedMillis;
+
+        KillSession(NativeSession session) {
+            this.session = session;
+        }
+
+    }
+
+    private final String key;
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Deque<KillSession> idleSessions = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCheckScheduled = new AtomicInteger();
+    private volatile boolean retired = false;
+
+    private CancelQueryService(String key, String name) {
+        this.key = key;
+        this.name = name;
+        this.executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "mysql-cj-cancel-" + name);
+            t.setDaemon(true);
+            t.setContextClassLoader(CancelQueryService.class.getClassLoader());
+            return t;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the service for the server and user of the given session.
+     *
+     * @param session
+     *            the session whose queries are to be cancelled
+     * @return the cancel service
+     */
+    public static CancelQueryService forSession(NativeSession session) {
+        HostInfo hostInfo = session.getHostInfo();
+        // Kill connections authenticate with the credentials of the session that needs them, so the password is not part of the key.
+        String key = hostInfo.getHostPortPair() + "/" + hostInfo.getUser();
+        CancelQueryService service = SERVICES.get(key);
+        return service != null ? service : SERVICES.computeIfAbsent(key, k -> new CancelQueryService(k, hostInfo.getUser() + "@" + hostInfo.getHostPortPair()));
+    }
+
+    /**
+     * Runs a task, usually a call to {@link #killQuery(NativeSession, long, long)}, on one of this service's threads.
+     *
+     * @param task
+     *            the task
+     */
+    public void execute(Runnable task) {
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (!this.retired) {
+                throw e;
+            }
+            // This service was removed while idle; hand the task to the service that replaces it.
+            SERVICES.computeIfAbsent(this.key, k -> new CancelQueryService(k, this.name)).execute(task);
+        }
+    }
+
+    /**
+     * Kills the statement running on a connection, using one of this service's kill connections.
+     *
+     * @param session
+     *            the session running the statement
+     * @param threadId
+     *            the server thread id of the session
+     * @param requestedNanos
+     *            the System.nanoTime() at which the cancel was requested, for the latency metrics
+     * @throws IOException
+     *             if a kill connection cannot be opened
+     */
+    public void killQuery(NativeSession session, long threadId, long requestedNanos) throws IOException {
+        try {
+            boolean killed = false;
+            KillSession idleSession = this.idleSessions.pollFirst();
+            if (idleSession != null) {
+                try {
+                    sendKill(idleSession, threadId);
+                    killed = true;
+                } catch (CJCommunicationsException | ConnectionIsClosedException e) {
+                    // The kill connection went stale; retry once on a new one.
+                }
+            }
+            if (!killed) {
+                sendKill(connect(session), threadId);
+            }
+        } catch (IOException | RuntimeException e) {
+            cancelFailures.increment();
+            throw e;
+        } finally {
+            scheduleIdleCheck();
+        }
+
+        long latency = System.nanoTime() - requestedNanos;
+        cancelsIssued.increment();
+        cancelLatencyNanos.add(latency);
+        maxCancelLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    private KillSession connect(NativeSession session) throws IOException {
+        HostInfo hostInfo = session.getHostInfo();
+        KillSession killSession = new KillSession(new NativeSession(hostInfo, session.getPropertySet()));
+        try {
+            killSession.session.connect(hostInfo, hostInfo.getUser(), hostInfo.getPassword(), hostInfo.getDatabase(), CONNECT_TIMEOUT_MILLIS,
+                    new TransactionEventHandler() {
+
+                        @Override
+                        public void transactionCompleted() {
+                        }
+
+                        @Override
+                        public void transactionBegun() {
+                        }
+
+                    });
+        } catch (IOException | RuntimeException e) {
+            killSession.session.forceClose();
+            throw e;
+        }
+        return killSession;
+    }
+
+    private void sendKill(KillSession killSession, long threadId) {
+        NativeSession newSession = killSession.session;
+        HostInfo hostInfo = newSession.getHostInfo();
+
+        TelemetrySpan span = newSession.getTelemetryHandler().startSpan(TelemetrySpanName.CANCEL_QUERY);
+        try (TelemetryScope scope = span.makeCurrent()) {
+            span.setAttribute(TelemetryAttribute.DB_NAME, hostInfo.getDatabase());
+            span.setAttribute(TelemetryAttribute.DB_OPERATION, TelemetryAttribute.OPERATION_KILL);
+            span.setAttribute(TelemetryAttribute.DB_STATEMENT, TelemetryAttribute.OPERATION_KILL + TelemetryAttribute.STATEMENT_SUFFIX);
+            span.setAttribute(TelemetryAttribute.DB_SYSTEM, TelemetryAttribute.DB_SYSTEM_DEFAULT);
+            span.setAttribute(TelemetryAttribute.DB_USER, hostInfo.getUser());
+            span.setAttribute(TelemetryAttribute.THREAD_ID, () -> Thread.currentThread().getId());
+            span.setAttribute(TelemetryAttribute.THREAD_NAME, () -> Thread.currentThread().getName());
+
+            newSession.getProtocol().sendCommand(new NativeMessageBuilder(newSession.getServerSession().supportsQueryAttributes())
+                    .buildComQuery(newSession.getSharedSendPacket(), newSession, "KILL QUERY " + threadId), false, 0);
+        } catch (Throwable t) {
+            span.setError(t);
+            if (t instanceof CJCommunicationsException || t instanceof ConnectionIsClosedException) {
+                newSession.forceClose();
+            } else {
+                // The server rejected the KILL, e.g. because the statement had already finished; the kill connection is fine.
+                release(killSession);
+            }
+            throw t;
+        } finally {
+            span.end();
+        }
+
+        release(killSession);
+    }
+
+    private void release(KillSession killSession) {
+        killSession.lastUsedMillis = System.currentTimeMillis();
+        if (!this.retired && this.idleSessions.size() < POOL_SIZE) {
+            this.idleSessions.addFirst(killSession);
+        } else {
+            killSession.session.forceClose();
+        }
+    }
+
+    private void scheduleIdleCheck() {
+        if (!this.retired && this.idleCheckScheduled.compareAndSet(0, 1)) {
+            TimerWheel.getInstance().schedule(() -> {
+                try {
+                    this.executor.execute(this::closeIdleSessions);
+                } catch (RejectedExecutionException e) {
+                    // The service has been removed in the meantime.
+                }
+            }, IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void closeIdleSessions() {
+        this.idleCheckScheduled.set(0);
+        long cutoff = System.currentTimeMillis() - IDLE_TIMEOUT_MILLIS;
+        for (KillSession killSession : this.idleSessions) {
+            if (killSession.lastUsedMillis <= cutoff && this.idleSessions.remove(killSession)) {
+                killSession.session.forceClose();
+            }
+        }
+        if (!this.idleSessions.isEmpty()) {
+            scheduleIdleCheck();
+        } else if (this.executor.getQueue().isEmpty() && this.executor.getActiveCount() <= 1) {
+            // No kill connection is left and no kill is pending: remove the service. Kills already queued still run, later ones go to a new service.
+            this.retired = true;
+            SERVICES.remove(this.key, this);
+            this.executor.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CancelQueryService[" + this.name + "]";
+    }
+
+    /**
+     * Returns the number of KILL QUERY statements sent, for timeouts and for Statement.cancel().
+     *
+     * @return the number of cancels issued
+     */
+    public static long getCancelsIssued() {
+        return cancelsIssued.sum();
+    }
+
+    /**
+     * Returns the number of cancels that failed, e.g. because no kill connection could be opened.
+     *
+     * @return the number of failed cancels
+     */
+    public static long getCancelFailures() {
+        return cancelFailures.sum();
+    }
+
+    /**
+     * Returns the total time from requesting a cancel, or a statement timing out, until the server acknowledged the KILL QUERY, in nanoseconds.
+     *
+     * @return the total cancel latency
+     */
+    public static long getTotalCancelLatencyNanos() {
+        return cancelLatencyNanos.sum();
+    }
+
+    /**
+     * Returns the longest time from requesting a cancel until the server acknowledged the KILL QUERY, in nanoseconds.
+     *
+     * @return the maximum cancel latency
+     */
+    public static long getMaxCancelLatencyNanos() {
+        return maxCancelLatencyNanos.get();
+    }
+
+    /**
+     * Returns the number of cancels waiting for a kill connection, over all servers.
+     *
+     * @return the number of queued cancels
+     */
+    public static int getQueuedCancels() {
+        int queued = 0;
+        for (CancelQueryService service : SERVICES.values()) {
+            queued += service.executor.getQueue().size();
+        }
+        return queued;
+    }
+
+}
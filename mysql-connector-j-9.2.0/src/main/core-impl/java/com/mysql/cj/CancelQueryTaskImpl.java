@@ -20,30 +20,24 @@
 
 package com.mysql.cj;
 
-import java.util.TimerTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import com.mysql.cj.Query.CancelStatus;
-import com.mysql.cj.conf.HostInfo;
 import com.mysql.cj.conf.PropertyKey;
 import com.mysql.cj.exceptions.OperationCancelledException;
-import com.mysql.cj.protocol.a.NativeMessageBuilder;
-import com.mysql.cj.telemetry.TelemetryAttribute;
-import com.mysql.cj.telemetry.TelemetryScope;
-import com.mysql.cj.telemetry.TelemetrySpan;
-import com.mysql.cj.telemetry.TelemetrySpanName;
-
-//TODO should not be protocol-specific
+import com.mysql.cj.util.TimerWheel;
 
 /**
- * Thread used to implement query timeouts...Eventually we could be more
- * efficient and have one thread with timers, but this is a straightforward
- * and simple way to implement a feature that isn't used all that often.
+ * Query timeout. The timeout is kept on the JVM-wide {@link TimerWheel}; when it expires, the KILL QUERY is sent by the {@link CancelQueryService} of the
+ * query's server, so neither waiting for the timeout nor cancelling the query starts a thread or opens a connection of its own.
  */
-public class CancelQueryTaskImpl extends TimerTask implements CancelQueryTask {
+public class CancelQueryTaskImpl implements CancelQueryTask, Runnable {
 
-    Query queryToCancel;
-    Throwable caughtWhileCancelling = null;
+    volatile Query queryToCancel;
+    volatile Throwable caughtWhileCancelling = null;
     boolean queryTimeoutKillsConnection = false;
+    private TimerWheel.Timeout timeout;
 
     public CancelQueryTaskImpl(Query cancellee) {
         this.queryToCancel = cancellee;
@@ -51,99 +45,89 @@ public class CancelQueryTaskImpl extends TimerTask implements CancelQueryTask {
         this.queryTimeoutKillsConnection = session.getPropertySet().getBooleanProperty(PropertyKey.queryTimeoutKillsConnection).getValue();
     }
 
+    /**
+     * Starts the timeout.
+     *
+     * @param timeoutMillis
+     *            the query timeout in milliseconds
+     */
+    public void schedule(long timeoutMillis) {
+        this.timeout = TimerWheel.getInstance().schedule(this, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public boolean cancel() {
-        boolean res = super.cancel();
-        this.queryToCancel = null;
+        boolean res = this.timeout != null && this.timeout.cancel();
+        Query localQueryToCancel = this.queryToCancel;
+        if (localQueryToCancel != null) {
+            // Waits for a kill already being sent; once this returns, no kill from this task can reach a later query.
+            localQueryToCancel.getCancelTimeoutLock().lock();
+            try {
+                this.queryToCancel = null;
+            } finally {
+                localQueryToCancel.getCancelTimeoutLock().unlock();
+            }
+        }
         return res;
     }
 
+    /**
+     * Called on the timer thread when the timeout expires. Hands the kill over to the cancel service without blocking the timer.
+     */
     @Override
     public void run() {
-        Thread cancelThread = new Thread() {
+        Query localQueryToCancel = this.queryToCancel;
+        if (localQueryToCancel == null) {
+            return;
+        }
+        NativeSession session = (NativeSession) localQueryToCancel.getSession();
+        if (session == null) {
+            return;
+        }
+
+        long expiredNanos = System.nanoTime();
+        try {
+            CancelQueryService.forSession(session).execute(() -> cancelQuery(expiredNanos));
+        } catch (RejectedExecutionException e) {
+            this.caughtWhileCancelling = e;
+        }
+    }
 
-            @Override
-            public void run() {
-                Query localQueryToCancel = CancelQueryTaskImpl.this.queryToCancel;
-                if (localQueryToCancel == null) {
+    private void cancelQuery(long expiredNanos) {
+        Query localQueryToCancel = this.queryToCancel;
+        if (localQueryToCancel == null) {
+            return;
+        }
+        NativeSession session = (NativeSession) localQueryToCancel.getSession();
+        if (session == null) {
+            return;
+        }
+
+        try {
+            localQueryToCancel.getCancelTimeoutLock().lock();
+            try {
+                if (this.queryToCancel != localQueryToCancel || !localQueryToCancel.getStatementExecuting().get()) {
+                    // The query finished while the kill was queued; the connection may already be running the next one.
                     return;
                 }
-                NativeSession session = (NativeSession) localQueryToCancel.getSession();
-                if (session == null) {
-                    return;
-                }
-
-                try {
-                    localQueryToCancel.getCancelTimeoutLock().lock();
-                    try {
-                        long origConnId = session.getThreadId();
-                        HostInfo hostInfo = session.getHostInfo();
-                        String database = hostInfo.getDatabase();
-                        String user = hostInfo.getUser();
-                        String password = hostInfo.getPassword();
-
-                        NativeSession newSession = null;
-                        try {
-                            newSession = new NativeSession(hostInfo, session.getPropertySet());
-
-                            TelemetrySpan span = newSession.getTelemetryHandler().startSpan(TelemetrySpanName.CANCEL_QUERY);
-                            try (TelemetryScope scope = span.makeCurrent()) {
-                                span.setAttribute(TelemetryAttribute.DB_NAME, database);
-                                span.setAttribute(TelemetryAttribute.DB_OPERATION, TelemetryAttribute.OPERATION_KILL);
-                                span.setAttribute(TelemetryAttribute.DB_STATEMENT, TelemetryAttribute.OPERATION_KILL + TelemetryAttribute.STATEMENT_SUFFIX);
-                                span.setAttribute(TelemetryAttribute.DB_SYSTEM, TelemetryAttribute.DB_SYSTEM_DEFAULT);
-                                span.setAttribute(TelemetryAttribute.DB_USER, user);
-                                span.setAttribute(TelemetryAttribute.THREAD_ID, () -> Thread.currentThread().getId());
-                                span.setAttribute(TelemetryAttribute.THREAD_NAME, () -> Thread.currentThread().getName());
-
-                                newSession.connect(hostInfo, user, password, database, 30000, new TransactionEventHandler() {
-
-                                    @Override
-                                    public void transactionCompleted() {
-                                    }
-
-                                    @Override
-                                    public void transactionBegun() {
-                                    }
-
-                                });
-                                newSession.getProtocol().sendCommand(new NativeMessageBuilder(newSession.getServerSession().supportsQueryAttributes())
-                                        .buildComQuery(newSession.getSharedSendPacket(), newSession, "KILL QUERY " + origConnId), false, 0);
-                            } catch (Throwable t) {
-                                span.setError(t);
-                                throw t;
-                            } finally {
-                                span.end();
-                            }
-                        } finally {
-                            try {
-                                newSession.forceClose();
-                            } catch (Throwable t) {
-                                // no-op.
-                            }
-                        }
-                        localQueryToCancel.setCancelStatus(CancelStatus.CANCELED_BY_TIMEOUT);
-                    } finally {
-                        localQueryToCancel.getCancelTimeoutLock().unlock();
-                    }
-
-                    if (CancelQueryTaskImpl.this.queryTimeoutKillsConnection) {
-                        session.invokeCleanupListeners(new OperationCancelledException(Messages.getString("Statement.ConnectionKilledDueToTimeout")));
-                    }
-                } catch (NullPointerException npe) {
-                    // Case when connection closed while starting to cancel.
-                    // We can't easily synchronize this, because then one thread can't cancel() a running query.
-                    // Ignore, we shouldn't re-throw this, because the connection's already closed, so the statement has been timed out.
-                } catch (Throwable t) {
-                    CancelQueryTaskImpl.this.caughtWhileCancelling = t;
-                } finally {
-                    setQueryToCancel(null);
-                }
+                CancelQueryService.forSession(session).killQuery(session, session.getThreadId(), expiredNanos);
+                localQueryToCancel.setCancelStatus(CancelStatus.CANCELED_BY_TIMEOUT);
+            } finally {
+                localQueryToCancel.getCancelTimeoutLock().unlock();
             }
 
-        };
-
-        cancelThread.start();
+            if (this.queryTimeoutKillsConnection) {
+                session.invokeCleanupListeners(new OperationCancelledException(Messages.getString("Statement.ConnectionKilledDueToTimeout")));
+            }
+        } catch (NullPointerException npe) {
+            // Case when connection closed while starting to cancel.
+            // We can't easily synchronize this, because then one thread can't cancel() a running query.
+            // Ignore, we shouldn't re-throw this, because the connection's already closed, so the statement has been timed out.
+        } catch (Throwable t) {
+            this.caughtWhileCancelling = t;
+        } finally {
+            setQueryToCancel(null);
+        }
     }
 
     @Override
@@ -28,6 +28,7 @@ import com.mysql.cj.protocol.ColumnDefinition;
 import com.mysql.cj.protocol.ResultsetRow;
 import com.mysql.cj.protocol.ValueDecoder;
 import com.mysql.cj.result.Field;
+import com.mysql.cj.result.PrimitiveValueFactory;
 import com.mysql.cj.result.Row;
 import com.mysql.cj.result.ValueFactory;
 
@@ -49,6 +50,11 @@ public abstract class AbstractResultsetRow implements ResultsetRow {
     /** Did the previous value retrieval find a NULL? */
     protected boolean wasNull;
 
+    private static final int PRIMITIVE_SOURCE_NONE = 0;
+    private static final int PRIMITIVE_SOURCE_INTEGER = 1;
+    private static final int PRIMITIVE_SOURCE_UNSIGNED_INTEGER = 2;
+    private static final int PRIMITIVE_SOURCE_FLOATING_POINT = 3;
+
     /**
      * Decode the wire-level result bytes and call the value factory.
      *
@@ -237,6 +243,170 @@ public abstract class AbstractResultsetRow implements ResultsetRow {
         return retVal;
     }
 
+    /**
+     * Get an int value from a byte array. Integer and floating point columns are decoded straight into the primitive value factory methods, other columns go
+     * through {@link #getValueFromBytes(int, byte[], int, int, ValueFactory)}.
+     *
+     * @param columnIndex
+     *            The (internal) index of the column
+     * @param bytes
+     *            byte array
+     * @param offset
+     *            offset into byte array
+     * @param length
+     *            length of value in byte array
+     * @param vf
+     *            value factory
+     * @return value, or 0 for SQL NULL
+     */
+    protected int getIntFromBytes(int columnIndex, byte[] bytes, int offset, int length, PrimitiveValueFactory.OfInt vf) {
+        if (getNull(columnIndex)) {
+            return 0;
+        }
+
+        Field f = this.metadata.getFields()[columnIndex];
+        switch (getPrimitiveSource(f)) {
+            case PRIMITIVE_SOURCE_INTEGER:
+                return vf.createIntFromLong(this.valueDecoder.decodeIntegerAsLong(bytes, offset, length, false));
+            case PRIMITIVE_SOURCE_UNSIGNED_INTEGER:
+                return vf.createIntFromLong(this.valueDecoder.decodeIntegerAsLong(bytes, offset, length, true));
+            case PRIMITIVE_SOURCE_FLOATING_POINT:
+                return vf.createIntFromDouble(this.valueDecoder.decodeFloatingPointAsDouble(bytes, offset, length));
+            default:
+                Integer retVal = decodeAndCreateReturnValue(columnIndex, bytes, offset, length, vf);
+                this.wasNull = retVal == null;
+                return retVal == null ? 0 : retVal;
+        }
+    }
+
+    /**
+     * Get a long value from a byte array. See {@link #getIntFromBytes(int, byte[], int, int, PrimitiveValueFactory.OfInt)}.
+     *
+     * @param columnIndex
+     *            The (internal) index of the column
+     * @param bytes
+     *            byte array
+     * @param offset
+     *            offset into byte array
+     * @param length
+     *            length of value in byte array
+     * @param vf
+     *            value factory
+     * @return value, or 0 for SQL NULL
+     */
+    protected long getLongFromBytes(int columnIndex, byte[] bytes, int offset, int length, PrimitiveValueFactory.OfLong vf) {
+        if (getNull(columnIndex)) {
+            return 0L;
+        }
+
+        Field f = this.metadata.getFields()[columnIndex];
+        switch (getPrimitiveSource(f)) {
+            case PRIMITIVE_SOURCE_INTEGER:
+                return vf.createLongFromLong(this.valueDecoder.decodeIntegerAsLong(bytes, offset, length, false));
+            case PRIMITIVE_SOURCE_UNSIGNED_INTEGER:
+                return vf.createLongFromLong(this.valueDecoder.decodeIntegerAsLong(bytes, offset, length, true));
+            case PRIMITIVE_SOURCE_FLOATING_POINT:
+                return vf.createLongFromDouble(this.valueDecoder.decodeFloatingPointAsDouble(bytes, offset, length));
+            default:
+                Long retVal = decodeAndCreateReturnValue(columnIndex, bytes, offset, length, vf);
+                this.wasNull = retVal == null;
+                return retVal == null ? 0L : retVal;
+        }
+    }
+
+    /**
+     * Get a double value from a byte array. See {@link #getIntFromBytes(int, byte[], int, int, PrimitiveValueFactory.OfInt)}.
+     *
+     * @param columnIndex
+     *            The (internal) index of the column
+     * @param bytes
+     *            byte array
+     * @param offset
+     *            offset into byte array
+     * @param length
+     *            length of value in byte array
+     * @param vf
+     *            value factory
+     * @return value, or 0 for SQL NULL
+     */
+    protected double getDoubleFromBytes(int columnIndex, byte[] bytes, int offset, int length, PrimitiveValueFactory.OfDouble vf) {
+        if (getNull(columnIndex)) {
+            return 0d;
+        }
+
+        Field f = this.metadata.getFields()[columnIndex];
+        switch (getPrimitiveSource(f)) {
+            case PRIMITIVE_SOURCE_INTEGER:
+                return vf.createDoubleFromLong(this.valueDecoder.decodeIntegerAsLong(bytes, offset, length, false));
+            case PRIMITIVE_SOURCE_UNSIGNED_INTEGER:
+                return vf.createDoubleFromLong(this.valueDecoder.decodeIntegerAsLong(bytes, offset, length, true));
+            case PRIMITIVE_SOURCE_FLOATING_POINT:
+                return vf.createDoubleFromDouble(this.valueDecoder.decodeFloatingPointAsDouble(bytes, offset, length));
+            default:
+                Double retVal = decodeAndCreateReturnValue(columnIndex, bytes, offset, length, vf);
+                this.wasNull = retVal == null;
+                return retVal == null ? 0d : retVal;
+        }
+    }
+
+    /**
+     * Tells how the value of the given field can be decoded without boxing. The protocol value type takes precedence over MysqlType, as in
+     * {@link #decodeAndCreateReturnValue(int, byte[], int, int, ValueFactory)}. Unsigned BIGINT values may not fit in a long, so they are left to the value
+     * factory.
+     *
+     * @param f
+     *            field
+     * @return one of PRIMITIVE_SOURCE_* constants
+     */
+    private static int getPrimitiveSource(Field f) {
+        switch (f.getMysqlTypeId()) {
+            case MysqlType.FIELD_TYPE_TINY:
+            case MysqlType.FIELD_TYPE_SHORT:
+            case MysqlType.FIELD_TYPE_LONG:
+            case MysqlType.FIELD_TYPE_INT24:
+            case MysqlType.FIELD_TYPE_YEAR:
+                return f.isUnsigned() ? PRIMITIVE_SOURCE_UNSIGNED_INTEGER : PRIMITIVE_SOURCE_INTEGER;
+
+            case MysqlType.FIELD_TYPE_LONGLONG:
+                return f.isUnsigned() ? PRIMITIVE_SOURCE_NONE : PRIMITIVE_SOURCE_INTEGER;
+
+            case MysqlType.FIELD_TYPE_FLOAT:
+            case MysqlType.FIELD_TYPE_DOUBLE:
+                return PRIMITIVE_SOURCE_FLOATING_POINT;
+
+            case -1:
+                break;
+
+            default:
+                return PRIMITIVE_SOURCE_NONE;
+        }
+
+        switch (f.getMysqlType()) {
+            case TINYINT:
+            case SMALLINT:
+            case MEDIUMINT:
+            case INT:
+            case BIGINT:
+            case YEAR:
+                return PRIMITIVE_SOURCE_INTEGER;
+
+            case TINYINT_UNSIGNED:
+            case SMALLINT_UNSIGNED:
+            case MEDIUMINT_UNSIGNED:
+            case INT_UNSIGNED:
+                return PRIMITIVE_SOURCE_UNSIGNED_INTEGER;
+
+            case FLOAT:
+            case FLOAT_UNSIGNED:
+            case DOUBLE:
+            case DOUBLE_UNSIGNED:
+                return PRIMITIVE_SOURCE_FLOATING_POINT;
+
+            default:
+                return PRIMITIVE_SOURCE_NONE;
+        }
+    }
+
     @Override
     public Row setMetadata(ColumnDefinition f) {
         this.metadata = f;
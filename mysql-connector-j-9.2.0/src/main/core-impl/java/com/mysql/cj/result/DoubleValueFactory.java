@@ -32,7 +32,7 @@ import com.mysql.cj.exceptions.NumberOutOfRange;
 /**
  * A value factory for creating double values.
  */
-public class DoubleValueFactory extends AbstractNumericValueFactory<Double> {
+public class DoubleValueFactory extends AbstractNumericValueFactory<Double> implements PrimitiveValueFactory.OfDouble {
 
     public DoubleValueFactory(PropertySet pset) {
         super(pset);
@@ -49,6 +49,11 @@ public class DoubleValueFactory extends AbstractNumericValueFactory<Double> {
 
     @Override
     public Double createFromLong(long l) {
+        return createDoubleFromLong(l);
+    }
+
+    @Override
+    public double createDoubleFromLong(long l) {
         if (this.jdbcCompliantTruncationForReads && (l < -Double.MAX_VALUE || l > Double.MAX_VALUE)) {
             throw new NumberOutOfRange(Messages.getString("ResultSet.NumberOutOfRange", new Object[] { l, getTargetTypeName() }));
         }
@@ -64,8 +69,22 @@ public class DoubleValueFactory extends AbstractNumericValueFactory<Double> {
         return d.doubleValue();
     }
 
+    @Override
+    public Double createFromDecimal(long unscaledValue, int scale) {
+        // Powers of ten up to 10^22 and integers up to 2^53 are exact doubles, so one division gives the correctly rounded result.
+        if (unscaledValue >= -(1L << 53) && unscaledValue <= 1L << 53 && scale >= 0 && scale <= 22) {
+            return unscaledValue / Math.pow(10, scale);
+        }
+        return createFromBigDecimal(BigDecimal.valueOf(unscaledValue, scale));
+    }
+
     @Override
     public Double createFromDouble(double d) {
+        return createDoubleFromDouble(d);
+    }
+
+    @Override
+    public double createDoubleFromDouble(double d) {
         if (this.jdbcCompliantTruncationForReads && (d < -Double.MAX_VALUE || d > Double.MAX_VALUE)) {
             throw new NumberOutOfRange(Messages.getString("ResultSet.NumberOutOfRange", new Object[] { d, getTargetTypeName() }));
         }
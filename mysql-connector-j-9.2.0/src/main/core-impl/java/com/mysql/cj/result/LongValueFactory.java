@@ -32,7 +32,7 @@ import com.mysql.cj.util.DataTypeUtil;
 /**
  * A value factory for creating long values.
  */
-public class LongValueFactory extends AbstractNumericValueFactory<Long> {
+public class LongValueFactory extends AbstractNumericValueFactory<Long> implements PrimitiveValueFactory.OfLong {
 
     public LongValueFactory(PropertySet pset) {
         super(pset);
@@ -49,6 +49,11 @@ public class LongValueFactory extends AbstractNumericValueFactory<Long> {
 
     @Override
     public Long createFromLong(long l) {
+        return createLongFromLong(l);
+    }
+
+    @Override
+    public long createLongFromLong(long l) {
         if (this.jdbcCompliantTruncationForReads && (l < Long.MIN_VALUE || l > Long.MAX_VALUE)) {
             throw new NumberOutOfRange(Messages.getString("ResultSet.NumberOutOfRange", new Object[] { Long.valueOf(l).toString(), getTargetTypeName() }));
         }
@@ -66,6 +71,11 @@ public class LongValueFactory extends AbstractNumericValueFactory<Long> {
 
     @Override
     public Long createFromDouble(double d) {
+        return createLongFromDouble(d);
+    }
+
+    @Override
+    public long createLongFromDouble(double d) {
         if (this.jdbcCompliantTruncationForReads && (d < Long.MIN_VALUE || d > Long.MAX_VALUE)) {
             throw new NumberOutOfRange(Messages.getString("ResultSet.NumberOutOfRange", new Object[] { d, getTargetTypeName() }));
         }
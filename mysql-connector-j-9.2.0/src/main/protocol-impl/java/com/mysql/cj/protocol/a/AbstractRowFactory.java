@@ -36,9 +36,19 @@ public abstract class AbstractRowFactory implements ProtocolEntityFactory<Result
     protected RuntimeProperty<Integer> useBufferRowSizeThreshold;
     protected ExceptionInterceptor exceptionInterceptor;
     protected ValueDecoder valueDecoder;
+    protected long rowBytesRead = 0;
 
     public boolean canReuseRowPacketForBufferRow() {
         return this.canReuseRowPacketForBufferRow;
     }
 
+    /**
+     * Returns the total payload length of the row packets this factory has created rows from.
+     *
+     * @return number of bytes
+     */
+    public long getRowBytesRead() {
+        return this.rowBytesRead;
+    }
+
 }
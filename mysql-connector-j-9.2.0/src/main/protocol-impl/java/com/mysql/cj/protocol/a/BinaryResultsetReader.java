@@ -91,16 +91,27 @@ public class BinaryResultsetReader implements ProtocolEntityReader<Resultset, Na
             } else if (!streamResults) {
                 BinaryRowFactory brf = new BinaryRowFactory(this.protocol, cdef, resultSetFactory.getResultSetConcurrency(), false);
 
+                // forward-only, read-only results switch to streaming once the rows read into memory exceed this size
+                int streamingThreshold = this.protocol.getAdaptiveStreamingThreshold(resultSetFactory);
+
                 ArrayList<ResultsetRow> rowList = new ArrayList<>();
                 ResultsetRow row = this.protocol.read(ResultsetRow.class, brf);
                 while (row != null) {
                     if (maxRows == -1 || rowList.size() < maxRows) {
                         rowList.add(row);
+                        if (streamingThreshold > 0 && brf.getRowBytesRead() > streamingThreshold) {
+                            break;
+                        }
                     }
                     row = this.protocol.read(ResultsetRow.class, brf);
                 }
 
-                rows = new ResultsetRowsStatic(rowList, cdef);
+                if (row != null) {
+                    rows = new ResultsetRowsStreaming<>(this.protocol, cdef, true, resultSetFactory, rowList);
+                    this.protocol.setStreamingData(rows);
+                } else {
+                    rows = new ResultsetRowsStatic(rowList, cdef);
+                }
 
             } else {
                 rows = new ResultsetRowsStreaming<>(this.protocol, cdef, true, resultSetFactory);
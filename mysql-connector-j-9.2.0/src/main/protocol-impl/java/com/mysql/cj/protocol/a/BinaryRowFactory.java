@@ -53,6 +53,8 @@ public class BinaryRowFactory extends AbstractRowFactory implements ProtocolEnti
 
     @Override
     public ResultsetRow createFromMessage(NativePacketPayload rowPacket) {
+        this.rowBytesRead += rowPacket.getPayloadLength();
+
         // use a buffer row for reusable packets (streaming results), blobs and long strings
         // or if we're over the threshold
         boolean useBufferRow = this.canReuseRowPacketForBufferRow || this.columnDefinition.hasLargeFields()
@@ -291,4 +291,38 @@ public class MysqlBinaryValueDecoder implements ValueDecoder {
         return vf.createFromYear(asShort);
     }
 
+    @Override
+    public long decodeIntegerAsLong(byte[] bytes, int offset, int length, boolean unsigned) {
+        switch (length) {
+            case NativeConstants.BIN_LEN_INT1:
+                return unsigned ? bytes[offset] & 0xff : bytes[offset];
+            case NativeConstants.BIN_LEN_INT2:
+                int asInt = bytes[offset] & 0xff | (bytes[offset + 1] & 0xff) << 8;
+                return unsigned ? asInt : (short) asInt;
+            case NativeConstants.BIN_LEN_INT4:
+                long asLong = bytes[offset] & 0xff | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff) << 16 | (long) (bytes[offset + 3] & 0xff) << 24;
+                return unsigned ? asLong : (int) asLong;
+            case NativeConstants.BIN_LEN_INT8:
+                return bytes[offset] & 0xff | (long) (bytes[offset + 1] & 0xff) << 8 | (long) (bytes[offset + 2] & 0xff) << 16
+                        | (long) (bytes[offset + 3] & 0xff) << 24 | (long) (bytes[offset + 4] & 0xff) << 32 | (long) (bytes[offset + 5] & 0xff) << 40
+                        | (long) (bytes[offset + 6] & 0xff) << 48 | (long) (bytes[offset + 7] & 0xff) << 56;
+            default:
+                throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "INTEGER" }));
+        }
+    }
+
+    @Override
+    public double decodeFloatingPointAsDouble(byte[] bytes, int offset, int length) {
+        switch (length) {
+            case NativeConstants.BIN_LEN_FLOAT:
+                return Float.intBitsToFloat(bytes[offset] & 0xff | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff) << 16 | (bytes[offset + 3] & 0xff) << 24);
+            case NativeConstants.BIN_LEN_DOUBLE:
+                return Double.longBitsToDouble(bytes[offset] & 0xff | (long) (bytes[offset + 1] & 0xff) << 8 | (long) (bytes[offset + 2] & 0xff) << 16
+                        | (long) (bytes[offset + 3] & 0xff) << 24 | (long) (bytes[offset + 4] & 0xff) << 32 | (long) (bytes[offset + 5] & 0xff) << 40
+                        | (long) (bytes[offset + 6] & 0xff) << 48 | (long) (bytes[offset + 7] & 0xff) << 56);
+            default:
+                throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "DOUBLE" }));
+        }
+    }
+
 }
@@ -22,7 +22,6 @@ package com.mysql.cj.protocol.a;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.mysql.cj.Messages;
@@ -66,6 +65,16 @@ public class MysqlTextValueDecoder implements ValueDecoder {
     /** Max string length of a signed long = 9223372036854775807 (19+1 for minus sign) */
     public static final int MAX_SIGNED_LONG_LEN = 20;
 
+    /** Max number of decimal digits that always fit in a long. */
+    private static final int MAX_LONG_DIGITS = 18;
+    /** Integers up to this magnitude are exactly representable as doubles. */
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+    /** Powers of ten that are exactly representable as doubles. */
+    private static final double[] EXACT_DOUBLE_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+            1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    /** Factor that scales a fractional seconds value with the given number of digits to nanoseconds. */
+    private static final int[] NANOS_MULTIPLIERS = { 1000000000, 100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1 };
+
     @Override
     public <T> T decodeDate(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
         return vf.createFromDate(getDate(bytes, offset, length));
@@ -142,6 +151,38 @@ public class MysqlTextValueDecoder implements ValueDecoder {
 
     @Override
     public <T> T decodeDecimal(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        // Values with up to 18 digits are parsed straight from the buffer into an unscaled long.
+        int end = offset + length;
+        int pos = offset;
+        boolean negative = false;
+        if (pos < end && (bytes[pos] == '-' || bytes[pos] == '+')) {
+            negative = bytes[pos] == '-';
+            pos++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; pos < end; pos++) {
+            byte b = bytes[pos];
+            if (b >= '0' && b <= '9') {
+                if (++digits > MAX_LONG_DIGITS) {
+                    break;
+                }
+                unscaled = unscaled * 10 + b - '0';
+                if (fraction) {
+                    scale++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (pos == end && digits > 0) {
+            return vf.createFromDecimal(negative ? -unscaled : unscaled, scale);
+        }
+
         BigDecimal d = new BigDecimal(StringUtils.toAsciiCharArray(bytes, offset, length));
         return vf.createFromBigDecimal(d);
     }
@@ -166,6 +207,16 @@ public class MysqlTextValueDecoder implements ValueDecoder {
         return vf.createFromYear(getLong(bytes, offset, offset + length));
     }
 
+    @Override
+    public long decodeIntegerAsLong(byte[] bytes, int offset, int length, boolean unsigned) {
+        return getLong(bytes, offset, offset + length);
+    }
+
+    @Override
+    public double decodeFloatingPointAsDouble(byte[] bytes, int offset, int length) {
+        return getDouble(bytes, offset, length);
+    }
+
     public static int getInt(byte[] buf, int offset, int endpos) throws NumberFormatException {
         long l = getLong(buf, offset, endpos);
         if (l < Integer.MIN_VALUE || l > Integer.MAX_VALUE) {
@@ -254,7 +305,91 @@ public class MysqlTextValueDecoder implements ValueDecoder {
         return i;
     }
 
-    public static Double getDouble(byte[] bytes, int offset, int length) {
+    /**
+     * Parses a double from its ASCII representation. Values with up to 15 or 16 significant digits and a small exponent, which covers most values sent by the
+     * server, are computed directly from the buffer; the result is the same correctly rounded value {@link Double#parseDouble(String)} returns.
+     *
+     * @param bytes
+     *            the buffer
+     * @param offset
+     *            the offset of the value in the buffer
+     * @param length
+     *            the length of the value
+     * @return the double value
+     */
+    public static double getDouble(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        int pos = offset;
+        boolean negative = false;
+        if (pos < end && (bytes[pos] == '-' || bytes[pos] == '+')) {
+            negative = bytes[pos] == '-';
+            pos++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean sawDigit = false;
+        boolean fraction = false;
+        for (; pos < end; pos++) {
+            byte b = bytes[pos];
+            if (b >= '0' && b <= '9') {
+                sawDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    if (++significantDigits > MAX_LONG_DIGITS) {
+                        return parseDouble(bytes, offset, length);
+                    }
+                    mantissa = mantissa * 10 + b - '0';
+                }
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (!sawDigit) {
+            return parseDouble(bytes, offset, length);
+        }
+
+        if (pos < end) {
+            if (bytes[pos] != 'e' && bytes[pos] != 'E' || ++pos == end) {
+                return parseDouble(bytes, offset, length);
+            }
+            boolean negativeExponent = false;
+            if (bytes[pos] == '-' || bytes[pos] == '+') {
+                negativeExponent = bytes[pos] == '-';
+                pos++;
+            }
+            int explicitExponent = 0;
+            int exponentDigits = 0;
+            for (; pos < end; pos++) {
+                byte b = bytes[pos];
+                if (b < '0' || b > '9' || ++exponentDigits > 3) {
+                    return parseDouble(bytes, offset, length);
+                }
+                explicitExponent = explicitExponent * 10 + b - '0';
+            }
+            if (exponentDigits == 0) {
+                return parseDouble(bytes, offset, length);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        // Both operands are exact doubles, so a single multiplication or division rounds correctly.
+        if (mantissa <= MAX_EXACT_DOUBLE_INTEGER && exponent >= -22 && exponent <= 22) {
+            double value = exponent < 0 ? mantissa / EXACT_DOUBLE_POWERS_OF_TEN[-exponent] : mantissa * EXACT_DOUBLE_POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+        return parseDouble(bytes, offset, length);
+    }
+
+    private static double parseDouble(byte[] bytes, int offset, int length) {
         return Double.parseDouble(StringUtils.toAsciiString(bytes, offset, length));
     }
 
@@ -262,23 +397,87 @@ public class MysqlTextValueDecoder implements ValueDecoder {
         return s.length() == DATE_BUF_LEN && s.charAt(4) == '-' && s.charAt(7) == '-'; // TODO also check proper date parts ranges
     }
 
+    /**
+     * Checks whether the given string is a time in the format matched by {@link #TIME_PTRN}.
+     *
+     * @param s
+     *            the string
+     * @return true if the string is a time
+     */
     public static boolean isTime(String s) {
-        Matcher matcher = TIME_PTRN.matcher(s);
-        return matcher.matches();
+        int length = s.length();
+        int pos = length > 0 && s.charAt(0) == '-' ? 1 : 0;
+        int hoursEnd = pos;
+        while (hoursEnd < length && isDigit(s.charAt(hoursEnd))) {
+            hoursEnd++;
+        }
+        if (hoursEnd - pos < 2 || hoursEnd - pos > 3) {
+            return false;
+        }
+        pos = hoursEnd;
+        return length >= pos + 6 && s.charAt(pos) == ':' && isDigits(s, pos + 1, pos + 3) && s.charAt(pos + 3) == ':' && isDigits(s, pos + 4, pos + 6)
+                && isFractionOrEnd(s, pos + 6);
     }
 
+    /**
+     * Checks whether the given string is a timestamp in the format matched by {@link #DATETIME_PTRN}.
+     *
+     * @param s
+     *            the string
+     * @return true if the string is a timestamp
+     */
     public static boolean isTimestamp(String s) {
-        Matcher matcher = DATETIME_PTRN.matcher(s);
-        return matcher.matches();
+        return s.length() >= TIMESTAMP_STR_LEN_NO_FRAC && isDigits(s, 0, 4) && s.charAt(4) == '-' && isDigits(s, 5, 7) && s.charAt(7) == '-'
+                && isDigits(s, 8, 10) && s.charAt(10) == ' ' && isDigits(s, 11, 13) && s.charAt(13) == ':' && isDigits(s, 14, 16) && s.charAt(16) == ':'
+                && isDigits(s, 17, 19) && isFractionOrEnd(s, TIMESTAMP_STR_LEN_NO_FRAC);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDigits(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the string ends at the given position or continues with a '.' followed by 1 to 9 fractional second digits.
+     */
+    private static boolean isFractionOrEnd(String s, int pos) {
+        int length = s.length();
+        if (pos == length) {
+            return true;
+        }
+        return s.charAt(pos) == '.' && length - pos - 1 >= 1 && length - pos - 1 <= 9 && isDigits(s, pos + 1, length);
+    }
+
+    /**
+     * Parses a date or time field of ASCII digits at a fixed position. Anything but plain digits is left to {@link #getInt(byte[], int, int)}.
+     */
+    private static int getDigits(byte[] bytes, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return getInt(bytes, from, to);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
     }
 
     public static InternalDate getDate(byte[] bytes, int offset, int length) {
         if (length != DATE_BUF_LEN) {
             throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "DATE" }));
         }
-        int year = getInt(bytes, offset, offset + 4);
-        int month = getInt(bytes, offset + 5, offset + 7);
-        int day = getInt(bytes, offset + 8, offset + 10);
+        int year = getDigits(bytes, offset, offset + 4);
+        int month = getDigits(bytes, offset + 5, offset + 7);
+        int day = getDigits(bytes, offset + 8, offset + 10);
         return new InternalDate(year, month, day);
     }
 
@@ -306,7 +505,7 @@ public class MysqlTextValueDecoder implements ValueDecoder {
             throw new DataReadException(
                     Messages.getString("ResultSet.InvalidFormatForType", new Object[] { "TIME", StringUtils.toString(bytes, offset, length) }));
         }
-        int hours = getInt(bytes, offset + pos, offset + pos + segmentLen);
+        int hours = getDigits(bytes, offset + pos, offset + pos + segmentLen);
         if (negative) {
             hours *= -1;
         }
@@ -320,7 +519,7 @@ public class MysqlTextValueDecoder implements ValueDecoder {
             throw new DataReadException(
                     Messages.getString("ResultSet.InvalidFormatForType", new Object[] { "TIME", StringUtils.toString(bytes, offset, length) }));
         }
-        int minutes = getInt(bytes, offset + pos, offset + pos + segmentLen);
+        int minutes = getDigits(bytes, offset + pos, offset + pos + segmentLen);
         pos += segmentLen + 1;
 
         // parse seconds field
@@ -331,7 +530,7 @@ public class MysqlTextValueDecoder implements ValueDecoder {
             throw new DataReadException(
                     Messages.getString("ResultSet.InvalidFormatForType", new Object[] { StringUtils.toString(bytes, offset, length), "TIME" }));
         }
-        int seconds = getInt(bytes, offset + pos, offset + pos + segmentLen);
+        int seconds = getDigits(bytes, offset + pos, offset + pos + segmentLen);
         pos += segmentLen;
 
         // parse optional microsecond fractional value
@@ -346,10 +545,10 @@ public class MysqlTextValueDecoder implements ValueDecoder {
                 throw new DataReadException(
                         Messages.getString("ResultSet.InvalidFormatForType", new Object[] { StringUtils.toString(bytes, offset, length), "TIME" }));
             }
-            nanos = getInt(bytes, offset + pos, offset + pos + segmentLen);
+            nanos = getDigits(bytes, offset + pos, offset + pos + segmentLen);
             // scale out nanos appropriately. mysql supports up to 6 digits of fractional seconds, each additional digit increasing the range by a factor of
             // 10. one digit is tenths, two is hundreths, etc
-            nanos = nanos * (int) Math.pow(10, 9 - segmentLen);
+            nanos = nanos * NANOS_MULTIPLIERS[segmentLen];
         }
 
         return new InternalTime(hours, minutes, seconds, nanos, scale);
@@ -373,21 +572,21 @@ public class MysqlTextValueDecoder implements ValueDecoder {
                     Messages.getString("ResultSet.InvalidFormatForType", new Object[] { StringUtils.toString(bytes, offset, length), "TIMESTAMP" }));
         }
 
-        int year = getInt(bytes, offset, offset + 4);
-        int month = getInt(bytes, offset + 5, offset + 7);
-        int day = getInt(bytes, offset + 8, offset + 10);
-        int hours = getInt(bytes, offset + 11, offset + 13);
-        int minutes = getInt(bytes, offset + 14, offset + 16);
-        int seconds = getInt(bytes, offset + 17, offset + 19);
+        int year = getDigits(bytes, offset, offset + 4);
+        int month = getDigits(bytes, offset + 5, offset + 7);
+        int day = getDigits(bytes, offset + 8, offset + 10);
+        int hours = getDigits(bytes, offset + 11, offset + 13);
+        int minutes = getDigits(bytes, offset + 14, offset + 16);
+        int seconds = getDigits(bytes, offset + 17, offset + 19);
         // nanos from MySQL fractional
         int nanos;
         if (length == TIMESTAMP_STR_LEN_WITH_NANOS) {
-            nanos = getInt(bytes, offset + 20, offset + length);
+            nanos = getDigits(bytes, offset + 20, offset + length);
         } else {
-            nanos = length == TIMESTAMP_STR_LEN_NO_FRAC ? 0 : getInt(bytes, offset + 20, offset + length);
+            nanos = length == TIMESTAMP_STR_LEN_NO_FRAC ? 0 : getDigits(bytes, offset + 20, offset + length);
             // scale out nanos appropriately. mysql supports up to 6 digits of fractional seconds, each additional digit increasing the range by a factor of
             // 10. one digit is tenths, two is hundreths, etc
-            nanos = nanos * (int) Math.pow(10, 9 - (length - TIMESTAMP_STR_LEN_NO_FRAC - 1));
+            nanos = nanos * NANOS_MULTIPLIERS[length - TIMESTAMP_STR_LEN_NO_FRAC - 1];
         }
 
         return new InternalTimestamp(year, month, day, hours, minutes, seconds, nanos, scale);
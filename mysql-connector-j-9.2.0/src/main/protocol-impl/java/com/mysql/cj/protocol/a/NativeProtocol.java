@@ -69,6 +69,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 import com.mysql.cj.CharsetMapping;
@@ -151,6 +152,7 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
     protected static final int COMP_HEADER_LENGTH = 3;
     protected static final int MAX_QUERY_SIZE_TO_EXPLAIN = 1024 * 1024; // don't explain queries above 1MB
     protected static final int SSL_REQUEST_LENGTH = 32;
+    protected static final int PIPELINE_WINDOW_SIZE = 16 * 1024; // pipelined query bytes sent ahead of the responses read, well within the socket buffers
     private static final String EXPLAINABLE_STATEMENT = "SELECT";
     private static final String[] EXPLAINABLE_STATEMENT_EXTENSION = new String[] { "INSERT", "UPDATE", "REPLACE", "DELETE" };
 
@@ -1029,6 +1031,93 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         }
     }
 
+    /**
+     * Sends several COM_QUERY packets without waiting for a response in between, then reads the responses in the order the packets were sent. The server
+     * executes the queries one after another, so all of them together take a single round trip.
+     *
+     * No more than {@link #PIPELINE_WINDOW_SIZE} bytes of queries are sent ahead of the responses read. Once the next packet would exceed that, responses
+     * are read until it fits, so that the server is never blocked writing a large response while this side is blocked writing more queries to it. A packet
+     * larger than the window is sent once all previous responses have been read.
+     *
+     * All results are read into memory. Query interceptors are not invoked and data truncation warnings are not turned into exceptions, since both may need
+     * to execute other statements while responses are still pending.
+     *
+     * @param <T>
+     *            extends {@link Resultset}
+     * @param queryPackets
+     *            COM_QUERY packets, each in a buffer of its own
+     * @param maxRows
+     *            rows limit
+     * @param resultSetFactory
+     *            {@link ProtocolEntityFactory}
+     * @param resultHandler
+     *            called for each query, in order, with either its results or the error the server returned for it
+     */
+    public <T extends Resultset> void sendPipelinedQueryPackets(List<NativePacketPayload> queryPackets, int maxRows,
+            ProtocolEntityFactory<T, NativePacketPayload> resultSetFactory, BiConsumer<T, CJException> resultHandler) {
+        checkForOutstandingStreamingData();
+
+        try {
+            if (this.useCompression) {
+                int bytesLeft = this.socketConnection.getMysqlInput().available();
+
+                if (bytesLeft > 0) {
+                    this.socketConnection.getMysqlInput().skip(bytesLeft);
+                }
+            }
+            clearInputStream();
+        } catch (IOException ioEx) {
+            throw ExceptionFactory.createCommunicationsException(this.propertySet, this.serverSession, getPacketSentTimeHolder(), getPacketReceivedTimeHolder(),
+                    ioEx, getExceptionInterceptor());
+        }
+
+        int sent = 0;
+        long bytesInFlight = 0;
+        try {
+            for (int read = 0; read < queryPackets.size(); read++) {
+                while (sent < queryPackets.size()) {
+                    NativePacketPayload queryPacket = queryPackets.get(sent);
+                    if (sent > read && bytesInFlight + queryPacket.getPosition() > PIPELINE_WINDOW_SIZE) {
+                        break;
+                    }
+                    this.commandCount++;
+                    this.packetSequence = -1;
+                    send(queryPacket, queryPacket.getPosition());
+                    bytesInFlight += queryPacket.getPosition();
+                    this.pipelinedResponsesPending++;
+                    sent++;
+                }
+
+                this.serverSession.setStatusFlags(0, true);
+                this.hadWarnings = false;
+                setWarningCount(0);
+                this.packetReader.resetMessageSequence();
+
+                T results = null;
+                CJException error = null;
+                try {
+                    NativePacketPayload resultPacket = checkErrorMessage(NativeConstants.COM_QUERY);
+                    results = readAllResults(maxRows, false, resultPacket, false, null, resultSetFactory);
+                } catch (CJCommunicationsException ex) {
+                    throw ex;
+                } catch (CJException ex) {
+                    // the server reported an error for this query only, the responses to the following ones are still coming
+                    this.serverSession.preserveOldTransactionState();
+                    error = ex;
+                }
+                bytesInFlight -= queryPackets.get(read).getPosition();
+                this.pipelinedResponsesPending--;
+                resultHandler.accept(results, error);
+            }
+        } catch (IOException ioEx) {
+            this.serverSession.preserveOldTransactionState();
+            throw ExceptionFactory.createCommunicationsException(this.propertySet, this.serverSession, getPacketSentTimeHolder(), getPacketReceivedTimeHolder(),
+                    ioEx, getExceptionInterceptor());
+        } finally {
+            this.pipelinedResponsesPending = 0;
+        }
+    }
+
     public <T extends Resultset> T invokeQueryInterceptorsPre(Supplier<String> sql, Query interceptedQuery, boolean forceExecute) {
         T previousResultSet = null;
 
@@ -1622,13 +1711,16 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
 
         if (this.serverSession.hasMoreResults()) {
             T currentResultSet = topLevelResultSet;
-            if (streamResults) {
+            // the readers switch to streaming by themselves when a result exceeds 'adaptiveStreamingThreshold'
+            if (streamResults || this.streamingData != null) {
                 currentResultSet = readNextResultset(currentResultSet, maxRows, true, isBinaryEncoded, resultSetFactory);
             } else {
-                while (this.serverSession.hasMoreResults()) {
+                while (this.serverSession.hasMoreResults() && this.streamingData == null) {
                     currentResultSet = readNextResultset(currentResultSet, maxRows, false, isBinaryEncoded, resultSetFactory);
                 }
-                clearInputStream();
+                if (this.streamingData == null && this.pipelinedResponsesPending == 0) {
+                    clearInputStream();
+                }
             }
         }
 
@@ -1864,6 +1956,7 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
     }
 
     private ResultsetRows streamingData = null;
+    private int pipelinedResponsesPending = 0;
 
     public ResultsetRows getStreamingData() {
         return this.streamingData;
@@ -1888,6 +1981,22 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         }
     }
 
+    /**
+     * Returns the size above which a result set that is being read into memory is switched to streaming, see the 'adaptiveStreamingThreshold' connection
+     * property. Only forward-only, read-only result sets are switched, and never while responses to pipelined queries are being read.
+     *
+     * @param resultSetFactory
+     *            the {@link ProtocolEntityFactory} the result set is created with
+     * @return the threshold in bytes, or 0 if the result set must be read into memory
+     */
+    public int getAdaptiveStreamingThreshold(ProtocolEntityFactory<?, NativePacketPayload> resultSetFactory) {
+        if (this.pipelinedResponsesPending > 0 || resultSetFactory.getResultSetType() != Type.FORWARD_ONLY
+                || resultSetFactory.getResultSetConcurrency() != Concurrency.READ_ONLY) {
+            return 0;
+        }
+        return this.propertySet.getMemorySizeProperty(PropertyKey.adaptiveStreamingThreshold).getValue();
+    }
+
     public void unsetStreamingData(ResultsetRows streamer) {
         if (this.streamingData == null) {
             throw ExceptionFactory.createException(Messages.getString("MysqlIO.17") + streamer + Messages.getString("MysqlIO.18"), this.exceptionInterceptor);
@@ -1900,7 +2009,7 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
     }
 
     public void scanForAndThrowDataTruncation() {
-        if (this.streamingData == null && this.propertySet.getBooleanProperty(PropertyKey.jdbcCompliantTruncation).getValue() && getWarningCount() > 0) {
+        if (this.streamingData == null && this.pipelinedResponsesPending == 0 && this.propertySet.getBooleanProperty(PropertyKey.jdbcCompliantTruncation).getValue() && getWarningCount() > 0) {
             int warningCountOld = getWarningCount();
             convertShowWarningsToSQLWarnings(true);
             setWarningCount(warningCountOld);
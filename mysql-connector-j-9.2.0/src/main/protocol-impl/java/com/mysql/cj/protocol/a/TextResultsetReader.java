@@ -28,6 +28,7 @@ import com.mysql.cj.protocol.ColumnDefinition;
 import com.mysql.cj.protocol.ProtocolEntityFactory;
 import com.mysql.cj.protocol.ProtocolEntityReader;
 import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.Resultset.Concurrency;
 import com.mysql.cj.protocol.ResultsetRow;
 import com.mysql.cj.protocol.ResultsetRows;
 import com.mysql.cj.protocol.a.NativeConstants.IntegerDataType;
@@ -35,6 +36,7 @@ import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
 import com.mysql.cj.protocol.a.result.OkPacket;
 import com.mysql.cj.protocol.a.result.ResultsetRowsStatic;
 import com.mysql.cj.protocol.a.result.ResultsetRowsStreaming;
+import com.mysql.cj.protocol.a.result.TextRowArena;
 
 public class TextResultsetReader implements ProtocolEntityReader<Resultset, NativePacketPayload> {
 
@@ -65,7 +67,30 @@ public class TextResultsetReader implements ProtocolEntityReader<Resultset, Nati
 
             ResultsetRows rows = null;
 
-            if (!streamResults) {
+            // forward-only, read-only results switch to streaming once the rows read into memory exceed this size
+            int streamingThreshold = streamResults ? 0 : this.protocol.getAdaptiveStreamingThreshold(resultSetFactory);
+
+            if (!streamResults && resultSetFactory.getResultSetConcurrency() == Concurrency.READ_ONLY
+                    && this.protocol.getPropertySet().getBooleanProperty(PropertyKey.useCompactRowStorage).getValue()) {
+                TextRowArena rowArena = new TextRowArena(maxRows, cdef, this.protocol.getExceptionInterceptor());
+                TextRowFactory trf = new TextRowFactory(this.protocol, cdef, rowArena);
+                boolean rowsRemaining = false;
+                while (this.protocol.read(ResultsetRow.class, trf) != null) {
+                    // rows are appended to the arena by the factory
+                    if (streamingThreshold > 0 && trf.getRowBytesRead() > streamingThreshold && (maxRows == -1 || rowArena.size() < maxRows)) {
+                        rowsRemaining = true;
+                        break;
+                    }
+                }
+
+                if (rowsRemaining) {
+                    rows = new ResultsetRowsStreaming<>(this.protocol, cdef, false, resultSetFactory, rowArena);
+                    this.protocol.setStreamingData(rows);
+                } else {
+                    rows = new ResultsetRowsStatic(rowArena, cdef);
+                }
+
+            } else if (!streamResults) {
                 TextRowFactory trf = new TextRowFactory(this.protocol, cdef, resultSetFactory.getResultSetConcurrency(), false);
                 ArrayList<ResultsetRow> rowList = new ArrayList<>();
 
@@ -73,11 +98,19 @@ public class TextResultsetReader implements ProtocolEntityReader<Resultset, Nati
                 while (row != null) {
                     if (maxRows == -1 || rowList.size() < maxRows) {
                         rowList.add(row);
+                        if (streamingThreshold > 0 && trf.getRowBytesRead() > streamingThreshold) {
+                            break;
+                        }
                     }
                     row = this.protocol.read(ResultsetRow.class, trf);
                 }
 
-                rows = new ResultsetRowsStatic(rowList, cdef);
+                if (row != null) {
+                    rows = new ResultsetRowsStreaming<>(this.protocol, cdef, false, resultSetFactory, rowList);
+                    this.protocol.setStreamingData(rows);
+                } else {
+                    rows = new ResultsetRowsStatic(rowList, cdef);
+                }
 
             } else {
                 rows = new ResultsetRowsStreaming<>(this.protocol, cdef, false, resultSetFactory);
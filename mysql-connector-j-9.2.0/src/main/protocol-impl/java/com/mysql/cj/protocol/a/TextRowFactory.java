@@ -29,9 +29,12 @@ import com.mysql.cj.protocol.ResultsetRow;
 import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
 import com.mysql.cj.protocol.a.result.ByteArrayRow;
 import com.mysql.cj.protocol.a.result.TextBufferRow;
+import com.mysql.cj.protocol.a.result.TextRowArena;
 
 public class TextRowFactory extends AbstractRowFactory implements ProtocolEntityFactory<ResultsetRow, NativePacketPayload> {
 
+    private TextRowArena rowArena = null;
+
     public TextRowFactory(NativeProtocol protocol, ColumnDefinition colDefinition, Resultset.Concurrency resultSetConcurrency,
             boolean canReuseRowPacketForBufferRow) {
         this.columnDefinition = colDefinition;
@@ -42,8 +45,30 @@ public class TextRowFactory extends AbstractRowFactory implements ProtocolEntity
         this.valueDecoder = new MysqlTextValueDecoder();
     }
 
+    /**
+     * Creates a factory that stores rows in the given arena. Row packets are read into the reusable packet and copied to the arena, and the returned rows are
+     * the arena's shared row view.
+     *
+     * @param protocol
+     *            {@link NativeProtocol}
+     * @param colDefinition
+     *            {@link ColumnDefinition}
+     * @param rowArena
+     *            {@link TextRowArena} to append rows to
+     */
+    public TextRowFactory(NativeProtocol protocol, ColumnDefinition colDefinition, TextRowArena rowArena) {
+        this(protocol, colDefinition, Concurrency.READ_ONLY, true);
+        this.rowArena = rowArena;
+    }
+
     @Override
     public ResultsetRow createFromMessage(NativePacketPayload rowPacket) {
+        this.rowBytesRead += rowPacket.getPayloadLength();
+
+        if (this.rowArena != null) {
+            return this.rowArena.append(rowPacket);
+        }
+
         // use a buffer row for reusable packets (streaming results), blobs and long strings
         // or if we're over the threshold
         boolean useBufferRow = this.canReuseRowPacketForBufferRow || this.columnDefinition.hasLargeFields()
@@ -32,6 +32,7 @@ import com.mysql.cj.protocol.a.NativeConstants.StringLengthDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
 import com.mysql.cj.protocol.a.NativePacketPayload;
 import com.mysql.cj.protocol.a.NativeUtils;
+import com.mysql.cj.result.PrimitiveValueFactory;
 import com.mysql.cj.result.Row;
 import com.mysql.cj.result.ValueFactory;
 
@@ -219,6 +220,36 @@ public class BinaryBufferRow extends AbstractBufferRow {
      */
     @Override
     public <T> T getValue(int columnIndex, ValueFactory<T> vf) {
+        int length = seekToValue(columnIndex);
+        return getValueFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
+    }
+
+    @Override
+    public int getInt(int columnIndex, PrimitiveValueFactory.OfInt vf) {
+        int length = seekToValue(columnIndex);
+        return getIntFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
+    }
+
+    @Override
+    public long getLong(int columnIndex, PrimitiveValueFactory.OfLong vf) {
+        int length = seekToValue(columnIndex);
+        return getLongFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
+    }
+
+    @Override
+    public double getDouble(int columnIndex, PrimitiveValueFactory.OfDouble vf) {
+        int length = seekToValue(columnIndex);
+        return getDoubleFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
+    }
+
+    /**
+     * Positions the buffer at the value of the given column.
+     *
+     * @param columnIndex
+     *            column index
+     * @return the length of the value
+     */
+    private int seekToValue(int columnIndex) {
         findAndSeekToOffset(columnIndex);
 
         // field length is type-specific in binary-encoded results
@@ -232,7 +263,7 @@ public class BinaryBufferRow extends AbstractBufferRow {
                         Messages.getString("MysqlIO.97", new Object[] { type, columnIndex + 1, this.metadata.getFields().length }), this.exceptionInterceptor);
             }
         }
-        return getValueFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
+        return length;
     }
 
     @Override
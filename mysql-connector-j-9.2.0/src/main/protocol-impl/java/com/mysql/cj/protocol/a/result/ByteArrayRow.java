@@ -25,6 +25,7 @@ import com.mysql.cj.protocol.ValueDecoder;
 import com.mysql.cj.protocol.a.MysqlBinaryValueDecoder;
 import com.mysql.cj.protocol.a.MysqlTextValueDecoder;
 import com.mysql.cj.protocol.result.AbstractResultsetRow;
+import com.mysql.cj.result.PrimitiveValueFactory;
 import com.mysql.cj.result.ValueFactory;
 
 /**
@@ -82,4 +83,25 @@ public class ByteArrayRow extends AbstractResultsetRow {
         return getValueFromBytes(columnIndex, columnData, 0, length, vf);
     }
 
+    @Override
+    public int getInt(int columnIndex, PrimitiveValueFactory.OfInt vf) {
+        byte[] columnData = this.internalRowData[columnIndex];
+        int length = columnData == null ? 0 : columnData.length;
+        return getIntFromBytes(columnIndex, columnData, 0, length, vf);
+    }
+
+    @Override
+    public long getLong(int columnIndex, PrimitiveValueFactory.OfLong vf) {
+        byte[] columnData = this.internalRowData[columnIndex];
+        int length = columnData == null ? 0 : columnData.length;
+        return getLongFromBytes(columnIndex, columnData, 0, length, vf);
+    }
+
+    @Override
+    public double getDouble(int columnIndex, PrimitiveValueFactory.OfDouble vf) {
+        byte[] columnData = this.internalRowData[columnIndex];
+        int length = columnData == null ? 0 : columnData.length;
+        return getDoubleFromBytes(columnIndex, columnData, 0, length, vf);
+    }
+
 }
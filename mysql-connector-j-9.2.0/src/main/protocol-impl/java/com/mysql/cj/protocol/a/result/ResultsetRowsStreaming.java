@@ -20,6 +20,7 @@
 
 package com.mysql.cj.protocol.a.result;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -51,7 +52,8 @@ import com.mysql.cj.util.Util;
 
 /**
  * Provides streaming of Resultset rows. Each next row is consumed from the input stream only on {@link #next()} call. Consumed rows are not cached thus result
- * sets are streamed only when they are forward-only, read-only and the fetch size has been set to Integer.MIN_VALUE (rows are read one by one).
+ * sets are streamed only when they are forward-only, read-only and the fetch size has been set to Integer.MIN_VALUE (rows are read one by one), or when
+ * reading them into memory exceeded the 'adaptiveStreamingThreshold' connection property. In the latter case the rows read so far are returned first.
  *
  * @param <T>
  *            ProtocolEntity type
@@ -65,11 +67,14 @@ public class ResultsetRowsStreaming<T extends ProtocolEntity> extends AbstractRe
     private final Lock lock = new ReentrantLock();
 
     private Row nextRow;
+    private List<? extends Row> bufferedRows = null;
+    private int bufferedRowIndex = 0;
 
     private boolean isAfterEnd = false;
     private boolean noMoreRows = false;
     private boolean isBinaryEncoded = false;
     private boolean streamerClosed = false;
+    private boolean resetNetWriteTimeout = true;
 
     private ExceptionInterceptor exceptionInterceptor;
 
@@ -97,6 +102,29 @@ public class ResultsetRowsStreaming<T extends ProtocolEntity> extends AbstractRe
         this.commandBuilder = new NativeMessageBuilder(this.protocol.getServerSession().supportsQueryAttributes());
     }
 
+    /**
+     * Creates a new ResultsetRowsStreaming object that continues a result set which was being read into memory. The given rows are returned first, then the
+     * remaining rows are streamed from the input stream.
+     *
+     * @param protocol
+     *            the connection to MySQL that this data is coming from
+     * @param columnDefinition
+     *            the metadata that describe this data
+     * @param isBinaryEncoded
+     *            is this data in native format?
+     * @param resultSetFactory
+     *            {@link ProtocolEntityFactory}
+     * @param bufferedRows
+     *            rows already read from the input stream
+     */
+    public ResultsetRowsStreaming(NativeProtocol protocol, ColumnDefinition columnDefinition, boolean isBinaryEncoded,
+            ProtocolEntityFactory<T, NativePacketPayload> resultSetFactory, List<? extends Row> bufferedRows) {
+        this(protocol, columnDefinition, isBinaryEncoded, resultSetFactory);
+        this.bufferedRows = bufferedRows;
+        // net_write_timeout was not raised, the statement did not expect to stream
+        this.resetNetWriteTimeout = false;
+    }
+
     @Override
     public void close() {
         boolean hadMore = false;
@@ -114,7 +142,7 @@ public class ResultsetRowsStreaming<T extends ProtocolEntity> extends AbstractRe
                 }
             }
 
-            if (this.protocol.getPropertySet().getIntegerProperty(PropertyKey.netTimeoutForStreamingResults).getValue() > 0) {
+            if (this.resetNetWriteTimeout && this.protocol.getPropertySet().getIntegerProperty(PropertyKey.netTimeoutForStreamingResults).getValue() > 0) {
                 Session session = this.owner.getSession();
                 TelemetrySpan span = session.getTelemetryHandler().startSpan(TelemetrySpanName.SET_VARIABLE, "net_write_timeout");
                 try (TelemetryScope scope = span.makeCurrent()) {
@@ -202,6 +230,15 @@ public class ResultsetRowsStreaming<T extends ProtocolEntity> extends AbstractRe
     @Override
     public Row next() {
         try {
+            if (this.bufferedRows != null) {
+                if (this.bufferedRowIndex < this.bufferedRows.size()) {
+                    this.nextRow = this.bufferedRows.get(this.bufferedRowIndex++);
+                    this.currentPositionInFetchedRows++;
+                    return this.nextRow;
+                }
+                this.bufferedRows = null;
+            }
+
             if (!this.noMoreRows) {
                 this.nextRow = this.protocol.read(ResultsetRow.class, this.rowFactory);
 
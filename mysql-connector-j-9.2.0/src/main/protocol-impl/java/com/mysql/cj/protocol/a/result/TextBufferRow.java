@@ -26,6 +26,7 @@ import com.mysql.cj.protocol.ValueDecoder;
 import com.mysql.cj.protocol.a.NativeConstants.IntegerDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
 import com.mysql.cj.protocol.a.NativePacketPayload;
+import com.mysql.cj.result.PrimitiveValueFactory;
 import com.mysql.cj.result.Row;
 import com.mysql.cj.result.ValueFactory;
 
@@ -49,6 +50,21 @@ public class TextBufferRow extends AbstractBufferRow {
         }
     }
 
+    /**
+     * Moves this row to another row packet, so that one instance can be used to read many rows.
+     *
+     * @param buf
+     *            buffer holding the row
+     * @param position
+     *            position of the first column value in the buffer
+     */
+    void setRowPosition(NativePacketPayload buf, int position) {
+        this.rowFromServer = buf;
+        this.homePosition = position;
+        this.lastRequestedIndex = -1;
+        this.lastRequestedPos = position;
+    }
+
     @Override
     protected int findAndSeekToOffset(int index) {
         if (index == 0) {
@@ -117,9 +133,38 @@ public class TextBufferRow extends AbstractBufferRow {
      */
     @Override
     public <T> T getValue(int columnIndex, ValueFactory<T> vf) {
-        findAndSeekToOffset(columnIndex);
-        int length = (int) this.rowFromServer.readInteger(IntegerDataType.INT_LENENC);
+        int length = seekToValue(columnIndex);
         return getValueFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
     }
 
+    @Override
+    public int getInt(int columnIndex, PrimitiveValueFactory.OfInt vf) {
+        int length = seekToValue(columnIndex);
+        return getIntFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
+    }
+
+    @Override
+    public long getLong(int columnIndex, PrimitiveValueFactory.OfLong vf) {
+        int length = seekToValue(columnIndex);
+        return getLongFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
+    }
+
+    @Override
+    public double getDouble(int columnIndex, PrimitiveValueFactory.OfDouble vf) {
+        int length = seekToValue(columnIndex);
+        return getDoubleFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
+    }
+
+    /**
+     * Positions the buffer at the value of the given column.
+     *
+     * @param columnIndex
+     *            column index
+     * @return the length of the value
+     */
+    private int seekToValue(int columnIndex) {
+        findAndSeekToOffset(columnIndex);
+        return (int) this.rowFromServer.readInteger(IntegerDataType.INT_LENENC);
+    }
+
 }
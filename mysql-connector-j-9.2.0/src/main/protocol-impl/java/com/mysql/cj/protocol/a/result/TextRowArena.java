@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol.a.result;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import com.mysql.cj.exceptions.ExceptionInterceptor;
+import com.mysql.cj.protocol.ColumnDefinition;
+import com.mysql.cj.protocol.ResultsetRow;
+import com.mysql.cj.protocol.a.MysqlTextValueDecoder;
+import com.mysql.cj.protocol.a.NativePacketPayload;
+import com.mysql.cj.result.Row;
+
+/**
+ * Compact storage of text protocol rows for {@link ResultsetRowsStatic}.
+ *
+ * Row packets are copied one after another into large byte arrays ("slabs"), and an int array keeps the offset of each row. Rows are read through a single
+ * {@link TextBufferRow} that is moved over the slabs, so reading all rows of a result set allocates a handful of arrays instead of a row object and one byte
+ * array per column for every row. As a consequence, a row returned by {@link #get(int)} is only valid until the next call to it.
+ *
+ * A slab grows by doubling until it reaches the maximum array size; after that, a new slab is started. Rows never span slabs.
+ */
+public class TextRowArena extends AbstractList<Row> implements RandomAccess {
+
+    private static final int INITIAL_SLAB_SIZE = 8192;
+    private static final int MAX_SLAB_SIZE = Integer.MAX_VALUE - 8;
+
+    private final int maxRows;
+    private final ColumnDefinition columnDefinition;
+    private final ExceptionInterceptor exceptionInterceptor;
+
+    private byte[][] slabs = new byte[1][];
+    /** Index of the first row stored in each slab */
+    private int[] slabFirstRows = new int[1];
+    private int slabCount = 0;
+    private int slabUsed = 0;
+
+    private int[] rowOffsets = new int[64];
+    private int size = 0;
+
+    private TextBufferRow view = null;
+    private NativePacketPayload viewPayload = null;
+
+    /**
+     * Creates an empty arena.
+     *
+     * @param maxRows
+     *            the maximum number of rows to store, further appended rows are dropped; -1 for no limit
+     * @param columnDefinition
+     *            {@link ColumnDefinition} of the result set
+     * @param exceptionInterceptor
+     *            {@link ExceptionInterceptor}
+     */
+    public TextRowArena(int maxRows, ColumnDefinition columnDefinition, ExceptionInterceptor exceptionInterceptor) {
+        this.maxRows = maxRows;
+        this.columnDefinition = columnDefinition;
+        this.exceptionInterceptor = exceptionInterceptor;
+    }
+
+    /**
+     * Copies the remaining bytes of a row packet into the arena. The packet may be reused once this method returns.
+     *
+     * @param rowPacket
+     *            row packet positioned at the first column value
+     * @return the shared row view, positioned at the appended row unless the row was dropped because of the rows limit
+     */
+    public ResultsetRow append(NativePacketPayload rowPacket) {
+        if (this.maxRows != -1 && this.size >= this.maxRows) {
+            return this.size > 0 ? get(this.size - 1) : getView(new NativePacketPayload(0));
+        }
+
+        int offset = rowPacket.getPosition();
+        int length = rowPacket.getPayloadLength() - offset;
+        ensureSlabCapacity(length);
+
+        byte[] slab = this.slabs[this.slabCount - 1];
+        System.arraycopy(rowPacket.getByteBuffer(), offset, slab, this.slabUsed, length);
+
+        if (this.size == this.rowOffsets.length) {
+            this.rowOffsets = Arrays.copyOf(this.rowOffsets, this.size * 2);
+        }
+        this.rowOffsets[this.size++] = this.slabUsed;
+        this.slabUsed += length;
+        return get(this.size - 1);
+    }
+
+    private void ensureSlabCapacity(int length) {
+        if (this.slabCount > 0) {
+            byte[] slab = this.slabs[this.slabCount - 1];
+            int required = this.slabUsed + length;
+            if (required <= slab.length) {
+                return;
+            }
+            if (required > 0 && required <= MAX_SLAB_SIZE) {
+                int newLength = (int) Math.min(MAX_SLAB_SIZE, Math.max(required, 2L * slab.length));
+                this.slabs[this.slabCount - 1] = Arrays.copyOf(slab, newLength);
+                return;
+            }
+        }
+
+        // start a new slab
+        if (this.slabCount == this.slabs.length) {
+            this.slabs = Arrays.copyOf(this.slabs, this.slabCount * 2);
+            this.slabFirstRows = Arrays.copyOf(this.slabFirstRows, this.slabCount * 2);
+        }
+        this.slabs[this.slabCount] = new byte[Math.max(INITIAL_SLAB_SIZE, length)];
+        this.slabFirstRows[this.slabCount] = this.size;
+        this.slabCount++;
+        this.slabUsed = 0;
+    }
+
+    /**
+     * Returns the row at the given index. The returned object is shared by all rows of this arena and is moved to the requested row by each call.
+     *
+     * @param index
+     *            row index
+     * @return {@link Row}
+     */
+    @Override
+    public ResultsetRow get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+
+        int slabIndex = 0;
+        if (this.slabCount > 1) {
+            slabIndex = Arrays.binarySearch(this.slabFirstRows, 0, this.slabCount, index);
+            if (slabIndex < 0) {
+                slabIndex = -slabIndex - 2;
+            }
+        }
+
+        byte[] slab = this.slabs[slabIndex];
+        if (this.viewPayload == null || this.viewPayload.getByteBuffer() != slab) {
+            this.viewPayload = new NativePacketPayload(slab);
+        }
+        TextBufferRow row = getView(this.viewPayload);
+        row.setRowPosition(this.viewPayload, this.rowOffsets[index]);
+        return row;
+    }
+
+    private TextBufferRow getView(NativePacketPayload payload) {
+        if (this.view == null) {
+            this.view = new TextBufferRow(payload, this.columnDefinition, this.exceptionInterceptor, new MysqlTextValueDecoder());
+        }
+        return this.view;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+}
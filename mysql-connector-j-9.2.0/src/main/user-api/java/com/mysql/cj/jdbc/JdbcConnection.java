@@ -400,6 +400,15 @@ public interface JdbcConnection extends java.sql.Connection, MysqlConnection, Tr
      */
     void setSessionMaxRows(int max) throws SQLException;
 
+    /**
+     * Creates a pipeline that executes independent statements over this connection in a single round trip.
+     *
+     * @return a new {@link QueryPipeline}
+     * @throws SQLException
+     *             if the connection is closed
+     */
+    QueryPipeline pipeline() throws SQLException;
+
     // **************************
     // moved from MysqlJdbcConnection
     // **************************
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Queues independent statements and executes them over one connection in a single round trip. The statements are sent to the server one after another
+ * without waiting for their responses, and the responses are then read in the same order. Unlike a multi-statement query it does not require
+ * 'allowMultiQueries', and an error in one statement fails only that statement's future.
+ *
+ * All result sets are read into memory. LOAD DATA statements and server-side prepared statements cannot be pipelined. Query interceptors are not invoked
+ * for pipelined statements, and data truncation warnings are not turned into exceptions. As with statements executed on their own, JDBC escape sequences
+ * are processed unless 'enableEscapeProcessing' is disabled, and statements that may modify data are rejected while the connection is read-only.
+ */
+public interface QueryPipeline extends AutoCloseable {
+
+    /**
+     * Queues a statement that produces a result set.
+     *
+     * @param sql
+     *            the SQL statement
+     * @return a future that completes with the result set when {@link #execute()} reads the statement's response
+     * @throws SQLException
+     *             if the pipeline is closed or the statement cannot be pipelined
+     */
+    CompletableFuture<ResultSet> addQuery(String sql) throws SQLException;
+
+    /**
+     * Queues a statement that does not produce a result set.
+     *
+     * @param sql
+     *            the SQL statement
+     * @return a future that completes with the update count when {@link #execute()} reads the statement's response
+     * @throws SQLException
+     *             if the pipeline is closed or the statement cannot be pipelined
+     */
+    CompletableFuture<Long> addUpdate(String sql) throws SQLException;
+
+    /**
+     * Queues a client-side prepared statement that produces a result set. The parameter values are taken when this method is called, so the statement can
+     * be reused for further queries.
+     *
+     * @param pstmt
+     *            a prepared statement created by the connection of this pipeline
+     * @return a future that completes with the result set when {@link #execute()} reads the statement's response
+     * @throws SQLException
+     *             if the pipeline is closed, a parameter is not set or the statement cannot be pipelined
+     */
+    CompletableFuture<ResultSet> addQuery(PreparedStatement pstmt) throws SQLException;
+
+    /**
+     * Queues a client-side prepared statement that does not produce a result set. The parameter values are taken when this method is called, so the
+     * statement can be reused for further updates.
+     *
+     * @param pstmt
+     *            a prepared statement created by the connection of this pipeline
+     * @return a future that completes with the update count when {@link #execute()} reads the statement's response
+     * @throws SQLException
+     *             if the pipeline is closed, a parameter is not set or the statement cannot be pipelined
+     */
+    CompletableFuture<Long> addUpdate(PreparedStatement pstmt) throws SQLException;
+
+    /**
+     * Sends all queued statements and reads their responses. The futures are completed once all responses have been read, so their callbacks may use the
+     * connection, and all of them are done when this method returns. The pipeline is empty afterwards and can be reused.
+     *
+     * @return the futures of the executed statements, in the order they were queued
+     * @throws SQLException
+     *             if the pipeline is closed or the connection failed; the futures not completed yet are then failed with the same exception
+     */
+    List<CompletableFuture<?>> execute() throws SQLException;
+
+    /**
+     * Discards the statements that have not been executed, failing their futures, and releases the pipeline. Result sets already returned stay open.
+     *
+     * @throws SQLException
+     *             if an error occurs
+     */
+    @Override
+    void close() throws SQLException;
+
+}
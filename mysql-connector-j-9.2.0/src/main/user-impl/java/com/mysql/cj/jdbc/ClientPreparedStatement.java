@@ -58,6 +58,7 @@ import com.mysql.cj.Query;
 import com.mysql.cj.QueryBindings;
 import com.mysql.cj.QueryInfo;
 import com.mysql.cj.QueryReturnType;
+import com.mysql.cj.SharedQueryInfoCache;
 import com.mysql.cj.conf.PropertyKey;
 import com.mysql.cj.exceptions.CJException;
 import com.mysql.cj.exceptions.FeatureNotAvailableException;
@@ -211,7 +212,7 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
         try {
             ((PreparedQuery) this.query).checkNullOrEmptyQuery(sql);
             ((PreparedQuery) this.query).setOriginalSql(sql);
-            ((PreparedQuery) this.query).setQueryInfo(cachedQueryInfo != null ? cachedQueryInfo : new QueryInfo(sql, this.session, this.charEncoding));
+            ((PreparedQuery) this.query).setQueryInfo(cachedQueryInfo != null ? cachedQueryInfo : createQueryInfo(sql));
         } catch (CJException e) {
             throw SQLExceptionsMapping.translateException(e, this.exceptionInterceptor);
         }
@@ -1357,6 +1358,20 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
         return ((PreparedQuery) this.query).getQueryInfo();
     }
 
+    /**
+     * Parses the given query, or takes its {@link QueryInfo} from the JVM-wide cache if {@link PropertyKey#useSharedQueryInfoCache} is enabled.
+     *
+     * @param sql
+     *            the query SQL string
+     * @return the {@link QueryInfo}
+     */
+    protected QueryInfo createQueryInfo(String sql) {
+        if (this.session.getPropertySet().getBooleanProperty(PropertyKey.useSharedQueryInfoCache).getValue()) {
+            return SharedQueryInfoCache.getInstance().getQueryInfo(sql, this.session, this.charEncoding);
+        }
+        return new QueryInfo(sql, this.session, this.charEncoding);
+    }
+
     private void initializeFromQueryInfo() throws SQLException {
         Lock connectionLock = checkClosed().getConnectionLock();
         connectionLock.lock();
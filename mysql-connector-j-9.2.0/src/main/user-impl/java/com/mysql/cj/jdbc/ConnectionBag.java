@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A concurrent bag of pooled entries that can be borrowed and returned without taking a lock.
+ *
+ * Each entry carries its own state, and borrowing an entry is a single compare-and-set of that state. A thread first looks at the entries it returned
+ * itself, most recent first, so a thread that keeps borrowing and returning a connection keeps getting the same one without touching any shared structure.
+ * Otherwise it scans the shared list of entries. A thread that finds no idle entry waits on a hand-off queue, to which returning threads give their entry
+ * directly while there are waiters.
+ *
+ * @param <T>
+ *            the type of the entries in the bag
+ */
+class ConnectionBag<T extends ConnectionBag.Entry> {
+
+    static final int STATE_IDLE = 0;
+    static final int STATE_IN_USE = 1;
+    static final int STATE_RESERVED = -1;
+    static final int STATE_REMOVED = -2;
+
+    /** Maximum number of entries remembered per thread. */
+    private static final int MAX_THREAD_LOCAL_ENTRIES = 16;
+
+    /**
+     * An entry of the bag. Subclasses hold the pooled object.
+     */
+    abstract static class Entry {
+
+        private static final AtomicIntegerFieldUpdater<Entry> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+
+        private volatile int state = STATE_IDLE;
+
+        int getState() {
+            return this.state;
+        }
+
+        boolean compareAndSetState(int expect, int update) {
+            return STATE_UPDATER.compareAndSet(this, expect, update);
+        }
+
+        void setState(int update) {
+            this.state = update;
+        }
+
+    }
+
+    private final CopyOnWriteArrayList<T> sharedList = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<List<WeakReference<T>>> threadLocalList = ThreadLocal.withInitial(() -> new ArrayList<>(MAX_THREAD_LOCAL_ENTRIES));
+    private final SynchronousQueue<T> handoffQueue = new SynchronousQueue<>(true);
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    private final LongAdder threadLocalBorrows = new LongAdder();
+    private final LongAdder sharedBorrows = new LongAdder();
+    private final LongAdder handoffBorrows = new LongAdder();
+
+    /**
+     * Borrows an idle entry, waiting up to the given time for one to be returned.
+     *
+     * @param timeout
+     *            how long to wait for an entry to be returned; 0 does not wait
+     * @param unit
+     *            the unit of the timeout
+     * @return the borrowed entry, now in use, or null if no entry became idle in time
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting
+     */
+    T borrow(long timeout, TimeUnit unit) throws InterruptedException {
+        List<WeakReference<T>> local = this.threadLocalList.get();
+        for (int i = local.size() - 1; i >= 0; i--) {
+            T entry = local.remove(i).get();
+            if (entry != null && entry.compareAndSetState(STATE_IDLE, STATE_IN_USE)) {
+                this.threadLocalBorrows.increment();
+                return entry;
+            }
+        }
+
+        this.waiters.incrementAndGet();
+        try {
+            for (T entry : this.sharedList) {
+                if (entry.compareAndSetState(STATE_IDLE, STATE_IN_USE)) {
+                    this.sharedBorrows.increment();
+                    return entry;
+                }
+            }
+
+            long remaining = unit.toNanos(timeout);
+            while (remaining > 0) {
+                long start = System.nanoTime();
+                T entry = this.handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.compareAndSetState(STATE_IDLE, STATE_IN_USE)) {
+                    this.handoffBorrows.increment();
+                    return entry;
+                }
+                remaining -= System.nanoTime() - start;
+            }
+            return null;
+        } finally {
+            this.waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns a borrowed entry to the bag. The entry is handed to a waiting thread if there is one, and remembered by the returning thread otherwise.
+     *
+     * @param entry
+     *            the entry to return
+     */
+    void requite(T entry) {
+        entry.setState(STATE_IDLE);
+
+        for (int i = 0; this.waiters.get() > 0; i++) {
+            if (entry.getState() != STATE_IDLE || this.handoffQueue.offer(entry)) {
+                return;
+            }
+            if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            } else {
+                Thread.yield();
+            }
+        }
+
+        List<WeakReference<T>> local = this.threadLocalList.get();
+        if (local.size() < MAX_THREAD_LOCAL_ENTRIES) {
+            local.add(new WeakReference<>(entry));
+        }
+    }
+
+    /**
+     * Adds a new entry to the bag. An idle entry is offered to waiting threads.
+     *
+     * @param entry
+     *            the entry to add, either idle or already in use by the thread that created it
+     */
+    void add(T entry) {
+        this.sharedList.add(entry);
+
+        while (this.waiters.get() > 0 && entry.getState() == STATE_IDLE && !this.handoffQueue.offer(entry)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Removes an entry that is in use or reserved by the calling thread.
+     *
+     * @param entry
+     *            the entry to remove
+     * @return true if the entry was removed by this call
+     */
+    boolean remove(T entry) {
+        if (!entry.compareAndSetState(STATE_IN_USE, STATE_REMOVED) && !entry.compareAndSetState(STATE_RESERVED, STATE_REMOVED)) {
+            return false;
+        }
+        return this.sharedList.remove(entry);
+    }
+
+    /**
+     * Reserves an idle entry, so it cannot be borrowed, e.g. while it is checked for eviction.
+     *
+     * @param entry
+     *            the entry to reserve
+     * @return true if the entry was idle and is now reserved
+     */
+    boolean reserve(T entry) {
+        return entry.compareAndSetState(STATE_IDLE, STATE_RESERVED);
+    }
+
+    /**
+     * Makes a reserved entry idle again.
+     *
+     * @param entry
+     *            the reserved entry
+     */
+    void unreserve(T entry) {
+        if (entry.compareAndSetState(STATE_RESERVED, STATE_IDLE)) {
+            while (this.waiters.get() > 0 && entry.getState() == STATE_IDLE && !this.handoffQueue.offer(entry)) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Returns the entries currently in the given state.
+     *
+     * @param state
+     *            one of the STATE_ constants
+     * @return a snapshot of the matching entries
+     */
+    List<T> values(int state) {
+        List<T> values = new ArrayList<>();
+        for (T entry : this.sharedList) {
+            if (entry.getState() == state) {
+                values.add(entry);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns all entries in the bag, in any state.
+     *
+     * @return a snapshot of the entries
+     */
+    List<T> values() {
+        return new ArrayList<>(this.sharedList);
+    }
+
+    int getCount(int state) {
+        int count = 0;
+        for (T entry : this.sharedList) {
+            if (entry.getState() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int size() {
+        return this.sharedList.size();
+    }
+
+    int getWaitingThreadCount() {
+        return this.waiters.get();
+    }
+
+    long getThreadLocalBorrowCount() {
+        return this.threadLocalBorrows.sum();
+    }
+
+    long getSharedBorrowCount() {
+        return this.sharedBorrows.sum();
+    }
+
+    long getHandoffBorrowCount() {
+        return this.handoffBorrows.sum();
+    }
+
+}
@@ -39,6 +39,7 @@ import java.sql.Savepoint;
 import java.sql.Struct;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -91,9 +92,9 @@ import com.mysql.cj.telemetry.TelemetryAttribute;
 import com.mysql.cj.telemetry.TelemetryScope;
 import com.mysql.cj.telemetry.TelemetrySpan;
 import com.mysql.cj.telemetry.TelemetrySpanName;
-import com.mysql.cj.util.LRUCache;
 import com.mysql.cj.util.StringUtils;
 import com.mysql.cj.util.Util;
+import com.mysql.cj.util.WeightedCache;
 
 /**
  * A Connection represents a session with a specific database. Within the context of a Connection, SQL statements are executed and results are returned.
@@ -225,6 +226,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     private static final int DEFAULT_RESULT_SET_CONCURRENCY = ResultSet.CONCUR_READ_ONLY;
 
+    /** Approximate client-side footprint of a cached server prepared statement, on top of its SQL. */
+    private static final long SERVER_PREPARED_STATEMENT_WEIGHT = 2048;
+
     /**
      * Creates a connection instance.
      *
@@ -261,8 +265,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
      */
     private final CopyOnWriteArrayList<JdbcStatement> openStatements = new CopyOnWriteArrayList<>();
 
-    private LRUCache<CompoundCacheKey, CallableStatement.CallableStatementParamInfo> parsedCallableStatementCache;
-    private final Lock parsedCallableStatementCacheLock = new ReentrantLock();
+    private WeightedCache<CompoundCacheKey, CallableStatement.CallableStatementParamInfo> parsedCallableStatementCache;
 
     /** The password we used */
     private String password = null;
@@ -274,8 +277,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     private boolean readOnly = false;
 
     /** Cache of ResultSet metadata */
-    protected LRUCache<String, CachedResultSetMetaData> resultSetMetadataCache;
-    protected final Lock resultSetMetadataCacheLock = new ReentrantLock();
+    protected WeightedCache<String, CachedResultSetMetaData> resultSetMetadataCache;
 
     /**
      * The type map for UDTs (not implemented, but used by some third-party
@@ -286,9 +288,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     /** The user we're connected as */
     private String user = null;
 
-    private LRUCache<String, Boolean> serverSideStatementCheckCache;
+    private WeightedCache<String, Boolean> serverSideStatementCheckCache;
     private final Lock serverSideStatementCheckCacheLock = new ReentrantLock();
-    private LRUCache<CompoundCacheKey, ServerPreparedStatement> serverSideStatementCache;
+    private WeightedCache<CompoundCacheKey, ServerPreparedStatement> serverSideStatementCache;
 
     private HostInfo origHostInfo;
 
@@ -398,13 +400,16 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
                     createPreparedStatementCaches();
                 }
                 if (this.propertySet.getBooleanProperty(PropertyKey.cacheCallableStmts).getValue()) {
-                    this.parsedCallableStatementCache = new LRUCache<>(this.propertySet.getIntegerProperty(PropertyKey.callableStmtCacheSize).getValue());
+                    this.parsedCallableStatementCache = new WeightedCache<>(this.propertySet.getIntegerProperty(PropertyKey.callableStmtCacheSize).getValue(),
+                            getStatementCacheMaxMemory(), (key, paramInfo) -> sqlWeight(key.componentTwo) + 256L * paramInfo.numParameters, null);
                 }
                 if (this.propertySet.getBooleanProperty(PropertyKey.allowMultiQueries).getValue()) {
                     this.propertySet.getProperty(PropertyKey.cacheResultSetMetadata).setValue(false); // we don't handle this yet
                 }
                 if (this.propertySet.getBooleanProperty(PropertyKey.cacheResultSetMetadata).getValue()) {
-                    this.resultSetMetadataCache = new LRUCache<>(this.propertySet.getIntegerProperty(PropertyKey.metadataCacheSize).getValue());
+                    // A Field with its names and the ResultSetMetaData entry for it take roughly half a kilobyte.
+                    this.resultSetMetadataCache = new WeightedCache<>(this.propertySet.getIntegerProperty(PropertyKey.metadataCacheSize).getValue(),
+                            getStatementCacheMaxMemory(), (sql, metadata) -> sqlWeight(sql) + 512L * metadata.getFields().length, null);
                 }
                 if (this.propertySet.getStringProperty(PropertyKey.socksProxyHost).getStringValue() != null) {
                     this.propertySet.getProperty(PropertyKey.socketFactory).setValue(SocksProxySocketFactory.class.getName());
@@ -499,25 +504,20 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
                 || this.propertySet.getBooleanProperty(PropertyKey.rewriteBatchedStatements).getValue();
 
         if (this.cachePrepStmts.getValue()) {
-            this.serverSideStatementCheckCacheLock.lock();
-            try {
-                Boolean flag = this.serverSideStatementCheckCache.get(sql);
-
-                if (flag != null) {
-                    return flag.booleanValue();
-                }
+            Boolean flag = this.serverSideStatementCheckCache.get(sql);
 
-                boolean canHandle = StringUtils.canHandleAsServerPreparedStatementNoCache(sql, getServerVersion(), allowMultiQueries,
-                        this.session.getServerSession().isNoBackslashEscapesSet(), this.session.getServerSession().useAnsiQuotedIdentifiers());
+            if (flag != null) {
+                return flag.booleanValue();
+            }
 
-                if (sql.length() < this.prepStmtCacheSqlLimit.getValue()) {
-                    this.serverSideStatementCheckCache.put(sql, canHandle ? Boolean.TRUE : Boolean.FALSE);
-                }
+            boolean canHandle = StringUtils.canHandleAsServerPreparedStatementNoCache(sql, getServerVersion(), allowMultiQueries,
+                    this.session.getServerSession().isNoBackslashEscapesSet(), this.session.getServerSession().useAnsiQuotedIdentifiers());
 
-                return canHandle;
-            } finally {
-                this.serverSideStatementCheckCacheLock.unlock();
+            if (sql.length() < this.prepStmtCacheSqlLimit.getValue()) {
+                this.serverSideStatementCheckCache.put(sql, canHandle ? Boolean.TRUE : Boolean.FALSE);
             }
+
+            return canHandle;
         }
 
         return StringUtils.canHandleAsServerPreparedStatementNoCache(sql, getServerVersion(), allowMultiQueries,
@@ -646,7 +646,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
         ClientPreparedStatement pStmt = null;
 
-        if (this.cachePrepStmts.getValue()) {
+        if (this.queryInfoCache != null) {
             QueryInfo pStmtInfo = this.queryInfoCache.get(nativeSql);
 
             if (pStmtInfo == null) {
@@ -1035,28 +1035,23 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
         connectionLock.lock();
         try {
             int cacheSize = this.propertySet.getIntegerProperty(PropertyKey.prepStmtCacheSize).getValue();
-            String queryInfoCacheFactory = this.propertySet.getStringProperty(PropertyKey.queryInfoCacheFactory).getValue();
-
-            @SuppressWarnings("unchecked")
-            CacheAdapterFactory<String, QueryInfo> cacheFactory = Util.getInstance(CacheAdapterFactory.class, queryInfoCacheFactory, null, null,
-                    getExceptionInterceptor());
-            this.queryInfoCache = cacheFactory.getInstance(connectionLock, this.origHostInfo.getDatabaseUrl(), cacheSize,
-                    this.prepStmtCacheSqlLimit.getValue());
 
-            if (this.useServerPrepStmts.getValue()) {
-                this.serverSideStatementCheckCache = new LRUCache<>(cacheSize);
-                this.serverSideStatementCache = new LRUCache<CompoundCacheKey, ServerPreparedStatement>(cacheSize) {
+            // With the shared cache, statements look up their QueryInfo themselves.
+            if (!this.propertySet.getBooleanProperty(PropertyKey.useSharedQueryInfoCache).getValue()) {
+                String queryInfoCacheFactory = this.propertySet.getStringProperty(PropertyKey.queryInfoCacheFactory).getValue();
 
-                    private static final long serialVersionUID = 7692318650375988114L;
+                @SuppressWarnings("unchecked")
+                CacheAdapterFactory<String, QueryInfo> cacheFactory = Util.getInstance(CacheAdapterFactory.class, queryInfoCacheFactory, null, null,
+                        getExceptionInterceptor());
+                this.queryInfoCache = cacheFactory.getInstance(connectionLock, this.origHostInfo.getDatabaseUrl(), cacheSize,
+                        this.prepStmtCacheSqlLimit.getValue(), getStatementCacheMaxMemory());
+            }
 
-                    @Override
-                    protected boolean removeEldestEntry(java.util.Map.Entry<CompoundCacheKey, ServerPreparedStatement> eldest) {
-                        if (this.maxElements <= 1) {
-                            return false;
-                        }
-                        boolean removeIt = super.removeEldestEntry(eldest);
-                        if (removeIt) {
-                            ServerPreparedStatement ps = eldest.getValue();
+            if (this.useServerPrepStmts.getValue()) {
+                this.serverSideStatementCheckCache = new WeightedCache<>(cacheSize, getStatementCacheMaxMemory(), (sql, flag) -> sqlWeight(sql), null);
+                // A cache size of 1 or less never evicts, so a statement is not closed while it is being re-cached.
+                this.serverSideStatementCache = new WeightedCache<>(cacheSize <= 1 ? Integer.MAX_VALUE : cacheSize, getStatementCacheMaxMemory(),
+                        (key, ps) -> sqlWeight(key.componentTwo) + SERVER_PREPARED_STATEMENT_WEIGHT, (key, ps) -> {
                             ps.isCached = false;
                             ps.setClosed(false);
                             try {
@@ -1064,17 +1059,51 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
                             } catch (SQLException sqlEx) {
                                 // punt
                             }
-                        }
-                        return removeIt;
-                    }
-
-                };
+                        });
             }
         } finally {
             connectionLock.unlock();
         }
     }
 
+    private long getStatementCacheMaxMemory() {
+        return this.propertySet.getMemorySizeProperty(PropertyKey.statementCacheMaxMemory).getValue();
+    }
+
+    /**
+     * Approximate size of a cached SQL string in bytes.
+     *
+     * @param sql
+     *            the SQL
+     * @return the weight
+     */
+    private static long sqlWeight(String sql) {
+        return sql == null ? 16 : 40 + 2L * sql.length();
+    }
+
+    /**
+     * Returns the hit and eviction statistics of this connection's statement and metadata caches.
+     *
+     * @return the statistics of each enabled cache, by cache name
+     */
+    public Map<String, WeightedCache.Stats> getCacheStats() {
+        Map<String, WeightedCache.Stats> stats = new LinkedHashMap<>();
+        if (this.queryInfoCache != null && this.queryInfoCache.getStats() != null) {
+            stats.put("queryInfo", this.queryInfoCache.getStats());
+        }
+        if (this.serverSideStatementCache != null) {
+            stats.put("serverSideStatement", this.serverSideStatementCache.getStats());
+            stats.put("serverSideStatementCheck", this.serverSideStatementCheckCache.getStats());
+        }
+        if (this.parsedCallableStatementCache != null) {
+            stats.put("parsedCallableStatement", this.parsedCallableStatementCache.getStats());
+        }
+        if (this.resultSetMetadataCache != null) {
+            stats.put("resultSetMetadata", this.resultSetMetadataCache.getStats());
+        }
+        return stats;
+    }
+
     @Override
     public java.sql.Statement createStatement() throws SQLException {
         return createStatement(DEFAULT_RESULT_SET_TYPE, DEFAULT_RESULT_SET_CONCURRENCY);
@@ -1543,21 +1572,16 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
                     cStmt = parseCallableStatement(sql);
                 } else {
-                    this.parsedCallableStatementCacheLock.lock();
-                    try {
-                        CompoundCacheKey key = new CompoundCacheKey(getDatabase(), sql);
+                    CompoundCacheKey key = new CompoundCacheKey(getDatabase(), sql);
 
-                        CallableStatement.CallableStatementParamInfo cachedParamInfo = this.parsedCallableStatementCache.get(key);
+                    CallableStatement.CallableStatementParamInfo cachedParamInfo = this.parsedCallableStatementCache.get(key);
 
-                        if (cachedParamInfo != null) {
-                            cStmt = CallableStatement.getInstance(getMultiHostSafeProxy(), cachedParamInfo);
-                        } else {
-                            cStmt = parseCallableStatement(sql);
-                            cachedParamInfo = cStmt.paramInfo;
-                            this.parsedCallableStatementCache.put(key, cachedParamInfo);
-                        }
-                    } finally {
-                        this.parsedCallableStatementCacheLock.unlock();
+                    if (cachedParamInfo != null) {
+                        cStmt = CallableStatement.getInstance(getMultiHostSafeProxy(), cachedParamInfo);
+                    } else {
+                        cStmt = parseCallableStatement(sql);
+                        cachedParamInfo = cStmt.paramInfo;
+                        this.parsedCallableStatementCache.put(key, cachedParamInfo);
                     }
                 }
 
@@ -1763,6 +1787,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             try {
                 if (this.propertySet.getBooleanProperty(PropertyKey.gatherPerfMetrics).getValue()) {
                     this.session.getProtocol().getMetricsHolder().reportMetrics(this.session.getLog());
+                    for (Map.Entry<String, WeightedCache.Stats> cacheStats : getCacheStats().entrySet()) {
+                        this.session.getLog().logInfo("Cache " + cacheStats.getKey() + ": " + cacheStats.getValue());
+                    }
                 }
                 if (this.useUsageAdvisor.getValue()) {
                     if (CloseOption.IMPLICIT.in(options)) {
@@ -2565,12 +2592,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     @Override
     public CachedResultSetMetaData getCachedMetaData(String sql) {
         if (this.resultSetMetadataCache != null) {
-            this.resultSetMetadataCacheLock.lock();
-            try {
-                return this.resultSetMetadataCache.get(sql);
-            } finally {
-                this.resultSetMetadataCacheLock.unlock();
-            }
+            return this.resultSetMetadataCache.get(sql);
         }
 
         return null; // no cache exists
@@ -2712,6 +2734,11 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
         }
     }
 
+    @Override
+    public QueryPipeline pipeline() throws SQLException {
+        return new QueryPipelineImpl(getMultiHostSafeProxy(), this.database);
+    }
+
     @Override
     public void setSchema(String schema) throws SQLException {
         checkClosed();
@@ -881,6 +881,17 @@ public class ConnectionWrapper extends WrapperBase implements JdbcConnection {
         this.mc.setSessionMaxRows(max);
     }
 
+    @Override
+    public QueryPipeline pipeline() throws SQLException {
+        try {
+            return this.mc.pipeline();
+        } catch (SQLException sqlException) {
+            checkAndFireConnectionError(sqlException);
+        }
+
+        return null; // never reached, but compiler can't tell
+    }
+
     @Override
     public Clob createClob() throws SQLException {
         try {
@@ -0,0 +1,678 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.naming.NamingException;
+import javax.naming.RefAddr;
+import javax.naming.Reference;
+import javax.naming.StringRefAddr;
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+
+import com.mysql.cj.Messages;
+import com.mysql.cj.exceptions.CJException;
+import com.mysql.cj.exceptions.MysqlErrorNumbers;
+import com.mysql.cj.jdbc.exceptions.SQLError;
+
+/**
+ * A DataSource that keeps a pool of physical connections, so that getConnection() does not open a new connection and authenticate every time.
+ *
+ * Connections are borrowed and returned without taking a lock: a thread preferably gets back the connection it returned last, and otherwise takes any idle
+ * connection from a shared bag. Closing the logical connection returns the physical connection to the pool after resetting its session with
+ * COM_RESET_CONNECTION, which rolls back open transactions and clears session variables, temporary tables and user locks, and restoring the auto-commit
+ * mode, database, read-only mode, transaction isolation and holdability the connection was opened with. With paranoid=true no COM_RESET_CONNECTION is
+ * sent, but open transactions are still rolled back and the client-side state is still restored. Connections are validated with a
+ * ping when they were idle for a while, closed after being idle for idleTimeout while more than minimumIdle are open, and retired after maxLifetime.
+ *
+ * Only connections for the configured user are pooled; getConnection(user, password) with other credentials opens an unpooled connection. Call close() to
+ * close the pool.
+ */
+public class MysqlPoolingDataSource extends MysqlDataSource implements AutoCloseable {
+
+    static final long serialVersionUID = 3364178472713470871L;
+
+    /** Connections returned more recently than this are handed out without a ping. */
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /** Longest single wait for a returned connection before checking again whether a new connection may be opened. */
+    private static final long MAX_WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    protected int maximumPoolSize = 10;
+
+    protected int minimumIdle = 0;
+
+    protected long connectionTimeout = 30000;
+
+    protected long idleTimeout = 600000;
+
+    protected long maxLifetime = 1800000;
+
+    protected long validationTimeout = 5000;
+
+    protected long housekeepingPeriod = 30000;
+
+    private final Lock poolLock = new ReentrantLock();
+
+    private transient volatile ConnectionBag<PoolEntry> bag;
+    private transient ScheduledExecutorService housekeeper;
+    private transient volatile boolean closed = false;
+
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final LongAdder connectionRequests = new LongAdder();
+    private final LongAdder connectionTimeouts = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder resetFailures = new LongAdder();
+    private final LongAdder connectionWaitNanos = new LongAdder();
+
+    /**
+     * A physical connection in the pool.
+     */
+    private final class PoolEntry extends ConnectionBag.Entry implements ConnectionEventListener {
+
+        final JdbcConnection physicalConnection;
+        final MysqlPooledConnection pooledConnection;
+        final SessionState initialState;
+        final long createdNanos;
+        volatile long lastReturnedNanos;
+
+        PoolEntry(JdbcConnection physicalConnection) throws SQLException {
+            this.physicalConnection = physicalConnection;
+            this.initialState = new SessionState(physicalConnection);
+            this.pooledConnection = MysqlPooledConnection.getInstance(physicalConnection);
+            this.pooledConnection.addConnectionEventListener(this);
+            this.createdNanos = System.nanoTime();
+            this.lastReturnedNanos = this.createdNanos;
+        }
+
+        @Override
+        public void connectionClosed(ConnectionEvent event) {
+            recycle(this);
+        }
+
+        @Override
+        public void connectionErrorOccurred(ConnectionEvent event) {
+            evict(this);
+        }
+
+    }
+
+    /**
+     * The client-side session state of a connection, recorded when the connection is opened and restored whenever it is returned to the pool.
+     */
+    static final class SessionState {
+
+        final boolean autoCommit;
+        final String database;
+        final boolean readOnly;
+        final int transactionIsolation;
+        final int holdability;
+
+        SessionState(JdbcConnection connection) throws SQLException {
+            this.autoCommit = connection.getAutoCommit();
+            this.database = connection.getDatabase();
+            this.readOnly = connection.isReadOnly(false);
+            this.transactionIsolation = connection.getTransactionIsolation();
+            this.holdability = connection.getHoldability();
+        }
+
+        /**
+         * Rolls back an open transaction and restores the recorded state where the connection differs from it.
+         *
+         * @param connection
+         *            the connection to restore
+         * @throws SQLException
+         *             if the state cannot be restored
+         */
+        void restore(JdbcConnection connection) throws SQLException {
+            if (!connection.getAutoCommit()) {
+                // Restoring auto-commit would otherwise commit the transaction
+                connection.rollback();
+            }
+            if (connection.getAutoCommit() != this.autoCommit) {
+                connection.setAutoCommit(this.autoCommit);
+            }
+            if (!Objects.equals(connection.getDatabase(), this.database)) {
+                connection.setDatabase(this.database);
+            }
+            if (connection.isReadOnly(false) != this.readOnly) {
+                connection.setReadOnly(this.readOnly);
+            }
+            if (connection.getTransactionIsolation() != this.transactionIsolation) {
+                connection.setTransactionIsolation(this.transactionIsolation);
+            }
+            if (connection.getHoldability() != this.holdability) {
+                connection.setHoldability(this.holdability);
+            }
+        }
+
+    }
+
+    /**
+     * Default no-arg constructor for Serialization
+     */
+    public MysqlPoolingDataSource() {
+    }
+
+    /**
+     * Returns a connection from the pool, opening a new physical connection if none is idle and the pool is not full. Waits up to connectionTimeout
+     * milliseconds for a connection to be returned otherwise.
+     */
+    @Override
+    public java.sql.Connection getConnection() throws SQLException {
+        ConnectionBag<PoolEntry> connectionBag = startPool();
+        this.connectionRequests.increment();
+
+        long start = System.nanoTime();
+        long timeout = TimeUnit.MILLISECONDS.toNanos(this.connectionTimeout);
+        long remaining = timeout;
+        try {
+            do {
+                PoolEntry entry = connectionBag.borrow(0, TimeUnit.NANOSECONDS);
+                if (entry == null) {
+                    entry = createEntry(true);
+                }
+                if (entry == null) {
+                    entry = connectionBag.borrow(Math.min(remaining, MAX_WAIT_SLICE_NANOS), TimeUnit.NANOSECONDS);
+                }
+                if (entry != null) {
+                    if (isUsable(entry)) {
+                        this.connectionWaitNanos.add(System.nanoTime() - start);
+                        try {
+                            return entry.pooledConnection.getConnection(false, false);
+                        } catch (SQLException e) {
+                            evict(entry);
+                            throw e;
+                        }
+                    }
+                    evict(entry);
+                }
+                if (this.closed) {
+                    throw SQLError.createSQLException(Messages.getString("MysqlPoolingDataSource.1"),
+                            MysqlErrorNumbers.SQLSTATE_CONNECTION_EXCEPTION_CONNECTION_DOES_NOT_EXIST, null);
+                }
+                remaining = timeout - (System.nanoTime() - start);
+            } while (remaining > 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw SQLError.createSQLException(Messages.getString("MysqlPoolingDataSource.2"),
+                    MysqlErrorNumbers.SQLSTATE_CONNECTION_EXCEPTION_SQL_CLIENT_UNABLE_TO_ESTABLISH_SQL_CONNECTION, e, null);
+        }
+
+        this.connectionTimeouts.increment();
+        this.connectionWaitNanos.add(System.nanoTime() - start);
+        throw SQLError.createSQLException(
+                Messages.getString("MysqlPoolingDataSource.0",
+                        new Object[] { this.connectionTimeout, getActiveConnections(), getTotalConnections(), getThreadsAwaitingConnection() }),
+                MysqlErrorNumbers.SQLSTATE_CONNECTION_EXCEPTION_SQL_CLIENT_UNABLE_TO_ESTABLISH_SQL_CONNECTION, 0, true, null);
+    }
+
+    /**
+     * Returns a pooled connection if the credentials are the configured ones, and a new unpooled connection otherwise.
+     */
+    @Override
+    public java.sql.Connection getConnection(String userID, String pass) throws SQLException {
+        if (Objects.equals(userID, this.user) && Objects.equals(pass, this.password)) {
+            return getConnection();
+        }
+        return super.getConnection(userID, pass);
+    }
+
+    /**
+     * Closes the idle connections and stops the pool. Connections in use are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService executor;
+        this.poolLock.lock();
+        try {
+            this.closed = true;
+            executor = this.housekeeper;
+            this.housekeeper = null;
+        } finally {
+            this.poolLock.unlock();
+        }
+
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+
+        ConnectionBag<PoolEntry> connectionBag = this.bag;
+        if (connectionBag != null) {
+            for (PoolEntry entry : connectionBag.values(ConnectionBag.STATE_IDLE)) {
+                if (connectionBag.reserve(entry)) {
+                    evict(entry);
+                }
+            }
+        }
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    private ConnectionBag<PoolEntry> startPool() throws SQLException {
+        ConnectionBag<PoolEntry> connectionBag = this.bag;
+        if (connectionBag != null && !this.closed) {
+            return connectionBag;
+        }
+
+        this.poolLock.lock();
+        try {
+            if (this.closed) {
+                throw SQLError.createSQLException(Messages.getString("MysqlPoolingDataSource.1"),
+                        MysqlErrorNumbers.SQLSTATE_CONNECTION_EXCEPTION_CONNECTION_DOES_NOT_EXIST, null);
+            }
+            if (this.bag == null) {
+                this.bag = new ConnectionBag<>();
+                this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "mysql-cj-pool-housekeeper");
+                    t.setDaemon(true);
+                    return t;
+                });
+                this.housekeeper.scheduleWithFixedDelay(this::houseKeep, this.housekeepingPeriod, this.housekeepingPeriod, TimeUnit.MILLISECONDS);
+            }
+            return this.bag;
+        } finally {
+            this.poolLock.unlock();
+        }
+    }
+
+    /**
+     * Opens a new physical connection and adds it to the pool, unless the pool is full.
+     *
+     * @param inUse
+     *            whether the connection is added in use by the calling thread, or idle
+     * @return the new entry, or null if the pool is full
+     * @throws SQLException
+     *             if the connection cannot be opened
+     */
+    private PoolEntry createEntry(boolean inUse) throws SQLException {
+        int total;
+        do {
+            total = this.totalConnections.get();
+            if (total >= this.maximumPoolSize) {
+                return null;
+            }
+        } while (!this.totalConnections.compareAndSet(total, total + 1));
+
+        PoolEntry entry;
+        try {
+            entry = new PoolEntry((JdbcConnection) super.getConnection(this.user, this.password));
+        } catch (SQLException | RuntimeException e) {
+            this.totalConnections.decrementAndGet();
+            throw e;
+        }
+        this.connectionsCreated.increment();
+
+        if (inUse) {
+            entry.setState(ConnectionBag.STATE_IN_USE);
+        }
+        this.bag.add(entry);
+        return entry;
+    }
+
+    private boolean isExpired(PoolEntry entry, long now) {
+        return this.maxLifetime > 0 && now - entry.createdNanos > TimeUnit.MILLISECONDS.toNanos(this.maxLifetime);
+    }
+
+    private boolean isUsable(PoolEntry entry) {
+        long now = System.nanoTime();
+        if (isExpired(entry, now)) {
+            return false;
+        }
+        if (now - entry.lastReturnedNanos < VALIDATION_BYPASS_NANOS) {
+            return true;
+        }
+        try {
+            entry.physicalConnection.pingInternal(true, (int) this.validationTimeout);
+            return true;
+        } catch (SQLException | CJException e) {
+            this.validationFailures.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Resets the session of a connection whose logical connection was closed, restores the state it was opened with and makes it available again.
+     *
+     * @param entry
+     *            the returned connection
+     */
+    private void recycle(PoolEntry entry) {
+        if (this.closed || isExpired(entry, System.nanoTime())) {
+            evict(entry);
+            return;
+        }
+
+        try {
+            entry.physicalConnection.resetServerState();
+            entry.initialState.restore(entry.physicalConnection);
+        } catch (SQLException | CJException e) {
+            this.resetFailures.increment();
+            evict(entry);
+            return;
+        }
+
+        entry.lastReturnedNanos = System.nanoTime();
+        this.bag.requite(entry);
+    }
+
+    /**
+     * Removes a connection that is in use or reserved from the pool and closes it.
+     *
+     * @param entry
+     *            the connection to close
+     */
+    private void evict(PoolEntry entry) {
+        if (!this.bag.remove(entry)) {
+            return;
+        }
+        this.totalConnections.decrementAndGet();
+        this.connectionsClosed.increment();
+
+        try {
+            entry.pooledConnection.close();
+        } catch (SQLException | CJException e) {
+            // ignore, the connection is being discarded
+        }
+    }
+
+    /**
+     * Closes connections that were idle too long or reached their maximum lifetime, then opens connections until minimumIdle are idle.
+     */
+    private void houseKeep() {
+        ConnectionBag<PoolEntry> connectionBag = this.bag;
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(this.idleTimeout);
+        int retirable = this.totalConnections.get() - this.minimumIdle;
+
+        for (PoolEntry entry : connectionBag.values(ConnectionBag.STATE_IDLE)) {
+            if (!connectionBag.reserve(entry)) {
+                continue;
+            }
+            if (isExpired(entry, now) || this.idleTimeout > 0 && retirable > 0 && now - entry.lastReturnedNanos > idleNanos) {
+                evict(entry);
+                retirable--;
+            } else {
+                connectionBag.unreserve(entry);
+            }
+        }
+
+        try {
+            while (!this.closed && connectionBag.getCount(ConnectionBag.STATE_IDLE) < this.minimumIdle && createEntry(false) != null) {
+                // keep opening connections
+            }
+        } catch (SQLException | RuntimeException e) {
+            // the server is unavailable; retried on the next run
+        }
+    }
+
+    /**
+     * Required method to support this class as a <CODE>Referenceable</CODE>.
+     *
+     * @return a Reference to this data source
+     *
+     * @throws NamingException
+     *             if a JNDI error occurs
+     */
+    @Override
+    public Reference getReference() throws NamingException {
+        Reference ref = super.getReference();
+        ref.add(new StringRefAddr("maximumPoolSize", String.valueOf(this.maximumPoolSize)));
+        ref.add(new StringRefAddr("minimumIdle", String.valueOf(this.minimumIdle)));
+        ref.add(new StringRefAddr("connectionTimeout", String.valueOf(this.connectionTimeout)));
+        ref.add(new StringRefAddr("idleTimeout", String.valueOf(this.idleTimeout)));
+        ref.add(new StringRefAddr("maxLifetime", String.valueOf(this.maxLifetime)));
+        ref.add(new StringRefAddr("validationTimeout", String.valueOf(this.validationTimeout)));
+        ref.add(new StringRefAddr("housekeepingPeriod", String.valueOf(this.housekeepingPeriod)));
+        return ref;
+    }
+
+    /**
+     * Initializes the pool settings from a Reference created by {@link #getReference()}.
+     *
+     * @param ref
+     *            the reference
+     */
+    protected void setPoolPropertiesViaRef(Reference ref) {
+        String value;
+        if ((value = refAddrString("maximumPoolSize", ref)) != null) {
+            setMaximumPoolSize(Integer.parseInt(value));
+        }
+        if ((value = refAddrString("minimumIdle", ref)) != null) {
+            setMinimumIdle(Integer.parseInt(value));
+        }
+        if ((value = refAddrString("connectionTimeout", ref)) != null) {
+            setConnectionTimeout(Long.parseLong(value));
+        }
+        if ((value = refAddrString("idleTimeout", ref)) != null) {
+            setIdleTimeout(Long.parseLong(value));
+        }
+        if ((value = refAddrString("maxLifetime", ref)) != null) {
+            setMaxLifetime(Long.parseLong(value));
+        }
+        if ((value = refAddrString("validationTimeout", ref)) != null) {
+            setValidationTimeout(Long.parseLong(value));
+        }
+        if ((value = refAddrString("housekeepingPeriod", ref)) != null) {
+            setHousekeepingPeriod(Long.parseLong(value));
+        }
+    }
+
+    private static String refAddrString(String name, Reference ref) {
+        RefAddr refAddr = ref.get(name);
+        return refAddr != null ? (String) refAddr.getContent() : null;
+    }
+
+    /**
+     * Sets the maximum number of physical connections, in use or idle. Default is 10.
+     *
+     * @param maximumPoolSize
+     *            the maximum pool size
+     */
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getMaximumPoolSize() {
+        return this.maximumPoolSize;
+    }
+
+    /**
+     * Sets the number of idle connections the pool keeps open. Default is 0.
+     *
+     * @param minimumIdle
+     *            the minimum number of idle connections
+     */
+    public void setMinimumIdle(int minimumIdle) {
+        this.minimumIdle = minimumIdle;
+    }
+
+    public int getMinimumIdle() {
+        return this.minimumIdle;
+    }
+
+    /**
+     * Sets how long getConnection() waits for a connection when the pool is full, in milliseconds. Default is 30000.
+     *
+     * @param connectionTimeout
+     *            the timeout in milliseconds
+     */
+    public void setConnectionTimeout(long connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public long getConnectionTimeout() {
+        return this.connectionTimeout;
+    }
+
+    /**
+     * Sets how long a connection may be idle before it is closed, in milliseconds, or 0 to keep idle connections open. Default is 600000.
+     *
+     * @param idleTimeout
+     *            the idle timeout in milliseconds
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getIdleTimeout() {
+        return this.idleTimeout;
+    }
+
+    /**
+     * Sets how long a connection is used before it is closed and replaced, in milliseconds, or 0 for no limit. It should be shorter than the server's
+     * wait_timeout. Default is 1800000.
+     *
+     * @param maxLifetime
+     *            the maximum lifetime in milliseconds
+     */
+    public void setMaxLifetime(long maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    public long getMaxLifetime() {
+        return this.maxLifetime;
+    }
+
+    /**
+     * Sets how long the ping that validates an idle connection may take, in milliseconds. Default is 5000.
+     *
+     * @param validationTimeout
+     *            the validation timeout in milliseconds
+     */
+    public void setValidationTimeout(long validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    public long getValidationTimeout() {
+        return this.validationTimeout;
+    }
+
+    /**
+     * Sets how often idle connections are checked for eviction, in milliseconds. Takes effect when the pool starts. Default is 30000.
+     *
+     * @param housekeepingPeriod
+     *            the housekeeping period in milliseconds
+     */
+    public void setHousekeepingPeriod(long housekeepingPeriod) {
+        this.housekeepingPeriod = housekeepingPeriod;
+    }
+
+    public long getHousekeepingPeriod() {
+        return this.housekeepingPeriod;
+    }
+
+    /**
+     * Returns the number of open physical connections, in use or idle.
+     *
+     * @return the number of connections
+     */
+    public int getTotalConnections() {
+        return this.totalConnections.get();
+    }
+
+    /**
+     * Returns the number of connections currently borrowed.
+     *
+     * @return the number of connections in use
+     */
+    public int getActiveConnections() {
+        ConnectionBag<PoolEntry> connectionBag = this.bag;
+        return connectionBag == null ? 0 : connectionBag.getCount(ConnectionBag.STATE_IN_USE);
+    }
+
+    /**
+     * Returns the number of connections available to be borrowed.
+     *
+     * @return the number of idle connections
+     */
+    public int getIdleConnections() {
+        ConnectionBag<PoolEntry> connectionBag = this.bag;
+        return connectionBag == null ? 0 : connectionBag.getCount(ConnectionBag.STATE_IDLE);
+    }
+
+    /**
+     * Returns the number of threads waiting in getConnection().
+     *
+     * @return the number of waiting threads
+     */
+    public int getThreadsAwaitingConnection() {
+        ConnectionBag<PoolEntry> connectionBag = this.bag;
+        return connectionBag == null ? 0 : connectionBag.getWaitingThreadCount();
+    }
+
+    public long getConnectionsCreated() {
+        return this.connectionsCreated.sum();
+    }
+
+    public long getConnectionsClosed() {
+        return this.connectionsClosed.sum();
+    }
+
+    public long getConnectionRequests() {
+        return this.connectionRequests.sum();
+    }
+
+    /**
+     * Returns how many connections were borrowed by the thread that returned them last, without touching the shared bag.
+     *
+     * @return the number of thread-local borrows
+     */
+    public long getThreadLocalBorrows() {
+        ConnectionBag<PoolEntry> connectionBag = this.bag;
+        return connectionBag == null ? 0 : connectionBag.getThreadLocalBorrowCount();
+    }
+
+    public long getConnectionTimeouts() {
+        return this.connectionTimeouts.sum();
+    }
+
+    public long getValidationFailures() {
+        return this.validationFailures.sum();
+    }
+
+    public long getResetFailures() {
+        return this.resetFailures.sum();
+    }
+
+    /**
+     * Returns the total time threads spent in getConnection(), in nanoseconds.
+     *
+     * @return the total wait time
+     */
+    public long getConnectionWaitNanos() {
+        return this.connectionWaitNanos.sum();
+    }
+
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+
+import com.mysql.cj.Messages;
+import com.mysql.cj.NativeSession;
+import com.mysql.cj.PreparedQuery;
+import com.mysql.cj.QueryInfo;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.exceptions.CJException;
+import com.mysql.cj.exceptions.MysqlErrorNumbers;
+import com.mysql.cj.jdbc.exceptions.SQLError;
+import com.mysql.cj.jdbc.exceptions.SQLExceptionsMapping;
+import com.mysql.cj.jdbc.result.ResultSetImpl;
+import com.mysql.cj.protocol.a.NativePacketPayload;
+import com.mysql.cj.util.StringUtils;
+
+/**
+ * {@link QueryPipeline} implementation. Result sets are created for an internal statement of the pipeline, which is closed together with it.
+ */
+public class QueryPipelineImpl implements QueryPipeline {
+
+    /**
+     * A queued statement, its COM_QUERY packet and the future its response completes.
+     */
+    private static class PipelinedStatement {
+
+        final NativePacketPayload queryPacket;
+        final CompletableFuture<ResultSet> resultSetFuture;
+        final CompletableFuture<Long> updateCountFuture;
+
+        ResultSetImpl results = null;
+        SQLException error = null;
+
+        PipelinedStatement(NativePacketPayload queryPacket, boolean producesResultSet) {
+            this.queryPacket = queryPacket;
+            this.resultSetFuture = producesResultSet ? new CompletableFuture<>() : null;
+            this.updateCountFuture = producesResultSet ? null : new CompletableFuture<>();
+        }
+
+        CompletableFuture<?> getFuture() {
+            return this.resultSetFuture != null ? this.resultSetFuture : this.updateCountFuture;
+        }
+
+    }
+
+    private final JdbcConnection connection;
+    private StatementImpl statement;
+    private List<PipelinedStatement> statements = new ArrayList<>();
+
+    /**
+     * Creates a new pipeline.
+     *
+     * @param connection
+     *            the connection to execute statements over
+     * @param database
+     *            the database the statements are executed in
+     * @throws SQLException
+     *             if an error occurs
+     */
+    public QueryPipelineImpl(JdbcConnection connection, String database) throws SQLException {
+        this.connection = connection;
+        this.statement = new StatementImpl(connection, database);
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> addQuery(String sql) throws SQLException {
+        return add(sql, true).resultSetFuture;
+    }
+
+    @Override
+    public CompletableFuture<Long> addUpdate(String sql) throws SQLException {
+        return add(sql, false).updateCountFuture;
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> addQuery(PreparedStatement pstmt) throws SQLException {
+        return add(pstmt, true).resultSetFuture;
+    }
+
+    @Override
+    public CompletableFuture<Long> addUpdate(PreparedStatement pstmt) throws SQLException {
+        return add(pstmt, false).updateCountFuture;
+    }
+
+    private PipelinedStatement add(String sql, boolean producesResultSet) throws SQLException {
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkClosed();
+
+            if (sql == null) {
+                throw SQLError.createSQLException(Messages.getString("Statement.59"), MysqlErrorNumbers.SQLSTATE_CONNJ_ILLEGAL_ARGUMENT,
+                        this.statement.getExceptionInterceptor());
+            }
+            checkNotLoadData(sql);
+            checkReadOnlySafe(sql, "Statement.42", "Statement.43");
+
+            NativeSession session = (NativeSession) this.connection.getSession();
+            if (this.statement.doEscapeProcessing) {
+                Object escapedSqlResult = EscapeProcessor.escapeSQL(sql, session.getServerSession().getSessionTimeZone(),
+                        session.getServerSession().getCapabilities().serverSupportsFracSecs(), session.getServerSession().isServerTruncatesFracSecs(),
+                        this.statement.getExceptionInterceptor());
+                sql = escapedSqlResult instanceof String ? (String) escapedSqlResult : ((EscapeProcessorResult) escapedSqlResult).escapedSql;
+            }
+            NativePacketPayload queryPacket = session.getProtocol().getMessageBuilder().buildComQuery(null, session, sql, this.statement,
+                    session.getPropertySet().getStringProperty(PropertyKey.characterEncoding).getValue());
+            return enqueue(queryPacket, producesResultSet);
+        } catch (CJException ex) {
+            throw SQLExceptionsMapping.translateException(ex, this.statement.getExceptionInterceptor());
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    private PipelinedStatement add(PreparedStatement pstmt, boolean producesResultSet) throws SQLException {
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkClosed();
+
+            if (!pstmt.isWrapperFor(ClientPreparedStatement.class) || pstmt.isWrapperFor(ServerPreparedStatement.class)) {
+                throw SQLError.createSQLFeatureNotSupportedException(Messages.getString("QueryPipeline.1"), MysqlErrorNumbers.SQLSTATE_CONNJ_DRIVER_NOT_CAPABLE,
+                        this.statement.getExceptionInterceptor());
+            }
+            ClientPreparedStatement cps = pstmt.unwrap(ClientPreparedStatement.class);
+            if (cps.checkClosed().getSession() != this.connection.getSession()) {
+                throw SQLError.createSQLException(Messages.getString("QueryPipeline.2"), MysqlErrorNumbers.SQLSTATE_CONNJ_ILLEGAL_ARGUMENT,
+                        this.statement.getExceptionInterceptor());
+            }
+
+            PreparedQuery preparedQuery = (PreparedQuery) cps.getQuery();
+            checkNotLoadData(preparedQuery.getOriginalSql());
+            // The SQL of a client-side prepared statement has already been escaped when it was prepared
+            checkReadOnlySafe(preparedQuery.getOriginalSql(), "PreparedStatement.20", "PreparedStatement.21");
+            preparedQuery.getQueryBindings().checkAllParametersSet();
+
+            NativeSession session = (NativeSession) this.connection.getSession();
+            NativePacketPayload queryPacket = session.getProtocol().getMessageBuilder().buildComQuery(null, session, preparedQuery,
+                    preparedQuery.getQueryBindings(), session.getPropertySet().getStringProperty(PropertyKey.characterEncoding).getValue());
+            return enqueue(queryPacket, producesResultSet);
+        } catch (CJException ex) {
+            throw SQLExceptionsMapping.translateException(ex, this.statement.getExceptionInterceptor());
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    private PipelinedStatement enqueue(NativePacketPayload queryPacket, boolean producesResultSet) {
+        PipelinedStatement pipelinedStatement = new PipelinedStatement(queryPacket, producesResultSet);
+        this.statements.add(pipelinedStatement);
+        return pipelinedStatement;
+    }
+
+    /**
+     * The server would read the statements queued after a LOAD DATA LOCAL statement as the contents of the file it requests.
+     *
+     * @param sql
+     *            the SQL statement
+     * @throws SQLException
+     *             if the statement is a LOAD statement
+     */
+    private void checkNotLoadData(String sql) throws SQLException {
+        if (StringUtils.startsWithIgnoreCaseAndWs(sql, "LOAD")) {
+            throw SQLError.createSQLFeatureNotSupportedException(Messages.getString("QueryPipeline.3"), MysqlErrorNumbers.SQLSTATE_CONNJ_DRIVER_NOT_CAPABLE,
+                    this.statement.getExceptionInterceptor());
+        }
+    }
+
+    /**
+     * Rejects statements that may modify data when the connection is read-only, as executing them outside of the pipeline does.
+     *
+     * @param sql
+     *            the SQL statement
+     * @param messageKey
+     *            the key of the message stating that the connection is read-only
+     * @param reasonKey
+     *            the key of the message stating that data modifications are not allowed
+     * @throws SQLException
+     *             if the connection is read-only and the statement is not read-only safe
+     */
+    private void checkReadOnlySafe(String sql, String messageKey, String reasonKey) throws SQLException {
+        if (this.connection.isReadOnly(false)
+                && !QueryInfo.isReadOnlySafeQuery(sql, this.connection.getSession().getServerSession().isNoBackslashEscapesSet())) {
+            throw SQLError.createSQLException(Messages.getString(messageKey) + Messages.getString(reasonKey), MysqlErrorNumbers.SQLSTATE_CONNJ_ILLEGAL_ARGUMENT,
+                    this.statement.getExceptionInterceptor());
+        }
+    }
+
+    @Override
+    public List<CompletableFuture<?>> execute() throws SQLException {
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkClosed();
+
+            List<PipelinedStatement> pipelinedStatements = this.statements;
+            this.statements = new ArrayList<>();
+
+            List<CompletableFuture<?>> futures = new ArrayList<>(pipelinedStatements.size());
+            List<NativePacketPayload> queryPackets = new ArrayList<>(pipelinedStatements.size());
+            for (PipelinedStatement pipelinedStatement : pipelinedStatements) {
+                futures.add(pipelinedStatement.getFuture());
+                queryPackets.add(pipelinedStatement.queryPacket);
+            }
+            if (pipelinedStatements.isEmpty()) {
+                return futures;
+            }
+
+            try {
+                this.connection.setSessionMaxRows(-1);
+
+                int[] responseIndex = new int[1];
+                ((NativeSession) this.connection.getSession()).getProtocol().sendPipelinedQueryPackets(queryPackets, -1,
+                        this.statement.<ResultSetImpl, NativePacketPayload>getResultSetFactory(), (results, ex) -> {
+                            PipelinedStatement pipelinedStatement = pipelinedStatements.get(responseIndex[0]++);
+                            if (ex != null) {
+                                pipelinedStatement.error = SQLExceptionsMapping.translateException(ex, this.statement.getExceptionInterceptor());
+                            } else {
+                                pipelinedStatement.results = results;
+                            }
+                        });
+            } catch (CJException | SQLException ex) {
+                SQLException sqlEx = ex instanceof SQLException ? (SQLException) ex
+                        : SQLExceptionsMapping.translateException((CJException) ex, this.statement.getExceptionInterceptor());
+                for (PipelinedStatement pipelinedStatement : pipelinedStatements) {
+                    if (pipelinedStatement.results == null && pipelinedStatement.error == null) {
+                        pipelinedStatement.error = sqlEx;
+                    }
+                }
+                complete(pipelinedStatements);
+                throw sqlEx;
+            }
+
+            // Futures are completed only after all responses have been read, so that their callbacks can use the connection.
+            complete(pipelinedStatements);
+            return futures;
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    private void complete(List<PipelinedStatement> pipelinedStatements) {
+        for (PipelinedStatement pipelinedStatement : pipelinedStatements) {
+            ResultSetImpl results = pipelinedStatement.results;
+            if (pipelinedStatement.error == null && results != null && results.hasRows() != (pipelinedStatement.resultSetFuture != null)) {
+                pipelinedStatement.error = SQLError.createSQLException(Messages.getString(results.hasRows() ? "QueryPipeline.4" : "QueryPipeline.5"),
+                        MysqlErrorNumbers.SQLSTATE_CONNJ_ILLEGAL_ARGUMENT, this.statement.getExceptionInterceptor());
+            }
+
+            if (pipelinedStatement.error != null) {
+                pipelinedStatement.getFuture().completeExceptionally(pipelinedStatement.error);
+            } else if (pipelinedStatement.resultSetFuture != null) {
+                pipelinedStatement.resultSetFuture.complete(results);
+            } else {
+                pipelinedStatement.updateCountFuture.complete(results.getUpdateCount());
+            }
+        }
+    }
+
+    private void checkClosed() throws SQLException {
+        if (this.statement == null) {
+            throw SQLError.createSQLException(Messages.getString("QueryPipeline.0"), MysqlErrorNumbers.SQLSTATE_CONNJ_ILLEGAL_ARGUMENT, null);
+        }
+        try {
+            this.statement.checkClosed();
+        } catch (CJException ex) {
+            throw SQLExceptionsMapping.translateException(ex, this.statement.getExceptionInterceptor());
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            if (this.statement == null) {
+                return;
+            }
+
+            SQLException closedEx = SQLError.createSQLException(Messages.getString("QueryPipeline.0"), MysqlErrorNumbers.SQLSTATE_CONNJ_ILLEGAL_ARGUMENT,
+                    this.statement.getExceptionInterceptor());
+            for (PipelinedStatement pipelinedStatement : this.statements) {
+                pipelinedStatement.getFuture().completeExceptionally(closedEx);
+            }
+            this.statements.clear();
+
+            this.statement.close();
+            this.statement = null;
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+}
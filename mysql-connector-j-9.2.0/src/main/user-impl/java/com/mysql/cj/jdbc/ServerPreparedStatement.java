@@ -35,7 +35,6 @@ import com.mysql.cj.Messages;
 import com.mysql.cj.NativeSession;
 import com.mysql.cj.PreparedQuery;
 import com.mysql.cj.QueryBindings;
-import com.mysql.cj.QueryInfo;
 import com.mysql.cj.ServerPreparedQuery;
 import com.mysql.cj.Session;
 import com.mysql.cj.conf.PropertyKey;
@@ -119,7 +118,7 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
         String statementComment = this.session.getQueryComment();
         PreparedQuery prepQuery = (PreparedQuery) this.query;
         prepQuery.setOriginalSql(statementComment == null ? sql : "/* " + statementComment + " */ " + sql);
-        prepQuery.setQueryInfo(new QueryInfo(prepQuery.getOriginalSql(), this.session, this.charEncoding));
+        prepQuery.setQueryInfo(createQueryInfo(prepQuery.getOriginalSql()));
 
         this.hasOnDuplicateKeyUpdate = prepQuery.getQueryInfo().containsOnDuplicateKeyUpdate();
 
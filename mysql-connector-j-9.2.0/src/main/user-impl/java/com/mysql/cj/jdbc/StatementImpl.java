@@ -35,6 +35,7 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 
+import com.mysql.cj.CancelQueryService;
 import com.mysql.cj.CancelQueryTask;
 import com.mysql.cj.Messages;
 import com.mysql.cj.MysqlType;
@@ -46,8 +47,6 @@ import com.mysql.cj.QueryInfo;
 import com.mysql.cj.QueryReturnType;
 import com.mysql.cj.Session;
 import com.mysql.cj.SimpleQuery;
-import com.mysql.cj.TransactionEventHandler;
-import com.mysql.cj.conf.HostInfo;
 import com.mysql.cj.conf.PropertyDefinitions;
 import com.mysql.cj.conf.PropertyKey;
 import com.mysql.cj.conf.RuntimeProperty;
@@ -280,53 +279,19 @@ public class StatementImpl implements JdbcStatement {
         }
 
         if (!this.isClosed && this.connection != null) {
-            NativeSession newSession = null;
-
+            Lock cancelTimeoutLock = this.query.getCancelTimeoutLock();
+            cancelTimeoutLock.lock();
             try {
-                HostInfo hostInfo = this.session.getHostInfo();
-                String database = hostInfo.getDatabase();
-                String user = hostInfo.getUser();
-                String password = hostInfo.getPassword();
-                newSession = new NativeSession(this.session.getHostInfo(), this.session.getPropertySet());
-
-                TelemetrySpan span = newSession.getTelemetryHandler().startSpan(TelemetrySpanName.CANCEL_QUERY);
-                try (TelemetryScope scope = span.makeCurrent()) {
-                    span.setAttribute(TelemetryAttribute.DB_NAME, database);
-                    span.setAttribute(TelemetryAttribute.DB_OPERATION, TelemetryAttribute.OPERATION_KILL);
-                    span.setAttribute(TelemetryAttribute.DB_STATEMENT, TelemetryAttribute.OPERATION_KILL + TelemetryAttribute.STATEMENT_SUFFIX);
-                    span.setAttribute(TelemetryAttribute.DB_SYSTEM, TelemetryAttribute.DB_SYSTEM_DEFAULT);
-                    span.setAttribute(TelemetryAttribute.DB_USER, user);
-                    span.setAttribute(TelemetryAttribute.THREAD_ID, () -> Thread.currentThread().getId());
-                    span.setAttribute(TelemetryAttribute.THREAD_NAME, () -> Thread.currentThread().getName());
-
-                    newSession.connect(hostInfo, user, password, database, 30000, new TransactionEventHandler() {
-
-                        @Override
-                        public void transactionCompleted() {
-                        }
-
-                        @Override
-                        public void transactionBegun() {
-                        }
-
-                    });
-                    newSession.getProtocol().sendCommand(new NativeMessageBuilder(newSession.getServerSession().supportsQueryAttributes())
-                            .buildComQuery(newSession.getSharedSendPacket(), newSession, "KILL QUERY " + this.session.getThreadId()), false, 0);
-                    setCancelStatus(CancelStatus.CANCELED_BY_USER);
-                } catch (Throwable t) {
-                    span.setError(t);
-                    throw t;
-                } finally {
-                    span.end();
+                if (!this.query.getStatementExecuting().get()) {
+                    return;
                 }
+                CancelQueryService.forSession(this.session).killQuery(this.session, this.session.getThreadId(), System.nanoTime());
+                setCancelStatus(CancelStatus.CANCELED_BY_USER);
             } catch (IOException e) {
                 throw SQLExceptionsMapping.translateException(e, this.exceptionInterceptor);
             } finally {
-                if (newSession != null) {
-                    newSession.forceClose();
-                }
+                cancelTimeoutLock.unlock();
             }
-
         }
     }
 
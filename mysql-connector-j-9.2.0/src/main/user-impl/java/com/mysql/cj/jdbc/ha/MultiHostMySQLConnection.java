@@ -51,6 +51,7 @@ import com.mysql.cj.jdbc.CloseOption;
 import com.mysql.cj.jdbc.JdbcConnection;
 import com.mysql.cj.jdbc.JdbcPreparedStatement;
 import com.mysql.cj.jdbc.JdbcPropertySet;
+import com.mysql.cj.jdbc.QueryPipeline;
 import com.mysql.cj.jdbc.exceptions.SQLError;
 import com.mysql.cj.jdbc.result.CachedResultSetMetaData;
 import com.mysql.cj.jdbc.result.ResultSetInternalMethods;
@@ -647,6 +648,11 @@ public class MultiHostMySQLConnection implements JdbcConnection {
         getActiveMySQLConnection().setSessionMaxRows(max);
     }
 
+    @Override
+    public QueryPipeline pipeline() throws SQLException {
+        return getActiveMySQLConnection().pipeline();
+    }
+
     @Override
     public SQLXML createSQLXML() throws SQLException {
         return getActiveMySQLConnection().createSQLXML();
@@ -100,6 +100,7 @@ import com.mysql.cj.result.LocalTimeValueFactory;
 import com.mysql.cj.result.LongValueFactory;
 import com.mysql.cj.result.OffsetDateTimeValueFactory;
 import com.mysql.cj.result.OffsetTimeValueFactory;
+import com.mysql.cj.result.PrimitiveValueFactory;
 import com.mysql.cj.result.ShortValueFactory;
 import com.mysql.cj.result.SqlDateValueFactory;
 import com.mysql.cj.result.SqlTimeValueFactory;
@@ -186,10 +187,10 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
     private ValueFactory<Boolean> booleanValueFactory;
     private ValueFactory<Byte> byteValueFactory;
     private ValueFactory<Short> shortValueFactory;
-    private ValueFactory<Integer> integerValueFactory;
-    private ValueFactory<Long> longValueFactory;
+    private PrimitiveValueFactory.OfInt integerValueFactory;
+    private PrimitiveValueFactory.OfLong longValueFactory;
     private ValueFactory<Float> floatValueFactory;
-    private ValueFactory<Double> doubleValueFactory;
+    private PrimitiveValueFactory.OfDouble doubleValueFactory;
     private ValueFactory<BigDecimal> bigDecimalValueFactory;
     private ValueFactory<InputStream> binaryStreamValueFactory;
     private ValueFactory<Time> defaultTimeValueFactory;
@@ -827,8 +828,15 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public double getDouble(int columnIndex) throws SQLException {
-        Double res = getObject(columnIndex, Double.TYPE);
-        return res == null ? (double) 0 : res;
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkRowPos();
+            checkColumnBounds(columnIndex);
+            return this.thisRow.getDouble(columnIndex - 1, this.doubleValueFactory);
+        } finally {
+            connectionLock.unlock();
+        }
     }
 
     @Override
@@ -849,8 +857,15 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public int getInt(int columnIndex) throws SQLException {
-        Integer res = getObject(columnIndex, Integer.TYPE);
-        return res == null ? 0 : res;
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkRowPos();
+            checkColumnBounds(columnIndex);
+            return this.thisRow.getInt(columnIndex - 1, this.integerValueFactory);
+        } finally {
+            connectionLock.unlock();
+        }
     }
 
     @Override
@@ -875,8 +890,15 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public long getLong(int columnIndex) throws SQLException {
-        Long res = getObject(columnIndex, Long.TYPE);
-        return res == null ? 0L : res;
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkRowPos();
+            checkColumnBounds(columnIndex);
+            return this.thisRow.getLong(columnIndex - 1, this.longValueFactory);
+        } finally {
+            connectionLock.unlock();
+        }
     }
 
     @Override
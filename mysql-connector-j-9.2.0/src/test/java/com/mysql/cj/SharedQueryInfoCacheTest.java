@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Proxy;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.conf.DefaultPropertySet;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.protocol.ServerSession;
+
+/**
+ * Tests for {@link SharedQueryInfoCache}.
+ */
+public class SharedQueryInfoCacheTest {
+
+    private static Session newSession(PropertySet propertySet, boolean noBackslashEscapes) {
+        ServerSession serverSession = (ServerSession) Proxy.newProxyInstance(SharedQueryInfoCacheTest.class.getClassLoader(),
+                new Class<?>[] { ServerSession.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("isNoBackslashEscapesSet")) {
+                        return noBackslashEscapes;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return (Session) Proxy.newProxyInstance(SharedQueryInfoCacheTest.class.getClassLoader(), new Class<?>[] { Session.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getPropertySet":
+                            return propertySet;
+                        case "getServerSession":
+                            return serverSession;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Test
+    public void testSharedBetweenSessions() {
+        SharedQueryInfoCache cache = new SharedQueryInfoCache(1024 * 1024);
+        Session session1 = newSession(new DefaultPropertySet(), false);
+        Session session2 = newSession(new DefaultPropertySet(), false);
+
+        QueryInfo queryInfo = cache.getQueryInfo("SELECT * FROM t WHERE id = ?", session1, "UTF-8");
+        assertEquals(1, queryInfo.getNumberOfPlaceholders());
+        assertSame(queryInfo, cache.getQueryInfo("SELECT * FROM t WHERE id = ?", session2, "UTF-8"));
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getSize());
+    }
+
+    @Test
+    public void testKeyedByEncodingAndParsingSettings() {
+        SharedQueryInfoCache cache = new SharedQueryInfoCache(1024 * 1024);
+        String sql = "INSERT INTO t VALUES (?, '\\'?')";
+        PropertySet rewriting = new DefaultPropertySet();
+        rewriting.getBooleanProperty(PropertyKey.rewriteBatchedStatements).setValue(true);
+
+        QueryInfo queryInfo = cache.getQueryInfo(sql, newSession(new DefaultPropertySet(), false), "UTF-8");
+        assertNotSame(queryInfo, cache.getQueryInfo(sql, newSession(new DefaultPropertySet(), false), "ISO-8859-1"));
+        assertNotSame(queryInfo, cache.getQueryInfo(sql, newSession(rewriting, false), "UTF-8"));
+
+        // Without backslash escapes the quoted '\' ends the string literal, so the second '?' is a placeholder.
+        QueryInfo noBackslashEscapes = cache.getQueryInfo(sql, newSession(new DefaultPropertySet(), true), "UTF-8");
+        assertNotSame(queryInfo, noBackslashEscapes);
+        assertEquals(1, queryInfo.getNumberOfPlaceholders());
+        assertEquals(2, noBackslashEscapes.getNumberOfPlaceholders());
+        assertEquals(4, cache.getStats().getSize());
+    }
+
+    @Test
+    public void testLongQueriesNotCached() {
+        SharedQueryInfoCache cache = new SharedQueryInfoCache(1024 * 1024);
+        PropertySet propertySet = new DefaultPropertySet();
+        propertySet.getIntegerProperty(PropertyKey.prepStmtCacheSqlLimit).setValue(10);
+        Session session = newSession(propertySet, false);
+
+        QueryInfo queryInfo = cache.getQueryInfo("SELECT * FROM t WHERE id = ?", session, "UTF-8");
+        assertNotSame(queryInfo, cache.getQueryInfo("SELECT * FROM t WHERE id = ?", session, "UTF-8"));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ConnectionBag}.
+ */
+public class ConnectionBagTest {
+
+    static class TestEntry extends ConnectionBag.Entry {
+
+        final AtomicInteger users = new AtomicInteger();
+
+    }
+
+    @Test
+    public void testBorrowAndRequite() throws Exception {
+        ConnectionBag<TestEntry> bag = new ConnectionBag<>();
+        assertNull(bag.borrow(0, TimeUnit.MILLISECONDS));
+
+        TestEntry entry = new TestEntry();
+        bag.add(entry);
+        assertEquals(1, bag.getCount(ConnectionBag.STATE_IDLE));
+
+        assertSame(entry, bag.borrow(0, TimeUnit.MILLISECONDS));
+        assertEquals(ConnectionBag.STATE_IN_USE, entry.getState());
+        assertNull(bag.borrow(0, TimeUnit.MILLISECONDS));
+
+        bag.requite(entry);
+        assertEquals(ConnectionBag.STATE_IDLE, entry.getState());
+        assertSame(entry, bag.borrow(0, TimeUnit.MILLISECONDS));
+        assertEquals(1, bag.getThreadLocalBorrowCount());
+        assertEquals(1, bag.getSharedBorrowCount());
+    }
+
+    @Test
+    public void testThreadLocalAffinity() throws Exception {
+        ConnectionBag<TestEntry> bag = new ConnectionBag<>();
+        TestEntry first = new TestEntry();
+        TestEntry second = new TestEntry();
+        bag.add(first);
+        bag.add(second);
+
+        TestEntry a = bag.borrow(0, TimeUnit.MILLISECONDS);
+        TestEntry b = bag.borrow(0, TimeUnit.MILLISECONDS);
+        bag.requite(a);
+        bag.requite(b);
+
+        // The most recently returned entry comes back first.
+        assertSame(b, bag.borrow(0, TimeUnit.MILLISECONDS));
+        assertSame(a, bag.borrow(0, TimeUnit.MILLISECONDS));
+        assertEquals(2, bag.getThreadLocalBorrowCount());
+    }
+
+    @Test
+    public void testReserveAndRemove() throws Exception {
+        ConnectionBag<TestEntry> bag = new ConnectionBag<>();
+        TestEntry entry = new TestEntry();
+        bag.add(entry);
+
+        assertFalse(bag.remove(entry));
+        assertTrue(bag.reserve(entry));
+        assertNull(bag.borrow(0, TimeUnit.MILLISECONDS));
+        bag.unreserve(entry);
+        assertSame(entry, bag.borrow(0, TimeUnit.MILLISECONDS));
+        bag.requite(entry);
+
+        assertTrue(bag.reserve(entry));
+        assertTrue(bag.remove(entry));
+        assertEquals(0, bag.size());
+        assertEquals(ConnectionBag.STATE_REMOVED, entry.getState());
+        assertNull(bag.borrow(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testHandoffToWaiter() throws Exception {
+        ConnectionBag<TestEntry> bag = new ConnectionBag<>();
+        TestEntry entry = new TestEntry();
+        bag.add(entry);
+        assertSame(entry, bag.borrow(0, TimeUnit.MILLISECONDS));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<TestEntry> waiter = executor.submit(() -> bag.borrow(10, TimeUnit.SECONDS));
+            while (bag.getWaitingThreadCount() == 0) {
+                Thread.sleep(1);
+            }
+            bag.requite(entry);
+            assertSame(entry, waiter.get(10, TimeUnit.SECONDS));
+            assertEquals(ConnectionBag.STATE_IN_USE, entry.getState());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBorrowTimesOut() throws Exception {
+        ConnectionBag<TestEntry> bag = new ConnectionBag<>();
+        TestEntry entry = new TestEntry();
+        bag.add(entry);
+        bag.borrow(0, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        assertNull(bag.borrow(50, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, bag.getWaitingThreadCount());
+    }
+
+    @Test
+    public void testConcurrentBorrowersNeverShareAnEntry() throws Exception {
+        ConnectionBag<TestEntry> bag = new ConnectionBag<>();
+        List<TestEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TestEntry entry = new TestEntry();
+            entries.add(entry);
+            bag.add(entry);
+        }
+
+        int threads = 8;
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 2000; i++) {
+                        TestEntry entry = bag.borrow(10, TimeUnit.SECONDS);
+                        if (entry == null || entry.users.incrementAndGet() != 1) {
+                            failures.incrementAndGet();
+                        }
+                        if (entry != null) {
+                            entry.users.decrementAndGet();
+                            bag.requite(entry);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, failures.get());
+        assertEquals(4, bag.getCount(ConnectionBag.STATE_IDLE));
+        assertEquals(threads * 2000, bag.getThreadLocalBorrowCount() + bag.getSharedBorrowCount() + bag.getHandoffBorrowCount());
+    }
+
+}
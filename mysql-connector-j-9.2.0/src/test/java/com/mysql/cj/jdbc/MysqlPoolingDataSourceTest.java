@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the session state {@link MysqlPoolingDataSource} restores on returned connections.
+ */
+public class MysqlPoolingDataSourceTest {
+
+    /**
+     * A JdbcConnection that only keeps its client-side session state and records the calls that change it.
+     */
+    static class FakeConnection {
+
+        final Map<String, Object> state = new HashMap<>();
+        final List<String> changes = new ArrayList<>();
+        final JdbcConnection connection;
+
+        FakeConnection() {
+            this.state.put("AutoCommit", true);
+            this.state.put("Database", "test");
+            this.state.put("ReadOnly", false);
+            this.state.put("TransactionIsolation", Connection.TRANSACTION_REPEATABLE_READ);
+            this.state.put("Holdability", ResultSet.CLOSE_CURSORS_AT_COMMIT);
+            this.connection = (JdbcConnection) Proxy.newProxyInstance(JdbcConnection.class.getClassLoader(), new Class<?>[] { JdbcConnection.class },
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("rollback")) {
+                            this.changes.add(name);
+                            return null;
+                        } else if (name.startsWith("set")) {
+                            this.changes.add(name + "(" + args[0] + ")");
+                            this.state.put(name.substring(3), args[0]);
+                            return null;
+                        } else if (name.startsWith("get")) {
+                            return this.state.get(name.substring(3));
+                        } else if (name.equals("isReadOnly")) {
+                            return this.state.get("ReadOnly");
+                        }
+                        throw new UnsupportedOperationException(name);
+                    });
+        }
+
+    }
+
+    @Test
+    public void testRestoreChangedState() throws Exception {
+        FakeConnection fake = new FakeConnection();
+        MysqlPoolingDataSource.SessionState initialState = new MysqlPoolingDataSource.SessionState(fake.connection);
+
+        fake.connection.setAutoCommit(false);
+        fake.connection.setDatabase("other");
+        fake.connection.setReadOnly(true);
+        fake.connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        fake.connection.setHoldability(ResultSet.HOLD_CURSORS_OVER_COMMIT);
+        fake.changes.clear();
+
+        initialState.restore(fake.connection);
+
+        // The transaction is rolled back before auto-commit is switched back on, which would commit it
+        assertEquals(Arrays.asList("rollback", "setAutoCommit(true)", "setDatabase(test)", "setReadOnly(false)",
+                "setTransactionIsolation(" + Connection.TRANSACTION_REPEATABLE_READ + ")", "setHoldability(" + ResultSet.CLOSE_CURSORS_AT_COMMIT + ")"),
+                fake.changes);
+        assertEquals(true, fake.state.get("AutoCommit"));
+        assertEquals("test", fake.state.get("Database"));
+        assertEquals(false, fake.state.get("ReadOnly"));
+        assertEquals(Connection.TRANSACTION_REPEATABLE_READ, fake.state.get("TransactionIsolation"));
+        assertEquals(ResultSet.CLOSE_CURSORS_AT_COMMIT, fake.state.get("Holdability"));
+    }
+
+    @Test
+    public void testRestoreUnchangedState() throws Exception {
+        FakeConnection fake = new FakeConnection();
+        MysqlPoolingDataSource.SessionState initialState = new MysqlPoolingDataSource.SessionState(fake.connection);
+
+        initialState.restore(fake.connection);
+
+        assertEquals(Collections.emptyList(), fake.changes);
+    }
+
+    @Test
+    public void testRestoreManualCommitConnection() throws Exception {
+        FakeConnection fake = new FakeConnection();
+        fake.state.put("AutoCommit", false);
+        MysqlPoolingDataSource.SessionState initialState = new MysqlPoolingDataSource.SessionState(fake.connection);
+
+        fake.connection.setDatabase("other");
+        fake.changes.clear();
+
+        initialState.restore(fake.connection);
+
+        // A connection opened without auto-commit stays without it, and its open transaction is rolled back
+        assertEquals(Arrays.asList("rollback", "setDatabase(test)"), fake.changes);
+        assertEquals(false, fake.state.get("AutoCommit"));
+    }
+
+}
@@ -25,6 +25,9 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigDecimal;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import com.mysql.cj.Constants;
@@ -32,7 +35,9 @@ import com.mysql.cj.conf.DefaultPropertySet;
 import com.mysql.cj.exceptions.NumberOutOfRange;
 import com.mysql.cj.protocol.InternalTime;
 import com.mysql.cj.protocol.InternalTimestamp;
+import com.mysql.cj.result.BigDecimalValueFactory;
 import com.mysql.cj.result.DefaultValueFactory;
+import com.mysql.cj.result.DoubleValueFactory;
 import com.mysql.cj.result.Field;
 import com.mysql.cj.result.StringValueFactory;
 import com.mysql.cj.result.ValueFactory;
@@ -187,4 +192,41 @@ public class MysqlTextValueDecoderTest {
         assertFalse(MysqlTextValueDecoder.isTimestamp("2004-01-01 10:00:00+01:00"));
     }
 
+    @Test
+    public void testDoubleValues() {
+        String[] values = { "0", "-0", "1", "-1", "0.1", "3.14", "-2.5", "1e10", "1E-10", "1.5e+3", "123456789012345", "1234567890123456789",
+                "0.30000000000000004", "4.9e-324", "1.7976931348623157e308", "2.2250738585072014e-308", "9007199254740993", "0.000001", "-1.25e-5",
+                "123.456e20", "1e22", "1e23", "12345678901234567890e-5", "NaN", "Infinity", "-Infinity" };
+        for (String value : values) {
+            byte[] bytes = ("##" + value + "##").getBytes();
+            assertEquals(Double.parseDouble(value), MysqlTextValueDecoder.getDouble(bytes, 2, value.length()), value);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            String value = i % 2 == 0 ? Double.toString(Double.longBitsToDouble(random.nextLong())) : Double.toString(random.nextInt() / 1000.0);
+            byte[] bytes = value.getBytes();
+            assertEquals(Double.parseDouble(value), MysqlTextValueDecoder.getDouble(bytes, 0, bytes.length), value);
+        }
+
+        assertThrows(NumberFormatException.class, () -> MysqlTextValueDecoder.getDouble("1.2.3".getBytes(), 0, 5));
+        assertThrows(NumberFormatException.class, () -> MysqlTextValueDecoder.getDouble("1e".getBytes(), 0, 2));
+        assertThrows(NumberFormatException.class, () -> MysqlTextValueDecoder.getDouble("-".getBytes(), 0, 1));
+    }
+
+    @Test
+    public void testDecimalValues() {
+        ValueFactory<BigDecimal> vf = new BigDecimalValueFactory(new DefaultPropertySet());
+        String[] values = { "0", "0.00", "-0.50", "12345.6789", "-999999999999999999", "99999999999999999.9", "1234567890123456789.12",
+                "-0.000000000000000000001", "+7.5" };
+        for (String value : values) {
+            byte[] bytes = value.getBytes();
+            assertEquals(new BigDecimal(value), this.valueDecoder.decodeDecimal(bytes, 0, bytes.length, vf), value);
+        }
+
+        ValueFactory<Double> dvf = new DoubleValueFactory(new DefaultPropertySet());
+        assertEquals(12345.6789, this.valueDecoder.decodeDecimal("12345.6789".getBytes(), 0, 10, dvf).doubleValue());
+        assertEquals(-0.1, this.valueDecoder.decodeDecimal("-0.10".getBytes(), 0, 5, dvf).doubleValue());
+    }
+
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol.a.result;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.MysqlType;
+import com.mysql.cj.conf.DefaultPropertySet;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.exceptions.NumberOutOfRange;
+import com.mysql.cj.protocol.a.MysqlBinaryValueDecoder;
+import com.mysql.cj.result.DefaultColumnDefinition;
+import com.mysql.cj.result.DoubleValueFactory;
+import com.mysql.cj.result.Field;
+import com.mysql.cj.result.IntegerValueFactory;
+import com.mysql.cj.result.LongValueFactory;
+
+/**
+ * Tests for the primitive getters of {@link ByteArrayRow}.
+ */
+public class ByteArrayRowTest {
+
+    private PropertySet propertySet = new DefaultPropertySet();
+    private IntegerValueFactory integerValueFactory = new IntegerValueFactory(this.propertySet);
+    private LongValueFactory longValueFactory = new LongValueFactory(this.propertySet);
+    private DoubleValueFactory doubleValueFactory = new DoubleValueFactory(this.propertySet);
+
+    @Test
+    public void testTextRow() {
+        Field[] fields = new Field[] { new Field("t", "i", 63, "US-ASCII", MysqlType.INT, 11), new Field("t", "b", 63, "US-ASCII", MysqlType.BIGINT, 20),
+                new Field("t", "d", 63, "US-ASCII", MysqlType.DOUBLE, 22), new Field("t", "n", 63, "US-ASCII", MysqlType.INT, 11),
+                new Field("t", "s", 63, "US-ASCII", MysqlType.VARCHAR, 10), new Field("t", "u", 63, "US-ASCII", MysqlType.BIGINT_UNSIGNED, 20) };
+        byte[][] values = new byte[][] { ascii("-123"), ascii("9876543210"), ascii("2.5"), null, ascii("42"), ascii("18446744073709551615") };
+        ByteArrayRow row = new ByteArrayRow(values, null);
+        row.setMetadata(new DefaultColumnDefinition(fields));
+
+        assertEquals(-123, row.getInt(0, this.integerValueFactory));
+        assertFalse(row.wasNull());
+        assertEquals(-123L, row.getLong(0, this.longValueFactory));
+        assertEquals(-123d, row.getDouble(0, this.doubleValueFactory));
+        assertEquals(9876543210L, row.getLong(1, this.longValueFactory));
+        assertEquals(2.5d, row.getDouble(2, this.doubleValueFactory));
+        assertEquals(2, row.getInt(2, this.integerValueFactory));
+        assertEquals(2L, row.getLong(2, this.longValueFactory));
+
+        assertEquals(0, row.getInt(3, this.integerValueFactory));
+        assertTrue(row.wasNull());
+        assertEquals(0d, row.getDouble(3, this.doubleValueFactory));
+        assertTrue(row.wasNull());
+
+        // other types go through the boxed value factory methods
+        assertEquals(42, row.getInt(4, this.integerValueFactory));
+        assertFalse(row.wasNull());
+        assertEquals(1.8446744073709552E19, row.getDouble(5, this.doubleValueFactory));
+
+        assertThrows(NumberOutOfRange.class, () -> row.getInt(1, this.integerValueFactory));
+        assertThrows(NumberOutOfRange.class, () -> row.getLong(5, this.longValueFactory));
+    }
+
+    @Test
+    public void testBinaryRow() {
+        Field[] fields = new Field[] { binaryField(MysqlType.FIELD_TYPE_TINY, true), binaryField(MysqlType.FIELD_TYPE_SHORT, false),
+                binaryField(MysqlType.FIELD_TYPE_LONG, true), binaryField(MysqlType.FIELD_TYPE_LONGLONG, false), binaryField(MysqlType.FIELD_TYPE_FLOAT, false),
+                binaryField(MysqlType.FIELD_TYPE_DOUBLE, false), binaryField(MysqlType.FIELD_TYPE_YEAR, true) };
+        byte[][] values = new byte[][] { new byte[] { (byte) 0xff }, le(2).putShort((short) -2).array(), le(4).putInt(-1).array(),
+                le(8).putLong(Long.MIN_VALUE).array(), le(4).putFloat(1.5f).array(), le(8).putDouble(-0.25).array(), le(2).putShort((short) 2024).array() };
+        ByteArrayRow row = new ByteArrayRow(values, null, new MysqlBinaryValueDecoder());
+        row.setMetadata(new DefaultColumnDefinition(fields));
+
+        for (int i = 0; i < fields.length; i++) {
+            assertEquals(row.getValue(i, this.doubleValueFactory), row.getDouble(i, this.doubleValueFactory), fields[i].toString());
+        }
+        assertEquals(255, row.getInt(0, this.integerValueFactory));
+        assertEquals(-2, row.getInt(1, this.integerValueFactory));
+        assertEquals(4294967295L, row.getLong(2, this.longValueFactory));
+        assertEquals(Long.MIN_VALUE, row.getLong(3, this.longValueFactory));
+        assertEquals(1, row.getInt(4, this.integerValueFactory));
+        assertEquals(2024, row.getInt(6, this.integerValueFactory));
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static ByteBuffer le(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static Field binaryField(int mysqlTypeId, boolean unsigned) {
+        Field f = new Field("t", "c" + mysqlTypeId, 63, "US-ASCII", MysqlType.INT, 11);
+        f.setMysqlTypeId(mysqlTypeId);
+        if (unsigned) {
+            f.setFlags((short) MysqlType.FIELD_FLAG_UNSIGNED);
+        }
+        return f;
+    }
+
+}
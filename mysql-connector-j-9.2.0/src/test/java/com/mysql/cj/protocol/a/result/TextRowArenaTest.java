@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol.a.result;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.MysqlType;
+import com.mysql.cj.conf.DefaultPropertySet;
+import com.mysql.cj.protocol.a.NativePacketPayload;
+import com.mysql.cj.result.DefaultColumnDefinition;
+import com.mysql.cj.result.Field;
+import com.mysql.cj.result.IntegerValueFactory;
+import com.mysql.cj.result.Row;
+import com.mysql.cj.result.StringValueFactory;
+
+/**
+ * Tests for {@link TextRowArena}.
+ */
+public class TextRowArenaTest {
+
+    private DefaultColumnDefinition columnDefinition = new DefaultColumnDefinition(
+            new Field[] { new Field("t", "id", 63, "US-ASCII", MysqlType.INT, 11), new Field("t", "name", 63, "US-ASCII", MysqlType.VARCHAR, 200) });
+    private IntegerValueFactory integerValueFactory = new IntegerValueFactory(new DefaultPropertySet());
+    private StringValueFactory stringValueFactory = new StringValueFactory(new DefaultPropertySet());
+
+    @Test
+    public void testRows() {
+        TextRowArena arena = new TextRowArena(-1, this.columnDefinition, null);
+        NativePacketPayload packet = new NativePacketPayload(1024);
+        for (int i = 0; i < 10000; i++) {
+            String name = i % 10 == 0 ? null : repeat('x', i % 200);
+            Row row = arena.append(rowPacket(packet, String.valueOf(i), name));
+            assertEquals(i, row.getInt(0, this.integerValueFactory));
+        }
+        assertEquals(10000, arena.size());
+
+        ResultsetRowsStatic rows = new ResultsetRowsStatic(arena, this.columnDefinition);
+        for (int i = 0; i < 10000; i++) {
+            Row row = rows.next();
+            assertEquals(i, row.getInt(0, this.integerValueFactory));
+            if (i % 10 == 0) {
+                assertNull(row.getValue(1, this.stringValueFactory));
+                assertTrue(row.wasNull());
+            } else {
+                assertEquals(repeat('x', i % 200), row.getValue(1, this.stringValueFactory));
+                assertFalse(row.wasNull());
+            }
+        }
+        assertNull(rows.next());
+
+        // random access and repeated access to the same column
+        Row row = rows.get(4321);
+        assertEquals(repeat('x', 4321 % 200), row.getValue(1, this.stringValueFactory));
+        assertEquals(4321, row.getInt(0, this.integerValueFactory));
+        assertEquals(repeat('x', 4321 % 200), new String(row.getBytes(1), StandardCharsets.US_ASCII));
+        assertEquals(17, rows.get(17).getInt(0, this.integerValueFactory));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> arena.get(10000));
+        assertThrows(UnsupportedOperationException.class, () -> arena.remove(0));
+    }
+
+    @Test
+    public void testMaxRows() {
+        TextRowArena arena = new TextRowArena(3, this.columnDefinition, null);
+        NativePacketPayload packet = new NativePacketPayload(1024);
+        for (int i = 0; i < 5; i++) {
+            arena.append(rowPacket(packet, String.valueOf(i), "name"));
+        }
+        assertEquals(3, arena.size());
+        assertEquals(2, arena.get(2).getInt(0, this.integerValueFactory));
+
+        TextRowArena empty = new TextRowArena(0, this.columnDefinition, null);
+        assertTrue(empty.append(rowPacket(packet, "1", "name")) != null);
+        assertTrue(empty.isEmpty());
+    }
+
+    /**
+     * Fills the reusable packet with a text protocol row, like the packet reader does.
+     */
+    private static NativePacketPayload rowPacket(NativePacketPayload packet, String... values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String value : values) {
+            if (value == null) {
+                out.write(0xfb);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+                out.write(bytes.length);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+        byte[] bytes = out.toByteArray();
+        System.arraycopy(bytes, 0, packet.getByteBuffer(), 0, bytes.length);
+        packet.setPayloadLength(bytes.length);
+        packet.setPosition(0);
+        return packet;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.result;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.MysqlType;
+import com.mysql.cj.util.LazyString;
+
+/**
+ * Tests for {@link ColumnLabelIndex} and {@link DefaultColumnDefinition#findColumn(String, boolean, int)}.
+ */
+public class ColumnLabelIndexTest {
+
+    @Test
+    public void testLookupPrecedence() {
+        Field[] fields = new Field[] { field("t1", "id", "id"), field("t1", "name", "full_name"), field("t2", "Name", "name"), field("t2", "Id", "user_id") };
+        ColumnLabelIndex index = new ColumnLabelIndex(fields);
+
+        // labels are case-insensitive and the first matching column wins
+        assertEquals(0, index.find("id", false));
+        assertEquals(0, index.find("ID", false));
+        assertEquals(1, index.find("NAME", false));
+
+        // original column names only match if enabled, and labels take precedence
+        assertEquals(-1, index.find("full_name", false));
+        assertEquals(1, index.find("Full_Name", true));
+        assertEquals(3, index.find("user_id", true));
+        assertEquals(1, index.find("name", true));
+
+        // full names
+        assertEquals(2, index.find("T2.name", false));
+        assertEquals(3, index.find("t2.id", false));
+
+        assertEquals(-1, index.find("t3.id", true));
+        assertEquals(-1, index.find("", true));
+        assertEquals(-1, index.find(null, true));
+    }
+
+    @Test
+    public void testManyColumns() {
+        Field[] fields = new Field[500];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = field("t", "col" + i, null);
+        }
+        DefaultColumnDefinition columnDefinition = new DefaultColumnDefinition(fields);
+
+        for (int i = 0; i < fields.length; i++) {
+            assertEquals(i + 1, columnDefinition.findColumn("COL" + i, false, 1));
+            assertEquals(i, columnDefinition.findColumn(new String("t.col" + i), false, 0));
+        }
+        assertEquals(-1, columnDefinition.findColumn("col500", false, 1));
+    }
+
+    @Test
+    public void testSharedIndex() {
+        Field[] fields = new Field[] { field("t", "a", null), field("t", "b", null) };
+        DefaultColumnDefinition cached = new DefaultColumnDefinition(fields);
+        cached.buildIndexMapping();
+
+        DefaultColumnDefinition columnDefinition = new DefaultColumnDefinition();
+        columnDefinition.initializeFrom(cached);
+        assertEquals(cached.getColumnLabelIndex(), columnDefinition.getColumnLabelIndex());
+
+        String label = "B";
+        assertEquals(2, columnDefinition.findColumn(label, false, 1));
+        assertEquals(2, columnDefinition.findColumn(label, false, 1));
+
+        // a new index invalidates the remembered lookups
+        columnDefinition.setColumnLabelIndex(new ColumnLabelIndex(new Field[] { fields[1], fields[0] }));
+        assertEquals(1, columnDefinition.findColumn(label, false, 1));
+    }
+
+    private static Field field(String table, String label, String originalName) {
+        return new Field(new LazyString("db"), new LazyString(table), new LazyString(table), new LazyString(label), new LazyString(originalName), 11,
+                MysqlType.FIELD_TYPE_LONG, (short) 0, 0, 63, "US-ASCII", MysqlType.INT);
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link TimerWheel}.
+ */
+public class TimerWheelTest {
+
+    @Test
+    public void testTasksRunInDeadlineOrder() throws Exception {
+        TimerWheel wheel = new TimerWheel("test-timer", 1, TimeUnit.MILLISECONDS);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        wheel.schedule(() -> {
+            order.add(3);
+            done.countDown();
+        }, 90, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> {
+            order.add(1);
+            done.countDown();
+        }, 10, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> {
+            order.add(2);
+            done.countDown();
+        }, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(3, order.size());
+        assertEquals(1, order.get(0).intValue());
+        assertEquals(2, order.get(1).intValue());
+        assertEquals(3, order.get(2).intValue());
+    }
+
+    @Test
+    public void testTaskDoesNotRunEarly() throws Exception {
+        TimerWheel wheel = new TimerWheel("test-timer", 1, TimeUnit.MILLISECONDS);
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        long[] ranAfter = new long[1];
+
+        wheel.schedule(() -> {
+            ranAfter[0] = System.nanoTime() - start;
+            done.countDown();
+        }, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(ranAfter[0] >= TimeUnit.MILLISECONDS.toNanos(30), "ran after " + ranAfter[0] + " ns");
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        TimerWheel wheel = new TimerWheel("test-timer", 1, TimeUnit.MILLISECONDS);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        TimerWheel.Timeout cancelled = wheel.schedule(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        TimerWheel.Timeout expiring = wheel.schedule(done::countDown, 60, TimeUnit.MILLISECONDS);
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertTrue(cancelled.isCancelled());
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+        assertTrue(expiring.isExpired());
+        assertFalse(expiring.cancel());
+    }
+
+    @Test
+    public void testTimeoutsBeyondTheRootWheelAreCascaded() throws Exception {
+        // With a 1 ms tick the root wheel covers 256 ms, so these timeouts start in the second wheel.
+        TimerWheel wheel = new TimerWheel("test-timer", 1, TimeUnit.MILLISECONDS);
+        CountDownLatch done = new CountDownLatch(2);
+        long start = System.nanoTime();
+        long[] ranAfter = new long[2];
+
+        wheel.schedule(() -> {
+            ranAfter[0] = System.nanoTime() - start;
+            done.countDown();
+        }, 300, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> {
+            ranAfter[1] = System.nanoTime() - start;
+            done.countDown();
+        }, 700, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(ranAfter[0] >= TimeUnit.MILLISECONDS.toNanos(300));
+        assertTrue(ranAfter[1] >= TimeUnit.MILLISECONDS.toNanos(700));
+        assertTrue(ranAfter[1] < TimeUnit.MILLISECONDS.toNanos(5000));
+    }
+
+    @Test
+    public void testManyTimeouts() throws Exception {
+        TimerWheel wheel = new TimerWheel("test-timer", 1, TimeUnit.MILLISECONDS);
+        int count = 10000;
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(count / 2);
+
+        for (int i = 0; i < count; i++) {
+            TimerWheel.Timeout timeout = wheel.schedule(() -> {
+                runs.incrementAndGet();
+                done.countDown();
+            }, i % 400, TimeUnit.MILLISECONDS);
+            if (i % 2 == 1) {
+                timeout.cancel();
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(count / 2, runs.get());
+    }
+
+}
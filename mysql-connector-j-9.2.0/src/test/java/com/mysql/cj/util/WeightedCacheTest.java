@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link WeightedCache}.
+ */
+public class WeightedCacheTest {
+
+    @Test
+    public void testGetAndPut() {
+        WeightedCache<String, Integer> cache = new WeightedCache<>(10);
+
+        assertNull(cache.get("a"));
+        assertNull(cache.put("a", 1));
+        assertEquals(1, cache.get("a").intValue());
+        assertEquals(1, cache.put("a", 2).intValue());
+        assertEquals(2, cache.get("a").intValue());
+        assertEquals(2, cache.remove("a").intValue());
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEntryLimit() {
+        WeightedCache<Integer, Integer> cache = new WeightedCache<>(100);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 100);
+        }
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    public void testWeightLimit() {
+        WeightedCache<String, String> cache = new WeightedCache<>(1000, 1000, (k, v) -> v.length(), null);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("k" + i, new String(new char[50]));
+            assertTrue(cache.weightedSize() <= 1000);
+        }
+        assertTrue(cache.weightedSize() >= 900);
+
+        // An entry heavier than the whole cache is not cached.
+        cache.put("huge", new String(new char[1001]));
+        assertNull(cache.get("huge"));
+    }
+
+    @Test
+    public void testFrequentEntriesSurviveScan() {
+        WeightedCache<String, Integer> cache = new WeightedCache<>(200);
+
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                if (cache.get("hot" + i) == null) {
+                    cache.put("hot" + i, i);
+                }
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            cache.put("scan" + i, i);
+        }
+
+        int retained = 0;
+        for (int i = 0; i < 100; i++) {
+            if (cache.get("hot" + i) != null) {
+                retained++;
+            }
+        }
+        assertTrue(retained >= 90, "only " + retained + " frequent entries retained");
+        assertTrue(cache.getStats().getRejections() > 0);
+    }
+
+    @Test
+    public void testEvictionListenerAndStats() {
+        List<Integer> evicted = new ArrayList<>();
+        WeightedCache<Integer, Integer> cache = new WeightedCache<>(10, 0, (k, v) -> 1, (k, v) -> evicted.add(v));
+
+        for (int i = 0; i < 30; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(20, evicted.size());
+        for (Integer value : evicted) {
+            assertFalse(cache.values().contains(value));
+        }
+
+        cache.get(29);
+        cache.get(-1);
+        WeightedCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate(), 0.001);
+        assertEquals(20, stats.getEvictions());
+        assertEquals(10, stats.getSize());
+        assertEquals(10, stats.getWeight());
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2024, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package testsuite.perf;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mysql.cj.MysqlType;
+import com.mysql.cj.conf.DefaultPropertySet;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.protocol.a.result.ByteArrayRow;
+import com.mysql.cj.result.BigDecimalValueFactory;
+import com.mysql.cj.result.DefaultColumnDefinition;
+import com.mysql.cj.result.DoubleValueFactory;
+import com.mysql.cj.result.Field;
+import com.mysql.cj.result.IntegerValueFactory;
+import com.mysql.cj.result.LongValueFactory;
+import com.mysql.cj.result.PrimitiveValueFactory;
+import com.mysql.cj.result.SqlTimestampValueFactory;
+import com.mysql.cj.result.ValueFactory;
+
+/**
+ * Measures decoding of text protocol column values the way {@link com.mysql.cj.jdbc.result.ResultSetImpl#getInt(int)},
+ * {@link com.mysql.cj.jdbc.result.ResultSetImpl#getLong(int)}, {@link com.mysql.cj.jdbc.result.ResultSetImpl#getDouble(int)},
+ * {@link com.mysql.cj.jdbc.result.ResultSetImpl#getBigDecimal(int)} and {@link com.mysql.cj.jdbc.result.ResultSetImpl#getTimestamp(int)} do it: by passing
+ * the result set's value factory to the current row. No server is needed.
+ *
+ * Run with the JMH GC profiler to see the bytes allocated per row in <code>gc.alloc.rate.norm</code>:
+ *
+ * <pre>
+ * java -cp &lt;testsuite classes&gt;:&lt;driver classes&gt;:&lt;JMH jars&gt; org.openjdk.jmh.Main TextRowDecodingBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TextRowDecodingBenchmark {
+
+    private static final int DOUBLE_COLUMN = 0;
+    private static final int DECIMAL_COLUMN = 1;
+    private static final int LONG_DECIMAL_COLUMN = 2;
+    private static final int TIMESTAMP_COLUMN = 3;
+    private static final int INT_COLUMN = 4;
+    private static final int BIGINT_COLUMN = 5;
+
+    private ByteArrayRow row;
+    private PrimitiveValueFactory.OfInt integerValueFactory;
+    private PrimitiveValueFactory.OfLong longValueFactory;
+    private PrimitiveValueFactory.OfDouble doubleValueFactory;
+    private ValueFactory<BigDecimal> bigDecimalValueFactory;
+    private ValueFactory<Timestamp> timestampValueFactory;
+
+    @Setup
+    public void setup() {
+        PropertySet propertySet = new DefaultPropertySet();
+        Field[] fields = new Field[] { new Field("t", "d", 63, "US-ASCII", MysqlType.DOUBLE, 22), new Field("t", "amount", 63, "US-ASCII", MysqlType.DECIMAL, 17),
+                new Field("t", "total", 63, "US-ASCII", MysqlType.DECIMAL, 40), new Field("t", "created", 63, "US-ASCII", MysqlType.TIMESTAMP, 26),
+                new Field("t", "id", 63, "US-ASCII", MysqlType.INT, 11), new Field("t", "version", 63, "US-ASCII", MysqlType.BIGINT, 20) };
+        byte[][] values = new byte[][] { "12345.678901".getBytes(StandardCharsets.US_ASCII), "-1234567.89".getBytes(StandardCharsets.US_ASCII),
+                "12345678901234567890123456.1234".getBytes(StandardCharsets.US_ASCII), "2024-05-17 13:45:21.123456".getBytes(StandardCharsets.US_ASCII),
+                "1234567".getBytes(StandardCharsets.US_ASCII), "-9876543210123".getBytes(StandardCharsets.US_ASCII) };
+
+        this.row = new ByteArrayRow(values, null);
+        this.row.setMetadata(new DefaultColumnDefinition(fields));
+
+        this.integerValueFactory = new IntegerValueFactory(propertySet);
+        this.longValueFactory = new LongValueFactory(propertySet);
+        this.doubleValueFactory = new DoubleValueFactory(propertySet);
+        this.bigDecimalValueFactory = new BigDecimalValueFactory(propertySet);
+        this.timestampValueFactory = new SqlTimestampValueFactory(propertySet, null, TimeZone.getDefault(), TimeZone.getDefault());
+    }
+
+    @Benchmark
+    public int getInt() {
+        return this.row.getInt(INT_COLUMN, this.integerValueFactory);
+    }
+
+    @Benchmark
+    public long getLong() {
+        return this.row.getLong(BIGINT_COLUMN, this.longValueFactory);
+    }
+
+    @Benchmark
+    public double getDouble() {
+        return this.row.getDouble(DOUBLE_COLUMN, this.doubleValueFactory);
+    }
+
+    @Benchmark
+    public double getDoubleFromDecimal() {
+        return this.row.getDouble(DECIMAL_COLUMN, this.doubleValueFactory);
+    }
+
+    @Benchmark
+    public BigDecimal getBigDecimal() {
+        return this.row.getValue(DECIMAL_COLUMN, this.bigDecimalValueFactory);
+    }
+
+    @Benchmark
+    public BigDecimal getBigDecimalBeyondLongRange() {
+        return this.row.getValue(LONG_DECIMAL_COLUMN, this.bigDecimalValueFactory);
+    }
+
+    @Benchmark
+    public Timestamp getTimestamp() {
+        return this.row.getValue(TIMESTAMP_COLUMN, this.timestampValueFactory);
+    }
+
+}
@@ -24,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assumptions.assumeFalse;
@@ -62,10 +63,13 @@ import java.sql.Types;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Properties;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -87,6 +91,7 @@ import com.mysql.cj.jdbc.ClientPreparedStatement;
 import com.mysql.cj.jdbc.JdbcConnection;
 import com.mysql.cj.jdbc.MysqlConnectionPoolDataSource;
 import com.mysql.cj.jdbc.NonRegisteringDriver;
+import com.mysql.cj.jdbc.QueryPipeline;
 import com.mysql.cj.jdbc.exceptions.CommunicationsException;
 import com.mysql.cj.protocol.MessageReader;
 import com.mysql.cj.protocol.MessageSender;
@@ -2394,4 +2399,142 @@ public class ConnectionTest extends BaseTestCase {
         con.close();
     }
 
+    /**
+     * Tests that pipelined statements are executed in order, that each one gets its own result or error and that the connection can be used afterwards.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testQueryPipeline() throws Exception {
+        createTable("testQueryPipeline", "(id INT PRIMARY KEY, name VARCHAR(20))");
+
+        try (QueryPipeline pipeline = ((JdbcConnection) this.conn).pipeline()) {
+            CompletableFuture<Long> insert1 = pipeline.addUpdate("INSERT INTO testQueryPipeline VALUES (1, 'a'), (2, 'b')");
+            CompletableFuture<Long> duplicate = pipeline.addUpdate("INSERT INTO testQueryPipeline VALUES (1, 'c')");
+            PreparedStatement ps = this.conn.prepareStatement("INSERT INTO testQueryPipeline VALUES (?, ?)");
+            ps.setInt(1, 3);
+            ps.setString(2, "c");
+            CompletableFuture<Long> insert2 = pipeline.addUpdate(ps);
+            ps.setInt(1, 4);
+            ps.setString(2, "d");
+            CompletableFuture<Long> insert3 = pipeline.addUpdate(ps);
+            CompletableFuture<ResultSet> select = pipeline.addQuery("SELECT id, name FROM testQueryPipeline ORDER BY id");
+            CompletableFuture<ResultSet> notAQuery = pipeline.addQuery("DELETE FROM testQueryPipeline WHERE id = 0");
+
+            assertFalse(insert1.isDone());
+            List<CompletableFuture<?>> futures = pipeline.execute();
+            assertEquals(6, futures.size());
+            assertSame(insert1, futures.get(0));
+            assertSame(select, futures.get(4));
+
+            assertEquals(2L, insert1.get().longValue());
+            assertTrue(duplicate.isCompletedExceptionally());
+            assertThrows(SQLException.class, ".*Duplicate entry.*", () -> {
+                try {
+                    duplicate.join();
+                } catch (CompletionException e) {
+                    throw (Exception) e.getCause();
+                }
+                return null;
+            });
+            assertEquals(1L, insert2.get().longValue());
+            assertEquals(1L, insert3.get().longValue());
+            this.rs = select.get();
+            for (int i = 1; i <= 4; i++) {
+                assertTrue(this.rs.next());
+                assertEquals(i, this.rs.getInt(1));
+            }
+            assertFalse(this.rs.next());
+            assertTrue(notAQuery.isCompletedExceptionally());
+
+            // The connection and the pipeline can be used again.
+            this.rs = this.stmt.executeQuery("SELECT COUNT(*) FROM testQueryPipeline");
+            assertTrue(this.rs.next());
+            assertEquals(4, this.rs.getInt(1));
+            assertEquals(0, pipeline.execute().size());
+
+            CompletableFuture<ResultSet> discarded = pipeline.addQuery("SELECT 1");
+            pipeline.close();
+            assertTrue(discarded.isCompletedExceptionally());
+            assertThrows(SQLException.class, "No operations allowed after pipeline closed\\.", () -> pipeline.addQuery("SELECT 1"));
+        }
+
+        try (QueryPipeline pipeline = ((JdbcConnection) this.conn).pipeline()) {
+            assertThrows(SQLException.class, "LOAD DATA statements cannot be added to a pipeline\\.",
+                    () -> pipeline.addUpdate("LOAD DATA LOCAL INFILE 'x' INTO TABLE testQueryPipeline"));
+
+            // JDBC escapes are processed as for statements executed on their own.
+            CompletableFuture<ResultSet> escaped = pipeline.addQuery("SELECT {fn CONCAT('a', 'b')}, {d '2025-01-31'}");
+            pipeline.execute();
+            this.rs = escaped.get();
+            assertTrue(this.rs.next());
+            assertEquals("ab", this.rs.getString(1));
+            assertEquals("2025-01-31", this.rs.getString(2));
+        }
+
+        Connection testConn = getConnectionWithProps("");
+        try (QueryPipeline pipeline = ((JdbcConnection) testConn).pipeline()) {
+            testConn.setReadOnly(true);
+            assertThrows(SQLException.class, "Connection is read-only\\. Queries leading to data modification are not allowed\\.",
+                    () -> pipeline.addUpdate("DELETE FROM testQueryPipeline"));
+            PreparedStatement ps = testConn.prepareStatement("INSERT INTO testQueryPipeline VALUES (?, ?)");
+            ps.setInt(1, 5);
+            ps.setString(2, "e");
+            assertThrows(SQLException.class, "Connection is read-only\\. Queries leading to data modification are not allowed",
+                    () -> pipeline.addUpdate(ps));
+            CompletableFuture<ResultSet> select = pipeline.addQuery("SELECT COUNT(*) FROM testQueryPipeline");
+            pipeline.execute();
+            this.rs = select.get();
+            assertTrue(this.rs.next());
+            assertEquals(4, this.rs.getInt(1));
+        } finally {
+            testConn.close();
+        }
+    }
+
+    /**
+     * Tests that a pipeline holding a large result followed by large statements completes instead of blocking both ends on full socket buffers.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testQueryPipelineLargeResultAndStatements() throws Exception {
+        createTable("testQueryPipelineLarge", "(id INT PRIMARY KEY, data LONGTEXT)");
+
+        final int dataLength = 1024 * 1024;
+        char[] chars = new char[dataLength];
+        Arrays.fill(chars, 'b');
+        String data = new String(chars);
+
+        Properties props = new Properties();
+        props.setProperty(PropertyKey.socketTimeout.getKeyName(), "60000");
+        Connection testConn = getConnectionWithProps(props);
+        try (QueryPipeline pipeline = ((JdbcConnection) testConn).pipeline()) {
+            CompletableFuture<ResultSet> select = pipeline.addQuery("SELECT REPEAT('a', " + 8 * dataLength + ")");
+            PreparedStatement ps = testConn.prepareStatement("INSERT INTO testQueryPipelineLarge VALUES (?, ?)");
+            List<CompletableFuture<Long>> inserts = new ArrayList<>();
+            for (int i = 1; i <= 8; i++) {
+                ps.setInt(1, i);
+                ps.setString(2, data);
+                inserts.add(pipeline.addUpdate(ps));
+            }
+            CompletableFuture<ResultSet> count = pipeline.addQuery("SELECT COUNT(*), SUM(LENGTH(data)) FROM testQueryPipelineLarge");
+
+            pipeline.execute();
+
+            this.rs = select.get();
+            assertTrue(this.rs.next());
+            assertEquals(8 * dataLength, this.rs.getString(1).length());
+            for (CompletableFuture<Long> insert : inserts) {
+                assertEquals(1L, insert.get().longValue());
+            }
+            this.rs = count.get();
+            assertTrue(this.rs.next());
+            assertEquals(8, this.rs.getInt(1));
+            assertEquals(8L * dataLength, this.rs.getLong(2));
+        } finally {
+            testConn.close();
+        }
+    }
+
 }
@@ -36,6 +36,7 @@ import java.sql.Connection;
 import java.sql.Date;
 import java.sql.JDBCType;
 import java.sql.NClob;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
@@ -1165,4 +1166,65 @@ public class ResultSetTest extends BaseTestCase {
         assertEquals(vectorHexString.toUpperCase(), StringUtils.toHexString(vectorBlobToBytes, vectorBlobToBytes.length).toUpperCase());
     }
 
+    /**
+     * Tests that forward-only, read-only result sets switch to streaming once they exceed 'adaptiveStreamingThreshold' and that scrollable result sets
+     * are still read into memory.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testAdaptiveStreamingThreshold() throws Exception {
+        createTable("testAdaptiveStreamingThreshold", "(id INT PRIMARY KEY, c VARCHAR(100))");
+        StringBuilder insert = new StringBuilder("INSERT INTO testAdaptiveStreamingThreshold VALUES ");
+        for (int i = 0; i < 200; i++) {
+            insert.append(i == 0 ? "" : ",").append("(").append(i).append(", REPEAT('x', 100))");
+        }
+        this.stmt.executeUpdate(insert.toString());
+
+        Properties props = new Properties();
+        props.setProperty(PropertyKey.sslMode.getKeyName(), "DISABLED");
+        props.setProperty(PropertyKey.allowPublicKeyRetrieval.getKeyName(), "true");
+        props.setProperty(PropertyKey.adaptiveStreamingThreshold.getKeyName(), "4k");
+
+        for (String useServerPrepStmts : new String[] { "false", "true" }) {
+            for (String useCompactRowStorage : new String[] { "false", "true" }) {
+                props.setProperty(PropertyKey.useServerPrepStmts.getKeyName(), useServerPrepStmts);
+                props.setProperty(PropertyKey.useCompactRowStorage.getKeyName(), useCompactRowStorage);
+                try (Connection testConn = getConnectionWithProps(props)) {
+                    PreparedStatement ps = testConn.prepareStatement("SELECT id, c FROM testAdaptiveStreamingThreshold ORDER BY id");
+                    ResultSet rs1 = ps.executeQuery();
+                    assertTrue(rs1.next());
+                    assertEquals(0, rs1.getInt(1));
+
+                    // The rest of the rows are still on the wire.
+                    Statement testStmt = testConn.createStatement();
+                    assertThrows(SQLException.class, "Streaming result set .* is still active\\..*", () -> testStmt.executeQuery("SELECT 1"));
+
+                    for (int i = 1; i < 200; i++) {
+                        assertTrue(rs1.next());
+                        assertEquals(i, rs1.getInt(1));
+                        assertEquals(100, rs1.getString(2).length());
+                    }
+                    assertFalse(rs1.next());
+                    rs1.close();
+
+                    ResultSet rs2 = testStmt.executeQuery("SELECT 1");
+                    assertTrue(rs2.next());
+                    rs2.close();
+
+                    // Scrollable result sets are always read into memory.
+                    ps = testConn.prepareStatement("SELECT id, c FROM testAdaptiveStreamingThreshold ORDER BY id", ResultSet.TYPE_SCROLL_INSENSITIVE,
+                            ResultSet.CONCUR_READ_ONLY);
+                    ResultSet rs3 = ps.executeQuery();
+                    assertTrue(rs3.last());
+                    assertEquals(199, rs3.getInt(1));
+                    rs2 = testStmt.executeQuery("SELECT 1");
+                    assertTrue(rs2.next());
+                    rs2.close();
+                    rs3.close();
+                }
+            }
+        }
+    }
+
 }
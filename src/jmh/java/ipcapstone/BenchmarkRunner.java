@@ -0,0 +1,41 @@
+package ipcapstone;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the JMH benchmarks of the Bank Loan Management System and writes
+ * the results as JSON so they can be compared across releases.
+ */
+public class BenchmarkRunner {
+    
+    private static final String DEFAULT_RESULT_FILE = "jmh-results/jmh-result.json";
+    
+    /**
+     * Main method to run the benchmarks.
+     * @param args Optional result file path followed by an optional benchmark name pattern
+     * @throws RunnerException if the benchmarks fail to run
+     */
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+        String include = args.length > 1 ? args[1] : "ipcapstone\\..*Benchmark";
+        
+        File parentDir = new File(resultFile).getAbsoluteFile().getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+        
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        
+        new Runner(options).run();
+    }
+}
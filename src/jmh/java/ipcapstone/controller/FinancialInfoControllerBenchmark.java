@@ -0,0 +1,74 @@
+package ipcapstone.controller;
+
+import ipcapstone.dao.memory.InMemoryFinancialInfoDao;
+import ipcapstone.dao.memory.InMemoryStore;
+import ipcapstone.dao.memory.InMemoryUserDao;
+import ipcapstone.model.FinancialInfo;
+import ipcapstone.model.User;
+import ipcapstone.model.User.UserType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the credit worthiness scoring in FinancialInfoController.
+ * The DAO is backed by an in-memory store so no database round trips are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FinancialInfoControllerBenchmark {
+    
+    private static final String[] EMPLOYMENT_STATUSES = {
+        "Full-time", "Part-time", "Self-employed", "Retired", "Unemployed"
+    };
+    
+    private static final int PROFILE_COUNT = 1024;
+    
+    private FinancialInfoController controller;
+    private int[] userIds;
+    
+    @Setup
+    public void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryUserDao userDao = new InMemoryUserDao(store);
+        InMemoryFinancialInfoDao financialInfoDao = new InMemoryFinancialInfoDao(store);
+        userIds = new int[PROFILE_COUNT];
+        
+        for (int i = 0; i < PROFILE_COUNT; i++) {
+            User user = new User("user" + i, "password", "User " + i, "user" + i + "@example.com", UserType.USER);
+            userDao.insertUser(user);
+            userIds[i] = user.getUserId();
+            
+            FinancialInfo info = new FinancialInfo(user.getUserId(), 20000 + (i * 137) % 120000,
+                    EMPLOYMENT_STATUSES[i % EMPLOYMENT_STATUSES.length]);
+            info.setEmploymentDuration(i % 96);
+            info.setCreditScore(500 + (i * 31) % 350);
+            info.setExistingDebts((i * 53) % 40000);
+            financialInfoDao.saveFinancialInfo(info);
+        }
+        
+        controller = new FinancialInfoController(financialInfoDao);
+    }
+    
+    @Benchmark
+    public void calculateCreditWorthinessScore(Blackhole blackhole) {
+        for (int userId : userIds) {
+            blackhole.consume(controller.calculateCreditWorthinessScore(userId));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package ipcapstone.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+/**
+ * Benchmarks for the extract*FromResultSet mappers of the DAOs.
+ * Rows are served from an in-memory CachedRowSet so no database is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSetMapperBenchmark {
+    
+    @Param({"100", "1000"})
+    private int rowCount;
+    
+    private JdbcLoanApplicationDao loanApplicationDao;
+    private JdbcLoanDecisionDao loanDecisionDao;
+    private JdbcUserDao userDao;
+    private JdbcFinancialInfoDao financialInfoDao;
+    
+    private CachedRowSet loanApplicationRows;
+    private CachedRowSet loanDecisionRows;
+    private CachedRowSet userRows;
+    private CachedRowSet financialInfoRows;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        loanApplicationDao = new JdbcLoanApplicationDao();
+        loanDecisionDao = new JdbcLoanDecisionDao();
+        userDao = new JdbcUserDao();
+        financialInfoDao = new JdbcFinancialInfoDao();
+        
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        
+        loanApplicationRows = createRowSet(
+                new String[] {"application_id", "user_id", "loan_amount", "loan_purpose",
+                              "application_date", "duration_months", "interest_rate", "status",
+                              "version", "claimed_by", "claim_expires_at"},
+                new int[] {Types.INTEGER, Types.INTEGER, Types.DOUBLE, Types.VARCHAR,
+                           Types.TIMESTAMP, Types.INTEGER, Types.DOUBLE, Types.VARCHAR,
+                           Types.INTEGER, Types.INTEGER, Types.TIMESTAMP});
+        for (int i = 1; i <= rowCount; i++) {
+            insertRow(loanApplicationRows, i, i % 50 + 1, 10000.0 + i, "Purpose " + i,
+                    now, 12 + i % 48, 7.5, "PENDING", 0, null, null);
+        }
+        
+        loanDecisionRows = createRowSet(
+                new String[] {"decision_id", "application_id", "officer_id", "decision_date",
+                              "status", "comments", "version"},
+                new int[] {Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.TIMESTAMP,
+                           Types.VARCHAR, Types.VARCHAR, Types.INTEGER});
+        for (int i = 1; i <= rowCount; i++) {
+            insertRow(loanDecisionRows, i, i, 1, now, i % 2 == 0 ? "APPROVED" : "REJECTED",
+                    "Comment " + i, 0);
+        }
+        
+        userRows = createRowSet(
+                new String[] {"user_id", "username", "password", "full_name", "email", "phone",
+                              "address", "registration_date", "user_type"},
+                new int[] {Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                           Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR});
+        for (int i = 1; i <= rowCount; i++) {
+            insertRow(userRows, i, "user" + i, "secret" + i, "User " + i, "user" + i + "@example.com",
+                    "555-0100", "Street " + i, now, "USER");
+        }
+        
+        financialInfoRows = createRowSet(
+                new String[] {"financial_info_id", "user_id", "annual_income", "employment_status",
+                              "employer_name", "job_title", "employment_duration", "credit_score",
+                              "existing_debts"},
+                new int[] {Types.INTEGER, Types.INTEGER, Types.DOUBLE, Types.VARCHAR, Types.VARCHAR,
+                           Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.DOUBLE});
+        for (int i = 1; i <= rowCount; i++) {
+            insertRow(financialInfoRows, i, i, 50000.0 + i, "Full-time", "Employer " + i,
+                    "Analyst", i % 120, 600 + i % 250, 1000.0 * (i % 20));
+        }
+    }
+    
+    @Benchmark
+    public void extractLoanApplications(Blackhole blackhole) throws SQLException {
+        loanApplicationRows.beforeFirst();
+        while (loanApplicationRows.next()) {
+            blackhole.consume(loanApplicationDao.extractLoanApplicationFromResultSet(loanApplicationRows));
+        }
+    }
+    
+    @Benchmark
+    public void extractLoanDecisions(Blackhole blackhole) throws SQLException {
+        loanDecisionRows.beforeFirst();
+        while (loanDecisionRows.next()) {
+            blackhole.consume(loanDecisionDao.extractLoanDecisionFromResultSet(loanDecisionRows));
+        }
+    }
+    
+    @Benchmark
+    public void extractUsers(Blackhole blackhole) throws SQLException {
+        userRows.beforeFirst();
+        while (userRows.next()) {
+            blackhole.consume(userDao.extractUserFromResultSet(userRows));
+        }
+    }
+    
+    @Benchmark
+    public void extractFinancialInfo(Blackhole blackhole) throws SQLException {
+        financialInfoRows.beforeFirst();
+        while (financialInfoRows.next()) {
+            blackhole.consume(financialInfoDao.extractFinancialInfoFromResultSet(financialInfoRows));
+        }
+    }
+    
+    /**
+     * Create an empty in-memory row set with the given columns.
+     */
+    private static CachedRowSet createRowSet(String[] columnNames, int[] columnTypes) throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(columnNames.length);
+        for (int i = 0; i < columnNames.length; i++) {
+            metaData.setColumnName(i + 1, columnNames[i]);
+            metaData.setColumnLabel(i + 1, columnNames[i]);
+            metaData.setColumnType(i + 1, columnTypes[i]);
+            metaData.setNullable(i + 1, RowSetMetaDataImpl.columnNullable);
+        }
+        
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        return rowSet;
+    }
+    
+    /**
+     * Append a row of values to an in-memory row set.
+     */
+    private static void insertRow(CachedRowSet rowSet, Object... values) throws SQLException {
+        rowSet.moveToInsertRow();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                rowSet.updateNull(i + 1);
+            } else {
+                rowSet.updateObject(i + 1, values[i]);
+            }
+        }
+        rowSet.insertRow();
+        rowSet.moveToCurrentRow();
+    }
+}
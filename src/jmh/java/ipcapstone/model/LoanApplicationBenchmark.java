@@ -0,0 +1,48 @@
+package ipcapstone.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the loan payment calculations in LoanApplication.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanApplicationBenchmark {
+    
+    @Param({"12", "60", "360"})
+    private int durationMonths;
+    
+    private LoanApplication application;
+    
+    @Setup
+    public void setUp() {
+        application = new LoanApplication(1, 250000.0, "Home Renovation", durationMonths);
+        application.setInterestRate(8.5);
+    }
+    
+    @Benchmark
+    public double calculateMonthlyPayment() {
+        return application.calculateMonthlyPayment();
+    }
+    
+    @Benchmark
+    public double calculateTotalPayment() {
+        return application.calculateTotalPayment();
+    }
+}
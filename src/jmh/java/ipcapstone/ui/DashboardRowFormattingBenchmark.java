@@ -0,0 +1,70 @@
+package ipcapstone.ui;
+
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.table.DefaultTableModel;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the row-formatting loop of OfficerDashboardPanel.refreshData.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DashboardRowFormattingBenchmark {
+    
+    private static final String[] COLUMN_NAMES = {
+        "Application ID", "User", "Amount", "Purpose", "Date", "Duration (Months)", "Status"
+    };
+    
+    @Param({"100", "1000"})
+    private int applicationCount;
+    
+    private List<LoanApplication> applications;
+    
+    @Setup
+    public void setUp() {
+        LoanStatus[] statuses = LoanStatus.values();
+        applications = new ArrayList<>(applicationCount);
+        long now = System.currentTimeMillis();
+        
+        for (int i = 1; i <= applicationCount; i++) {
+            LoanApplication app = new LoanApplication(i, i % 50 + 1, 10000.0 + i * 17.25,
+                    "Purpose " + i, new Date(now - i * 3600000L), 12 + i % 48, 7.5,
+                    statuses[i % statuses.length]);
+            app.setUserName("Applicant " + i);
+            applications.add(app);
+        }
+    }
+    
+    @Benchmark
+    public DefaultTableModel formatRows() {
+        DefaultTableModel tableModel = new DefaultTableModel(COLUMN_NAMES, 0);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        
+        for (LoanApplication app : applications) {
+            tableModel.addRow(OfficerDashboardPanel.createTableRow(app, dateFormat));
+        }
+        return tableModel;
+    }
+}
@@ -0,0 +1,112 @@
+package ipcapstone.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free ring buffer with many producers and a single consumer.
+ * Each slot carries a sequence number: a producer claims a position with a CAS on
+ * the tail and publishes its element by advancing the slot sequence, and the
+ * consumer frees the slot by advancing the sequence by one lap. Producers never
+ * block; {@link #offer(Object)} fails when the buffer is full.
+ * @param <E> The element type
+ */
+final class AuditRingBuffer<E> {
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // Only accessed by the consumer
+    
+    /**
+     * Create a new AuditRingBuffer.
+     * @param capacity The number of slots, rounded up to a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Add an element to the buffer. Safe to call from any thread.
+     * @param element The element to add
+     * @return true if the element was added, false if the buffer is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds the element from the previous lap
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+    
+    /**
+     * Move published elements into the given list. Only called by the consumer thread.
+     * @param target The list to add the elements to
+     * @param max The maximum number of elements to move
+     * @return The number of elements moved
+     */
+    int drainTo(List<E> target, int max) {
+        int count = 0;
+        while (count < max) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            target.add(elements.get(index));
+            elements.lazySet(index, null);
+            sequences.lazySet(index, head + capacity);
+            head++;
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Check whether the buffer has no published elements. Only called by the consumer thread.
+     * @return true if there is nothing to drain
+     */
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+    
+    /**
+     * Check whether every element added so far has been drained, including those whose
+     * producers have claimed a slot but not yet published it. Only called by the consumer thread.
+     * @return true if no element is still to be drained
+     */
+    boolean isDrained() {
+        return tail.get() == head;
+    }
+    
+    /**
+     * Get the number of slots.
+     * @return The buffer capacity
+     */
+    int capacity() {
+        return capacity;
+    }
+}
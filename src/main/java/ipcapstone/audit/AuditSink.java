@@ -0,0 +1,20 @@
+package ipcapstone.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Durable destination of decision audit events.
+ */
+public interface AuditSink extends Closeable {
+    
+    /**
+     * Write a batch of events and make them durable before returning.
+     * After a failed write the same batch is passed again, and the sink must not
+     * write the events it had already stored a second time.
+     * @param events The events to write, in the order they were recorded
+     * @throws IOException if the batch cannot be written
+     */
+    void write(List<DecisionAuditEvent> events) throws IOException;
+}
@@ -0,0 +1,69 @@
+package ipcapstone.audit;
+
+import java.util.UUID;
+
+/**
+ * An audit record of an officer decision on a loan application.
+ * Each event has a unique ID, so a sink retrying a batch can skip the events it already stored.
+ */
+public final class DecisionAuditEvent {
+    private final String eventId;
+    private final long timestamp;
+    private final int officerId;
+    private final int applicationId;
+    private final String oldStatus;
+    private final String newStatus;
+    
+    /**
+     * Create a new DecisionAuditEvent.
+     * @param timestamp The time of the decision in milliseconds since the epoch
+     * @param officerId The ID of the officer who made the decision
+     * @param applicationId The ID of the application decided on
+     * @param oldStatus The status before the decision
+     * @param newStatus The status after the decision
+     */
+    public DecisionAuditEvent(long timestamp, int officerId, int applicationId, String oldStatus, String newStatus) {
+        this.eventId = UUID.randomUUID().toString();
+        this.timestamp = timestamp;
+        this.officerId = officerId;
+        this.applicationId = applicationId;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+    }
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public int getOfficerId() {
+        return officerId;
+    }
+    
+    public int getApplicationId() {
+        return applicationId;
+    }
+    
+    public String getOldStatus() {
+        return oldStatus;
+    }
+    
+    public String getNewStatus() {
+        return newStatus;
+    }
+    
+    @Override
+    public String toString() {
+        return "DecisionAuditEvent{" +
+                "eventId='" + eventId + '\'' +
+                ", timestamp=" + timestamp +
+                ", officerId=" + officerId +
+                ", applicationId=" + applicationId +
+                ", oldStatus='" + oldStatus + '\'' +
+                ", newStatus='" + newStatus + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,244 @@
+package ipcapstone.audit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit log of officer decisions.
+ * Recording an event only publishes it to a lock-free ring buffer; a background
+ * writer thread drains the buffer and group-commits the events to an {@link AuditSink}
+ * in batches. If the buffer is full, recording waits for the writer to make room rather
+ * than lose the event. A batch the sink fails to write is kept and retried; only at
+ * shutdown are events given up on, once the sink has kept failing for a few seconds.
+ * <p>
+ * The shared instance is configured with the system property "ipcapstone.audit":
+ * "file" (default) writes rotating files to the directory named by
+ * "ipcapstone.audit.dir" (default "audit"), "database" writes to the
+ * decision_audit_log table and "none" disables auditing.
+ */
+public class DecisionAuditLog {
+    public static final String AUDIT_PROPERTY = "ipcapstone.audit";
+    public static final String AUDIT_DIR_PROPERTY = "ipcapstone.audit.dir";
+    
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int DEFAULT_BATCH_SIZE = 512;
+    private static final long DEFAULT_MAX_FILE_SIZE = 10L * 1024 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+    
+    private static DecisionAuditLog instance;
+    private static boolean instanceCreated;
+    
+    private final AuditRingBuffer<DecisionAuditEvent> buffer;
+    private final AuditSink sink;
+    private final int batchSize;
+    private final Thread writer;
+    // Checked by recorders after queuing an event, so recording takes no lock
+    private volatile boolean closed;
+    private volatile long shutdownDeadlineNanos;
+    
+    private final AtomicLong recordedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile long writtenEvents;
+    private volatile long writtenBatches;
+    private volatile long failedBatches;
+    
+    /**
+     * Create a new DecisionAuditLog and start its writer thread.
+     * @param sink The sink the events are written to
+     * @param capacity The number of events that can wait to be written
+     * @param batchSize The maximum number of events written per batch
+     */
+    public DecisionAuditLog(AuditSink sink, int capacity, int batchSize) {
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.writer = new Thread(this::runWriter, "decision-audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    /**
+     * Get the shared audit log, creating it on first use.
+     * @return The shared audit log, or null if auditing is disabled or cannot be set up
+     */
+    public static synchronized DecisionAuditLog getInstance() {
+        if (!instanceCreated) {
+            instanceCreated = true;
+            String mode = System.getProperty(AUDIT_PROPERTY, "file");
+            
+            try {
+                AuditSink sink = null;
+                if ("file".equalsIgnoreCase(mode)) {
+                    sink = new RotatingFileAuditSink(new File(System.getProperty(AUDIT_DIR_PROPERTY, "audit")),
+                            DEFAULT_MAX_FILE_SIZE);
+                } else if ("database".equalsIgnoreCase(mode)) {
+                    sink = new JdbcAuditSink();
+                }
+                
+                if (sink != null) {
+                    DecisionAuditLog log = new DecisionAuditLog(sink, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+                    Runtime.getRuntime().addShutdownHook(new Thread(log::close, "decision-audit-shutdown"));
+                    instance = log;
+                }
+            } catch (IOException e) {
+                System.err.println("Error opening decision audit log, continuing without auditing: " +
+                        e.getMessage());
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Record a decision. Waits while the buffer is full.
+     * @param event The decision event
+     * @return true if the event was queued, false if the log is closed or the thread was interrupted
+     */
+    public boolean record(DecisionAuditEvent event) {
+        if (closed) {
+            droppedEvents.incrementAndGet();
+            return false;
+        }
+        
+        while (!buffer.offer(event)) {
+            if (Thread.currentThread().isInterrupted()) {
+                droppedEvents.incrementAndGet();
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        recordedEvents.incrementAndGet();
+        
+        // An event queued before the log closed is always drained by the writer. One queued
+        // while closing may miss the writer's last drain; if the writer has already stopped,
+        // count what it left behind as dropped, otherwise close() does so once it has stopped
+        if (closed) {
+            if (!writer.isAlive()) {
+                dropRemaining();
+            }
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Drop the events left in the buffer after the writer has stopped.
+     */
+    private void dropRemaining() {
+        synchronized (buffer) {
+            List<DecisionAuditEvent> remaining = new ArrayList<>();
+            while (buffer.drainTo(remaining, batchSize) > 0) {
+                droppedEvents.addAndGet(remaining.size());
+                remaining.clear();
+            }
+        }
+    }
+    
+    /**
+     * Run the writer loop: write batches until stopped and the buffer is empty.
+     */
+    private void runWriter() {
+        List<DecisionAuditEvent> batch = new ArrayList<>(batchSize);
+        
+        // The writer only stops once every event claimed before the close has been published and drained
+        while (!closed || !buffer.isDrained() || !batch.isEmpty()) {
+            if (batch.isEmpty() && buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            
+            try {
+                sink.write(batch);
+                writtenEvents += batch.size();
+                writtenBatches++;
+                batch.clear();
+            } catch (IOException e) {
+                failedBatches++;
+                System.err.println("Error writing decision audit events: " + e.getMessage());
+                if (closed && System.nanoTime() - shutdownDeadlineNanos >= 0) {
+                    // Give up on the remaining events rather than blocking shutdown forever
+                    droppedEvents.addAndGet(batch.size());
+                    batch.clear();
+                    while (buffer.drainTo(batch, batchSize) > 0) {
+                        droppedEvents.addAndGet(batch.size());
+                        batch.clear();
+                    }
+                    break;
+                }
+                // Keep the batch and retry it; the sink skips the events it had already written
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(RETRY_DELAY_MILLIS));
+            }
+        }
+    }
+    
+    /**
+     * Stop accepting events, write the queued ones and close the sink.
+     */
+    public void close() {
+        shutdownDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_TIMEOUT_MILLIS);
+        closed = true;
+        
+        LockSupport.unpark(writer);
+        try {
+            writer.join(SHUTDOWN_TIMEOUT_MILLIS + RETRY_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!writer.isAlive()) {
+            dropRemaining();
+        }
+        
+        try {
+            sink.close();
+        } catch (IOException e) {
+            System.err.println("Error closing decision audit sink: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get the number of events queued since the log was created.
+     * @return The recorded event count
+     */
+    public long getRecordedEvents() {
+        return recordedEvents.get();
+    }
+    
+    /**
+     * Get the number of events dropped because the log was closed or the sink failed at shutdown.
+     * @return The dropped event count
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+    
+    /**
+     * Get the number of events written to the sink.
+     * @return The written event count
+     */
+    public long getWrittenEvents() {
+        return writtenEvents;
+    }
+    
+    /**
+     * Get the number of batches written to the sink.
+     * @return The written batch count
+     */
+    public long getWrittenBatches() {
+        return writtenBatches;
+    }
+    
+    /**
+     * Get the number of batches the sink failed to write.
+     * @return The failed batch count
+     */
+    public long getFailedBatches() {
+        return failedBatches;
+    }
+}
@@ -0,0 +1,66 @@
+package ipcapstone.audit;
+
+import ipcapstone.dao.DatabaseConnection;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes audit events to the decision_audit_log table, one transaction per batch.
+ * The sink uses its own connection so that it never closes the connection shared by the DAOs.
+ * Events are keyed by their event ID and inserted with INSERT IGNORE, so retrying a batch whose
+ * commit failed after reaching the database does not store its events twice.
+ */
+public class JdbcAuditSink implements AuditSink {
+    private static final String INSERT_SQL = "INSERT IGNORE INTO decision_audit_log " +
+            "(event_id, event_time, officer_id, application_id, old_status, new_status) VALUES (?, ?, ?, ?, ?, ?)";
+    
+    private Connection connection;
+    
+    @Override
+    public void write(List<DecisionAuditEvent> events) throws IOException {
+        try {
+            if (connection == null || connection.isClosed()) {
+                connection = DatabaseConnection.openConnection();
+                connection.setAutoCommit(false);
+            }
+            
+            try (PreparedStatement pstmt = connection.prepareStatement(INSERT_SQL)) {
+                for (DecisionAuditEvent event : events) {
+                    pstmt.setString(1, event.getEventId());
+                    pstmt.setTimestamp(2, new Timestamp(event.getTimestamp()));
+                    pstmt.setInt(3, event.getOfficerId());
+                    pstmt.setInt(4, event.getApplicationId());
+                    pstmt.setString(5, event.getOldStatus());
+                    pstmt.setString(6, event.getNewStatus());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            closeConnection();
+            throw new IOException("Error writing audit events to the database: " + e.getMessage(), e);
+        }
+    }
+    
+    private void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing audit connection: " + e.getMessage());
+            }
+            connection = null;
+        }
+    }
+    
+    @Override
+    public void close() {
+        closeConnection();
+    }
+}
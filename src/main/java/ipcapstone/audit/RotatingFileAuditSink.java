@@ -0,0 +1,188 @@
+package ipcapstone.audit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes audit events to an append-only text file, one tab-separated line per event.
+ * Each batch is written with a single write and one fsync. When the file grows past
+ * the size limit it is renamed with a timestamp suffix and a new file is started.
+ * <p>
+ * Every line starts with its sequence number in the file. After a failed write the
+ * file is reread: a partly written line is cut off, and the events of the retried
+ * batch up to the last sequence number found are skipped, so a retry never writes
+ * an event twice.
+ */
+public class RotatingFileAuditSink implements AuditSink {
+    private static final String FILE_NAME = "decision-audit.log";
+    private static final int MAX_LINE_LENGTH = 4096;
+    
+    private final File directory;
+    private final long maxFileSize;
+    private final SimpleDateFormat timestampFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    private final SimpleDateFormat rotationFormat = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS");
+    private FileOutputStream out;
+    private long fileSize;
+    // The sequence number of the last complete line in the file
+    private long lastSequence;
+    // The sequence number given to the first event of the batch that failed, or 0
+    private long retrySequence;
+    
+    /**
+     * Create a new RotatingFileAuditSink.
+     * @param directory The directory for the audit files, created if it does not exist
+     * @param maxFileSize The size in bytes after which the file is rotated
+     * @throws IOException if the audit file cannot be opened
+     */
+    public RotatingFileAuditSink(File directory, long maxFileSize) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create audit directory: " + directory);
+        }
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        open();
+    }
+    
+    /**
+     * Open the audit file for appending, cutting off a partly written last line and
+     * reading the sequence number of the last complete one.
+     */
+    private void open() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+        
+        File file = new File(directory, FILE_NAME);
+        lastSequence = 0;
+        if (file.length() > 0) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                String lastLine = truncateToLastLine(raf);
+                if (lastLine != null) {
+                    try {
+                        lastSequence = Long.parseLong(lastLine.substring(0, lastLine.indexOf('\t')));
+                    } catch (RuntimeException e) {
+                        lastSequence = -1;
+                    }
+                }
+            }
+            if (lastSequence < 0) {
+                // Written before lines were numbered; start a new file
+                lastSequence = 0;
+                rename(file);
+            }
+        }
+        
+        out = new FileOutputStream(file, true);
+        fileSize = file.length();
+    }
+    
+    /**
+     * Cut the file off after its last newline.
+     * @return The last complete line, or null if there is none
+     */
+    private static String truncateToLastLine(RandomAccessFile raf) throws IOException {
+        long length = raf.length();
+        int tailLength = (int) Math.min(length, MAX_LINE_LENGTH);
+        byte[] tail = new byte[tailLength];
+        raf.seek(length - tailLength);
+        raf.readFully(tail);
+        
+        int end = tailLength - 1;
+        while (end >= 0 && tail[end] != '\n') {
+            end--;
+        }
+        if (end < 0) {
+            if (length > tailLength) {
+                throw new IOException("Cannot find the last line of the audit file");
+            }
+            raf.setLength(0);
+            return null;
+        }
+        raf.setLength(length - tailLength + end + 1);
+        
+        int start = end - 1;
+        while (start >= 0 && tail[start] != '\n') {
+            start--;
+        }
+        if (start < 0 && length > tailLength) {
+            throw new IOException("Cannot find the last line of the audit file");
+        }
+        return new String(tail, start + 1, end - start - 1, StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public void write(List<DecisionAuditEvent> events) throws IOException {
+        long firstSequence;
+        if (retrySequence > 0 || out == null) {
+            // Find out how much of the failed batch reached the file
+            open();
+        }
+        if (retrySequence > 0 && retrySequence <= lastSequence + 1) {
+            firstSequence = retrySequence;
+        } else {
+            firstSequence = lastSequence + 1;
+        }
+        int written = (int) Math.min(events.size(), lastSequence - firstSequence + 1);
+        
+        StringBuilder lines = new StringBuilder(events.size() * 72);
+        for (int i = written; i < events.size(); i++) {
+            DecisionAuditEvent event = events.get(i);
+            lines.append(firstSequence + i).append('\t')
+                    .append(timestampFormat.format(new Date(event.getTimestamp()))).append('\t')
+                    .append(event.getOfficerId()).append('\t')
+                    .append(event.getApplicationId()).append('\t')
+                    .append(event.getOldStatus()).append('\t')
+                    .append(event.getNewStatus()).append('\n');
+        }
+        
+        byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            out.write(bytes);
+            out.getChannel().force(false);
+        } catch (IOException e) {
+            retrySequence = firstSequence;
+            throw e;
+        }
+        retrySequence = 0;
+        lastSequence = firstSequence + events.size() - 1;
+        fileSize += bytes.length;
+        
+        if (fileSize >= maxFileSize) {
+            try {
+                rotate();
+            } catch (IOException e) {
+                // The batch is stored; the file is reopened on the next write
+                System.err.println("Error rotating audit file: " + e.getMessage());
+                out = null;
+            }
+        }
+    }
+    
+    private void rotate() throws IOException {
+        out.close();
+        out = null;
+        rename(new File(directory, FILE_NAME));
+        open();
+    }
+    
+    private void rename(File current) {
+        File rotated = new File(directory, "decision-audit-" + rotationFormat.format(new Date()) + ".log");
+        if (!current.renameTo(rotated)) {
+            System.err.println("Error rotating audit file: " + current);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+}
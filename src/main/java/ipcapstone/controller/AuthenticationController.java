@@ -1,5 +1,6 @@
 package ipcapstone.controller;
 
+import ipcapstone.dao.DaoFactory;
 import ipcapstone.dao.UserDao;
 import ipcapstone.model.User;
 
@@ -13,7 +14,15 @@ public class AuthenticationController {
      * Create a new AuthenticationController.
      */
     public AuthenticationController() {
-        this.userDao = new UserDao();
+        this(DaoFactory.createUserDao());
+    }
+    
+    /**
+     * Create a new AuthenticationController backed by the given DAO.
+     * @param userDao The DAO used to access users
+     */
+    public AuthenticationController(UserDao userDao) {
+        this.userDao = userDao;
     }
     
     /**
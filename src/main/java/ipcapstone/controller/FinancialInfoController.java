@@ -1,5 +1,6 @@
 package ipcapstone.controller;
 
+import ipcapstone.dao.DaoFactory;
 import ipcapstone.dao.FinancialInfoDao;
 import ipcapstone.model.FinancialInfo;
 
@@ -13,7 +14,15 @@ public class FinancialInfoController {
      * Create a new FinancialInfoController.
      */
     public FinancialInfoController() {
-        this.financialInfoDao = new FinancialInfoDao();
+        this(DaoFactory.createFinancialInfoDao());
+    }
+    
+    /**
+     * Create a new FinancialInfoController backed by the given DAO.
+     * @param financialInfoDao The DAO used to load financial information
+     */
+    public FinancialInfoController(FinancialInfoDao financialInfoDao) {
+        this.financialInfoDao = financialInfoDao;
     }
     
     /**
@@ -1,22 +1,36 @@
 package ipcapstone.controller;
 
+import ipcapstone.dao.DaoFactory;
 import ipcapstone.dao.LoanApplicationDao;
 import ipcapstone.model.LoanApplication;
 import ipcapstone.model.LoanApplication.LoanStatus;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 /**
  * Controller for handling loan application operations.
  */
 public class LoanApplicationController {
+    // How long an officer's claim on an application lasts unless it is renewed
+    public static final int CLAIM_LEASE_SECONDS = 15 * 60;
+    
     private LoanApplicationDao loanApplicationDao;
     
     /**
      * Create a new LoanApplicationController.
      */
     public LoanApplicationController() {
-        this.loanApplicationDao = new LoanApplicationDao();
+        this(DaoFactory.createLoanApplicationDao());
+    }
+    
+    /**
+     * Create a new LoanApplicationController backed by the given DAO.
+     * @param loanApplicationDao The DAO used to access loan applications
+     */
+    public LoanApplicationController(LoanApplicationDao loanApplicationDao) {
+        this.loanApplicationDao = loanApplicationDao;
     }
     
     /**
@@ -27,6 +41,16 @@ public class LoanApplicationController {
         return loanApplicationDao.getAllLoanApplications();
     }
     
+    /**
+     * Get the loan applications submitted in a date window.
+     * @param from The start of the window (inclusive), or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return List of loan applications submitted in the window
+     */
+    public List<LoanApplication> getAllLoanApplications(Date from, Date to) {
+        return loanApplicationDao.getAllLoanApplications(from, to);
+    }
+    
     /**
      * Get loan applications for a specific user.
      * @param userId The ID of the user
@@ -54,6 +78,17 @@ public class LoanApplicationController {
         return loanApplicationDao.getLoanApplicationsByStatus(status);
     }
     
+    /**
+     * Get the loan applications with a specific status submitted in a date window.
+     * @param status The status to filter by
+     * @param from The start of the window (inclusive), or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return List of loan applications with the specified status submitted in the window
+     */
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status, Date from, Date to) {
+        return loanApplicationDao.getLoanApplicationsByStatus(status, from, to);
+    }
+    
     /**
      * Create a new loan application.
      * @param application The loan application to create
@@ -73,6 +108,81 @@ public class LoanApplicationController {
         return loanApplicationDao.updateLoanApplicationStatus(applicationId, newStatus);
     }
     
+    /**
+     * Get the pending loan applications an officer may decide, leaving out those that
+     * other officers have claimed and whose claims have not expired.
+     * @param officerId The ID of the officer
+     * @return List of the pending applications available to the officer
+     */
+    public List<LoanApplication> getPendingApplicationsFor(int officerId) {
+        List<LoanApplication> applications = new ArrayList<>();
+        for (LoanApplication application : loanApplicationDao.getLoanApplicationsByStatus(LoanStatus.PENDING)) {
+            if (!application.isClaimedByOther(officerId)) {
+                applications.add(application);
+            }
+        }
+        return applications;
+    }
+    
+    /**
+     * Get the pending loan applications an officer has claimed, without renewing the claims
+     * or claiming more.
+     * @param officerId The ID of the officer
+     * @return List of the applications with an unexpired claim by the officer
+     */
+    public List<LoanApplication> getClaimedApplications(int officerId) {
+        Date now = new Date();
+        List<LoanApplication> applications = new ArrayList<>();
+        for (LoanApplication application : loanApplicationDao.getLoanApplicationsByStatus(LoanStatus.PENDING)) {
+            if (application.getClaimedBy() == officerId && application.getClaimExpiresAt() != null &&
+                    application.getClaimExpiresAt().after(now)) {
+                applications.add(application);
+            }
+        }
+        return applications;
+    }
+    
+    /**
+     * Claim the next batch of pending loan applications for an officer to review.
+     * Calling this again renews the officer's claims and tops the batch up, so officers
+     * working the queue in parallel never receive the same application.
+     * @param officerId The ID of the officer
+     * @param batchSize The number of applications to claim
+     * @return List of the applications claimed by the officer
+     */
+    public List<LoanApplication> claimNextApplications(int officerId, int batchSize) {
+        return loanApplicationDao.claimPendingApplications(officerId, batchSize, CLAIM_LEASE_SECONDS);
+    }
+    
+    /**
+     * Renew the lease of an officer's claims without claiming more applications.
+     * @param officerId The ID of the officer
+     * @return List of the applications claimed by the officer
+     */
+    public List<LoanApplication> renewClaims(int officerId) {
+        return loanApplicationDao.claimPendingApplications(officerId, 0, CLAIM_LEASE_SECONDS);
+    }
+    
+    /**
+     * Return all of an officer's claimed loan applications to the queue, e.g. when the officer logs out.
+     * @param officerId The ID of the officer
+     */
+    public void releaseClaims(int officerId) {
+        for (LoanApplication application : getClaimedApplications(officerId)) {
+            loanApplicationDao.releaseClaim(application.getApplicationId(), officerId);
+        }
+    }
+    
+    /**
+     * Return a claimed loan application to the queue.
+     * @param applicationId The ID of the claimed application
+     * @param officerId The ID of the officer holding the claim
+     * @return true if the claim was released, false otherwise
+     */
+    public boolean releaseClaim(int applicationId, int officerId) {
+        return loanApplicationDao.releaseClaim(applicationId, officerId);
+    }
+    
     /**
      * Update a loan application.
      * @param application The loan application to update
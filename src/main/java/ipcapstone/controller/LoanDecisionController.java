@@ -1,22 +1,60 @@
 package ipcapstone.controller;
 
+import ipcapstone.audit.DecisionAuditEvent;
+import ipcapstone.audit.DecisionAuditLog;
+import ipcapstone.dao.DaoFactory;
+import ipcapstone.dao.LoanApplicationDao;
 import ipcapstone.dao.LoanDecisionDao;
+import ipcapstone.dao.OptimisticLockException;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
 import ipcapstone.model.LoanDecision;
 import ipcapstone.model.LoanDecision.DecisionStatus;
+import ipcapstone.model.LoanDecisionEvent;
 
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Controller for handling loan decision operations.
+ * Decisions are guarded by the version of the application the officer reviewed, so two
+ * officers deciding the same application cannot silently overwrite each other.
  */
 public class LoanDecisionController {
+    private static final LongAdder conflicts = new LongAdder();
+    
     private LoanDecisionDao loanDecisionDao;
+    private LoanApplicationDao loanApplicationDao;
+    private DecisionAuditLog auditLog;
     
     /**
      * Create a new LoanDecisionController.
      */
     public LoanDecisionController() {
-        this.loanDecisionDao = new LoanDecisionDao();
+        this(DaoFactory.createLoanDecisionDao(), DaoFactory.createLoanApplicationDao(), DecisionAuditLog.getInstance());
+    }
+    
+    /**
+     * Create a new LoanDecisionController backed by the given DAOs.
+     * @param loanDecisionDao The DAO used to access loan decisions
+     * @param loanApplicationDao The DAO the status of decided applications is read from
+     */
+    public LoanDecisionController(LoanDecisionDao loanDecisionDao, LoanApplicationDao loanApplicationDao) {
+        this(loanDecisionDao, loanApplicationDao, DecisionAuditLog.getInstance());
+    }
+    
+    /**
+     * Create a new LoanDecisionController backed by the given DAOs and audit log.
+     * @param loanDecisionDao The DAO used to access loan decisions
+     * @param loanApplicationDao The DAO the status of decided applications is read from
+     * @param auditLog The audit log decisions are recorded in, or null to disable auditing
+     */
+    public LoanDecisionController(LoanDecisionDao loanDecisionDao, LoanApplicationDao loanApplicationDao,
+            DecisionAuditLog auditLog) {
+        this.loanDecisionDao = loanDecisionDao;
+        this.loanApplicationDao = loanApplicationDao;
+        this.auditLog = auditLog;
     }
     
     /**
@@ -27,6 +65,16 @@ public class LoanDecisionController {
         return loanDecisionDao.getAllLoanDecisions();
     }
     
+    /**
+     * Get the loan decisions made in a date window.
+     * @param from The start of the window (inclusive), or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return List of loan decisions made in the window
+     */
+    public List<LoanDecision> getAllLoanDecisions(Date from, Date to) {
+        return loanDecisionDao.getAllLoanDecisions(from, to);
+    }
+    
     /**
      * Get a loan decision for a specific application.
      * @param applicationId The ID of the application
@@ -46,31 +94,84 @@ public class LoanDecisionController {
     }
     
     /**
-     * Process a loan application (approve or reject).
+     * Get the decision history of a loan application: every decision, revision and
+     * withdrawal, oldest first.
+     * @param applicationId The ID of the application
+     * @return List of the application's decision events
+     */
+    public List<LoanDecisionEvent> getDecisionTimeline(int applicationId) {
+        return loanDecisionDao.getDecisionTimeline(applicationId);
+    }
+    
+    /**
+     * Process a loan application (approve or reject) if it has not changed since the officer reviewed it.
+     * The application's status and the decision are stored together, so an application is never
+     * left decided without a decision.
      * @param applicationId The ID of the application to process
+     * @param expectedVersion The version of the application the officer reviewed
      * @param officerId The ID of the officer making the decision
      * @param approve true to approve, false to reject
      * @param comments Any comments related to the decision
      * @return true if successful, false otherwise
+     * @throws OptimisticLockException if the application was changed or decided by someone else
      */
-    public boolean processLoanApplication(int applicationId, int officerId, boolean approve, String comments) {
+    public boolean processLoanApplication(int applicationId, int expectedVersion, int officerId,
+            boolean approve, String comments) {
         LoanDecision decision = new LoanDecision();
         decision.setApplicationId(applicationId);
         decision.setOfficerId(officerId);
         decision.setStatus(approve ? DecisionStatus.APPROVED : DecisionStatus.REJECTED);
         decision.setComments(comments);
         
-        // Check if there's an existing decision
-        LoanDecision existingDecision = loanDecisionDao.getLoanDecisionByApplicationId(applicationId);
+        // The decision only succeeds at the reviewed version, so the status read here is the one it replaces
+        LoanApplication application = loanApplicationDao.getLoanApplicationById(applicationId);
+        if (application == null) {
+            return false;
+        }
         
-        if (existingDecision != null) {
-            // Update existing decision
-            decision.setDecisionId(existingDecision.getDecisionId());
-            return loanDecisionDao.updateLoanDecision(decision);
-        } else {
-            // Create new decision
-            return loanDecisionDao.insertLoanDecision(decision);
+        boolean success;
+        try {
+            success = loanDecisionDao.decideLoanApplication(decision, expectedVersion);
+        } catch (OptimisticLockException e) {
+            conflicts.increment();
+            throw e;
         }
+        
+        if (success) {
+            recordAudit(officerId, applicationId, application.getStatus().toString(), decision.getStatus().toString());
+        }
+        
+        return success;
+    }
+    
+    /**
+     * Revise a loan decision if it has not changed since the officer read it.
+     * @param decision The loan decision with its new status and comments, and the version the officer read
+     * @param officerId The ID of the officer revising the decision
+     * @return true if successful, false otherwise
+     * @throws OptimisticLockException if the decision was changed by someone else
+     */
+    public boolean updateLoanDecision(LoanDecision decision, int officerId) {
+        // The update only succeeds at the version read, so the status read here is the one it replaces
+        LoanDecision current = loanDecisionDao.getLoanDecisionById(decision.getDecisionId());
+        if (current == null) {
+            return false;
+        }
+        
+        boolean success;
+        try {
+            success = loanDecisionDao.updateLoanDecision(decision);
+        } catch (OptimisticLockException e) {
+            conflicts.increment();
+            throw e;
+        }
+        
+        if (success) {
+            recordAudit(officerId, current.getApplicationId(), current.getStatus().toString(),
+                    decision.getStatus().toString());
+        }
+        
+        return success;
     }
     
     /**
@@ -83,11 +184,38 @@ public class LoanDecisionController {
     }
     
     /**
-     * Delete a loan decision.
+     * Delete a loan decision, returning its application to pending.
      * @param decisionId The ID of the decision to delete
+     * @param officerId The ID of the officer withdrawing the decision
      * @return true if successful, false otherwise
      */
-    public boolean deleteLoanDecision(int decisionId) {
-        return loanDecisionDao.deleteLoanDecision(decisionId);
+    public boolean deleteLoanDecision(int decisionId, int officerId) {
+        LoanDecision current = loanDecisionDao.getLoanDecisionById(decisionId);
+        if (current == null) {
+            return false;
+        }
+        
+        boolean success = loanDecisionDao.deleteLoanDecision(decisionId);
+        if (success) {
+            recordAudit(officerId, current.getApplicationId(), current.getStatus().toString(),
+                    LoanStatus.PENDING.toString());
+        }
+        return success;
+    }
+    
+    private void recordAudit(int officerId, int applicationId, String oldStatus, String newStatus) {
+        if (auditLog != null) {
+            auditLog.record(new DecisionAuditEvent(System.currentTimeMillis(), officerId, applicationId,
+                    oldStatus, newStatus));
+        }
+    }
+    
+    /**
+     * Get the number of optimistic lock conflicts detected while processing applications.
+     * Every conflict is reported to the caller, which decides whether to review the application again.
+     * @return The number of conflicts since startup
+     */
+    public static long getConflictCount() {
+        return conflicts.sum();
     }
 } 
\ No newline at end of file
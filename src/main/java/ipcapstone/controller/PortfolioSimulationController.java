@@ -0,0 +1,77 @@
+package ipcapstone.controller;
+
+import ipcapstone.dao.DaoFactory;
+import ipcapstone.dao.FinancialInfoDao;
+import ipcapstone.dao.LoanApplicationDao;
+import ipcapstone.model.FinancialInfo;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+import ipcapstone.model.PortfolioSimulationResult;
+import ipcapstone.model.SimulationScenario;
+import ipcapstone.simulation.PortfolioSimulator;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Controller for stress-testing the approved loan book with Monte Carlo simulations.
+ */
+public class PortfolioSimulationController {
+    // Intermediate results passed to the listener during a simulation
+    private static final int PROGRESS_UPDATES = 10;
+    
+    private LoanApplicationDao loanApplicationDao;
+    private FinancialInfoDao financialInfoDao;
+    
+    /**
+     * Create a new PortfolioSimulationController.
+     */
+    public PortfolioSimulationController() {
+        this(DaoFactory.createLoanApplicationDao(), DaoFactory.createFinancialInfoDao());
+    }
+    
+    /**
+     * Create a new PortfolioSimulationController backed by the given DAOs.
+     * @param loanApplicationDao The DAO used to read the approved loans
+     * @param financialInfoDao The DAO used to read the borrowers' financial information
+     */
+    public PortfolioSimulationController(LoanApplicationDao loanApplicationDao, FinancialInfoDao financialInfoDao) {
+        this.loanApplicationDao = loanApplicationDao;
+        this.financialInfoDao = financialInfoDao;
+    }
+    
+    /**
+     * Create a simulator over the currently approved loans.
+     * The simulator holds a snapshot of the book and can run any number of scenarios.
+     * @return The simulator
+     */
+    public PortfolioSimulator createSimulator() {
+        List<LoanApplication> loans = loanApplicationDao.getLoanApplicationsByStatus(LoanStatus.APPROVED);
+        Set<Integer> userIds = new HashSet<>();
+        for (LoanApplication loan : loans) {
+            userIds.add(loan.getUserId());
+        }
+        Map<Integer, FinancialInfo> financialInfoByUser = financialInfoDao.getFinancialInfoByUserIds(userIds);
+        return new PortfolioSimulator(loans, financialInfoByUser);
+    }
+    
+    /**
+     * Simulate the approved loan book under a scenario.
+     * @param scenario The stress assumptions
+     * @param paths The number of paths to simulate
+     * @param listener Receives the result over the paths completed so far as the simulation
+     *                 progresses, or null for none
+     * @return The result over all paths
+     * @throws IllegalArgumentException if the number of paths is negative
+     */
+    public PortfolioSimulationResult simulate(SimulationScenario scenario, int paths,
+                                              Consumer<PortfolioSimulationResult> listener) {
+        if (paths < 0) {
+            throw new IllegalArgumentException("Number of paths must not be negative: " + paths);
+        }
+        return createSimulator().simulate(scenario, paths, System.nanoTime(), PROGRESS_UPDATES, listener);
+    }
+}
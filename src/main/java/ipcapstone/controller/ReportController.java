@@ -0,0 +1,62 @@
+package ipcapstone.controller;
+
+import ipcapstone.dao.DaoFactory;
+import ipcapstone.dao.ReportDao;
+import ipcapstone.model.MonthlyLoanVolume;
+import ipcapstone.model.OfficerApprovalSummary;
+import ipcapstone.model.PurposeAmountSummary;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Controller for management reports.
+ */
+public class ReportController {
+    private ReportDao reportDao;
+    
+    /**
+     * Create a new ReportController.
+     */
+    public ReportController() {
+        this(DaoFactory.createReportDao());
+    }
+    
+    /**
+     * Create a new ReportController backed by the given DAO.
+     * @param reportDao The DAO used to read the reports
+     */
+    public ReportController(ReportDao reportDao) {
+        this.reportDao = reportDao;
+    }
+    
+    /**
+     * Get the loan application volume and decision counts per month.
+     * @param from The first month to include, or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return The volumes in month order
+     */
+    public List<MonthlyLoanVolume> getMonthlyVolumes(Date from, Date to) {
+        return reportDao.getMonthlyVolumes(from, to);
+    }
+    
+    /**
+     * Get the approval rate of each loan officer.
+     * @param from The first month to include, or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return The summaries in officer ID order
+     */
+    public List<OfficerApprovalSummary> getOfficerApprovalSummaries(Date from, Date to) {
+        return reportDao.getOfficerApprovalSummaries(from, to);
+    }
+    
+    /**
+     * Get the average requested amount per loan purpose.
+     * @param from The first month to include, or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return The summaries in loan purpose order
+     */
+    public List<PurposeAmountSummary> getPurposeAmountSummaries(Date from, Date to) {
+        return reportDao.getPurposeAmountSummaries(from, to);
+    }
+}
@@ -0,0 +1,69 @@
+package ipcapstone.controller;
+
+import ipcapstone.dao.DaoFactory;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.search.ApplicationSearchIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller for searching loan applications by applicant name, email and loan purpose.
+ */
+public class SearchController {
+    private ApplicationSearchIndex searchIndex;
+    
+    /**
+     * Create a new SearchController.
+     */
+    public SearchController() {
+        this(DaoFactory.getSearchIndex());
+    }
+    
+    /**
+     * Create a new SearchController backed by the given index.
+     * @param searchIndex The index to search
+     */
+    public SearchController(ApplicationSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+    
+    /**
+     * Search for loan applications.
+     * @param query The words to search for; prefixes and single typos also match
+     * @param limit The maximum number of results
+     * @return The IDs of the matching applications, best match first
+     */
+    public List<Integer> searchApplicationIds(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+    
+    /**
+     * Keep the loan applications that match a query, ordered best match first.
+     * @param applications The loan applications to filter
+     * @param query The words to search for
+     * @param limit The maximum number of results
+     * @return The matching loan applications
+     */
+    public List<LoanApplication> filterApplications(List<LoanApplication> applications, String query, int limit) {
+        Map<Integer, LoanApplication> byId = new HashMap<>();
+        for (LoanApplication application : applications) {
+            byId.put(application.getApplicationId(), application);
+        }
+        
+        // Search beyond the limit, since some hits may be excluded by the other filters
+        List<LoanApplication> matches = new ArrayList<>();
+        for (int applicationId : searchIndex.search(query, Math.max(limit, applications.size()))) {
+            LoanApplication application = byId.get(applicationId);
+            if (application != null) {
+                matches.add(application);
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+}
@@ -1,5 +1,6 @@
 package ipcapstone.controller;
 
+import ipcapstone.dao.DaoFactory;
 import ipcapstone.dao.UserDao;
 import ipcapstone.model.User;
 import ipcapstone.model.User.UserType;
@@ -16,7 +17,15 @@ public class UserController {
      * Create a new UserController.
      */
     public UserController() {
-        this.userDao = new UserDao();
+        this(DaoFactory.createUserDao());
+    }
+    
+    /**
+     * Create a new UserController backed by the given DAO.
+     * @param userDao The DAO used to access users
+     */
+    public UserController(UserDao userDao) {
+        this.userDao = userDao;
     }
     
     /**
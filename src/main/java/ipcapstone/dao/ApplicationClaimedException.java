@@ -0,0 +1,16 @@
+package ipcapstone.dao;
+
+/**
+ * Thrown when an officer decides a loan application that another officer has claimed
+ * and whose claim has not expired.
+ */
+public class ApplicationClaimedException extends OptimisticLockException {
+    
+    /**
+     * Create a new ApplicationClaimedException.
+     * @param message The description of the conflict
+     */
+    public ApplicationClaimedException(String message) {
+        super(message);
+    }
+}
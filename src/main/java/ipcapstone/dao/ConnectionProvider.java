@@ -0,0 +1,56 @@
+package ipcapstone.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Supplies the connections a JDBC DAO runs its statements on.
+ * The connections are closed by the DAO after each operation.
+ */
+interface ConnectionProvider {
+    
+    /**
+     * Provider for the database configured in {@link DatabaseConnection}.
+     */
+    ConnectionProvider DEFAULT = new ConnectionProvider() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return DatabaseConnection.getConnection();
+        }
+        
+        @Override
+        public Connection getReadConnection() throws SQLException {
+            return DatabaseConnection.getReadConnection();
+        }
+        
+        @Override
+        public Connection getWriteConnection() throws SQLException {
+            return DatabaseConnection.getWriteConnection();
+        }
+    };
+    
+    /**
+     * Get a connection for an operation that may read or write.
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    Connection getConnection() throws SQLException;
+    
+    /**
+     * Get a connection for a read-only operation.
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    default Connection getReadConnection() throws SQLException {
+        return getConnection();
+    }
+    
+    /**
+     * Get a connection for an operation that modifies data.
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    default Connection getWriteConnection() throws SQLException {
+        return getConnection();
+    }
+}
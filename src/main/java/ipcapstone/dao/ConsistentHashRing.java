@@ -0,0 +1,67 @@
+package ipcapstone.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Consistent-hash ring mapping integer keys to nodes.
+ * Each node is placed on the ring at several points (virtual nodes) derived from
+ * its name, so keys spread evenly and adding a node only moves the keys that fall
+ * into its new ranges. Moving the data stored under those keys is up to the caller.
+ * @param <T> The node type
+ */
+class ConsistentHashRing<T> {
+    private final TreeMap<Long, T> ring = new TreeMap<>();
+    
+    /**
+     * Create a new ConsistentHashRing.
+     * @param nodes The nodes to place on the ring
+     * @param nameOf Gives the stable name a node is hashed by
+     * @param virtualNodes The number of points per node
+     */
+    ConsistentHashRing(List<T> nodes, Function<T, String> nameOf, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A consistent-hash ring needs at least one node");
+        }
+        
+        for (T node : nodes) {
+            String name = nameOf.apply(node);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(name + "#" + i), node);
+            }
+        }
+    }
+    
+    /**
+     * Get the node responsible for a key.
+     * @param key The key to look up
+     * @return The first node at or after the key's position on the ring
+     */
+    T get(long key) {
+        Map.Entry<Long, T> entry = ring.ceilingEntry(mix(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+    
+    private static long hash(String name) {
+        // FNV-1a, then mixed to spread similar names across the ring
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+    
+    private static long mix(long value) {
+        // MurmurHash3 64-bit finalizer
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb3fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
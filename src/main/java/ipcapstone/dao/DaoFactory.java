@@ -0,0 +1,208 @@
+package ipcapstone.dao;
+
+import ipcapstone.dao.journal.JournalReplayer;
+import ipcapstone.dao.journal.JournalingLoanApplicationDao;
+import ipcapstone.dao.journal.LoanApplicationJournal;
+import ipcapstone.dao.memory.InMemoryFinancialInfoDao;
+import ipcapstone.dao.memory.InMemoryLoanApplicationDao;
+import ipcapstone.dao.memory.InMemoryLoanDecisionDao;
+import ipcapstone.dao.memory.InMemoryReportDao;
+import ipcapstone.dao.memory.InMemoryStore;
+import ipcapstone.dao.memory.InMemoryUserDao;
+import ipcapstone.model.User;
+import ipcapstone.model.User.UserType;
+import ipcapstone.search.ApplicationSearchIndex;
+import ipcapstone.search.IndexingLoanApplicationDao;
+import ipcapstone.search.IndexingUserDao;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Creates the DAOs for the configured storage backend.
+ * The backend is selected with the system property "ipcapstone.storage":
+ * "mysql" (default) uses the JDBC DAOs, "memory" uses a concurrent in-memory store.
+ * With the in-memory backend, the system property "ipcapstone.storage.file"
+ * enables append-only file persistence.
+ * With the MySQL backend, loan applications submitted while the database is down
+ * are journaled to the directory named by "ipcapstone.journal.dir" (default "journal")
+ * and replayed when it comes back; an empty value disables the journal.
+ * Setting "ipcapstone.db.shards" to a comma-separated list of host:port/database
+ * addresses spreads loan applications over those databases by user ID.
+ * User and loan application writes made through the created DAOs also update the
+ * shared {@link ApplicationSearchIndex}.
+ */
+public class DaoFactory {
+    public static final String STORAGE_PROPERTY = "ipcapstone.storage";
+    public static final String STORAGE_FILE_PROPERTY = "ipcapstone.storage.file";
+    public static final String JOURNAL_DIR_PROPERTY = "ipcapstone.journal.dir";
+    public static final String SHARDS_PROPERTY = "ipcapstone.db.shards";
+    
+    private static InMemoryStore inMemoryStore;
+    private static ShardedLoanApplicationDao shardedLoanApplicationDao;
+    private static LoanApplicationJournal journal;
+    private static JournalReplayer journalReplayer;
+    private static boolean journalOpened;
+    private static ApplicationSearchIndex searchIndex;
+    
+    /**
+     * Check whether the in-memory backend is configured.
+     * @return true if the DAOs are backed by memory, false if they use MySQL
+     */
+    public static boolean isInMemory() {
+        return "memory".equalsIgnoreCase(System.getProperty(STORAGE_PROPERTY));
+    }
+    
+    /**
+     * Create a UserDao for the configured backend.
+     * @return UserDao object
+     */
+    public static UserDao createUserDao() {
+        return new IndexingUserDao(createStorageUserDao(), getSearchIndex());
+    }
+    
+    private static UserDao createStorageUserDao() {
+        return isInMemory() ? new InMemoryUserDao(getInMemoryStore()) : new JdbcUserDao();
+    }
+    
+    /**
+     * Create a LoanApplicationDao for the configured backend.
+     * @return LoanApplicationDao object
+     */
+    public static LoanApplicationDao createLoanApplicationDao() {
+        return new IndexingLoanApplicationDao(createStorageLoanApplicationDao(), getSearchIndex());
+    }
+    
+    private static LoanApplicationDao createStorageLoanApplicationDao() {
+        if (isInMemory()) {
+            return new InMemoryLoanApplicationDao(getInMemoryStore());
+        }
+        
+        // The journal replays into the unsharded database, so it is not used with shards
+        if (getShardedLoanApplicationDao() != null) {
+            return shardedLoanApplicationDao;
+        }
+        
+        LoanApplicationDao dao = new JdbcLoanApplicationDao();
+        return getJournalReplayer() != null ? new JournalingLoanApplicationDao(dao, journal, journalReplayer) : dao;
+    }
+    
+    /**
+     * Create a LoanDecisionDao for the configured backend.
+     * @return LoanDecisionDao object
+     */
+    public static LoanDecisionDao createLoanDecisionDao() {
+        if (isInMemory()) {
+            return new InMemoryLoanDecisionDao(getInMemoryStore());
+        }
+        
+        // Decisions stay on the main database but update application statuses on the shards
+        ShardedLoanApplicationDao shardedDao = getShardedLoanApplicationDao();
+        return shardedDao != null ? new JdbcLoanDecisionDao(shardedDao) : new JdbcLoanDecisionDao();
+    }
+    
+    /**
+     * Create a FinancialInfoDao for the configured backend.
+     * @return FinancialInfoDao object
+     */
+    public static FinancialInfoDao createFinancialInfoDao() {
+        return isInMemory() ? new InMemoryFinancialInfoDao(getInMemoryStore()) : new JdbcFinancialInfoDao();
+    }
+    
+    /**
+     * Create a ReportDao for the configured backend.
+     * @return ReportDao object
+     */
+    public static ReportDao createReportDao() {
+        if (isInMemory()) {
+            return new InMemoryReportDao(getInMemoryStore());
+        }
+        // Application summaries are kept on the shards, next to the applications they count
+        ShardedLoanApplicationDao shardedDao = getShardedLoanApplicationDao();
+        return shardedDao != null ? new JdbcReportDao(shardedDao.getShardConnections()) : new JdbcReportDao();
+    }
+    
+    /**
+     * Get the shared in-memory store, opening it on first use.
+     * A new store is seeded with the default accounts of database.sql.
+     * @return The in-memory store
+     */
+    public static synchronized InMemoryStore getInMemoryStore() {
+        if (inMemoryStore == null) {
+            String file = System.getProperty(STORAGE_FILE_PROPERTY);
+            InMemoryStore store = new InMemoryStore();
+            
+            if (file != null && !file.isEmpty()) {
+                try {
+                    store = InMemoryStore.open(new File(file));
+                } catch (IOException e) {
+                    System.err.println("Error opening in-memory store file, continuing without persistence: " +
+                            e.getMessage());
+                }
+            }
+            
+            if (store.isEmpty()) {
+                UserDao userDao = new InMemoryUserDao(store);
+                User officer = new User("arya2012", "arya2012@", "Arya Tiwari", "arya@tcet.com", UserType.OFFICER);
+                officer.setPhone("123-456-7890");
+                userDao.insertUser(officer);
+                
+                User customer = new User("anant1302", "anant1302@", "Anant Singh", "anant@gmail.com", UserType.USER);
+                customer.setPhone("987-654-3210");
+                customer.setAddress("Malad, Mumbai");
+                userDao.insertUser(customer);
+            }
+            
+            inMemoryStore = store;
+        }
+        return inMemoryStore;
+    }
+    
+    /**
+     * Get the shared search index of loan applications, creating it on first use.
+     * The index is loaded from storage on the first search.
+     * @return The search index
+     */
+    public static synchronized ApplicationSearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new ApplicationSearchIndex(createStorageUserDao(), createStorageLoanApplicationDao());
+        }
+        return searchIndex;
+    }
+    
+    /**
+     * Get the shared sharded loan application DAO, creating it on first use.
+     * @return The sharded DAO, or null if no shards are configured
+     */
+    public static synchronized ShardedLoanApplicationDao getShardedLoanApplicationDao() {
+        String shards = System.getProperty(SHARDS_PROPERTY);
+        if (shardedLoanApplicationDao == null && shards != null && !shards.trim().isEmpty()) {
+            shardedLoanApplicationDao = ShardedLoanApplicationDao.fromSpec(shards);
+        }
+        return shardedLoanApplicationDao;
+    }
+    
+    /**
+     * Get the replayer of the loan application journal, opening the journal and
+     * starting the replayer on first use.
+     * @return The journal replayer, or null if the journal is disabled or cannot be opened
+     */
+    public static synchronized JournalReplayer getJournalReplayer() {
+        if (!journalOpened) {
+            journalOpened = true;
+            String dir = System.getProperty(JOURNAL_DIR_PROPERTY, "journal");
+            
+            if (!dir.isEmpty()) {
+                try {
+                    journal = LoanApplicationJournal.open(new File(dir));
+                    journalReplayer = new JournalReplayer(journal);
+                    journalReplayer.start();
+                } catch (IOException e) {
+                    System.err.println("Error opening loan application journal, continuing without it: " +
+                            e.getMessage());
+                }
+            }
+        }
+        return journalReplayer;
+    }
+}
@@ -1,47 +1,188 @@
 package ipcapstone.dao;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles database connections for the Bank Loan Management System.
+ * Each thread gets its own connections, which stay open between DAO calls: closing
+ * one only ends its use by the caller. When the system property "ipcapstone.db.replicas"
+ * lists replica hosts (comma-separated host:port), read-only operations get a separate
+ * connection opened through the Connector/J replication driver and fixed to the
+ * replicas, while everything else uses a connection to the source.
  */
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/ipcapstone_CDiv_60to69";
+    public static final String REPLICAS_PROPERTY = "ipcapstone.db.replicas";
+    
+    private static final String SOURCE_HOST = "localhost:3306";
+    private static final String DATABASE = "ipcapstone_CDiv_60to69";
+    private static final String URL = "jdbc:mysql://" + SOURCE_HOST + "/" + DATABASE;
     private static final String USER = "root"; // Change to your MySQL username
     private static final String PASSWORD = "123456789"; // Change to your MySQL password
     
-    private static Connection connection = null;
+    // Reads stay on the source for this long after a write, so users see their own changes
+    private static final long READ_YOUR_WRITES_MILLIS = 2000;
+    
+    private static final ThreadLocal<Connection> sourceConnections = new ThreadLocal<>();
+    private static final ThreadLocal<Connection> replicaConnections = new ThreadLocal<>();
+    private static final Set<Connection> threadConnections = ConcurrentHashMap.newKeySet();
+    private static volatile long lastWriteMillis;
     
     /**
-     * Get a connection to the database.
+     * Get this thread's connection to the database. The connection is routed to the source.
+     * Closing it, which must happen on the same thread, ends the caller's use of it;
+     * uncommitted work is rolled back once the last caller on the thread has closed it.
      * @return Connection object
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        return getThreadConnection(sourceConnections, false);
+    }
+    
+    /**
+     * Get a connection for a read-only operation. With replicas configured, this is
+     * the thread's replica connection unless data was written recently.
+     * The operation must not modify data.
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    public static Connection getReadConnection() throws SQLException {
+        if (isReplicationEnabled() && System.currentTimeMillis() - lastWriteMillis > READ_YOUR_WRITES_MILLIS) {
+            return getThreadConnection(replicaConnections, true);
+        }
+        return getConnection();
+    }
+    
+    /**
+     * Get a connection for an operation that modifies data. The connection is
+     * routed to the source, and reads are kept on the source for a short while
+     * so that the change is visible to them.
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    public static Connection getWriteConnection() throws SQLException {
+        lastWriteMillis = System.currentTimeMillis();
+        return getConnection();
+    }
+    
+    /**
+     * Get the current thread's connection, opening it if it does not exist or was closed
+     * by a connection failure.
+     * @param connections The thread's connections of the kind requested
+     * @param replica Whether the connection is fixed to the replicas
+     * @return A handle on the connection that releases it when closed
+     * @throws SQLException if connection fails
+     */
+    private static Connection getThreadConnection(ThreadLocal<Connection> connections, boolean replica)
+            throws SQLException {
+        Connection conn = connections.get();
+        if (conn == null || conn.isClosed()) {
+            if (conn != null) {
+                threadConnections.remove(conn);
+            }
+            conn = replica ? openConnection(getUrl()) : openConnection(URL);
+            if (replica) {
+                conn.setReadOnly(true);
+            }
+            threadConnections.add(conn);
+            connections.set(conn);
+        }
+        
+        ThreadConnection handle = new ThreadConnection(conn, replica);
+        handle.acquire();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, handle);
+    }
+    
+    /**
+     * Close the current thread's connections, e.g. before a worker thread ends.
+     */
+    public static void releaseThreadConnections() {
+        closeThreadConnection(sourceConnections);
+        closeThreadConnection(replicaConnections);
+    }
+    
+    private static void closeThreadConnection(ThreadLocal<Connection> connections) {
+        Connection conn = connections.get();
+        connections.remove();
+        if (conn != null) {
+            threadConnections.remove(conn);
             try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("MySQL JDBC Driver not found", e);
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing database connection: " + e.getMessage());
             }
         }
-        return connection;
     }
     
     /**
-     * Close the database connection.
+     * Check whether replica hosts are configured.
+     * @return true if read-only operations can go to replicas
+     */
+    public static boolean isReplicationEnabled() {
+        String replicas = System.getProperty(REPLICAS_PROPERTY);
+        return replicas != null && !replicas.trim().isEmpty();
+    }
+    
+    /**
+     * Get the JDBC URL for the configured hosts.
+     * @return The JDBC URL
+     */
+    private static String getUrl() {
+        if (!isReplicationEnabled()) {
+            return URL;
+        }
+        // The first host is the source, the rest are replicas
+        return "jdbc:mysql:replication://" + SOURCE_HOST + "," + System.getProperty(REPLICAS_PROPERTY).trim() +
+                "/" + DATABASE + "?readFromSourceWhenNoReplicas=true";
+    }
+    
+    /**
+     * Open a new connection to the database that is not one of the thread connections.
+     * Used by background tasks that keep a connection of their own.
+     * The caller is responsible for closing it.
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    public static Connection openConnection() throws SQLException {
+        return openConnection(getUrl());
+    }
+    
+    /**
+     * Open a new connection to the database at the given URL with the configured credentials.
+     * The caller is responsible for closing it.
+     * @param url The JDBC URL of the database
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    static Connection openConnection(String url) throws SQLException {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+            return DriverManager.getConnection(url, USER, PASSWORD);
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("MySQL JDBC Driver not found", e);
+        }
+    }
+    
+    /**
+     * Close the connections of all threads.
      */
     public static void closeConnection() {
-        if (connection != null) {
+        for (Connection conn : threadConnections) {
             try {
-                connection.close();
+                conn.close();
             } catch (SQLException e) {
                 System.err.println("Error closing database connection: " + e.getMessage());
             }
         }
+        threadConnections.clear();
     }
     
     /**
@@ -49,13 +190,74 @@ public class DatabaseConnection {
      * @return true if successful, false otherwise
      */
     public static boolean testConnection() {
-        try {
-            Connection testConn = getConnection();
-            boolean isValid = testConn != null && testConn.isValid(2);
-            return isValid;
+        try (Connection testConn = getConnection()) {
+            return testConn.isValid(2);
         } catch (SQLException e) {
             System.err.println("Database connection test failed: " + e.getMessage());
             return false;
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * A caller's use of a thread's connection. The calls made on the same thread and
+     * connection share a use count, so a nested DAO call closing its handle does not end
+     * the outer call's transaction. Source and replica handles are counted separately,
+     * since they sit on different connections.
+     */
+    private static final class ThreadConnection implements InvocationHandler {
+        private static final int SOURCE = 0;
+        private static final int REPLICA = 1;
+        private static final ThreadLocal<int[]> useCounts = ThreadLocal.withInitial(() -> new int[2]);
+        
+        private final Connection conn;
+        private final int type;
+        private boolean closed;
+        
+        private ThreadConnection(Connection conn, boolean replica) {
+            this.conn = conn;
+            this.type = replica ? REPLICA : SOURCE;
+        }
+        
+        private void acquire() {
+            useCounts.get()[type]++;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return closed || conn.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ThreadConnection[" + conn + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection handle has been closed");
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+        
+        private void release() throws SQLException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (--useCounts.get()[type] == 0 && !conn.isClosed() && !conn.getAutoCommit()) {
+                // Never leave a transaction open for the thread's next caller
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+}
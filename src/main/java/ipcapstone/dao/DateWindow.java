@@ -0,0 +1,66 @@
+package ipcapstone.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Helpers for restricting queries to a date window.
+ * A window includes its start and excludes its end; a null bound leaves that side open.
+ * Filtering on the date column directly lets MySQL use its index, or prune the
+ * partitions outside the window.
+ */
+public final class DateWindow {
+    
+    private DateWindow() {
+    }
+    
+    /**
+     * Build the SQL condition for a date window.
+     * @param column The date column to filter on
+     * @param from The start of the window, or null
+     * @param to The end of the window, or null
+     * @return The condition with one placeholder per bound, or an empty string if both bounds are null
+     */
+    static String condition(String column, Date from, Date to) {
+        if (from != null && to != null) {
+            return column + " >= ? AND " + column + " < ?";
+        } else if (from != null) {
+            return column + " >= ?";
+        } else if (to != null) {
+            return column + " < ?";
+        }
+        return "";
+    }
+    
+    /**
+     * Set the parameters of a date window condition.
+     * @param pstmt The statement to set the parameters on
+     * @param index The index of the first window parameter
+     * @param from The start of the window, or null
+     * @param to The end of the window, or null
+     * @return The index of the parameter after the window
+     * @throws SQLException if a parameter cannot be set
+     */
+    static int bind(PreparedStatement pstmt, int index, Date from, Date to) throws SQLException {
+        if (from != null) {
+            pstmt.setTimestamp(index++, new Timestamp(from.getTime()));
+        }
+        if (to != null) {
+            pstmt.setTimestamp(index++, new Timestamp(to.getTime()));
+        }
+        return index;
+    }
+    
+    /**
+     * Check whether a date lies in a window.
+     * @param date The date to check
+     * @param from The start of the window, or null
+     * @param to The end of the window, or null
+     * @return true if the date is inside the window
+     */
+    public static boolean contains(Date date, Date from, Date to) {
+        return (from == null || !date.before(from)) && (to == null || date.before(to));
+    }
+}
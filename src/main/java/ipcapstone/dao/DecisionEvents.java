@@ -0,0 +1,38 @@
+package ipcapstone.dao;
+
+import ipcapstone.model.LoanDecisionEvent.EventType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Appends to the loan_decision_events history. The event is copied from the decision row,
+ * so it must run on the connection and in the transaction that writes the row: after an
+ * insert or update, or before a delete.
+ */
+final class DecisionEvents {
+    private static final String APPEND_SQL =
+            "INSERT INTO loan_decision_events " +
+            "(application_id, decision_id, officer_id, event_type, status, comments) " +
+            "SELECT application_id, decision_id, officer_id, ?, status, comments " +
+            "FROM loan_decisions WHERE decision_id = ?";
+    
+    private DecisionEvents() {
+    }
+    
+    /**
+     * Append an event for a loan decision to its application's history.
+     * @param conn The connection of the transaction writing the decision
+     * @param decisionId The ID of the decision
+     * @param eventType What happened to the decision
+     * @throws SQLException if the event cannot be appended
+     */
+    static void append(Connection conn, int decisionId, EventType eventType) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(APPEND_SQL)) {
+            pstmt.setString(1, eventType.name());
+            pstmt.setInt(2, decisionId);
+            pstmt.executeUpdate();
+        }
+    }
+}
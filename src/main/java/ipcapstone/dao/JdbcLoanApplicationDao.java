@@ -0,0 +1,699 @@
+package ipcapstone.dao;
+
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link LoanApplicationDao} backed by MySQL.
+ * Writes update the monthly reporting summaries in the same transaction.
+ * Every update increments the version column; versioned updates only match
+ * the version they were based on, so concurrent edits are detected without row locks.
+ */
+public class JdbcLoanApplicationDao implements LoanApplicationDao {
+    // MySQL error for a duplicate value in a unique key
+    private static final int ER_DUP_ENTRY = 1062;
+    
+    private final ConnectionProvider connections;
+    
+    /**
+     * Create a new JdbcLoanApplicationDao for the configured database.
+     */
+    public JdbcLoanApplicationDao() {
+        this(ConnectionProvider.DEFAULT);
+    }
+    
+    /**
+     * Create a new JdbcLoanApplicationDao that runs its statements on the given connections.
+     * @param connections The provider of the connections
+     */
+    JdbcLoanApplicationDao(ConnectionProvider connections) {
+        this.connections = connections;
+    }
+    
+    /**
+     * Get all loan applications.
+     * @return List of all loan applications
+     */
+    @Override
+    public List<LoanApplication> getAllLoanApplications() {
+        return getAllLoanApplications(null, null);
+    }
+    
+    /**
+     * Get the loan applications submitted in a date window.
+     * @param from The start of the window (inclusive), or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return List of loan applications submitted in the window
+     */
+    @Override
+    public List<LoanApplication> getAllLoanApplications(Date from, Date to) {
+        List<LoanApplication> applications = new ArrayList<>();
+        String window = DateWindow.condition("la.application_date", from, to);
+        String sql = "SELECT la.*, u.full_name FROM loan_applications la " +
+                     "JOIN users u ON la.user_id = u.user_id" +
+                     (window.isEmpty() ? "" : " WHERE " + window);
+        
+        try (Connection conn = connections.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            DateWindow.bind(pstmt, 1, from, to);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LoanApplication application = extractLoanApplicationFromResultSet(rs);
+                    application.setUserName(rs.getString("full_name"));
+                    applications.add(application);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting all loan applications: " + e.getMessage());
+        }
+        
+        return applications;
+    }
+    
+    /**
+     * Get loan applications for a specific user.
+     * @param userId The ID of the user whose applications to retrieve
+     * @return List of user's loan applications
+     */
+    @Override
+    public List<LoanApplication> getLoanApplicationsByUserId(int userId) {
+        List<LoanApplication> applications = new ArrayList<>();
+        String sql = "SELECT * FROM loan_applications WHERE user_id = ?";
+        
+        try (Connection conn = connections.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, userId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    applications.add(extractLoanApplicationFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting loan applications by user ID: " + e.getMessage());
+        }
+        
+        return applications;
+    }
+    
+    /**
+     * Get a specific loan application by ID.
+     * @param applicationId The ID of the application to retrieve
+     * @return LoanApplication object if found, null otherwise
+     */
+    @Override
+    public LoanApplication getLoanApplicationById(int applicationId) {
+        String sql = "SELECT la.*, u.full_name FROM loan_applications la " +
+                     "JOIN users u ON la.user_id = u.user_id " +
+                     "WHERE la.application_id = ?";
+        
+        try (Connection conn = connections.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, applicationId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    LoanApplication application = extractLoanApplicationFromResultSet(rs);
+                    application.setUserName(rs.getString("full_name"));
+                    return application;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting loan application by ID: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Get loan applications with a specific status.
+     * @param status The status to filter by
+     * @return List of loan applications with the specified status
+     */
+    @Override
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status) {
+        return getLoanApplicationsByStatus(status, null, null);
+    }
+    
+    /**
+     * Get the loan applications with a specific status submitted in a date window.
+     * @param status The status to filter by
+     * @param from The start of the window (inclusive), or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return List of loan applications with the specified status submitted in the window
+     */
+    @Override
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status, Date from, Date to) {
+        List<LoanApplication> applications = new ArrayList<>();
+        String window = DateWindow.condition("la.application_date", from, to);
+        String sql = "SELECT la.*, u.full_name FROM loan_applications la " +
+                     "JOIN users u ON la.user_id = u.user_id " +
+                     "WHERE la.status = ?" +
+                     (window.isEmpty() ? "" : " AND " + window);
+        
+        try (Connection conn = connections.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, status.toString());
+            DateWindow.bind(pstmt, 2, from, to);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LoanApplication application = extractLoanApplicationFromResultSet(rs);
+                    application.setUserName(rs.getString("full_name"));
+                    applications.add(application);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting loan applications by status: " + e.getMessage());
+        }
+        
+        return applications;
+    }
+    
+    /**
+     * Insert a new loan application into the database. If an application with the same
+     * idempotency key is already stored, the submission was already made and the
+     * stored application's ID is returned in the application instead.
+     * @param application The loan application to insert
+     * @return true if successful, false otherwise
+     */
+    @Override
+    public boolean insertLoanApplication(LoanApplication application) {
+        String sql = "INSERT INTO loan_applications (user_id, loan_amount, loan_purpose, " +
+                     "duration_months, interest_rate, status, idempotency_key) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        
+        try (Connection conn = connections.getWriteConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                setInsertParameters(pstmt, application);
+                
+                int affectedRows = pstmt.executeUpdate();
+                
+                if (affectedRows == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int applicationId = generatedKeys.getInt(1);
+                        ReportSummaries.applyApplication(conn, applicationId, 1);
+                        conn.commit();
+                        application.setApplicationId(applicationId);
+                        return true;
+                    } else {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                if (e.getErrorCode() == ER_DUP_ENTRY && application.getIdempotencyKey() != null) {
+                    int applicationId = findByIdempotencyKey(conn, application.getIdempotencyKey());
+                    if (applicationId > 0) {
+                        application.setApplicationId(applicationId);
+                        return true;
+                    }
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error inserting loan application: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Insert a batch of loan applications on the given connection.
+     * Applications whose idempotency key is already stored are skipped, so a batch
+     * can safely be inserted again. The application date of each application is kept.
+     * Transaction control is left to the caller; the monthly reporting summaries are
+     * updated on the same connection.
+     * @param conn The connection to insert the applications on
+     * @param applications The loan applications to insert
+     * @return The number of applications that were not already stored
+     * @throws SQLException if the batch fails or an application is rejected for another reason
+     */
+    public int insertLoanApplicationBatch(Connection conn, List<LoanApplication> applications) throws SQLException {
+        // INSERT IGNORE reports 0 rows for a stored key even with CLIENT_FOUND_ROWS, which
+        // Connector/J sets by default; ON DUPLICATE KEY UPDATE would report 1 as for an insert
+        String sql = "INSERT IGNORE INTO loan_applications (user_id, loan_amount, loan_purpose, " +
+                     "duration_months, interest_rate, status, idempotency_key, application_date) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (LoanApplication application : applications) {
+                setInsertParameters(pstmt, application);
+                Date applicationDate = application.getApplicationDate() != null ? application.getApplicationDate() : new Date();
+                pstmt.setTimestamp(8, new Timestamp(applicationDate.getTime()));
+                pstmt.addBatch();
+            }
+            
+            int[] affectedRows = pstmt.executeBatch();
+            // Only the rows this batch inserted are added to the summaries
+            List<String> insertedKeys = new ArrayList<>();
+            for (int i = 0; i < affectedRows.length; i++) {
+                String idempotencyKey = applications.get(i).getIdempotencyKey();
+                if (affectedRows[i] == 1) {
+                    insertedKeys.add(idempotencyKey);
+                } else if (affectedRows[i] == 0) {
+                    // IGNORE also turns other errors, like a missing user, into skipped rows
+                    if (idempotencyKey == null || findByIdempotencyKey(conn, idempotencyKey) == 0) {
+                        throw new SQLException("Loan application " + (idempotencyKey != null ? idempotencyKey : "#" + i) +
+                                " of the batch was rejected");
+                    }
+                } else {
+                    // E.g. SUCCESS_NO_INFO from rewriteBatchedStatements, which does not tell inserts from duplicates
+                    throw new SQLException("Unexpected update count " + affectedRows[i] + " for loan application " +
+                            idempotencyKey + "; batched inserts need one update count per row");
+                }
+            }
+            ReportSummaries.addApplications(conn, insertedKeys);
+            return insertedKeys.size();
+        }
+    }
+    
+    /**
+     * Update the status of a loan application.
+     * @param applicationId The ID of the application to update
+     * @param newStatus The new status to set
+     * @return true if successful, false otherwise
+     */
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus) {
+        String sql = "UPDATE loan_applications SET status = ?, version = version + 1 WHERE application_id = ?";
+        
+        try (Connection conn = connections.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, newStatus.toString());
+            pstmt.setInt(2, applicationId);
+            
+            int affectedRows = pstmt.executeUpdate();
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating loan application status: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Update the status of a loan application if it has not changed since it was read.
+     * @param applicationId The ID of the application to update
+     * @param newStatus The new status to set
+     * @param expectedVersion The version of the application the change is based on
+     * @return true if successful, false otherwise
+     * @throws OptimisticLockException if the application has a different version
+     */
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus, int expectedVersion) {
+        String sql = "UPDATE loan_applications SET status = ?, version = version + 1 " +
+                     "WHERE application_id = ? AND version = ?";
+        
+        try (Connection conn = connections.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, newStatus.toString());
+            pstmt.setInt(2, applicationId);
+            pstmt.setInt(3, expectedVersion);
+            
+            int affectedRows = pstmt.executeUpdate();
+            if (affectedRows == 0 && exists(conn, applicationId)) {
+                throw new OptimisticLockException("Loan application " + applicationId +
+                        " was changed after version " + expectedVersion);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating loan application status: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Update the status of a loan application for an officer's decision, if it has not changed
+     * since it was read and no other officer holds an unexpired claim on it. Any claim is released.
+     * @param applicationId The ID of the application to update
+     * @param newStatus The new status to set
+     * @param expectedVersion The version of the application the decision is based on
+     * @param officerId The ID of the officer making the decision
+     * @return true if successful, false otherwise
+     * @throws OptimisticLockException if the application has a different version
+     * @throws ApplicationClaimedException if another officer has claimed the application
+     */
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus, int expectedVersion,
+            int officerId) {
+        try (Connection conn = connections.getWriteConnection()) {
+            return updateStatusForDecision(conn, applicationId, newStatus, expectedVersion, officerId);
+        } catch (SQLException e) {
+            System.err.println("Error updating loan application status: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Update the status of a loan application for an officer's decision on the given connection,
+     * releasing any claim on it. Transaction control is left to the caller.
+     * @param conn The connection of the transaction deciding the application
+     * @param applicationId The ID of the application to update
+     * @param newStatus The new status to set
+     * @param expectedVersion The version of the application the decision is based on
+     * @param officerId The ID of the officer making the decision
+     * @return true if successful, false if the application does not exist
+     * @throws SQLException if the status cannot be updated
+     * @throws OptimisticLockException if the application has a different version
+     * @throws ApplicationClaimedException if another officer has claimed the application
+     */
+    static boolean updateStatusForDecision(Connection conn, int applicationId, LoanStatus newStatus,
+            int expectedVersion, int officerId) throws SQLException {
+        String sql = "UPDATE loan_applications SET status = ?, version = version + 1, " +
+                     "claimed_by = NULL, claim_expires_at = NULL " +
+                     "WHERE application_id = ? AND version = ? " +
+                     "AND (claimed_by IS NULL OR claimed_by = ? OR claim_expires_at < CURRENT_TIMESTAMP)";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, newStatus.toString());
+            pstmt.setInt(2, applicationId);
+            pstmt.setInt(3, expectedVersion);
+            pstmt.setInt(4, officerId);
+            
+            if (pstmt.executeUpdate() > 0) {
+                return true;
+            }
+        }
+        
+        // Find out whether the version or a claim stopped the update
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT version, claimed_by FROM loan_applications WHERE application_id = ?")) {
+            pstmt.setInt(1, applicationId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                if (rs.getInt("version") != expectedVersion) {
+                    throw new OptimisticLockException("Loan application " + applicationId +
+                            " was changed after version " + expectedVersion);
+                }
+                throw new ApplicationClaimedException("Loan application " + applicationId +
+                        " is claimed by officer " + rs.getInt("claimed_by"));
+            }
+        }
+    }
+    
+    /**
+     * Update an existing loan application in the database.
+     * @param application The loan application to update
+     * @return true if successful, false otherwise
+     */
+    @Override
+    public boolean updateLoanApplication(LoanApplication application) {
+        String sql = "UPDATE loan_applications SET user_id = ?, loan_amount = ?, " +
+                     "loan_purpose = ?, duration_months = ?, interest_rate = ?, " +
+                     "status = ?, version = version + 1 WHERE application_id = ? AND version = ?";
+        
+        try (Connection conn = connections.getWriteConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, application.getUserId());
+                pstmt.setDouble(2, application.getLoanAmount());
+                pstmt.setString(3, application.getLoanPurpose());
+                pstmt.setInt(4, application.getDurationMonths());
+                
+                if (application.getInterestRate() > 0) {
+                    pstmt.setDouble(5, application.getInterestRate());
+                } else {
+                    pstmt.setNull(5, java.sql.Types.DECIMAL);
+                }
+                
+                pstmt.setString(6, application.getStatus().toString());
+                pstmt.setInt(7, application.getApplicationId());
+                pstmt.setInt(8, application.getVersion());
+                
+                // Move the application's contribution from its old to its new amount and purpose
+                ReportSummaries.applyApplication(conn, application.getApplicationId(), -1);
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    conn.rollback();
+                    if (exists(conn, application.getApplicationId())) {
+                        throw new OptimisticLockException("Loan application " + application.getApplicationId() +
+                                " was changed after version " + application.getVersion());
+                    }
+                    return false;
+                }
+                ReportSummaries.applyApplication(conn, application.getApplicationId(), 1);
+                conn.commit();
+                application.setVersion(application.getVersion() + 1);
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating loan application: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Claim the next pending loan applications for an officer.
+     * The officer's own claims are renewed first; further applications are locked with
+     * SKIP LOCKED, so concurrent officers skip each other's rows instead of waiting on them.
+     * @param officerId The ID of the officer claiming the applications
+     * @param limit The maximum number of applications to claim
+     * @param leaseSeconds How long the claim lasts unless it is renewed
+     * @return List of the applications now claimed by the officer
+     */
+    @Override
+    public List<LoanApplication> claimPendingApplications(int officerId, int limit, int leaseSeconds) {
+        List<LoanApplication> applications = new ArrayList<>();
+        String renewSql = "UPDATE loan_applications SET claim_expires_at = CURRENT_TIMESTAMP + INTERVAL ? SECOND " +
+                          "WHERE status = 'PENDING' AND claimed_by = ?";
+        String selectSql = "SELECT application_id FROM loan_applications " +
+                           "WHERE status = 'PENDING' AND (claimed_by IS NULL OR claim_expires_at < CURRENT_TIMESTAMP) " +
+                           "ORDER BY application_id LIMIT ? FOR UPDATE SKIP LOCKED";
+        String claimSql = "UPDATE loan_applications SET claimed_by = ?, " +
+                          "claim_expires_at = CURRENT_TIMESTAMP + INTERVAL ? SECOND WHERE application_id = ?";
+        String claimedSql = "SELECT la.*, u.full_name FROM loan_applications la " +
+                            "JOIN users u ON la.user_id = u.user_id " +
+                            "WHERE la.status = 'PENDING' AND la.claimed_by = ? ORDER BY la.application_id";
+        
+        try (Connection conn = connections.getWriteConnection()) {
+            int isolation = conn.getTransactionIsolation();
+            // Keep the transaction short and only lock the rows actually claimed
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement renew = conn.prepareStatement(renewSql);
+                 PreparedStatement select = conn.prepareStatement(selectSql);
+                 PreparedStatement claim = conn.prepareStatement(claimSql)) {
+                renew.setInt(1, leaseSeconds);
+                renew.setInt(2, officerId);
+                int remaining = limit - renew.executeUpdate();
+                
+                if (remaining > 0) {
+                    select.setInt(1, remaining);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            claim.setInt(1, officerId);
+                            claim.setInt(2, leaseSeconds);
+                            claim.setInt(3, rs.getInt("application_id"));
+                            claim.addBatch();
+                        }
+                    }
+                    claim.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                conn.setTransactionIsolation(isolation);
+            }
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(claimedSql)) {
+                pstmt.setInt(1, officerId);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        LoanApplication application = extractLoanApplicationFromResultSet(rs);
+                        application.setUserName(rs.getString("full_name"));
+                        applications.add(application);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error claiming pending loan applications: " + e.getMessage());
+        }
+        
+        return applications;
+    }
+    
+    /**
+     * Release an officer's claim on a loan application.
+     * @param applicationId The ID of the claimed application
+     * @param officerId The ID of the officer holding the claim
+     * @return true if the claim was released, false otherwise
+     */
+    @Override
+    public boolean releaseClaim(int applicationId, int officerId) {
+        String sql = "UPDATE loan_applications SET claimed_by = NULL, claim_expires_at = NULL " +
+                     "WHERE application_id = ? AND claimed_by = ?";
+        
+        try (Connection conn = connections.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, applicationId);
+            pstmt.setInt(2, officerId);
+            
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error releasing loan application claim: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Delete a loan application from the database.
+     * @param applicationId The ID of the application to delete
+     * @return true if successful, false otherwise
+     */
+    @Override
+    public boolean deleteLoanApplication(int applicationId) {
+        String sql = "DELETE FROM loan_applications WHERE application_id = ?";
+        
+        try (Connection conn = connections.getWriteConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, applicationId);
+                
+                ReportSummaries.applyApplication(conn, applicationId, -1);
+                int affectedRows = pstmt.executeUpdate();
+                conn.commit();
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error deleting loan application: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Set the parameters of a loan application INSERT statement.
+     * @param pstmt The statement to set the parameters on
+     * @param application The loan application to insert
+     * @throws SQLException if a parameter cannot be set
+     */
+    private void setInsertParameters(PreparedStatement pstmt, LoanApplication application) throws SQLException {
+        pstmt.setInt(1, application.getUserId());
+        pstmt.setDouble(2, application.getLoanAmount());
+        pstmt.setString(3, application.getLoanPurpose());
+        pstmt.setInt(4, application.getDurationMonths());
+        
+        if (application.getInterestRate() > 0) {
+            pstmt.setDouble(5, application.getInterestRate());
+        } else {
+            pstmt.setNull(5, java.sql.Types.DECIMAL);
+        }
+        
+        pstmt.setString(6, application.getStatus().toString());
+        pstmt.setString(7, application.getIdempotencyKey());
+    }
+    
+    /**
+     * Find the loan application submitted with an idempotency key.
+     * @param conn The connection to query
+     * @param idempotencyKey The idempotency key of the submission
+     * @return The ID of the application, or 0 if there is none
+     * @throws SQLException if the query fails
+     */
+    private int findByIdempotencyKey(Connection conn, String idempotencyKey) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT application_id FROM loan_applications WHERE idempotency_key = ?")) {
+            pstmt.setString(1, idempotencyKey);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
+    /**
+     * Check whether a loan application exists.
+     * @param conn The connection to query
+     * @param applicationId The ID of the application
+     * @return true if the application exists, false otherwise
+     * @throws SQLException if the query fails
+     */
+    private boolean exists(Connection conn, int applicationId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM loan_applications WHERE application_id = ?")) {
+            pstmt.setInt(1, applicationId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * Extract a LoanApplication object from a ResultSet.
+     * @param rs The ResultSet containing loan application data
+     * @return LoanApplication object
+     * @throws SQLException if data extraction fails
+     */
+    LoanApplication extractLoanApplicationFromResultSet(ResultSet rs) throws SQLException {
+        LoanApplication application = new LoanApplication();
+        application.setApplicationId(rs.getInt("application_id"));
+        application.setUserId(rs.getInt("user_id"));
+        application.setLoanAmount(rs.getDouble("loan_amount"));
+        application.setLoanPurpose(rs.getString("loan_purpose"));
+        
+        Timestamp timestamp = rs.getTimestamp("application_date");
+        application.setApplicationDate(new Date(timestamp.getTime()));
+        
+        application.setDurationMonths(rs.getInt("duration_months"));
+        
+        // Handle null interest_rate
+        double interestRate = rs.getDouble("interest_rate");
+        if (!rs.wasNull()) {
+            application.setInterestRate(interestRate);
+        }
+        
+        application.setStatus(LoanStatus.valueOf(rs.getString("status")));
+        application.setVersion(rs.getInt("version"));
+        application.setClaimedBy(rs.getInt("claimed_by"));
+        
+        Timestamp claimExpiresAt = rs.getTimestamp("claim_expires_at");
+        if (claimExpiresAt != null) {
+            application.setClaimExpiresAt(new Date(claimExpiresAt.getTime()));
+        }
+        
+        return application;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,551 @@
+package ipcapstone.dao;
+
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+import ipcapstone.model.LoanDecision;
+import ipcapstone.model.LoanDecision.DecisionStatus;
+import ipcapstone.model.LoanDecisionEvent;
+import ipcapstone.model.LoanDecisionEvent.EventType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link LoanDecisionDao} backed by MySQL.
+ * Writes update the monthly reporting summaries, append to the decision history and,
+ * when the applications are stored in this database, change the application's status
+ * in the same transaction. Each thread runs its transactions on its own connection.
+ * Updates are conditional on the version the decision was read with, and an application
+ * only ever receives one decision, so concurrent decisions are detected without row locks.
+ */
+public class JdbcLoanDecisionDao implements LoanDecisionDao {
+    private final LoanApplicationDao loanAppDao;
+    // Whether the loan applications are stored in this database, so decisions can update them in one transaction
+    private final boolean applicationsLocal;
+    
+    /**
+     * Create a new JdbcLoanDecisionDao for loan applications stored in the same database.
+     */
+    public JdbcLoanDecisionDao() {
+        this.loanAppDao = new JdbcLoanApplicationDao();
+        this.applicationsLocal = true;
+    }
+    
+    /**
+     * Create a new JdbcLoanDecisionDao for loan applications stored in other databases, such as shards.
+     * Application statuses are updated through the given DAO, outside the decision's transaction.
+     * @param loanAppDao The DAO used to update the status of decided applications
+     */
+    public JdbcLoanDecisionDao(LoanApplicationDao loanAppDao) {
+        this.loanAppDao = loanAppDao;
+        this.applicationsLocal = false;
+    }
+    
+    /**
+     * Get all loan decisions.
+     * @return List of all loan decisions
+     */
+    @Override
+    public List<LoanDecision> getAllLoanDecisions() {
+        return getAllLoanDecisions(null, null);
+    }
+    
+    /**
+     * Get the loan decisions made in a date window.
+     * @param from The start of the window (inclusive), or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return List of loan decisions made in the window
+     */
+    @Override
+    public List<LoanDecision> getAllLoanDecisions(Date from, Date to) {
+        List<LoanDecision> decisions = new ArrayList<>();
+        String window = DateWindow.condition("ld.decision_date", from, to);
+        String sql = "SELECT ld.*, u.full_name FROM loan_decisions ld " +
+                     "JOIN users u ON ld.officer_id = u.user_id" +
+                     (window.isEmpty() ? "" : " WHERE " + window);
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            DateWindow.bind(pstmt, 1, from, to);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LoanDecision decision = extractLoanDecisionFromResultSet(rs);
+                    decision.setOfficerName(rs.getString("full_name"));
+                    decisions.add(decision);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting all loan decisions: " + e.getMessage());
+        }
+        
+        return decisions;
+    }
+    
+    /**
+     * Get loan decisions for a specific application.
+     * @param applicationId The ID of the application
+     * @return LoanDecision object if found, null otherwise
+     */
+    @Override
+    public LoanDecision getLoanDecisionByApplicationId(int applicationId) {
+        String sql = "SELECT ld.*, u.full_name FROM loan_decisions ld " +
+                     "JOIN users u ON ld.officer_id = u.user_id " +
+                     "WHERE ld.application_id = ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, applicationId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    LoanDecision decision = extractLoanDecisionFromResultSet(rs);
+                    decision.setOfficerName(rs.getString("full_name"));
+                    return decision;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting loan decision by application ID: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Get loan decisions made by a specific officer.
+     * @param officerId The ID of the officer
+     * @return List of loan decisions made by the officer
+     */
+    @Override
+    public List<LoanDecision> getLoanDecisionsByOfficerId(int officerId) {
+        List<LoanDecision> decisions = new ArrayList<>();
+        String sql = "SELECT * FROM loan_decisions WHERE officer_id = ?";
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, officerId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    decisions.add(extractLoanDecisionFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting loan decisions by officer ID: " + e.getMessage());
+        }
+        
+        return decisions;
+    }
+    
+    /**
+     * Get the decision history of a loan application.
+     * @param applicationId The ID of the application
+     * @return List of the application's decision events, oldest first
+     */
+    @Override
+    public List<LoanDecisionEvent> getDecisionTimeline(int applicationId) {
+        List<LoanDecisionEvent> events = new ArrayList<>();
+        // A range scan of the primary key (application_id, event_id)
+        // Officers may have been deleted since; their events are kept without a name
+        String sql = "SELECT e.*, u.full_name FROM loan_decision_events e " +
+                     "LEFT JOIN users u ON e.officer_id = u.user_id " +
+                     "WHERE e.application_id = ? ORDER BY e.event_id";
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, applicationId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LoanDecisionEvent event = new LoanDecisionEvent();
+                    event.setEventId(rs.getLong("event_id"));
+                    event.setApplicationId(rs.getInt("application_id"));
+                    event.setDecisionId(rs.getInt("decision_id"));
+                    event.setOfficerId(rs.getInt("officer_id"));
+                    event.setEventType(EventType.valueOf(rs.getString("event_type")));
+                    event.setStatus(DecisionStatus.valueOf(rs.getString("status")));
+                    event.setComments(rs.getString("comments"));
+                    event.setEventTime(new Date(rs.getTimestamp("event_time").getTime()));
+                    event.setOfficerName(rs.getString("full_name"));
+                    events.add(event);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting decision timeline: " + e.getMessage());
+        }
+        
+        return events;
+    }
+    
+    /**
+     * Insert a new loan decision into the database, based on the current version of its application.
+     * @param decision The loan decision to insert
+     * @return true if successful, false otherwise
+     * @throws OptimisticLockException if the application already has a decision or was changed meanwhile
+     * @throws ApplicationClaimedException if another officer has claimed the application
+     */
+    @Override
+    public boolean insertLoanDecision(LoanDecision decision) {
+        LoanApplication application = loanAppDao.getLoanApplicationById(decision.getApplicationId());
+        if (application == null) {
+            return false;
+        }
+        return decideLoanApplication(decision, application.getVersion());
+    }
+    
+    /**
+     * Decide a loan application. When the applications are stored in this database, the status
+     * change and the decision are written in one transaction. Otherwise the status is changed
+     * first, which also checks the version, and changed back if the decision cannot be inserted.
+     * @param decision The loan decision to insert
+     * @param expectedVersion The version of the application the decision is based on
+     * @return true if successful, false otherwise
+     * @throws OptimisticLockException if the application has a different version or already has a decision
+     * @throws ApplicationClaimedException if another officer has claimed the application
+     */
+    @Override
+    public boolean decideLoanApplication(LoanDecision decision, int expectedVersion) {
+        LoanStatus status = LoanStatus.valueOf(decision.getStatus().name());
+        if (!applicationsLocal && !loanAppDao.updateLoanApplicationStatus(decision.getApplicationId(), status,
+                expectedVersion, decision.getOfficerId())) {
+            return false;
+        }
+        
+        boolean decided = false;
+        
+        try (Connection conn = DatabaseConnection.getWriteConnection()) {
+            conn.setAutoCommit(false);
+            
+            try {
+                if (applicationsLocal && !JdbcLoanApplicationDao.updateStatusForDecision(conn,
+                        decision.getApplicationId(), status, expectedVersion, decision.getOfficerId())) {
+                    conn.rollback();
+                    return false;
+                }
+                
+                int decisionId = insertDecision(conn, decision);
+                if (decisionId == 0) {
+                    conn.rollback();
+                    throw new OptimisticLockException("Loan application " + decision.getApplicationId() +
+                            " has already been decided");
+                }
+                conn.commit();
+                decided = true;
+                decision.setDecisionId(decisionId);
+                decision.setVersion(0);
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error deciding loan application: " + e.getMessage());
+            return false;
+        } finally {
+            if (!applicationsLocal && !decided) {
+                revertApplicationStatus(decision.getApplicationId(), expectedVersion + 1);
+            }
+        }
+    }
+    
+    /**
+     * Set a loan application back to pending after its decision could not be stored.
+     * @param applicationId The ID of the application
+     * @param version The version the failed decision gave the application
+     */
+    private void revertApplicationStatus(int applicationId, int version) {
+        try {
+            loanAppDao.updateLoanApplicationStatus(applicationId, LoanStatus.PENDING, version);
+        } catch (OptimisticLockException e) {
+            // Someone else has changed the application since, so their status stands
+            System.err.println("Not reverting loan application status: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Update an existing loan decision in the database if it has not changed since it was read.
+     * @param decision The loan decision to update
+     * @return true if successful, false otherwise
+     * @throws OptimisticLockException if the decision has a different version
+     */
+    @Override
+    public boolean updateLoanDecision(LoanDecision decision) {
+        String sql = "UPDATE loan_decisions SET status = ?, comments = ?, version = version + 1 " +
+                     "WHERE decision_id = ? AND version = ?";
+        boolean conflict = false;
+        
+        try (Connection conn = DatabaseConnection.getWriteConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, decision.getStatus().toString());
+                pstmt.setString(2, decision.getComments());
+                pstmt.setInt(3, decision.getDecisionId());
+                pstmt.setInt(4, decision.getVersion());
+                
+                // Move the decision's count from its old to its new status
+                ReportSummaries.applyDecision(conn, decision.getDecisionId(), -1);
+                int affectedRows = pstmt.executeUpdate();
+                
+                if (affectedRows == 0) {
+                    conn.rollback();
+                    conflict = exists(conn, decision.getDecisionId());
+                    if (!conflict) {
+                        return false;
+                    }
+                } else {
+                    ReportSummaries.applyDecision(conn, decision.getDecisionId(), 1);
+                    DecisionEvents.append(conn, decision.getDecisionId(), EventType.REVISED);
+                    if (applicationsLocal) {
+                        setApplicationStatus(conn, decision.getApplicationId(),
+                                LoanStatus.valueOf(decision.getStatus().name()));
+                    }
+                    conn.commit();
+                    decision.setVersion(decision.getVersion() + 1);
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating loan decision: " + e.getMessage());
+            return false;
+        }
+        
+        if (conflict) {
+            throw new OptimisticLockException("Loan decision " + decision.getDecisionId() +
+                    " was changed after version " + decision.getVersion());
+        }
+        
+        if (!applicationsLocal) {
+            loanAppDao.updateLoanApplicationStatus(decision.getApplicationId(),
+                    LoanStatus.valueOf(decision.getStatus().name()));
+        }
+        return true;
+    }
+    
+    /**
+     * Delete a loan decision from the database.
+     * @param decisionId The ID of the decision to delete
+     * @return true if successful, false otherwise
+     */
+    @Override
+    public boolean deleteLoanDecision(int decisionId) {
+        String sql = "DELETE FROM loan_decisions WHERE decision_id = ?";
+        int applicationId;
+        
+        try (Connection conn = DatabaseConnection.getWriteConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                // Lock the decision, and find the loan application whose status is reverted
+                applicationId = lockApplicationId(conn, decisionId);
+                if (applicationId == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                
+                pstmt.setInt(1, decisionId);
+                
+                ReportSummaries.applyDecision(conn, decisionId, -1);
+                DecisionEvents.append(conn, decisionId, EventType.WITHDRAWN);
+                pstmt.executeUpdate();
+                undecide(conn, applicationId);
+                if (applicationsLocal) {
+                    setApplicationStatus(conn, applicationId, LoanStatus.PENDING);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error deleting loan decision: " + e.getMessage());
+            return false;
+        }
+        
+        if (!applicationsLocal) {
+            loanAppDao.updateLoanApplicationStatus(applicationId, LoanStatus.PENDING);
+        }
+        return true;
+    }
+    
+    /**
+     * Get a loan decision by ID.
+     * @param decisionId The ID of the decision to retrieve
+     * @return LoanDecision object if found, null otherwise
+     */
+    @Override
+    public LoanDecision getLoanDecisionById(int decisionId) {
+        String sql = "SELECT * FROM loan_decisions WHERE decision_id = ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, decisionId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return extractLoanDecisionFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting loan decision by ID: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Insert a loan decision unless its application already has one, and add it to the
+     * monthly summaries and the decision history. Transaction control is left to the caller,
+     * which must roll back when 0 is returned.
+     * <p>
+     * loan_decisions may be partitioned by date, so it cannot hold a unique key on the
+     * application. The application's row in decided_applications enforces one decision per
+     * application instead: a concurrent decision waits on the row's lock and is then ignored.
+     * @param conn The connection to insert the decision on
+     * @param decision The loan decision to insert
+     * @return The ID of the new decision, or 0 if the application already has a decision
+     * @throws SQLException if the decision cannot be inserted
+     */
+    private static int insertDecision(Connection conn, LoanDecision decision) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT IGNORE INTO decided_applications (application_id) VALUES (?)")) {
+            pstmt.setInt(1, decision.getApplicationId());
+            if (pstmt.executeUpdate() == 0) {
+                return 0;
+            }
+        }
+        
+        String sql = "INSERT INTO loan_decisions (application_id, officer_id, status, comments) " +
+                     "VALUES (?, ?, ?, ?)";
+        int decisionId;
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, decision.getApplicationId());
+            pstmt.setInt(2, decision.getOfficerId());
+            pstmt.setString(3, decision.getStatus().toString());
+            pstmt.setString(4, decision.getComments());
+            
+            pstmt.executeUpdate();
+            
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (!generatedKeys.next()) {
+                    throw new SQLException("No ID was generated for the loan decision");
+                }
+                decisionId = generatedKeys.getInt(1);
+            }
+        }
+        
+        ReportSummaries.applyDecision(conn, decisionId, 1);
+        DecisionEvents.append(conn, decisionId, EventType.DECIDED);
+        return decisionId;
+    }
+    
+    /**
+     * Set the status of a loan application stored in this database. Transaction control is left to the caller.
+     * @param conn The connection of the transaction deciding the application
+     * @param applicationId The ID of the application
+     * @param status The new status
+     * @return true if the application exists, false otherwise
+     * @throws SQLException if the status cannot be updated
+     */
+    private static boolean setApplicationStatus(Connection conn, int applicationId, LoanStatus status)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE loan_applications SET status = ?, version = version + 1 WHERE application_id = ?")) {
+            pstmt.setString(1, status.toString());
+            pstmt.setInt(2, applicationId);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+    
+    /**
+     * Remove the guard row of an application whose decision is withdrawn, so it can be decided again.
+     * Transaction control is left to the caller.
+     * @param conn The connection of the transaction withdrawing the decision
+     * @param applicationId The ID of the application
+     * @throws SQLException if the row cannot be deleted
+     */
+    private static void undecide(Connection conn, int applicationId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "DELETE FROM decided_applications WHERE application_id = ?")) {
+            pstmt.setInt(1, applicationId);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Lock a loan decision for the rest of the transaction and get its application.
+     * @param conn The connection of the transaction
+     * @param decisionId The ID of the decision
+     * @return The ID of the decision's application, or 0 if the decision does not exist
+     * @throws SQLException if the query fails
+     */
+    private static int lockApplicationId(Connection conn, int decisionId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT application_id FROM loan_decisions WHERE decision_id = ? FOR UPDATE")) {
+            pstmt.setInt(1, decisionId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
+    /**
+     * Check whether a loan decision exists.
+     * @param conn The connection to query
+     * @param decisionId The ID of the decision
+     * @return true if the decision exists, false otherwise
+     * @throws SQLException if the query fails
+     */
+    private boolean exists(Connection conn, int decisionId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM loan_decisions WHERE decision_id = ?")) {
+            pstmt.setInt(1, decisionId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * Extract a LoanDecision object from a ResultSet.
+     * @param rs The ResultSet containing loan decision data
+     * @return LoanDecision object
+     * @throws SQLException if data extraction fails
+     */
+    LoanDecision extractLoanDecisionFromResultSet(ResultSet rs) throws SQLException {
+        LoanDecision decision = new LoanDecision();
+        decision.setDecisionId(rs.getInt("decision_id"));
+        decision.setApplicationId(rs.getInt("application_id"));
+        decision.setOfficerId(rs.getInt("officer_id"));
+        
+        Timestamp timestamp = rs.getTimestamp("decision_date");
+        decision.setDecisionDate(new Date(timestamp.getTime()));
+        
+        decision.setStatus(DecisionStatus.valueOf(rs.getString("status")));
+        decision.setComments(rs.getString("comments"));
+        decision.setVersion(rs.getInt("version"));
+        
+        return decision;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,154 @@
+package ipcapstone.dao;
+
+import ipcapstone.model.MonthlyLoanVolume;
+import ipcapstone.model.OfficerApprovalSummary;
+import ipcapstone.model.PurposeAmountSummary;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDBC implementation of {@link ReportDao} backed by the monthly reporting tables.
+ * The tables hold one row per month and purpose or officer, so the reports never
+ * scan the loan applications or decisions. Application summaries are kept in the
+ * databases that hold the applications, so with sharding they are read from every
+ * shard and merged; decision summaries are read from the main database.
+ */
+public class JdbcReportDao implements ReportDao {
+    private final List<ConnectionProvider> applicationDatabases;
+    
+    /**
+     * Create a new JdbcReportDao for loan applications stored in the main database.
+     */
+    public JdbcReportDao() {
+        this(Collections.singletonList(ConnectionProvider.DEFAULT));
+    }
+    
+    /**
+     * Create a new JdbcReportDao for loan applications stored in other databases, such as shards.
+     * @param applicationDatabases The databases holding the loan applications and their summaries
+     */
+    JdbcReportDao(List<ConnectionProvider> applicationDatabases) {
+        this.applicationDatabases = applicationDatabases;
+    }
+    
+    @Override
+    public List<MonthlyLoanVolume> getMonthlyVolumes(Date from, Date to) {
+        Map<Date, MonthlyLoanVolume> volumes = new TreeMap<>();
+        String window = DateWindow.condition("month", from, to);
+        String where = window.isEmpty() ? "" : " WHERE " + window;
+        String applicationSql = "SELECT month, SUM(applications) AS applications, SUM(total_amount) AS total_amount " +
+                                "FROM report_monthly_applications" + where + " GROUP BY month";
+        String decisionSql = "SELECT month, SUM(approved) AS approved, SUM(rejected) AS rejected " +
+                             "FROM report_monthly_decisions" + where + " GROUP BY month";
+        
+        try {
+            for (ConnectionProvider database : applicationDatabases) {
+                try (Connection conn = database.getReadConnection();
+                     PreparedStatement pstmt = conn.prepareStatement(applicationSql)) {
+                    
+                    DateWindow.bind(pstmt, 1, from, to);
+                    
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            MonthlyLoanVolume volume = volumes.computeIfAbsent(rs.getDate("month"),
+                                    month -> new MonthlyLoanVolume(month, 0, 0, 0, 0));
+                            volume.setApplications(volume.getApplications() + rs.getInt("applications"));
+                            volume.setTotalAmount(volume.getTotalAmount() + rs.getDouble("total_amount"));
+                        }
+                    }
+                }
+            }
+            
+            try (Connection conn = DatabaseConnection.getReadConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(decisionSql)) {
+                
+                DateWindow.bind(pstmt, 1, from, to);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        MonthlyLoanVolume volume = volumes.computeIfAbsent(rs.getDate("month"),
+                                month -> new MonthlyLoanVolume(month, 0, 0, 0, 0));
+                        volume.setApproved(volume.getApproved() + rs.getInt("approved"));
+                        volume.setRejected(volume.getRejected() + rs.getInt("rejected"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting monthly loan volumes: " + e.getMessage());
+        }
+        
+        return new ArrayList<>(volumes.values());
+    }
+    
+    @Override
+    public List<OfficerApprovalSummary> getOfficerApprovalSummaries(Date from, Date to) {
+        List<OfficerApprovalSummary> summaries = new ArrayList<>();
+        String window = DateWindow.condition("r.month", from, to);
+        String sql = "SELECT r.officer_id, u.full_name, SUM(r.approved) AS approved, SUM(r.rejected) AS rejected " +
+                     "FROM report_monthly_decisions r JOIN users u ON r.officer_id = u.user_id" +
+                     (window.isEmpty() ? "" : " WHERE " + window) +
+                     " GROUP BY r.officer_id, u.full_name ORDER BY r.officer_id";
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            DateWindow.bind(pstmt, 1, from, to);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    OfficerApprovalSummary summary = new OfficerApprovalSummary(rs.getInt("officer_id"),
+                            rs.getInt("approved"), rs.getInt("rejected"));
+                    summary.setOfficerName(rs.getString("full_name"));
+                    summaries.add(summary);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting officer approval summaries: " + e.getMessage());
+        }
+        
+        return summaries;
+    }
+    
+    @Override
+    public List<PurposeAmountSummary> getPurposeAmountSummaries(Date from, Date to) {
+        Map<String, PurposeAmountSummary> summaries = new TreeMap<>();
+        String window = DateWindow.condition("month", from, to);
+        String sql = "SELECT loan_purpose, SUM(applications) AS applications, SUM(total_amount) AS total_amount " +
+                     "FROM report_monthly_applications" +
+                     (window.isEmpty() ? "" : " WHERE " + window) +
+                     " GROUP BY loan_purpose";
+        
+        try {
+            for (ConnectionProvider database : applicationDatabases) {
+                try (Connection conn = database.getReadConnection();
+                     PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    DateWindow.bind(pstmt, 1, from, to);
+                    
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            PurposeAmountSummary summary = summaries.computeIfAbsent(rs.getString("loan_purpose"),
+                                    purpose -> new PurposeAmountSummary(purpose, 0, 0));
+                            summary.setApplications(summary.getApplications() + rs.getInt("applications"));
+                            summary.setTotalAmount(summary.getTotalAmount() + rs.getDouble("total_amount"));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting loan purpose summaries: " + e.getMessage());
+        }
+        
+        summaries.values().removeIf(summary -> summary.getApplications() <= 0);
+        return new ArrayList<>(summaries.values());
+    }
+}
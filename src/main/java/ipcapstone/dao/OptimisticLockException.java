@@ -0,0 +1,17 @@
+package ipcapstone.dao;
+
+/**
+ * Thrown when an update is based on a version of a row that has since been changed,
+ * or when a loan decision is inserted for an application that already has one.
+ * The caller should reload the row and decide whether to apply its change again.
+ */
+public class OptimisticLockException extends RuntimeException {
+    
+    /**
+     * Create a new OptimisticLockException.
+     * @param message The description of the conflict
+     */
+    public OptimisticLockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,444 @@
+package ipcapstone.dao;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Manages monthly RANGE partitions of the loan_decisions table.
+ * The table is partitioned on its date column into one partition per month plus a
+ * catch-all "pmax" partition. New monthly partitions are split off "pmax" ahead of
+ * time, and old partitions can be archived to gzip-compressed CSV files and dropped.
+ * Decisions are final, so an archived month never holds work still in progress.
+ * <p>
+ * MySQL requires the partitioning column in every unique key and does not support
+ * foreign keys on partitioned tables. Partitioning adds the date column to the primary
+ * key, but refuses to weaken a unique index, which is why loan_applications, whose
+ * idempotency keys must stay unique, is not partitioned. Foreign keys on and referencing
+ * the table are only dropped when asked to, and each one dropped is reported.
+ * <p>
+ * Usage: {@code PartitionManager partition [monthsAhead] [--drop-foreign-keys] |
+ * roll [monthsAhead] | archive <retainMonths> <directory>}
+ */
+public class PartitionManager {
+    private static final int DEFAULT_MONTHS_AHEAD = 3;
+    private static final String MAX_PARTITION = "pmax";
+    private static final String DROP_FOREIGN_KEYS_OPTION = "--drop-foreign-keys";
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    
+    /**
+     * A table partitioned by month on a date column.
+     */
+    private static final class PartitionedTable {
+        private final String name;
+        private final String dateColumn;
+        private final String idColumn;
+        
+        private PartitionedTable(String name, String dateColumn, String idColumn) {
+            this.name = name;
+            this.dateColumn = dateColumn;
+            this.idColumn = idColumn;
+        }
+    }
+    
+    private static final PartitionedTable[] TABLES = {
+        new PartitionedTable("loan_decisions", "decision_date", "decision_id")
+    };
+    
+    private final Connection conn;
+    
+    /**
+     * Create a new PartitionManager.
+     * @param conn The connection the partition statements are run on
+     */
+    public PartitionManager(Connection conn) {
+        this.conn = conn;
+    }
+    
+    /**
+     * Partition the tables that are not partitioned yet, with monthly partitions from
+     * their oldest row up to the given number of months ahead.
+     * @param monthsAhead The number of future months to create partitions for
+     * @param dropForeignKeys Whether the foreign keys on and referencing the tables may be dropped
+     * @throws SQLException if a table cannot be altered, has a unique index without its date
+     * column, or has foreign keys that may not be dropped
+     */
+    public void partitionTables(int monthsAhead, boolean dropForeignKeys) throws SQLException {
+        for (PartitionedTable table : TABLES) {
+            if (isPartitioned(table)) {
+                continue;
+            }
+            
+            // Adding the date column to a unique index would let duplicates in from different months
+            for (Map.Entry<String, String> index : getUniqueIndexes(table).entrySet()) {
+                if (!Arrays.asList(index.getValue().split(", ")).contains(table.dateColumn)) {
+                    throw new SQLException("Cannot partition " + table.name + ": unique index " + index.getKey() +
+                            " (" + index.getValue() + ") would no longer be unique");
+                }
+            }
+            
+            List<String[]> foreignKeys = getForeignKeys(table);
+            if (!foreignKeys.isEmpty() && !dropForeignKeys) {
+                StringBuilder names = new StringBuilder();
+                for (String[] foreignKey : foreignKeys) {
+                    names.append(names.length() > 0 ? ", " : "").append(foreignKey[0]).append('.').append(foreignKey[1]);
+                }
+                throw new SQLException("Cannot partition " + table.name + " while it has foreign keys (" + names +
+                        "); run with " + DROP_FOREIGN_KEYS_OPTION + " to drop them");
+            }
+            for (String[] foreignKey : foreignKeys) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ALTER TABLE " + foreignKey[0] + " DROP FOREIGN KEY " + foreignKey[1]);
+                }
+                System.out.println("Dropped foreign key " + foreignKey[1] + " of " + foreignKey[0]);
+            }
+            
+            YearMonth first = YearMonth.now();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT MIN(" + table.dateColumn + ") FROM " + table.name)) {
+                if (rs.next() && rs.getTimestamp(1) != null) {
+                    first = YearMonth.from(rs.getTimestamp(1).toLocalDateTime());
+                }
+            }
+            
+            // The primary key must contain the partitioning column; the ID alone stays unique
+            // because it is generated
+            String keys = "ALTER TABLE " + table.name +
+                    " MODIFY " + table.dateColumn + " TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                    ", DROP PRIMARY KEY, ADD PRIMARY KEY (" + table.idColumn + ", " + table.dateColumn + ")";
+            
+            StringBuilder partitions = new StringBuilder("ALTER TABLE " + table.name +
+                    " PARTITION BY RANGE (UNIX_TIMESTAMP(" + table.dateColumn + ")) (");
+            for (YearMonth month = first; !month.isAfter(YearMonth.now().plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+                partitions.append(partitionDefinition(month)).append(", ");
+            }
+            partitions.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN MAXVALUE)");
+            
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(keys);
+                stmt.execute(partitions.toString());
+            }
+            System.out.println("Partitioned " + table.name + " by month from " + first);
+        }
+    }
+    
+    /**
+     * Create the monthly partitions missing up to the given number of months ahead.
+     * Tables that are not partitioned are skipped.
+     * @param monthsAhead The number of future months that must have a partition
+     * @return The number of partitions created
+     * @throws SQLException if a partition cannot be created
+     */
+    public int addFuturePartitions(int monthsAhead) throws SQLException {
+        int created = 0;
+        YearMonth until = YearMonth.now().plusMonths(monthsAhead);
+        
+        for (PartitionedTable table : TABLES) {
+            List<YearMonth> months = getMonthlyPartitions(table);
+            if (months.isEmpty()) {
+                continue;
+            }
+            
+            StringBuilder definitions = new StringBuilder();
+            for (YearMonth month = months.get(months.size() - 1).plusMonths(1); !month.isAfter(until); month = month.plusMonths(1)) {
+                definitions.append(partitionDefinition(month)).append(", ");
+                created++;
+            }
+            
+            if (definitions.length() > 0) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ALTER TABLE " + table.name + " REORGANIZE PARTITION " + MAX_PARTITION +
+                            " INTO (" + definitions + "PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE)");
+                }
+            }
+        }
+        return created;
+    }
+    
+    /**
+     * Archive the monthly partitions older than the given number of months to
+     * gzip-compressed CSV files and drop them. A partition is only dropped after
+     * its file has been written and synced.
+     * @param retainMonths The number of months to keep, counting the current one
+     * @param directory The directory for the archive files, created if it does not exist
+     * @return The number of partitions archived
+     * @throws SQLException if a partition cannot be read or dropped
+     * @throws IOException if an archive file cannot be written
+     */
+    public int archivePartitions(int retainMonths, File directory) throws SQLException, IOException {
+        if (retainMonths < 1) {
+            throw new IllegalArgumentException("At least the current month must be retained");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create archive directory: " + directory);
+        }
+        
+        int archived = 0;
+        YearMonth cutoff = YearMonth.now().minusMonths(retainMonths - 1);
+        
+        for (PartitionedTable table : TABLES) {
+            for (YearMonth month : getMonthlyPartitions(table)) {
+                if (!month.isBefore(cutoff)) {
+                    break;
+                }
+                
+                String partition = month.format(PARTITION_FORMAT);
+                File file = new File(directory, table.name + "-" + partition.substring(1) + ".csv.gz");
+                long rows = exportPartition(table, partition, file);
+                
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ALTER TABLE " + table.name + " DROP PARTITION " + partition);
+                }
+                System.out.println("Archived " + rows + " rows of " + table.name + " partition " + partition +
+                        " to " + file);
+                archived++;
+            }
+        }
+        return archived;
+    }
+    
+    /**
+     * Write the rows of a partition to a gzip-compressed CSV file.
+     * @return The number of rows written
+     */
+    private long exportPartition(PartitionedTable table, String partition, File file) throws SQLException, IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        long rows = 0;
+        boolean moved = false;
+        
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM " + table.name +
+                " PARTITION (" + partition + ") ORDER BY " + table.idColumn,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Stream the rows instead of buffering the whole partition
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            
+            try (ResultSet rs = pstmt.executeQuery();
+                 FileOutputStream out = new FileOutputStream(temp);
+                 GZIPOutputStream gzip = new GZIPOutputStream(out);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8))) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columns = metaData.getColumnCount();
+                
+                for (int i = 1; i <= columns; i++) {
+                    writer.write((i > 1 ? "," : "") + metaData.getColumnLabel(i));
+                }
+                writer.write('\n');
+                
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        if (i > 1) {
+                            writer.write(',');
+                        }
+                        writer.write(csvValue(rs.getString(i)));
+                    }
+                    writer.write('\n');
+                    rows++;
+                }
+                
+                writer.flush();
+                gzip.finish();
+                out.getFD().sync();
+            }
+            
+            if (!temp.renameTo(file)) {
+                throw new IOException("Cannot move archive file into place: " + file);
+            }
+            moved = true;
+        } finally {
+            if (!moved && temp.exists() && !temp.delete()) {
+                System.err.println("Error deleting partial archive file: " + temp);
+            }
+        }
+        return rows;
+    }
+    
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "\\N";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 ||
+                value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+    
+    private static String partitionDefinition(YearMonth month) {
+        return "PARTITION " + month.format(PARTITION_FORMAT) + " VALUES LESS THAN (UNIX_TIMESTAMP('" +
+                month.plusMonths(1).atDay(1) + " 00:00:00'))";
+    }
+    
+    /**
+     * Check whether a table is partitioned.
+     */
+    private boolean isPartitioned(PartitionedTable table) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table.name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+    
+    /**
+     * Get the months of a table's monthly partitions in ascending order.
+     * @return The months, or an empty list if the table is not partitioned
+     */
+    private List<YearMonth> getMonthlyPartitions(PartitionedTable table) throws SQLException {
+        List<YearMonth> months = new ArrayList<>();
+        String sql = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                     "ORDER BY PARTITION_ORDINAL_POSITION";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table.name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    if (!MAX_PARTITION.equals(name)) {
+                        months.add(YearMonth.parse(name, PARTITION_FORMAT));
+                    }
+                }
+            }
+        }
+        return months;
+    }
+    
+    /**
+     * Get the unique indexes of a table other than the primary key.
+     * @return The column lists of the indexes, by index name
+     */
+    private Map<String, String> getUniqueIndexes(PartitionedTable table) throws SQLException {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        String sql = "SELECT INDEX_NAME, COLUMN_NAME FROM information_schema.STATISTICS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND NON_UNIQUE = 0 " +
+                     "AND INDEX_NAME <> 'PRIMARY' ORDER BY INDEX_NAME, SEQ_IN_INDEX";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table.name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    indexes.merge(rs.getString(1), rs.getString(2), (columns, column) -> columns + ", " + column);
+                }
+            }
+        }
+        return indexes;
+    }
+    
+    /**
+     * Get the foreign keys on and referencing a table.
+     * @return The table and constraint name of each foreign key
+     */
+    private List<String[]> getForeignKeys(PartitionedTable table) throws SQLException {
+        List<String[]> foreignKeys = new ArrayList<>();
+        String sql = "SELECT TABLE_NAME, CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS " +
+                     "WHERE CONSTRAINT_SCHEMA = DATABASE() AND (TABLE_NAME = ? OR REFERENCED_TABLE_NAME = ?)";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table.name);
+            pstmt.setString(2, table.name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    foreignKeys.add(new String[] {rs.getString(1), rs.getString(2)});
+                }
+            }
+        }
+        return foreignKeys;
+    }
+    
+    /**
+     * Create future partitions once a day on a background thread.
+     * Does nothing while the tables are not partitioned.
+     * @param monthsAhead The number of future months that must have a partition
+     */
+    public static void scheduleMaintenance(int monthsAhead) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        executor.scheduleWithFixedDelay(() -> {
+            try (Connection conn = DatabaseConnection.openConnection()) {
+                int created = new PartitionManager(conn).addFuturePartitions(monthsAhead);
+                if (created > 0) {
+                    System.out.println("Created " + created + " monthly partitions");
+                }
+            } catch (SQLException e) {
+                System.err.println("Error maintaining partitions: " + e.getMessage());
+            }
+        }, 0, 1, TimeUnit.DAYS);
+    }
+    
+    /**
+     * Run a partition management command against the configured database.
+     * @param args The command and its arguments
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: PartitionManager partition [monthsAhead] [" + DROP_FOREIGN_KEYS_OPTION +
+                    "] | roll [monthsAhead] | archive <retainMonths> <directory>");
+            System.exit(2);
+        }
+        
+        try (Connection conn = DatabaseConnection.openConnection()) {
+            PartitionManager manager = new PartitionManager(conn);
+            
+            switch (args[0]) {
+                case "partition":
+                    List<String> options = Arrays.asList(args).subList(1, args.length);
+                    boolean dropForeignKeys = options.contains(DROP_FOREIGN_KEYS_OPTION);
+                    int monthsAhead = DEFAULT_MONTHS_AHEAD;
+                    for (String option : options) {
+                        if (!option.equals(DROP_FOREIGN_KEYS_OPTION)) {
+                            monthsAhead = Integer.parseInt(option);
+                        }
+                    }
+                    manager.partitionTables(monthsAhead, dropForeignKeys);
+                    break;
+                case "roll":
+                    int created = manager.addFuturePartitions(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MONTHS_AHEAD);
+                    System.out.println("Created " + created + " monthly partitions");
+                    break;
+                case "archive":
+                    if (args.length < 3) {
+                        System.err.println("Usage: PartitionManager archive <retainMonths> <directory>");
+                        System.exit(2);
+                    }
+                    int archived = manager.archivePartitions(Integer.parseInt(args[1]), new File(args[2]));
+                    System.out.println("Archived " + archived + " partitions");
+                    break;
+                default:
+                    System.err.println("Unknown command: " + args[0]);
+                    System.exit(2);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Error managing partitions: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
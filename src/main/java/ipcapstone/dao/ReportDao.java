@@ -0,0 +1,39 @@
+package ipcapstone.dao;
+
+import ipcapstone.model.MonthlyLoanVolume;
+import ipcapstone.model.OfficerApprovalSummary;
+import ipcapstone.model.PurposeAmountSummary;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data Access Object for management reports.
+ * Reports cover whole calendar months: a window selects the months whose first day lies in it.
+ */
+public interface ReportDao {
+    
+    /**
+     * Get the loan application volume and decision counts per month.
+     * @param from The start of the window (inclusive), or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return The volumes in month order
+     */
+    List<MonthlyLoanVolume> getMonthlyVolumes(Date from, Date to);
+    
+    /**
+     * Get the approvals and rejections of each loan officer.
+     * @param from The start of the window (inclusive), or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return The summaries in officer ID order
+     */
+    List<OfficerApprovalSummary> getOfficerApprovalSummaries(Date from, Date to);
+    
+    /**
+     * Get the number and total amount of loan applications per loan purpose.
+     * @param from The start of the window (inclusive), or null for no lower bound
+     * @param to The end of the window (exclusive), or null for no upper bound
+     * @return The summaries in loan purpose order
+     */
+    List<PurposeAmountSummary> getPurposeAmountSummaries(Date from, Date to);
+}
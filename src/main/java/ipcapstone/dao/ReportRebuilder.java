@@ -0,0 +1,289 @@
+package ipcapstone.dao;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Recomputes the monthly reporting tables from the loan applications and decisions.
+ * The tables are scanned in ranges of IDs by several connections in parallel, the
+ * partial totals are merged, and each reporting table is replaced in one transaction.
+ * With sharding, the application summaries of each shard are rebuilt from the
+ * applications on that shard.
+ * <p>
+ * Incremental updates committed while the rebuild is running may be lost or counted
+ * twice, so run it while no applications or decisions are being written, e.g. after
+ * creating the reporting tables or restoring a backup. Rows dropped by
+ * {@link PartitionManager} archiving are no longer counted after a rebuild.
+ * <p>
+ * Usage: {@code ReportRebuilder [threads] [chunkSize]}
+ */
+public class ReportRebuilder {
+    private static final int DEFAULT_THREADS = 4;
+    private static final int DEFAULT_CHUNK_SIZE = 50000;
+    
+    private final int threads;
+    private final int chunkSize;
+    
+    /**
+     * Application totals of one month and loan purpose.
+     */
+    private static final class ApplicationTotals {
+        private int applications;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+    }
+    
+    /**
+     * Decision totals of one month and officer.
+     */
+    private static final class DecisionTotals {
+        private int approved;
+        private int rejected;
+    }
+    
+    /**
+     * Create a new ReportRebuilder.
+     * @param threads The number of chunks scanned in parallel
+     * @param chunkSize The number of IDs per chunk
+     */
+    public ReportRebuilder(int threads, int chunkSize) {
+        if (threads < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("threads and chunkSize must be positive");
+        }
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Recompute the reporting tables.
+     * @return The number of chunks scanned
+     * @throws SQLException if the tables cannot be read or written
+     */
+    public int rebuild() throws SQLException {
+        ShardedLoanApplicationDao shardedDao = DaoFactory.getShardedLoanApplicationDao();
+        List<ConnectionProvider> applicationDatabases = shardedDao != null ? shardedDao.getShardConnections()
+                : Collections.singletonList(DatabaseConnection::openConnection);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "report-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int chunks = 0;
+        
+        try {
+            for (ConnectionProvider database : applicationDatabases) {
+                try (Connection conn = database.getConnection()) {
+                    List<Future<Map<String, ApplicationTotals>>> applicationChunks = new ArrayList<>();
+                    for (long[] range : idRanges(conn, "loan_applications", "application_id")) {
+                        applicationChunks.add(executor.submit(() -> scanApplications(database, range[0], range[1])));
+                    }
+                    
+                    Map<String, ApplicationTotals> applicationTotals = new HashMap<>();
+                    for (Map<String, ApplicationTotals> chunk : await(applicationChunks)) {
+                        for (Map.Entry<String, ApplicationTotals> entry : chunk.entrySet()) {
+                            ApplicationTotals totals = applicationTotals.computeIfAbsent(entry.getKey(),
+                                    key -> new ApplicationTotals());
+                            totals.applications += entry.getValue().applications;
+                            totals.totalAmount = totals.totalAmount.add(entry.getValue().totalAmount);
+                        }
+                    }
+                    
+                    replaceApplications(conn, applicationTotals);
+                    chunks += applicationChunks.size();
+                }
+            }
+            
+            try (Connection conn = DatabaseConnection.openConnection()) {
+                List<Future<Map<String, DecisionTotals>>> decisionChunks = new ArrayList<>();
+                for (long[] range : idRanges(conn, "loan_decisions", "decision_id")) {
+                    decisionChunks.add(executor.submit(() -> scanDecisions(range[0], range[1])));
+                }
+                
+                Map<String, DecisionTotals> decisionTotals = new HashMap<>();
+                for (Map<String, DecisionTotals> chunk : await(decisionChunks)) {
+                    for (Map.Entry<String, DecisionTotals> entry : chunk.entrySet()) {
+                        DecisionTotals totals = decisionTotals.computeIfAbsent(entry.getKey(), key -> new DecisionTotals());
+                        totals.approved += entry.getValue().approved;
+                        totals.rejected += entry.getValue().rejected;
+                    }
+                }
+                
+                replaceDecisions(conn, decisionTotals);
+                chunks += decisionChunks.size();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return chunks;
+    }
+    
+    /**
+     * Split the ID range of a table into chunks.
+     * @return The inclusive [first, last] ID of each chunk
+     */
+    private List<long[]> idRanges(Connection conn, String table, String idColumn) throws SQLException {
+        List<long[]> ranges = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(" + idColumn + "), MAX(" + idColumn + ") FROM " + table)) {
+            if (rs.next() && rs.getObject(1) != null) {
+                long max = rs.getLong(2);
+                for (long first = rs.getLong(1); first <= max; first += chunkSize) {
+                    ranges.add(new long[] {first, Math.min(first + chunkSize - 1, max)});
+                }
+            }
+        }
+        return ranges;
+    }
+    
+    private static Map<String, ApplicationTotals> scanApplications(ConnectionProvider database, long first, long last)
+            throws SQLException {
+        String sql = "SELECT DATE_FORMAT(application_date, '%Y-%m-01') AS month, loan_purpose, " +
+                     "COUNT(*) AS applications, SUM(loan_amount) AS total_amount FROM loan_applications " +
+                     "WHERE application_id BETWEEN ? AND ? GROUP BY month, loan_purpose";
+        
+        Map<String, ApplicationTotals> chunk = new HashMap<>();
+        try (Connection conn = database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, first);
+            pstmt.setLong(2, last);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ApplicationTotals totals = new ApplicationTotals();
+                    totals.applications = rs.getInt("applications");
+                    totals.totalAmount = rs.getBigDecimal("total_amount");
+                    chunk.put(rs.getString("month") + '\t' + rs.getString("loan_purpose"), totals);
+                }
+            }
+        }
+        return chunk;
+    }
+    
+    private static Map<String, DecisionTotals> scanDecisions(long first, long last) throws SQLException {
+        String sql = "SELECT DATE_FORMAT(decision_date, '%Y-%m-01') AS month, officer_id, " +
+                     "SUM(status = 'APPROVED') AS approved, SUM(status = 'REJECTED') AS rejected " +
+                     "FROM loan_decisions WHERE decision_id BETWEEN ? AND ? GROUP BY month, officer_id";
+        
+        Map<String, DecisionTotals> chunk = new HashMap<>();
+        try (Connection conn = DatabaseConnection.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, first);
+            pstmt.setLong(2, last);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    DecisionTotals totals = new DecisionTotals();
+                    totals.approved = rs.getInt("approved");
+                    totals.rejected = rs.getInt("rejected");
+                    chunk.put(rs.getString("month") + '\t' + rs.getInt("officer_id"), totals);
+                }
+            }
+        }
+        return chunk;
+    }
+    
+    private static void replaceApplications(Connection conn, Map<String, ApplicationTotals> applicationTotals)
+            throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement applications = conn.prepareStatement(
+                     "INSERT INTO report_monthly_applications (month, loan_purpose, applications, total_amount) " +
+                     "VALUES (?, ?, ?, ?)")) {
+            
+            // DELETE rather than TRUNCATE, which would commit the transaction
+            stmt.executeUpdate("DELETE FROM report_monthly_applications");
+            
+            for (Map.Entry<String, ApplicationTotals> entry : applicationTotals.entrySet()) {
+                String[] key = entry.getKey().split("\t", 2);
+                applications.setDate(1, Date.valueOf(key[0]));
+                applications.setString(2, key[1]);
+                applications.setInt(3, entry.getValue().applications);
+                applications.setBigDecimal(4, entry.getValue().totalAmount);
+                applications.addBatch();
+            }
+            applications.executeBatch();
+            
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+    
+    private static void replaceDecisions(Connection conn, Map<String, DecisionTotals> decisionTotals)
+            throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement decisions = conn.prepareStatement(
+                     "INSERT INTO report_monthly_decisions (month, officer_id, approved, rejected) " +
+                     "VALUES (?, ?, ?, ?)")) {
+            
+            stmt.executeUpdate("DELETE FROM report_monthly_decisions");
+            
+            for (Map.Entry<String, DecisionTotals> entry : decisionTotals.entrySet()) {
+                String[] key = entry.getKey().split("\t", 2);
+                decisions.setDate(1, Date.valueOf(key[0]));
+                decisions.setInt(2, Integer.parseInt(key[1]));
+                decisions.setInt(3, entry.getValue().approved);
+                decisions.setInt(4, entry.getValue().rejected);
+                decisions.addBatch();
+            }
+            decisions.executeBatch();
+            
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+    
+    private static <T> List<T> await(List<Future<T>> futures) throws SQLException {
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while rebuilding reports", e);
+            } catch (ExecutionException e) {
+                throw new SQLException("Error scanning chunk: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Rebuild the reporting tables of the configured database and shards.
+     * @param args Optional number of threads and chunk size
+     */
+    public static void main(String[] args) {
+        try {
+            int threads = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_THREADS;
+            int chunkSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CHUNK_SIZE;
+            int chunks = new ReportRebuilder(threads, chunkSize).rebuild();
+            System.out.println("Rebuilt reports from " + chunks + " chunks");
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding reports: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ipcapstone.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Incremental maintenance of the monthly reporting tables.
+ * Each method adds or subtracts the contribution of rows, read from the rows themselves, so
+ * it must run on the connection and in the transaction that writes them: after an
+ * insert, or before a delete. An update is a subtraction before it and an addition after it.
+ */
+final class ReportSummaries {
+    private static final String APPLICATION_SQL =
+            "INSERT INTO report_monthly_applications (month, loan_purpose, applications, total_amount) " +
+            "SELECT DATE_FORMAT(application_date, '%Y-%m-01'), loan_purpose, ?, ? * loan_amount " +
+            "FROM loan_applications WHERE application_id = ? " +
+            "ON DUPLICATE KEY UPDATE applications = applications + VALUES(applications), " +
+            "total_amount = total_amount + VALUES(total_amount)";
+    private static final String DECISION_SQL =
+            "INSERT INTO report_monthly_decisions (month, officer_id, approved, rejected) " +
+            "SELECT DATE_FORMAT(decision_date, '%Y-%m-01'), officer_id, " +
+            "IF(status = 'APPROVED', ?, 0), IF(status = 'REJECTED', ?, 0) " +
+            "FROM loan_decisions WHERE decision_id = ? " +
+            "ON DUPLICATE KEY UPDATE approved = approved + VALUES(approved), " +
+            "rejected = rejected + VALUES(rejected)";
+    
+    private ReportSummaries() {
+    }
+    
+    /**
+     * Add or subtract a loan application's contribution to the monthly summaries.
+     * @param conn The connection of the transaction writing the application
+     * @param applicationId The ID of the application
+     * @param sign 1 to add the application, -1 to subtract it
+     * @throws SQLException if the summaries cannot be updated
+     */
+    static void applyApplication(Connection conn, int applicationId, int sign) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(APPLICATION_SQL)) {
+            pstmt.setInt(1, sign);
+            pstmt.setInt(2, sign);
+            pstmt.setInt(3, applicationId);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Add loan applications identified by their idempotency keys to the monthly summaries.
+     * @param conn The connection of the transaction inserting the applications
+     * @param idempotencyKeys The idempotency keys of the applications the transaction inserted
+     * @throws SQLException if the summaries cannot be updated
+     */
+    static void addApplications(Connection conn, List<String> idempotencyKeys) throws SQLException {
+        if (idempotencyKeys.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO report_monthly_applications (month, loan_purpose, applications, total_amount) " +
+                     "SELECT DATE_FORMAT(application_date, '%Y-%m-01'), loan_purpose, COUNT(*), SUM(loan_amount) " +
+                     "FROM loan_applications WHERE idempotency_key IN (" +
+                     String.join(", ", Collections.nCopies(idempotencyKeys.size(), "?")) + ") " +
+                     "GROUP BY DATE_FORMAT(application_date, '%Y-%m-01'), loan_purpose " +
+                     "ON DUPLICATE KEY UPDATE applications = applications + VALUES(applications), " +
+                     "total_amount = total_amount + VALUES(total_amount)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < idempotencyKeys.size(); i++) {
+                pstmt.setString(i + 1, idempotencyKeys.get(i));
+            }
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Add or subtract a loan decision's contribution to the monthly summaries.
+     * @param conn The connection of the transaction writing the decision
+     * @param decisionId The ID of the decision
+     * @param sign 1 to add the decision, -1 to subtract it
+     * @throws SQLException if the summaries cannot be updated
+     */
+    static void applyDecision(Connection conn, int decisionId, int sign) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DECISION_SQL)) {
+            pstmt.setInt(1, sign);
+            pstmt.setInt(2, sign);
+            pstmt.setInt(3, decisionId);
+            pstmt.executeUpdate();
+        }
+    }
+    
+}
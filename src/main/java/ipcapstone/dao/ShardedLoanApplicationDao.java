@@ -0,0 +1,352 @@
+package ipcapstone.dao;
+
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * {@link LoanApplicationDao} that spreads loan applications over several MySQL databases.
+ * A user's applications live on the shard that the user ID maps to on a consistent-hash
+ * ring. Application IDs are interleaved across shards (shard k issues IDs k+1, k+1+64, ...
+ * through the session auto_increment settings), so an application ID identifies its shard
+ * without a lookup. Listing queries run on all shards in parallel and the sorted rows are
+ * merged as they are streamed from each shard.
+ * <p>
+ * Every shard holds the full schema of database.sql, with the users table replicated to
+ * all of them. The shard list is fixed once applications are stored: applications are not
+ * migrated, so an added shard would hide the applications of the users it takes over.
+ */
+public class ShardedLoanApplicationDao implements LoanApplicationDao {
+    static final int MAX_SHARDS = 64;
+    private static final int VIRTUAL_NODES = 128;
+    
+    private final List<Shard> shards = new ArrayList<>();
+    private final ConsistentHashRing<Shard> ring;
+    private final ExecutorService executor;
+    
+    /**
+     * A shard database and the DAO for its loan applications.
+     */
+    private static final class Shard {
+        private final int index;
+        private final String url;
+        private final ConnectionProvider connections;
+        private final JdbcLoanApplicationDao dao;
+        
+        private Shard(int index, String url) {
+            this.index = index;
+            this.url = url;
+            this.connections = new ConnectionProvider() {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return DatabaseConnection.openConnection(Shard.this.url);
+                }
+                
+                @Override
+                public Connection getWriteConnection() throws SQLException {
+                    Connection conn = getConnection();
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("SET SESSION auto_increment_increment = " + MAX_SHARDS +
+                                ", auto_increment_offset = " + (Shard.this.index + 1));
+                    } catch (SQLException e) {
+                        conn.close();
+                        throw e;
+                    }
+                    return conn;
+                }
+            };
+            this.dao = new JdbcLoanApplicationDao(connections);
+        }
+    }
+    
+    /**
+     * An open shard query positioned on its next unmerged row.
+     */
+    private static final class ShardCursor {
+        private final Shard shard;
+        private final Connection conn;
+        private final PreparedStatement pstmt;
+        private final ResultSet rs;
+        private LoanApplication current;
+        
+        private ShardCursor(Shard shard, Connection conn, PreparedStatement pstmt, ResultSet rs) {
+            this.shard = shard;
+            this.conn = conn;
+            this.pstmt = pstmt;
+            this.rs = rs;
+        }
+        
+        private boolean advance() throws SQLException {
+            if (rs.next()) {
+                current = shard.dao.extractLoanApplicationFromResultSet(rs);
+                current.setUserName(rs.getString("full_name"));
+                return true;
+            }
+            current = null;
+            return false;
+        }
+        
+        private void close() {
+            try {
+                rs.close();
+                pstmt.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing shard query: " + e.getMessage());
+            } finally {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing shard connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Create a new ShardedLoanApplicationDao.
+     * @param shardUrls The JDBC URLs of the shard databases. Neither the list nor its order
+     *                  may change once applications are stored, since it determines the
+     *                  shard of each user and the application IDs each shard issues.
+     */
+    public ShardedLoanApplicationDao(List<String> shardUrls) {
+        if (shardUrls.isEmpty() || shardUrls.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SHARDS + " shards are supported");
+        }
+        
+        for (int i = 0; i < shardUrls.size(); i++) {
+            shards.add(new Shard(i, shardUrls.get(i)));
+        }
+        this.ring = new ConsistentHashRing<>(shards, shard -> shard.url, VIRTUAL_NODES);
+        this.executor = Executors.newFixedThreadPool(shards.size(), r -> {
+            Thread thread = new Thread(r, "loan-shard-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Create a ShardedLoanApplicationDao from a shard list.
+     * @param spec Comma-separated shard addresses in the form host:port/database
+     * @return The DAO for the listed shards
+     */
+    public static ShardedLoanApplicationDao fromSpec(String spec) {
+        List<String> urls = new ArrayList<>();
+        for (String address : spec.split(",")) {
+            if (!address.trim().isEmpty()) {
+                urls.add("jdbc:mysql://" + address.trim());
+            }
+        }
+        return new ShardedLoanApplicationDao(urls);
+    }
+    
+    /**
+     * Get the connections to the shards, for operations that have to visit every shard.
+     * @return The connection provider of each shard, in shard order
+     */
+    List<ConnectionProvider> getShardConnections() {
+        List<ConnectionProvider> connections = new ArrayList<>();
+        for (Shard shard : shards) {
+            connections.add(shard.connections);
+        }
+        return connections;
+    }
+    
+    private Shard shardForUser(int userId) {
+        return ring.get(userId);
+    }
+    
+    private Shard shardForApplication(int applicationId) {
+        int index = (applicationId - 1) % MAX_SHARDS;
+        return index >= 0 && index < shards.size() ? shards.get(index) : null;
+    }
+    
+    @Override
+    public List<LoanApplication> getAllLoanApplications() {
+        return getAllLoanApplications(null, null);
+    }
+    
+    @Override
+    public List<LoanApplication> getAllLoanApplications(Date from, Date to) {
+        String window = DateWindow.condition("la.application_date", from, to);
+        String sql = "SELECT la.*, u.full_name FROM loan_applications la " +
+                     "JOIN users u ON la.user_id = u.user_id " +
+                     (window.isEmpty() ? "" : "WHERE " + window + " ") +
+                     "ORDER BY la.application_id";
+        return scatterGather(sql, null, from, to);
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByUserId(int userId) {
+        return shardForUser(userId).dao.getLoanApplicationsByUserId(userId);
+    }
+    
+    @Override
+    public LoanApplication getLoanApplicationById(int applicationId) {
+        Shard shard = shardForApplication(applicationId);
+        return shard != null ? shard.dao.getLoanApplicationById(applicationId) : null;
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status) {
+        return getLoanApplicationsByStatus(status, null, null);
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status, Date from, Date to) {
+        String window = DateWindow.condition("la.application_date", from, to);
+        String sql = "SELECT la.*, u.full_name FROM loan_applications la " +
+                     "JOIN users u ON la.user_id = u.user_id " +
+                     "WHERE la.status = ? " +
+                     (window.isEmpty() ? "" : "AND " + window + " ") +
+                     "ORDER BY la.application_id";
+        return scatterGather(sql, status.toString(), from, to);
+    }
+    
+    @Override
+    public boolean insertLoanApplication(LoanApplication application) {
+        return shardForUser(application.getUserId()).dao.insertLoanApplication(application);
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus) {
+        Shard shard = shardForApplication(applicationId);
+        return shard != null && shard.dao.updateLoanApplicationStatus(applicationId, newStatus);
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus, int expectedVersion) {
+        Shard shard = shardForApplication(applicationId);
+        return shard != null && shard.dao.updateLoanApplicationStatus(applicationId, newStatus, expectedVersion);
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus, int expectedVersion,
+            int officerId) {
+        Shard shard = shardForApplication(applicationId);
+        return shard != null &&
+                shard.dao.updateLoanApplicationStatus(applicationId, newStatus, expectedVersion, officerId);
+    }
+    
+    @Override
+    public boolean updateLoanApplication(LoanApplication application) {
+        Shard shard = shardForApplication(application.getApplicationId());
+        return shard != null && shard.dao.updateLoanApplication(application);
+    }
+    
+    @Override
+    public List<LoanApplication> claimPendingApplications(int officerId, int limit, int leaseSeconds) {
+        // Start at a different shard per officer, so officers drain the shards evenly. Every shard
+        // is visited to renew the officer's claims there, even once the limit has been reached.
+        List<LoanApplication> applications = new ArrayList<>();
+        int first = Math.floorMod(officerId, shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            Shard shard = shards.get((first + i) % shards.size());
+            applications.addAll(shard.dao.claimPendingApplications(officerId,
+                    Math.max(0, limit - applications.size()), leaseSeconds));
+        }
+        return applications;
+    }
+    
+    @Override
+    public boolean releaseClaim(int applicationId, int officerId) {
+        Shard shard = shardForApplication(applicationId);
+        return shard != null && shard.dao.releaseClaim(applicationId, officerId);
+    }
+    
+    @Override
+    public boolean deleteLoanApplication(int applicationId) {
+        Shard shard = shardForApplication(applicationId);
+        return shard != null && shard.dao.deleteLoanApplication(applicationId);
+    }
+    
+    /**
+     * Run a query ordered by application ID on every shard in parallel and merge the results.
+     * A shard that fails is reported and left out of the result.
+     * @param sql The query to run
+     * @param parameter The value of the query's first parameter, or null if it has none
+     * @param from The start of the date window bound after the first parameter, or null
+     * @param to The end of the date window bound after the first parameter, or null
+     * @return The merged rows in application ID order
+     */
+    private List<LoanApplication> scatterGather(String sql, String parameter, Date from, Date to) {
+        List<Future<ShardCursor>> futures = new ArrayList<>();
+        for (Shard shard : shards) {
+            futures.add(executor.submit(() -> openCursor(shard, sql, parameter, from, to)));
+        }
+        
+        PriorityQueue<ShardCursor> heads = new PriorityQueue<>(shards.size(),
+                Comparator.comparingInt(cursor -> cursor.current.getApplicationId()));
+        List<ShardCursor> cursors = new ArrayList<>();
+        for (Future<ShardCursor> future : futures) {
+            try {
+                ShardCursor cursor = future.get();
+                cursors.add(cursor);
+                if (cursor.current != null) {
+                    heads.add(cursor);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                System.err.println("Error querying loan application shard: " + e.getCause().getMessage());
+            }
+        }
+        
+        // k-way merge: take the lowest ID among the shard heads, then advance that shard
+        List<LoanApplication> applications = new ArrayList<>();
+        try {
+            while (!heads.isEmpty()) {
+                ShardCursor cursor = heads.poll();
+                applications.add(cursor.current);
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading loan application shard: " + e.getMessage());
+        } finally {
+            for (ShardCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+        
+        return applications;
+    }
+    
+    private ShardCursor openCursor(Shard shard, String sql, String parameter, Date from, Date to)
+            throws SQLException {
+        Connection conn = DatabaseConnection.openConnection(shard.url);
+        try {
+            PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            // Stream rows from the server instead of buffering the whole result
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            int index = 1;
+            if (parameter != null) {
+                pstmt.setString(index++, parameter);
+            }
+            DateWindow.bind(pstmt, index, from, to);
+            
+            ShardCursor cursor = new ShardCursor(shard, conn, pstmt, pstmt.executeQuery());
+            cursor.advance();
+            return cursor;
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+}
@@ -3,19 +3,12 @@ package ipcapstone.dao;
 import ipcapstone.model.User;
 import ipcapstone.model.User.UserType;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 /**
- * Data Access Object for User related database operations.
+ * Data Access Object for User related operations.
  */
-public class UserDao {
+public interface UserDao {
     
     /**
      * Authenticate a user with username and password.
@@ -23,208 +16,47 @@ public class UserDao {
      * @param password The password to check
      * @return User object if authentication successful, null otherwise
      */
-    public User authenticateUser(String username, String password) {
-        String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, username);
-            pstmt.setString(2, password);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return extractUserFromResultSet(rs);
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error authenticating user: " + e.getMessage());
-        }
-        
-        return null;
-    }
+    User authenticateUser(String username, String password);
     
     /**
      * Get a user by ID.
      * @param userId The user ID to look up
      * @return User object if found, null otherwise
      */
-    public User getUserById(int userId) {
-        String sql = "SELECT * FROM users WHERE user_id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, userId);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return extractUserFromResultSet(rs);
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting user by ID: " + e.getMessage());
-        }
-        
-        return null;
-    }
+    User getUserById(int userId);
     
     /**
      * Get all users of a specific type.
      * @param userType The type of users to retrieve
      * @return List of users of the specified type
      */
-    public List<User> getUsersByType(UserType userType) {
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users WHERE user_type = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, userType.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    users.add(extractUserFromResultSet(rs));
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting users by type: " + e.getMessage());
-        }
-        
-        return users;
-    }
+    List<User> getUsersByType(UserType userType);
     
     /**
-     * Insert a new user into the database.
+     * Insert a new user.
      * @param user The user to insert
      * @return true if successful, false otherwise
      */
-    public boolean insertUser(User user) {
-        String sql = "INSERT INTO users (username, password, full_name, email, phone, address, user_type) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setString(1, user.getUsername());
-            pstmt.setString(2, user.getPassword());
-            pstmt.setString(3, user.getFullName());
-            pstmt.setString(4, user.getEmail());
-            pstmt.setString(5, user.getPhone());
-            pstmt.setString(6, user.getAddress());
-            pstmt.setString(7, user.getUserType().toString());
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                return false;
-            }
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    user.setUserId(generatedKeys.getInt(1));
-                    return true;
-                } else {
-                    return false;
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error inserting user: " + e.getMessage());
-            return false;
-        }
-    }
+    boolean insertUser(User user);
     
     /**
-     * Update an existing user in the database.
+     * Update an existing user.
      * @param user The user to update
      * @return true if successful, false otherwise
      */
-    public boolean updateUser(User user) {
-        String sql = "UPDATE users SET password = ?, full_name = ?, email = ?, " +
-                    "phone = ?, address = ? WHERE user_id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, user.getPassword());
-            pstmt.setString(2, user.getFullName());
-            pstmt.setString(3, user.getEmail());
-            pstmt.setString(4, user.getPhone());
-            pstmt.setString(5, user.getAddress());
-            pstmt.setInt(6, user.getUserId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error updating user: " + e.getMessage());
-            return false;
-        }
-    }
+    boolean updateUser(User user);
     
     /**
-     * Delete a user from the database.
+     * Delete a user.
      * @param userId The ID of the user to delete
      * @return true if successful, false otherwise
      */
-    public boolean deleteUser(int userId) {
-        String sql = "DELETE FROM users WHERE user_id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, userId);
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            System.err.println("Error deleting user: " + e.getMessage());
-            return false;
-        }
-    }
+    boolean deleteUser(int userId);
     
     /**
      * Check if a username already exists.
      * @param username The username to check
      * @return true if username exists, false otherwise
      */
-    public boolean usernameExists(String username) {
-        String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, username);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error checking username existence: " + e.getMessage());
-        }
-        
-        return false;
-    }
-    
-    /**
-     * Extract a User object from a ResultSet.
-     * @param rs The ResultSet containing user data
-     * @return User object
-     * @throws SQLException if data extraction fails
-     */
-    private User extractUserFromResultSet(ResultSet rs) throws SQLException {
-        User user = new User();
-        user.setUserId(rs.getInt("user_id"));
-        user.setUsername(rs.getString("username"));
-        user.setPassword(rs.getString("password"));
-        user.setFullName(rs.getString("full_name"));
-        user.setEmail(rs.getString("email"));
-        user.setPhone(rs.getString("phone"));
-        user.setAddress(rs.getString("address"));
-        user.setRegistrationDate(new Date(rs.getTimestamp("registration_date").getTime()));
-        user.setUserType(UserType.valueOf(rs.getString("user_type")));
-        return user;
-    }
-} 
\ No newline at end of file
+    boolean usernameExists(String username);
+}
@@ -0,0 +1,302 @@
+package ipcapstone.dao.journal;
+
+import ipcapstone.dao.DatabaseConnection;
+import ipcapstone.dao.JdbcLoanApplicationDao;
+import ipcapstone.model.LoanApplication;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays journaled loan applications to the database in batches once it is reachable.
+ * The replayer runs on a daemon thread with its own connection, so it never closes
+ * the connection shared by the DAOs. Each batch is inserted in one transaction and
+ * acknowledged in the journal only after it commits; idempotency keys make a batch
+ * that is replayed again after a crash harmless.
+ * <p>
+ * Only a lost connection marks the database unavailable. A batch that the database
+ * rejects for its data is replayed one record at a time, and the records that are
+ * rejected again are moved to the journal's dead-letter file, so that one bad
+ * application cannot hold up the ones behind it.
+ */
+public class JournalReplayer {
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final long DEFAULT_INTERVAL_MILLIS = 5000;
+    
+    private final LoanApplicationJournal journal;
+    private final JdbcLoanApplicationDao loanApplicationDao;
+    private final int batchSize;
+    private final long intervalMillis;
+    
+    private final ScheduledExecutorService executor;
+    private volatile boolean databaseAvailable = true;
+    
+    private final AtomicLong replayedRecords = new AtomicLong();
+    private final AtomicLong duplicateRecords = new AtomicLong();
+    private final AtomicLong replayedBatches = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong deadLetterRecords = new AtomicLong();
+    private final AtomicLong replayNanos = new AtomicLong();
+    
+    /**
+     * A snapshot of the replay metrics.
+     */
+    public static final class ReplayMetrics {
+        private final long replayedRecords;
+        private final long duplicateRecords;
+        private final long replayedBatches;
+        private final long failedBatches;
+        private final long deadLetterRecords;
+        private final long replayNanos;
+        private final int pendingRecords;
+        
+        private ReplayMetrics(long replayedRecords, long duplicateRecords, long replayedBatches,
+                long failedBatches, long deadLetterRecords, long replayNanos, int pendingRecords) {
+            this.replayedRecords = replayedRecords;
+            this.duplicateRecords = duplicateRecords;
+            this.replayedBatches = replayedBatches;
+            this.failedBatches = failedBatches;
+            this.deadLetterRecords = deadLetterRecords;
+            this.replayNanos = replayNanos;
+            this.pendingRecords = pendingRecords;
+        }
+        
+        public long getReplayedRecords() {
+            return replayedRecords;
+        }
+        
+        public long getDuplicateRecords() {
+            return duplicateRecords;
+        }
+        
+        public long getReplayedBatches() {
+            return replayedBatches;
+        }
+        
+        public long getFailedBatches() {
+            return failedBatches;
+        }
+        
+        public long getDeadLetterRecords() {
+            return deadLetterRecords;
+        }
+        
+        public int getPendingRecords() {
+            return pendingRecords;
+        }
+        
+        /**
+         * Get the replay throughput, measured over the time spent replaying batches.
+         * @return Replayed records per second
+         */
+        public double getRecordsPerSecond() {
+            return replayNanos == 0 ? 0 : replayedRecords * 1_000_000_000.0 / replayNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("replayed=%d duplicates=%d batches=%d failedBatches=%d deadLetters=%d pending=%d " +
+                    "throughput=%.1f records/s", replayedRecords, duplicateRecords, replayedBatches, failedBatches,
+                    deadLetterRecords, pendingRecords, getRecordsPerSecond());
+        }
+    }
+    
+    /**
+     * Create a new JournalReplayer with the default batch size and interval.
+     * @param journal The journal to replay
+     */
+    public JournalReplayer(LoanApplicationJournal journal) {
+        this(journal, new JdbcLoanApplicationDao(), DEFAULT_BATCH_SIZE, DEFAULT_INTERVAL_MILLIS);
+    }
+    
+    /**
+     * Create a new JournalReplayer.
+     * @param journal The journal to replay
+     * @param loanApplicationDao The DAO used to insert replayed applications
+     * @param batchSize The maximum number of applications inserted per transaction
+     * @param intervalMillis The delay between replay attempts in milliseconds
+     */
+    public JournalReplayer(LoanApplicationJournal journal, JdbcLoanApplicationDao loanApplicationDao,
+            int batchSize, long intervalMillis) {
+        this.journal = journal;
+        this.loanApplicationDao = loanApplicationDao;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "loan-journal-replayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Start replaying the journal periodically.
+     */
+    public void start() {
+        executor.scheduleWithFixedDelay(this::replayPending, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Request a replay attempt as soon as possible, e.g. after a submission was journaled.
+     */
+    public void wakeUp() {
+        executor.execute(this::replayPending);
+    }
+    
+    /**
+     * Stop the replayer. Journaled applications stay on disk for the next run.
+     */
+    public void stop() {
+        executor.shutdown();
+    }
+    
+    /**
+     * Check whether the last replay attempt reached the database.
+     * @return true if the database was reachable, false otherwise
+     */
+    public boolean isDatabaseAvailable() {
+        return databaseAvailable;
+    }
+    
+    /**
+     * Record that the database could not be reached, e.g. by a failed submission.
+     */
+    public void markDatabaseUnavailable() {
+        databaseAvailable = false;
+    }
+    
+    /**
+     * Get a snapshot of the replay metrics.
+     * @return The current metrics
+     */
+    public ReplayMetrics getMetrics() {
+        return new ReplayMetrics(replayedRecords.get(), duplicateRecords.get(), replayedBatches.get(),
+                failedBatches.get(), deadLetterRecords.get(), replayNanos.get(), journal.getPendingCount());
+    }
+    
+    /**
+     * Replay all pending applications, stopping at the first batch that cannot be
+     * replayed because of the connection or a transient error such as a deadlock.
+     */
+    void replayPending() {
+        if (journal.getPendingCount() == 0) {
+            databaseAvailable = true;
+            return;
+        }
+        
+        long startRecords = replayedRecords.get();
+        
+        try (Connection conn = DatabaseConnection.openConnection()) {
+            conn.setAutoCommit(false);
+            
+            List<LoanApplicationJournal.Entry> entries;
+            while (!(entries = journal.peek(batchSize)).isEmpty()) {
+                try {
+                    replayBatch(conn, entries);
+                } catch (SQLException e) {
+                    if (isRetryable(e)) {
+                        throw e;
+                    }
+                    // The batch holds a record the database rejects; find it by replaying them one by one
+                    failedBatches.incrementAndGet();
+                    for (LoanApplicationJournal.Entry entry : entries) {
+                        replayOrDeadLetter(conn, entry);
+                    }
+                }
+            }
+            databaseAvailable = true;
+        } catch (SQLException e) {
+            databaseAvailable = !isConnectionFailure(e);
+            failedBatches.incrementAndGet();
+            System.err.println("Error replaying loan application journal: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Error writing loan application dead letter: " + e.getMessage());
+        }
+        
+        long replayed = replayedRecords.get() - startRecords;
+        if (replayed > 0) {
+            System.out.println("Replayed " + replayed + " journaled loan applications: " + getMetrics());
+        }
+    }
+    
+    /**
+     * Replay a single application, moving it to the dead-letter file if the database rejects it.
+     * @param conn The connection to replay on
+     * @param entry The oldest pending entry
+     * @throws SQLException if the application could not be replayed for a retryable reason
+     * @throws IOException if the dead-letter file cannot be written
+     */
+    private void replayOrDeadLetter(Connection conn, LoanApplicationJournal.Entry entry)
+            throws SQLException, IOException {
+        try {
+            replayBatch(conn, Collections.singletonList(entry));
+        } catch (SQLException e) {
+            if (isRetryable(e)) {
+                throw e;
+            }
+            journal.deadLetter(entry, e.getSQLState() + " " + e.getMessage());
+            deadLetterRecords.incrementAndGet();
+            System.err.println("Moved journaled loan application " + entry.getApplication().getIdempotencyKey() +
+                    " to the dead-letter file: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Check whether an error means the database could not be reached.
+     * @param e The error
+     * @return true for connection errors (SQLState class 08)
+     */
+    static boolean isConnectionFailure(SQLException e) {
+        String sqlState = e.getSQLState();
+        return e instanceof SQLTransientConnectionException || (sqlState != null && sqlState.startsWith("08"));
+    }
+    
+    /**
+     * Check whether a statement that failed with an error may succeed when it is retried.
+     * Any other error is caused by the data and fails again on every retry.
+     * @param e The error
+     * @return true for connection errors, deadlocks, lock wait timeouts and other transient errors
+     */
+    static boolean isRetryable(SQLException e) {
+        String sqlState = e.getSQLState();
+        return isConnectionFailure(e) || e instanceof SQLTransientException || e instanceof SQLRecoverableException ||
+                (sqlState != null && sqlState.startsWith("40"));
+    }
+    
+    private void replayBatch(Connection conn, List<LoanApplicationJournal.Entry> entries) throws SQLException {
+        List<LoanApplication> applications = new ArrayList<>(entries.size());
+        for (LoanApplicationJournal.Entry entry : entries) {
+            applications.add(entry.getApplication());
+        }
+        
+        long start = System.nanoTime();
+        try {
+            int inserted = loanApplicationDao.insertLoanApplicationBatch(conn, applications);
+            conn.commit();
+            duplicateRecords.addAndGet(applications.size() - inserted);
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackError) {
+                System.err.println("Error rolling back journal replay: " + rollbackError.getMessage());
+            }
+            throw e;
+        }
+        
+        journal.acknowledge(entries);
+        replayNanos.addAndGet(System.nanoTime() - start);
+        replayedRecords.addAndGet(applications.size());
+        replayedBatches.incrementAndGet();
+    }
+}
@@ -0,0 +1,234 @@
+package ipcapstone.dao.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A fixed-size, memory-mapped, append-only journal segment.
+ * The segment starts with a header holding a magic number and the offset up to
+ * which records have been replayed. Each record is framed as length, CRC32 and
+ * payload; a zero length marks the end of the written records. On open the
+ * segment is scanned to find the end, and a torn record at the tail (from a
+ * crash during a write) is discarded.
+ */
+final class JournalSegment implements Closeable {
+    private static final int MAGIC = 0x4C414A31; // "LAJ1"
+    private static final int REPLAYED_OFFSET_POSITION = 4;
+    static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    
+    private final File file;
+    private final RandomAccessFile raf;
+    private final MappedByteBuffer buffer;
+    private int writeOffset;
+    private int pendingCount;
+    
+    private JournalSegment(File file, RandomAccessFile raf, MappedByteBuffer buffer) {
+        this.file = file;
+        this.raf = raf;
+        this.buffer = buffer;
+    }
+    
+    /**
+     * Open a segment, creating it with the given capacity if it does not exist.
+     * @param file The segment file
+     * @param capacity The size of a new segment in bytes
+     * @return The opened segment
+     * @throws IOException if the segment cannot be mapped or is not a journal segment
+     */
+    static JournalSegment open(File file, int capacity) throws IOException {
+        boolean created = !file.exists() || file.length() == 0;
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        
+        try {
+            if (created) {
+                raf.setLength(capacity);
+            }
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+            JournalSegment segment = new JournalSegment(file, raf, buffer);
+            
+            if (created) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(REPLAYED_OFFSET_POSITION, HEADER_SIZE);
+                buffer.force();
+            } else if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a loan application journal segment: " + file);
+            }
+            
+            segment.scan();
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Find the end of the written records and count the ones not yet replayed.
+     */
+    private void scan() {
+        int replayedOffset = getReplayedOffset();
+        int offset = HEADER_SIZE;
+        int count = 0;
+        
+        while (true) {
+            int next = nextRecordOffset(offset);
+            if (next < 0) {
+                break;
+            }
+            if (offset >= replayedOffset) {
+                count++;
+            }
+            offset = next;
+        }
+        
+        // Clear a torn record so that the next append starts from a clean end marker
+        if (offset + 4 <= buffer.capacity()) {
+            buffer.putInt(offset, 0);
+        }
+        
+        writeOffset = offset;
+        pendingCount = count;
+    }
+    
+    /**
+     * Get the offset of the record after the one at the given offset.
+     * @param offset The offset of a record
+     * @return The offset of the next record, or -1 if there is no valid record at the offset
+     */
+    private int nextRecordOffset(int offset) {
+        if (offset + RECORD_HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > buffer.capacity() - offset - RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        
+        byte[] payload = readPayload(offset, length);
+        if ((int) checksum(payload) != buffer.getInt(offset + 4)) {
+            return -1;
+        }
+        return offset + RECORD_HEADER_SIZE + length;
+    }
+    
+    /**
+     * Append a record to the segment.
+     * @param payload The record payload
+     * @param force Whether to flush the record to the storage device before returning
+     * @return true if the record was appended, false if the segment is full
+     */
+    boolean append(byte[] payload, boolean force) {
+        int end = writeOffset + RECORD_HEADER_SIZE + payload.length;
+        if (end > buffer.capacity()) {
+            return false;
+        }
+        
+        // Write the payload before the length so that a crash never exposes a partial record
+        ByteBuffer view = buffer.duplicate();
+        view.position(writeOffset + RECORD_HEADER_SIZE);
+        view.put(payload);
+        buffer.putInt(writeOffset + 4, (int) checksum(payload));
+        if (end + 4 <= buffer.capacity()) {
+            buffer.putInt(end, 0);
+        }
+        buffer.putInt(writeOffset, payload.length);
+        
+        if (force) {
+            buffer.force();
+        }
+        
+        writeOffset = end;
+        pendingCount++;
+        return true;
+    }
+    
+    /**
+     * Read records that have not been replayed yet.
+     * @param offset The offset to start reading from, at or after the replayed offset
+     * @param max The maximum number of records to read
+     * @param payloads Receives the record payloads
+     * @param endOffsets Receives the offset following each record
+     */
+    void read(int offset, int max, List<byte[]> payloads, List<Integer> endOffsets) {
+        while (payloads.size() < max && offset < writeOffset) {
+            int length = buffer.getInt(offset);
+            payloads.add(readPayload(offset, length));
+            offset += RECORD_HEADER_SIZE + length;
+            endOffsets.add(offset);
+        }
+    }
+    
+    /**
+     * Mark the records up to the given offset as replayed.
+     * @param offset The offset following the last replayed record
+     * @param count The number of records being marked
+     */
+    void markReplayed(int offset, int count) {
+        if (offset > getReplayedOffset()) {
+            buffer.putInt(REPLAYED_OFFSET_POSITION, offset);
+            buffer.force();
+            pendingCount = Math.max(0, pendingCount - count);
+        }
+    }
+    
+    /**
+     * Get the offset up to which records have been replayed.
+     * @return The replayed offset
+     */
+    int getReplayedOffset() {
+        return buffer.getInt(REPLAYED_OFFSET_POSITION);
+    }
+    
+    /**
+     * Get the number of records that have not been replayed yet.
+     * @return The pending record count
+     */
+    int getPendingCount() {
+        return pendingCount;
+    }
+    
+    /**
+     * Check whether every written record has been replayed.
+     * @return true if nothing is pending
+     */
+    boolean isFullyReplayed() {
+        return getReplayedOffset() >= writeOffset;
+    }
+    
+    /**
+     * Get the segment file.
+     * @return The file backing this segment
+     */
+    File getFile() {
+        return file;
+    }
+    
+    private byte[] readPayload(int offset, int length) {
+        byte[] payload = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + RECORD_HEADER_SIZE);
+        view.get(payload);
+        return payload;
+    }
+    
+    private static long checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return crc.getValue();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        raf.close();
+    }
+}
@@ -0,0 +1,134 @@
+package ipcapstone.dao.journal;
+
+import ipcapstone.dao.DatabaseConnection;
+import ipcapstone.dao.LoanApplicationDao;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link LoanApplicationDao} that keeps accepting loan applications while the database is down.
+ * Submissions go straight to the database when it is available and nothing is
+ * waiting in the journal; otherwise they are appended to the journal and replayed
+ * later by a {@link JournalReplayer}. A journaled application has no application ID
+ * until it has been replayed. All other operations are passed to the delegate.
+ */
+public class JournalingLoanApplicationDao implements LoanApplicationDao {
+    private final LoanApplicationDao delegate;
+    private final LoanApplicationJournal journal;
+    private final JournalReplayer replayer;
+    
+    /**
+     * Create a new JournalingLoanApplicationDao.
+     * @param delegate The DAO used while the database is available
+     * @param journal The journal for submissions made while it is not
+     * @param replayer The replayer draining the journal
+     */
+    public JournalingLoanApplicationDao(LoanApplicationDao delegate, LoanApplicationJournal journal,
+            JournalReplayer replayer) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.replayer = replayer;
+    }
+    
+    @Override
+    public List<LoanApplication> getAllLoanApplications() {
+        return delegate.getAllLoanApplications();
+    }
+    
+    @Override
+    public List<LoanApplication> getAllLoanApplications(Date from, Date to) {
+        return delegate.getAllLoanApplications(from, to);
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByUserId(int userId) {
+        return delegate.getLoanApplicationsByUserId(userId);
+    }
+    
+    @Override
+    public LoanApplication getLoanApplicationById(int applicationId) {
+        return delegate.getLoanApplicationById(applicationId);
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status) {
+        return delegate.getLoanApplicationsByStatus(status);
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status, Date from, Date to) {
+        return delegate.getLoanApplicationsByStatus(status, from, to);
+    }
+    
+    @Override
+    public boolean insertLoanApplication(LoanApplication application) {
+        if (application.getIdempotencyKey() == null) {
+            application.setIdempotencyKey(UUID.randomUUID().toString());
+        }
+        
+        // Journal behind a backlog so that submissions reach the database in order
+        if (replayer.isDatabaseAvailable() && journal.getPendingCount() == 0) {
+            if (delegate.insertLoanApplication(application)) {
+                return true;
+            }
+            if (DatabaseConnection.testConnection()) {
+                // The database is up, so the insert failed for another reason
+                return false;
+            }
+            replayer.markDatabaseUnavailable();
+        }
+        
+        try {
+            journal.append(application);
+            application.setApplicationId(0);
+            if (replayer.isDatabaseAvailable()) {
+                replayer.wakeUp();
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error journaling loan application: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus) {
+        return delegate.updateLoanApplicationStatus(applicationId, newStatus);
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus, int expectedVersion) {
+        return delegate.updateLoanApplicationStatus(applicationId, newStatus, expectedVersion);
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus, int expectedVersion,
+            int officerId) {
+        return delegate.updateLoanApplicationStatus(applicationId, newStatus, expectedVersion, officerId);
+    }
+    
+    @Override
+    public boolean updateLoanApplication(LoanApplication application) {
+        return delegate.updateLoanApplication(application);
+    }
+    
+    @Override
+    public List<LoanApplication> claimPendingApplications(int officerId, int limit, int leaseSeconds) {
+        return delegate.claimPendingApplications(officerId, limit, leaseSeconds);
+    }
+    
+    @Override
+    public boolean releaseClaim(int applicationId, int officerId) {
+        return delegate.releaseClaim(applicationId, officerId);
+    }
+    
+    @Override
+    public boolean deleteLoanApplication(int applicationId) {
+        return delegate.deleteLoanApplication(applicationId);
+    }
+}
@@ -0,0 +1,320 @@
+package ipcapstone.dao.journal;
+
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Write-behind journal for loan applications submitted while the database is unavailable.
+ * Applications are appended to a directory of memory-mapped segment files and
+ * replayed to the database in order once it is reachable again. Segments whose
+ * records have all been replayed are deleted. Applications the database rejects
+ * are moved to a dead-letter file in the same directory.
+ */
+public class LoanApplicationJournal implements Closeable {
+    private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+    private static final String SEGMENT_PREFIX = "loan-applications-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String DEAD_LETTER_FILE = "dead-letters.tsv";
+    
+    private final File directory;
+    private final int segmentSize;
+    private final boolean forceOnAppend;
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private int nextSegmentNumber;
+    
+    /**
+     * A journaled loan application waiting to be replayed.
+     */
+    public static final class Entry {
+        private final LoanApplication application;
+        private final JournalSegment segment;
+        private final int endOffset;
+        
+        private Entry(LoanApplication application, JournalSegment segment, int endOffset) {
+            this.application = application;
+            this.segment = segment;
+            this.endOffset = endOffset;
+        }
+        
+        /**
+         * Get the journaled loan application.
+         * @return The loan application
+         */
+        public LoanApplication getApplication() {
+            return application;
+        }
+    }
+    
+    private LoanApplicationJournal(File directory, int segmentSize, boolean forceOnAppend) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.forceOnAppend = forceOnAppend;
+    }
+    
+    /**
+     * Open the journal in the given directory with the default segment size,
+     * flushing every append to the storage device.
+     * @param directory The journal directory, created if it does not exist
+     * @return The opened journal
+     * @throws IOException if the directory or a segment cannot be opened
+     */
+    public static LoanApplicationJournal open(File directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE, true);
+    }
+    
+    /**
+     * Open the journal in the given directory.
+     * @param directory The journal directory, created if it does not exist
+     * @param segmentSize The size of new segment files in bytes
+     * @param forceOnAppend Whether every append is flushed to the storage device
+     * @return The opened journal
+     * @throws IOException if the directory or a segment cannot be opened
+     */
+    public static LoanApplicationJournal open(File directory, int segmentSize, boolean forceOnAppend)
+            throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create journal directory: " + directory);
+        }
+        
+        LoanApplicationJournal journal = new LoanApplicationJournal(directory, segmentSize, forceOnAppend);
+        File[] files = directory.listFiles((dir, name) ->
+                name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                journal.nextSegmentNumber = Math.max(journal.nextSegmentNumber, segmentNumber(file) + 1);
+                JournalSegment segment = JournalSegment.open(file, segmentSize);
+                if (segment.isFullyReplayed()) {
+                    segment.close();
+                    delete(file);
+                } else {
+                    journal.segments.add(segment);
+                }
+            }
+        }
+        return journal;
+    }
+    
+    /**
+     * Append a loan application to the journal.
+     * @param application The loan application to append
+     * @throws IOException if the application cannot be written
+     */
+    public synchronized void append(LoanApplication application) throws IOException {
+        byte[] payload = encode(application);
+        if (JournalSegment.HEADER_SIZE + 8 + payload.length > segmentSize) {
+            throw new IOException("Loan application is too large for a journal segment");
+        }
+        
+        JournalSegment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (active == null || !active.append(payload, forceOnAppend)) {
+            active = newSegment();
+            active.append(payload, forceOnAppend);
+        }
+    }
+    
+    /**
+     * Get the oldest journaled applications that have not been replayed yet.
+     * @param max The maximum number of entries to return
+     * @return The pending entries in submission order
+     */
+    public synchronized List<Entry> peek(int max) {
+        List<Entry> entries = new ArrayList<>();
+        
+        for (JournalSegment segment : segments) {
+            if (entries.size() >= max) {
+                break;
+            }
+            
+            List<byte[]> payloads = new ArrayList<>();
+            List<Integer> endOffsets = new ArrayList<>();
+            segment.read(segment.getReplayedOffset(), max - entries.size(), payloads, endOffsets);
+            
+            for (int i = 0; i < payloads.size(); i++) {
+                try {
+                    entries.add(new Entry(decode(payloads.get(i)), segment, endOffsets.get(i)));
+                } catch (IOException e) {
+                    // A record that passed its checksum but cannot be decoded is skipped once it
+                    // is the oldest pending record, so that earlier records are not acknowledged early
+                    System.err.println("Error decoding journaled loan application: " + e.getMessage());
+                    if (!entries.isEmpty()) {
+                        return entries;
+                    }
+                    segment.markReplayed(endOffsets.get(i), 1);
+                }
+            }
+        }
+        return entries;
+    }
+    
+    /**
+     * Mark journaled applications as replayed. Segments that have been fully
+     * replayed, other than the one being appended to, are deleted.
+     * @param entries Entries returned by {@link #peek(int)}, in the same order
+     */
+    public synchronized void acknowledge(List<Entry> entries) {
+        int i = 0;
+        while (i < entries.size()) {
+            JournalSegment segment = entries.get(i).segment;
+            int count = 0;
+            int endOffset = 0;
+            while (i < entries.size() && entries.get(i).segment == segment) {
+                endOffset = entries.get(i).endOffset;
+                count++;
+                i++;
+            }
+            segment.markReplayed(endOffset, count);
+        }
+        
+        while (segments.size() > 1 && segments.get(0).isFullyReplayed()) {
+            JournalSegment segment = segments.remove(0);
+            try {
+                segment.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal segment: " + e.getMessage());
+            }
+            delete(segment.getFile());
+        }
+    }
+    
+    /**
+     * Move the oldest pending application to the dead-letter file and acknowledge it.
+     * Each dead letter is one tab-separated line holding the time, the reason and the
+     * application's fields, and is flushed to the storage device before the entry is acknowledged.
+     * @param entry The oldest entry returned by {@link #peek(int)}
+     * @param reason Why the application could not be replayed
+     * @throws IOException if the dead-letter file cannot be written; the entry then stays pending
+     */
+    public synchronized void deadLetter(Entry entry, String reason) throws IOException {
+        LoanApplication application = entry.application;
+        StringBuilder line = new StringBuilder();
+        line.append(System.currentTimeMillis()).append('\t').append(clean(reason))
+                .append('\t').append(clean(application.getIdempotencyKey()))
+                .append('\t').append(application.getUserId())
+                .append('\t').append(application.getLoanAmount())
+                .append('\t').append(clean(application.getLoanPurpose()))
+                .append('\t').append(application.getDurationMonths())
+                .append('\t').append(application.getInterestRate())
+                .append('\t').append(application.getStatus())
+                .append('\t').append(application.getApplicationDate() != null ?
+                        application.getApplicationDate().getTime() : 0)
+                .append('\n');
+        
+        try (FileOutputStream out = new FileOutputStream(new File(directory, DEAD_LETTER_FILE), true)) {
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+        acknowledge(Collections.singletonList(entry));
+    }
+    
+    /**
+     * Get the number of journaled applications that have not been replayed yet.
+     * @return The pending application count
+     */
+    public synchronized int getPendingCount() {
+        int count = 0;
+        for (JournalSegment segment : segments) {
+            count += segment.getPendingCount();
+        }
+        return count;
+    }
+    
+    /**
+     * Get the journal directory.
+     * @return The directory holding the segment files
+     */
+    public File getDirectory() {
+        return directory;
+    }
+    
+    private JournalSegment newSegment() throws IOException {
+        File file = new File(directory, String.format("%s%06d%s", SEGMENT_PREFIX, nextSegmentNumber++, SEGMENT_SUFFIX));
+        JournalSegment segment = JournalSegment.open(file, segmentSize);
+        segments.add(segment);
+        return segment;
+    }
+    
+    private static int segmentNumber(File file) {
+        String name = file.getName();
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private static void delete(File file) {
+        if (!file.delete()) {
+            System.err.println("Error deleting replayed journal segment: " + file);
+        }
+    }
+    
+    private static String clean(String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ');
+    }
+    
+    private static byte[] encode(LoanApplication application) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(application.getIdempotencyKey() != null ? application.getIdempotencyKey() : "");
+        out.writeInt(application.getUserId());
+        out.writeDouble(application.getLoanAmount());
+        out.writeUTF(application.getLoanPurpose() != null ? application.getLoanPurpose() : "");
+        out.writeInt(application.getDurationMonths());
+        out.writeDouble(application.getInterestRate());
+        out.writeUTF(application.getStatus().name());
+        out.writeLong(application.getApplicationDate() != null ?
+                application.getApplicationDate().getTime() : System.currentTimeMillis());
+        out.flush();
+        return bytes.toByteArray();
+    }
+    
+    private static LoanApplication decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        LoanApplication application = new LoanApplication();
+        String key = in.readUTF();
+        application.setIdempotencyKey(key.isEmpty() ? null : key);
+        application.setUserId(in.readInt());
+        application.setLoanAmount(in.readDouble());
+        application.setLoanPurpose(in.readUTF());
+        application.setDurationMonths(in.readInt());
+        application.setInterestRate(in.readDouble());
+        try {
+            application.setStatus(LoanStatus.valueOf(in.readUTF()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown loan status", e);
+        }
+        application.setApplicationDate(new Date(in.readLong()));
+        return application;
+    }
+    
+    /**
+     * Close all open segments.
+     */
+    @Override
+    public synchronized void close() {
+        for (JournalSegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal segment: " + e.getMessage());
+            }
+        }
+        segments.clear();
+    }
+}
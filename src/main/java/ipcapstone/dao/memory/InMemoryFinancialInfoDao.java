@@ -0,0 +1,86 @@
+package ipcapstone.dao.memory;
+
+import ipcapstone.dao.FinancialInfoDao;
+import ipcapstone.model.FinancialInfo;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory implementation of {@link FinancialInfoDao} backed by an {@link InMemoryStore}.
+ */
+public class InMemoryFinancialInfoDao implements FinancialInfoDao {
+    private final InMemoryStore store;
+    
+    /**
+     * Create a new InMemoryFinancialInfoDao.
+     * @param store The store holding the financial information
+     */
+    public InMemoryFinancialInfoDao(InMemoryStore store) {
+        this.store = store;
+    }
+    
+    @Override
+    public FinancialInfo getFinancialInfoByUserId(int userId) {
+        FinancialInfo financialInfo = store.financialInfoByUser.get(userId);
+        return financialInfo == null ? null : InMemoryStore.copyOf(financialInfo);
+    }
+    
+    @Override
+    public Map<Integer, FinancialInfo> getFinancialInfoByUserIds(Collection<Integer> userIds) {
+        Map<Integer, FinancialInfo> financialInfoByUser = new HashMap<>();
+        for (int userId : userIds) {
+            FinancialInfo financialInfo = store.financialInfoByUser.get(userId);
+            if (financialInfo != null) {
+                financialInfoByUser.put(userId, InMemoryStore.copyOf(financialInfo));
+            }
+        }
+        return financialInfoByUser;
+    }
+    
+    @Override
+    public boolean insertFinancialInfo(FinancialInfo financialInfo) {
+        if (!store.users.containsKey(financialInfo.getUserId()) || financialInfo.getEmploymentStatus() == null ||
+                store.financialInfoByUser.containsKey(financialInfo.getUserId())) {
+            return false;
+        }
+        
+        FinancialInfo stored = InMemoryStore.copyOf(financialInfo);
+        stored.setFinancialInfoId(store.financialInfoSequence.incrementAndGet());
+        store.putFinancialInfo(stored);
+        
+        financialInfo.setFinancialInfoId(stored.getFinancialInfoId());
+        return true;
+    }
+    
+    @Override
+    public boolean updateFinancialInfo(FinancialInfo financialInfo) {
+        FinancialInfo existing = store.financialInfoByUser.get(financialInfo.getUserId());
+        if (existing == null || financialInfo.getEmploymentStatus() == null) {
+            return false;
+        }
+        
+        FinancialInfo stored = InMemoryStore.copyOf(financialInfo);
+        stored.setFinancialInfoId(existing.getFinancialInfoId());
+        store.putFinancialInfo(stored);
+        return true;
+    }
+    
+    @Override
+    public boolean saveFinancialInfo(FinancialInfo financialInfo) {
+        FinancialInfo existingInfo = store.financialInfoByUser.get(financialInfo.getUserId());
+        
+        if (existingInfo == null) {
+            return insertFinancialInfo(financialInfo);
+        } else {
+            financialInfo.setFinancialInfoId(existingInfo.getFinancialInfoId());
+            return updateFinancialInfo(financialInfo);
+        }
+    }
+    
+    @Override
+    public boolean deleteFinancialInfo(int userId) {
+        return store.removeFinancialInfo(userId);
+    }
+}
@@ -0,0 +1,401 @@
+package ipcapstone.dao.memory;
+
+import ipcapstone.model.FinancialInfo;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+import ipcapstone.model.LoanDecision;
+import ipcapstone.model.LoanDecision.DecisionStatus;
+import ipcapstone.model.LoanDecisionEvent;
+import ipcapstone.model.LoanDecisionEvent.EventType;
+import ipcapstone.model.User;
+import ipcapstone.model.User.UserType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Date;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the mutations applied to an {@link InMemoryStore}.
+ * Each record is framed as length, CRC32 and payload. On open the journal is
+ * replayed into the store. Replay stops at the first record with a bad length
+ * or checksum, such as a torn record from a crash during a write, and the
+ * journal is truncated there.
+ */
+final class InMemoryJournal implements Closeable {
+    private static final byte USER_PUT = 1;
+    private static final byte USER_REMOVE = 2;
+    private static final byte APPLICATION_PUT = 3;
+    private static final byte APPLICATION_REMOVE = 4;
+    private static final byte DECISION_PUT = 5;
+    private static final byte DECISION_REMOVE = 6;
+    private static final byte FINANCIAL_INFO_PUT = 7;
+    private static final byte FINANCIAL_INFO_REMOVE = 8;
+    private static final byte DECISION_EVENT = 9;
+    
+    // Larger than any record: a user, the largest, has seven strings of at most 64 KB
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+    private static final int HEADER_LENGTH = 12;
+    
+    private final File file;
+    private DataOutputStream out;
+    
+    private InMemoryJournal(File file) {
+        this.file = file;
+    }
+    
+    /**
+     * Open a journal, replaying its records into the store.
+     * @param file The journal file, created if it does not exist
+     * @param store The store to replay the records into
+     * @return The opened journal
+     * @throws IOException if the journal cannot be read or opened for appending
+     */
+    static InMemoryJournal open(File file, InMemoryStore store) throws IOException {
+        InMemoryJournal journal = new InMemoryJournal(file);
+        
+        if (file.exists()) {
+            long validLength = journal.replay(store);
+            if (validLength < file.length()) {
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.setLength(validLength);
+                }
+            }
+        } else if (file.getAbsoluteFile().getParentFile() != null) {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        
+        journal.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        return journal;
+    }
+    
+    /**
+     * Replay the records of the journal into the store, up to the first one
+     * whose length or checksum is not valid.
+     * @return The length of the valid prefix of the journal
+     */
+    private long replay(InMemoryStore store) throws IOException {
+        long validLength = 0;
+        long fileLength = file.length();
+        
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    long checksum = in.readLong();
+                    if (length <= 0 || length > MAX_RECORD_LENGTH
+                            || length > fileLength - validLength - HEADER_LENGTH) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    
+                    CRC32 crc = new CRC32();
+                    crc.update(payload, 0, length);
+                    if (crc.getValue() != checksum) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                
+                apply(new DataInputStream(new ByteArrayInputStream(payload)), store);
+                validLength += HEADER_LENGTH + payload.length;
+            }
+        }
+        
+        return validLength;
+    }
+    
+    private void apply(DataInputStream in, InMemoryStore store) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case USER_PUT:
+                store.replayUser(readUser(in));
+                break;
+            case USER_REMOVE:
+                store.removeUser(in.readInt());
+                break;
+            case APPLICATION_PUT:
+                store.replayApplication(readApplication(in));
+                break;
+            case APPLICATION_REMOVE:
+                store.removeApplication(in.readInt());
+                break;
+            case DECISION_PUT:
+                store.replayDecision(readDecision(in));
+                break;
+            case DECISION_REMOVE:
+                store.removeDecision(in.readInt());
+                break;
+            case FINANCIAL_INFO_PUT:
+                store.replayFinancialInfo(readFinancialInfo(in));
+                break;
+            case FINANCIAL_INFO_REMOVE:
+                store.removeFinancialInfo(in.readInt());
+                break;
+            case DECISION_EVENT:
+                store.replayDecisionEvent(readDecisionEvent(in));
+                break;
+            default:
+                throw new IOException("Unknown journal record type " + type + " in " + file);
+        }
+    }
+    
+    void writeUser(User user) {
+        RecordWriter record = new RecordWriter(USER_PUT);
+        try {
+            DataOutputStream data = record.data;
+            data.writeInt(user.getUserId());
+            writeString(data, user.getUsername());
+            writeString(data, user.getPassword());
+            writeString(data, user.getFullName());
+            writeString(data, user.getEmail());
+            writeString(data, user.getPhone());
+            writeString(data, user.getAddress());
+            writeDate(data, user.getRegistrationDate());
+            writeString(data, user.getUserType() == null ? null : user.getUserType().name());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(record);
+    }
+    
+    void writeApplication(LoanApplication application) {
+        RecordWriter record = new RecordWriter(APPLICATION_PUT);
+        try {
+            DataOutputStream data = record.data;
+            data.writeInt(application.getApplicationId());
+            data.writeInt(application.getUserId());
+            data.writeDouble(application.getLoanAmount());
+            writeString(data, application.getLoanPurpose());
+            writeDate(data, application.getApplicationDate());
+            data.writeInt(application.getDurationMonths());
+            data.writeDouble(application.getInterestRate());
+            writeString(data, application.getStatus() == null ? null : application.getStatus().name());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(record);
+    }
+    
+    void writeDecision(LoanDecision decision) {
+        RecordWriter record = new RecordWriter(DECISION_PUT);
+        try {
+            DataOutputStream data = record.data;
+            data.writeInt(decision.getDecisionId());
+            data.writeInt(decision.getApplicationId());
+            data.writeInt(decision.getOfficerId());
+            writeDate(data, decision.getDecisionDate());
+            writeString(data, decision.getStatus() == null ? null : decision.getStatus().name());
+            writeString(data, decision.getComments());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(record);
+    }
+    
+    void writeDecisionEvent(LoanDecisionEvent event) {
+        RecordWriter record = new RecordWriter(DECISION_EVENT);
+        try {
+            DataOutputStream data = record.data;
+            data.writeLong(event.getEventId());
+            data.writeInt(event.getApplicationId());
+            data.writeInt(event.getDecisionId());
+            data.writeInt(event.getOfficerId());
+            writeString(data, event.getEventType().name());
+            writeString(data, event.getStatus() == null ? null : event.getStatus().name());
+            writeString(data, event.getComments());
+            writeDate(data, event.getEventTime());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(record);
+    }
+    
+    void writeFinancialInfo(FinancialInfo financialInfo) {
+        RecordWriter record = new RecordWriter(FINANCIAL_INFO_PUT);
+        try {
+            DataOutputStream data = record.data;
+            data.writeInt(financialInfo.getFinancialInfoId());
+            data.writeInt(financialInfo.getUserId());
+            data.writeDouble(financialInfo.getAnnualIncome());
+            writeString(data, financialInfo.getEmploymentStatus());
+            writeString(data, financialInfo.getEmployerName());
+            writeString(data, financialInfo.getJobTitle());
+            data.writeInt(financialInfo.getEmploymentDuration());
+            data.writeInt(financialInfo.getCreditScore());
+            data.writeDouble(financialInfo.getExistingDebts());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(record);
+    }
+    
+    void writeUserRemoval(int userId) {
+        writeRemoval(USER_REMOVE, userId);
+    }
+    
+    void writeApplicationRemoval(int applicationId) {
+        writeRemoval(APPLICATION_REMOVE, applicationId);
+    }
+    
+    void writeDecisionRemoval(int decisionId) {
+        writeRemoval(DECISION_REMOVE, decisionId);
+    }
+    
+    void writeFinancialInfoRemoval(int userId) {
+        writeRemoval(FINANCIAL_INFO_REMOVE, userId);
+    }
+    
+    private void writeRemoval(byte type, int id) {
+        RecordWriter record = new RecordWriter(type);
+        try {
+            record.data.writeInt(id);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(record);
+    }
+    
+    /**
+     * Append a framed record and flush it to the file.
+     */
+    private synchronized void append(RecordWriter record) {
+        byte[] payload = record.bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        
+        try {
+            out.writeInt(payload.length);
+            out.writeLong(crc.getValue());
+            out.write(payload);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing in-memory store journal: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+    
+    private static User readUser(DataInputStream in) throws IOException {
+        int userId = in.readInt();
+        String username = readString(in);
+        String password = readString(in);
+        String fullName = readString(in);
+        String email = readString(in);
+        String phone = readString(in);
+        String address = readString(in);
+        Date registrationDate = readDate(in);
+        String userType = readString(in);
+        return new User(userId, username, password, fullName, email, phone, address, registrationDate,
+                userType == null ? null : UserType.valueOf(userType));
+    }
+    
+    private static LoanApplication readApplication(DataInputStream in) throws IOException {
+        int applicationId = in.readInt();
+        int userId = in.readInt();
+        double loanAmount = in.readDouble();
+        String loanPurpose = readString(in);
+        Date applicationDate = readDate(in);
+        int durationMonths = in.readInt();
+        double interestRate = in.readDouble();
+        String status = readString(in);
+        return new LoanApplication(applicationId, userId, loanAmount, loanPurpose, applicationDate,
+                durationMonths, interestRate, status == null ? null : LoanStatus.valueOf(status));
+    }
+    
+    private static LoanDecision readDecision(DataInputStream in) throws IOException {
+        int decisionId = in.readInt();
+        int applicationId = in.readInt();
+        int officerId = in.readInt();
+        Date decisionDate = readDate(in);
+        String status = readString(in);
+        String comments = readString(in);
+        return new LoanDecision(decisionId, applicationId, officerId, decisionDate,
+                status == null ? null : DecisionStatus.valueOf(status), comments);
+    }
+    
+    private static LoanDecisionEvent readDecisionEvent(DataInputStream in) throws IOException {
+        LoanDecisionEvent event = new LoanDecisionEvent();
+        event.setEventId(in.readLong());
+        event.setApplicationId(in.readInt());
+        event.setDecisionId(in.readInt());
+        event.setOfficerId(in.readInt());
+        event.setEventType(EventType.valueOf(readString(in)));
+        String status = readString(in);
+        event.setStatus(status == null ? null : DecisionStatus.valueOf(status));
+        event.setComments(readString(in));
+        event.setEventTime(readDate(in));
+        return event;
+    }
+    
+    private static FinancialInfo readFinancialInfo(DataInputStream in) throws IOException {
+        int financialInfoId = in.readInt();
+        int userId = in.readInt();
+        double annualIncome = in.readDouble();
+        String employmentStatus = readString(in);
+        String employerName = readString(in);
+        String jobTitle = readString(in);
+        int employmentDuration = in.readInt();
+        int creditScore = in.readInt();
+        double existingDebts = in.readDouble();
+        return new FinancialInfo(financialInfoId, userId, annualIncome, employmentStatus, employerName,
+                jobTitle, employmentDuration, creditScore, existingDebts);
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    private static void writeDate(DataOutputStream out, Date value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getTime());
+        }
+    }
+    
+    private static Date readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new Date(in.readLong()) : null;
+    }
+    
+    /**
+     * Buffer for the payload of a single record.
+     */
+    private static final class RecordWriter {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        final DataOutputStream data = new DataOutputStream(bytes);
+        
+        RecordWriter(byte type) {
+            try {
+                data.writeByte(type);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package ipcapstone.dao.memory;
+
+import ipcapstone.dao.ApplicationClaimedException;
+import ipcapstone.dao.DateWindow;
+import ipcapstone.dao.LoanApplicationDao;
+import ipcapstone.dao.OptimisticLockException;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+import ipcapstone.model.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * In-memory implementation of {@link LoanApplicationDao} backed by an {@link InMemoryStore}.
+ */
+public class InMemoryLoanApplicationDao implements LoanApplicationDao {
+    private final InMemoryStore store;
+    
+    /**
+     * Create a new InMemoryLoanApplicationDao.
+     * @param store The store holding the loan applications
+     */
+    public InMemoryLoanApplicationDao(InMemoryStore store) {
+        this.store = store;
+    }
+    
+    @Override
+    public List<LoanApplication> getAllLoanApplications() {
+        return getAllLoanApplications(null, null);
+    }
+    
+    @Override
+    public List<LoanApplication> getAllLoanApplications(Date from, Date to) {
+        List<LoanApplication> applications = new ArrayList<>();
+        for (LoanApplication application : store.applications.values()) {
+            if (DateWindow.contains(application.getApplicationDate(), from, to)) {
+                applications.add(withUserName(application));
+            }
+        }
+        applications.sort(Comparator.comparingInt(LoanApplication::getApplicationId));
+        return applications;
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByUserId(int userId) {
+        IntIndex index = store.applicationIdsByUser.get(userId);
+        List<LoanApplication> applications = new ArrayList<>();
+        if (index == null) {
+            return applications;
+        }
+        
+        for (int applicationId : index.toArray()) {
+            LoanApplication application = store.applications.get(applicationId);
+            if (application != null) {
+                applications.add(InMemoryStore.copyOf(application));
+            }
+        }
+        return applications;
+    }
+    
+    @Override
+    public LoanApplication getLoanApplicationById(int applicationId) {
+        LoanApplication application = store.applications.get(applicationId);
+        return application == null ? null : withUserName(application);
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status) {
+        return getLoanApplicationsByStatus(status, null, null);
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status, Date from, Date to) {
+        List<LoanApplication> applications = new ArrayList<>();
+        for (int applicationId : store.applicationIdsByStatus[status.ordinal()].toArray()) {
+            LoanApplication application = store.applications.get(applicationId);
+            // Skip rows whose status changed after the index snapshot was taken
+            if (application != null && application.getStatus() == status &&
+                    DateWindow.contains(application.getApplicationDate(), from, to)) {
+                applications.add(withUserName(application));
+            }
+        }
+        return applications;
+    }
+    
+    @Override
+    public boolean insertLoanApplication(LoanApplication application) {
+        if (!store.users.containsKey(application.getUserId()) || application.getLoanPurpose() == null ||
+                application.getStatus() == null) {
+            return false;
+        }
+        
+        LoanApplication stored = InMemoryStore.copyOf(application);
+        stored.setApplicationId(store.applicationSequence.incrementAndGet());
+        stored.setApplicationDate(new Date());
+        store.putApplication(stored);
+        
+        application.setApplicationId(stored.getApplicationId());
+        return true;
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus) {
+        return store.updateApplication(applicationId, application -> {
+            application.setStatus(newStatus);
+            return application;
+        }) != null;
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus, int expectedVersion) {
+        final int[] foundVersion = {expectedVersion};
+        LoanApplication updated = store.updateApplication(applicationId, application -> {
+            if (application.getVersion() != expectedVersion) {
+                foundVersion[0] = application.getVersion();
+                return null;
+            }
+            application.setStatus(newStatus);
+            return application;
+        });
+        if (updated == null && foundVersion[0] != expectedVersion) {
+            throw new OptimisticLockException("Loan application " + applicationId +
+                    " was changed after version " + expectedVersion);
+        }
+        return updated != null;
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus, int expectedVersion,
+            int officerId) {
+        final int[] foundVersion = {expectedVersion};
+        final int[] claimedBy = new int[1];
+        LoanApplication updated = store.updateApplication(applicationId, application -> {
+            if (application.getVersion() != expectedVersion) {
+                foundVersion[0] = application.getVersion();
+                return null;
+            }
+            claimedBy[0] = store.claimingOfficer(applicationId, officerId);
+            if (claimedBy[0] != 0) {
+                return null;
+            }
+            application.setStatus(newStatus);
+            store.claimsByApplication.remove(applicationId);
+            return application;
+        });
+        if (foundVersion[0] != expectedVersion) {
+            throw new OptimisticLockException("Loan application " + applicationId +
+                    " was changed after version " + expectedVersion);
+        }
+        if (claimedBy[0] != 0) {
+            throw new ApplicationClaimedException("Loan application " + applicationId +
+                    " is claimed by officer " + claimedBy[0]);
+        }
+        return updated != null;
+    }
+    
+    @Override
+    public boolean updateLoanApplication(LoanApplication application) {
+        if (!store.users.containsKey(application.getUserId()) || application.getLoanPurpose() == null ||
+                application.getStatus() == null) {
+            return false;
+        }
+        
+        final int expectedVersion = application.getVersion();
+        final boolean[] conflict = new boolean[1];
+        LoanApplication updated = store.updateApplication(application.getApplicationId(), stored -> {
+            if (stored.getVersion() != expectedVersion) {
+                conflict[0] = true;
+                return null;
+            }
+            stored.setUserId(application.getUserId());
+            stored.setLoanAmount(application.getLoanAmount());
+            stored.setLoanPurpose(application.getLoanPurpose());
+            stored.setDurationMonths(application.getDurationMonths());
+            stored.setInterestRate(application.getInterestRate() > 0 ? application.getInterestRate() : 0);
+            stored.setStatus(application.getStatus());
+            return stored;
+        });
+        if (conflict[0]) {
+            throw new OptimisticLockException("Loan application " + application.getApplicationId() +
+                    " was changed after version " + expectedVersion);
+        }
+        if (updated == null) {
+            return false;
+        }
+        application.setVersion(updated.getVersion());
+        return true;
+    }
+    
+    @Override
+    public List<LoanApplication> claimPendingApplications(int officerId, int limit, int leaseSeconds) {
+        long now = System.currentTimeMillis();
+        InMemoryStore.Claim lease = new InMemoryStore.Claim(officerId, now + leaseSeconds * 1000L);
+        int[] pendingIds = store.applicationIdsByStatus[LoanStatus.PENDING.ordinal()].toArray();
+        Arrays.sort(pendingIds);
+        
+        // Renew the officer's own claims first, then take unclaimed or expired applications
+        List<LoanApplication> applications = new ArrayList<>();
+        for (int applicationId : pendingIds) {
+            InMemoryStore.Claim claim = store.claimsByApplication.get(applicationId);
+            if (claim != null && claim.officerId == officerId &&
+                    store.claimsByApplication.replace(applicationId, claim, lease)) {
+                addIfPending(applications, applicationId);
+            }
+        }
+        for (int i = 0; i < pendingIds.length && applications.size() < limit; i++) {
+            int applicationId = pendingIds[i];
+            final boolean[] claimed = new boolean[1];
+            store.claimsByApplication.compute(applicationId, (id, claim) -> {
+                claimed[0] = claim == null || claim.expiresAtMillis < now;
+                return claimed[0] ? lease : claim;
+            });
+            if (claimed[0]) {
+                addIfPending(applications, applicationId);
+            }
+        }
+        return applications;
+    }
+    
+    @Override
+    public boolean releaseClaim(int applicationId, int officerId) {
+        final boolean[] released = new boolean[1];
+        store.claimsByApplication.computeIfPresent(applicationId, (id, claim) -> {
+            if (claim.officerId != officerId) {
+                return claim;
+            }
+            released[0] = true;
+            return null;
+        });
+        return released[0];
+    }
+    
+    private void addIfPending(List<LoanApplication> applications, int applicationId) {
+        LoanApplication application = store.applications.get(applicationId);
+        if (application != null && application.getStatus() == LoanStatus.PENDING) {
+            applications.add(withUserName(application));
+        } else {
+            // Decided or deleted since the index snapshot; its claim is no longer needed
+            store.claimsByApplication.remove(applicationId);
+        }
+    }
+    
+    @Override
+    public boolean deleteLoanApplication(int applicationId) {
+        // Mirror the foreign key from loan_decisions
+        IntIndex decisions = store.decisionIdsByApplication.get(applicationId);
+        if (decisions != null && !decisions.isEmpty()) {
+            return false;
+        }
+        return store.removeApplication(applicationId);
+    }
+    
+    private LoanApplication withUserName(LoanApplication application) {
+        LoanApplication copy = InMemoryStore.copyOf(application);
+        User user = store.users.get(application.getUserId());
+        if (user != null) {
+            copy.setUserName(user.getFullName());
+        }
+        InMemoryStore.Claim claim = store.claimsByApplication.get(application.getApplicationId());
+        if (claim != null) {
+            copy.setClaimedBy(claim.officerId);
+            copy.setClaimExpiresAt(new Date(claim.expiresAtMillis));
+        }
+        return copy;
+    }
+}
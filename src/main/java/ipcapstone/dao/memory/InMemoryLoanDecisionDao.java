@@ -0,0 +1,264 @@
+package ipcapstone.dao.memory;
+
+import ipcapstone.dao.ApplicationClaimedException;
+import ipcapstone.dao.DateWindow;
+import ipcapstone.dao.LoanDecisionDao;
+import ipcapstone.dao.OptimisticLockException;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+import ipcapstone.model.LoanDecision;
+import ipcapstone.model.LoanDecisionEvent;
+import ipcapstone.model.LoanDecisionEvent.EventType;
+import ipcapstone.model.User;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * In-memory implementation of {@link LoanDecisionDao} backed by an {@link InMemoryStore}.
+ */
+public class InMemoryLoanDecisionDao implements LoanDecisionDao {
+    private final InMemoryStore store;
+    
+    /**
+     * Create a new InMemoryLoanDecisionDao.
+     * @param store The store holding the loan decisions
+     */
+    public InMemoryLoanDecisionDao(InMemoryStore store) {
+        this.store = store;
+    }
+    
+    @Override
+    public List<LoanDecision> getAllLoanDecisions() {
+        return getAllLoanDecisions(null, null);
+    }
+    
+    @Override
+    public List<LoanDecision> getAllLoanDecisions(Date from, Date to) {
+        List<LoanDecision> decisions = new ArrayList<>();
+        for (LoanDecision decision : store.decisions.values()) {
+            if (DateWindow.contains(decision.getDecisionDate(), from, to)) {
+                decisions.add(withOfficerName(decision));
+            }
+        }
+        decisions.sort(Comparator.comparingInt(LoanDecision::getDecisionId));
+        return decisions;
+    }
+    
+    @Override
+    public LoanDecision getLoanDecisionByApplicationId(int applicationId) {
+        IntIndex index = store.decisionIdsByApplication.get(applicationId);
+        if (index == null) {
+            return null;
+        }
+        
+        for (int decisionId : index.toArray()) {
+            LoanDecision decision = store.decisions.get(decisionId);
+            if (decision != null) {
+                return withOfficerName(decision);
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public List<LoanDecision> getLoanDecisionsByOfficerId(int officerId) {
+        IntIndex index = store.decisionIdsByOfficer.get(officerId);
+        List<LoanDecision> decisions = new ArrayList<>();
+        if (index == null) {
+            return decisions;
+        }
+        
+        for (int decisionId : index.toArray()) {
+            LoanDecision decision = store.decisions.get(decisionId);
+            if (decision != null) {
+                decisions.add(InMemoryStore.copyOf(decision));
+            }
+        }
+        return decisions;
+    }
+    
+    @Override
+    public List<LoanDecisionEvent> getDecisionTimeline(int applicationId) {
+        List<LoanDecisionEvent> events = store.getDecisionEvents(applicationId);
+        for (LoanDecisionEvent event : events) {
+            User officer = store.users.get(event.getOfficerId());
+            if (officer != null) {
+                event.setOfficerName(officer.getFullName());
+            }
+        }
+        return events;
+    }
+    
+    @Override
+    public boolean insertLoanDecision(LoanDecision decision) {
+        LoanApplication application = store.applications.get(decision.getApplicationId());
+        if (application == null) {
+            return false;
+        }
+        return decideLoanApplication(decision, application.getVersion());
+    }
+    
+    @Override
+    public boolean decideLoanApplication(LoanDecision decision, int expectedVersion) {
+        if (!store.users.containsKey(decision.getOfficerId()) || decision.getStatus() == null) {
+            return false;
+        }
+        
+        LoanDecision stored = InMemoryStore.copyOf(decision);
+        stored.setDecisionDate(new Date());
+        stored.setVersion(0);
+        final int[] foundVersion = {expectedVersion};
+        final boolean[] decided = new boolean[1];
+        final int[] claimedBy = new int[1];
+        LoanApplication updated;
+        // Under the store lock no other decision is inserted; under the application's bin lock
+        // the status and the decision become visible together
+        synchronized (store) {
+            updated = store.updateApplication(decision.getApplicationId(), application -> {
+                IntIndex existing = store.decisionIdsByApplication.get(application.getApplicationId());
+                if (application.getVersion() != expectedVersion) {
+                    foundVersion[0] = application.getVersion();
+                    return null;
+                }
+                if (existing != null && !existing.isEmpty()) {
+                    decided[0] = true;
+                    return null;
+                }
+                claimedBy[0] = store.claimingOfficer(application.getApplicationId(), decision.getOfficerId());
+                if (claimedBy[0] != 0) {
+                    return null;
+                }
+                store.claimsByApplication.remove(application.getApplicationId());
+                application.setStatus(LoanStatus.valueOf(decision.getStatus().name()));
+                stored.setDecisionId(store.decisionSequence.incrementAndGet());
+                store.putDecision(stored);
+                store.appendDecisionEvent(new LoanDecisionEvent(stored, EventType.DECIDED));
+                return application;
+            });
+        }
+        if (foundVersion[0] != expectedVersion) {
+            throw new OptimisticLockException("Loan application " + decision.getApplicationId() +
+                    " was changed after version " + expectedVersion);
+        }
+        if (decided[0]) {
+            throw new OptimisticLockException("Loan application " + decision.getApplicationId() +
+                    " has already been decided");
+        }
+        if (claimedBy[0] != 0) {
+            throw new ApplicationClaimedException("Loan application " + decision.getApplicationId() +
+                    " is claimed by officer " + claimedBy[0]);
+        }
+        if (updated == null) {
+            return false;
+        }
+        decision.setDecisionId(stored.getDecisionId());
+        decision.setVersion(0);
+        return true;
+    }
+    
+    @Override
+    public boolean updateLoanDecision(LoanDecision decision) {
+        if (decision.getStatus() == null) {
+            return false;
+        }
+        
+        final int expectedVersion = decision.getVersion();
+        final boolean[] conflict = new boolean[1];
+        final LoanDecision[] updated = new LoanDecision[1];
+        synchronized (store) {
+            LoanDecision current = store.decisions.get(decision.getDecisionId());
+            if (current == null) {
+                return false;
+            }
+            changeDecision(current.getApplicationId(), LoanStatus.valueOf(decision.getStatus().name()), () -> {
+                updated[0] = store.updateDecision(decision.getDecisionId(), stored -> {
+                    if (stored.getVersion() != expectedVersion) {
+                        conflict[0] = true;
+                        return null;
+                    }
+                    stored.setStatus(decision.getStatus());
+                    stored.setComments(decision.getComments());
+                    return stored;
+                });
+                if (updated[0] == null) {
+                    return false;
+                }
+                store.appendDecisionEvent(new LoanDecisionEvent(updated[0], EventType.REVISED));
+                return true;
+            });
+        }
+        if (conflict[0]) {
+            throw new OptimisticLockException("Loan decision " + decision.getDecisionId() +
+                    " was changed after version " + expectedVersion);
+        }
+        if (updated[0] == null) {
+            return false;
+        }
+        decision.setVersion(updated[0].getVersion());
+        return true;
+    }
+    
+    @Override
+    public boolean deleteLoanDecision(int decisionId) {
+        final LoanDecision[] removed = new LoanDecision[1];
+        synchronized (store) {
+            LoanDecision current = store.decisions.get(decisionId);
+            if (current == null) {
+                return false;
+            }
+            // Revert the loan application status to PENDING
+            changeDecision(current.getApplicationId(), LoanStatus.PENDING, () -> {
+                removed[0] = store.removeDecision(decisionId);
+                if (removed[0] == null) {
+                    return false;
+                }
+                store.appendDecisionEvent(new LoanDecisionEvent(removed[0], EventType.WITHDRAWN));
+                return true;
+            });
+        }
+        return removed[0] != null;
+    }
+    
+    @Override
+    public LoanDecision getLoanDecisionById(int decisionId) {
+        LoanDecision decision = store.decisions.get(decisionId);
+        return decision == null ? null : InMemoryStore.copyOf(decision);
+    }
+    
+    /**
+     * Change a decision under the bin lock of its application, so the decision, its history
+     * and the application's status become visible together. Must be called holding the store
+     * lock, under which no other decision of the application is made or changed.
+     * @param applicationId The ID of the decision's application
+     * @param status The status the application takes if the decision is changed
+     * @param change Changes the decision and returns whether it was changed
+     */
+    private void changeDecision(int applicationId, LoanStatus status, BooleanSupplier change) {
+        final boolean[] found = new boolean[1];
+        store.updateApplication(applicationId, application -> {
+            found[0] = true;
+            if (!change.getAsBoolean()) {
+                return null;
+            }
+            application.setStatus(status);
+            return application;
+        });
+        if (!found[0]) {
+            // The application no longer exists; change the decision alone
+            change.getAsBoolean();
+        }
+    }
+    
+    private LoanDecision withOfficerName(LoanDecision decision) {
+        LoanDecision copy = InMemoryStore.copyOf(decision);
+        User officer = store.users.get(decision.getOfficerId());
+        if (officer != null) {
+            copy.setOfficerName(officer.getFullName());
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,117 @@
+package ipcapstone.dao.memory;
+
+import ipcapstone.dao.DateWindow;
+import ipcapstone.dao.ReportDao;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanDecision;
+import ipcapstone.model.LoanDecision.DecisionStatus;
+import ipcapstone.model.MonthlyLoanVolume;
+import ipcapstone.model.OfficerApprovalSummary;
+import ipcapstone.model.PurposeAmountSummary;
+import ipcapstone.model.User;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory implementation of {@link ReportDao} backed by an {@link InMemoryStore}.
+ * The reports are computed from the stored rows on each call.
+ */
+public class InMemoryReportDao implements ReportDao {
+    private final InMemoryStore store;
+    
+    /**
+     * Create a new InMemoryReportDao.
+     * @param store The store holding the loan applications and decisions
+     */
+    public InMemoryReportDao(InMemoryStore store) {
+        this.store = store;
+    }
+    
+    @Override
+    public List<MonthlyLoanVolume> getMonthlyVolumes(Date from, Date to) {
+        Map<Date, MonthlyLoanVolume> volumes = new TreeMap<>();
+        for (LoanApplication application : store.applications.values()) {
+            Date month = monthOf(application.getApplicationDate());
+            if (DateWindow.contains(month, from, to)) {
+                MonthlyLoanVolume volume = volumes.computeIfAbsent(month, InMemoryReportDao::newVolume);
+                volume.setApplications(volume.getApplications() + 1);
+                volume.setTotalAmount(volume.getTotalAmount() + application.getLoanAmount());
+            }
+        }
+        for (LoanDecision decision : store.decisions.values()) {
+            Date month = monthOf(decision.getDecisionDate());
+            if (DateWindow.contains(month, from, to)) {
+                MonthlyLoanVolume volume = volumes.computeIfAbsent(month, InMemoryReportDao::newVolume);
+                if (decision.getStatus() == DecisionStatus.APPROVED) {
+                    volume.setApproved(volume.getApproved() + 1);
+                } else {
+                    volume.setRejected(volume.getRejected() + 1);
+                }
+            }
+        }
+        return new ArrayList<>(volumes.values());
+    }
+    
+    @Override
+    public List<OfficerApprovalSummary> getOfficerApprovalSummaries(Date from, Date to) {
+        Map<Integer, OfficerApprovalSummary> summaries = new TreeMap<>();
+        for (LoanDecision decision : store.decisions.values()) {
+            if (DateWindow.contains(monthOf(decision.getDecisionDate()), from, to)) {
+                OfficerApprovalSummary summary = summaries.computeIfAbsent(decision.getOfficerId(),
+                        this::newOfficerSummary);
+                if (decision.getStatus() == DecisionStatus.APPROVED) {
+                    summary.setApproved(summary.getApproved() + 1);
+                } else {
+                    summary.setRejected(summary.getRejected() + 1);
+                }
+            }
+        }
+        return new ArrayList<>(summaries.values());
+    }
+    
+    @Override
+    public List<PurposeAmountSummary> getPurposeAmountSummaries(Date from, Date to) {
+        Map<String, PurposeAmountSummary> summaries = new TreeMap<>();
+        for (LoanApplication application : store.applications.values()) {
+            if (DateWindow.contains(monthOf(application.getApplicationDate()), from, to)) {
+                PurposeAmountSummary summary = summaries.computeIfAbsent(application.getLoanPurpose(),
+                        purpose -> new PurposeAmountSummary(purpose, 0, 0));
+                summary.setApplications(summary.getApplications() + 1);
+                summary.setTotalAmount(summary.getTotalAmount() + application.getLoanAmount());
+            }
+        }
+        return new ArrayList<>(summaries.values());
+    }
+    
+    private static MonthlyLoanVolume newVolume(Date month) {
+        return new MonthlyLoanVolume(month, 0, 0, 0, 0);
+    }
+    
+    private OfficerApprovalSummary newOfficerSummary(int officerId) {
+        OfficerApprovalSummary summary = new OfficerApprovalSummary(officerId, 0, 0);
+        User officer = store.users.get(officerId);
+        if (officer != null) {
+            summary.setOfficerName(officer.getFullName());
+        }
+        return summary;
+    }
+    
+    /**
+     * Get the first day of the month containing a date.
+     */
+    private static Date monthOf(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTime();
+    }
+}
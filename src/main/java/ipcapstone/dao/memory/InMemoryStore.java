@@ -0,0 +1,465 @@
+package ipcapstone.dao.memory;
+
+import ipcapstone.model.FinancialInfo;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+import ipcapstone.model.LoanDecision;
+import ipcapstone.model.LoanDecisionEvent;
+import ipcapstone.model.User;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Concurrent in-memory storage shared by the in-memory DAOs.
+ * Rows are kept in ConcurrentHashMaps keyed by ID, with primitive int indexes
+ * for the foreign key and status lookups. When opened with a journal file,
+ * every mutation is appended to it and replayed on the next open. Each record
+ * is written under the map's lock for the row it changes, so the journal holds
+ * the changes to a row in the order they were made.
+ *
+ * Stored objects are private copies; the DAOs copy them in and out so callers
+ * can never modify the store without going through a DAO.
+ */
+public class InMemoryStore implements Closeable {
+    final Map<Integer, User> users = new ConcurrentHashMap<>();
+    final Map<String, Integer> userIdsByUsername = new ConcurrentHashMap<>();
+    final Map<String, Integer> userIdsByEmail = new ConcurrentHashMap<>();
+    
+    final Map<Integer, LoanApplication> applications = new ConcurrentHashMap<>();
+    final Map<Integer, IntIndex> applicationIdsByUser = new ConcurrentHashMap<>();
+    final IntIndex[] applicationIdsByStatus = new IntIndex[LoanStatus.values().length];
+    
+    // Officers' leases on pending applications; not journaled, as leases are short-lived
+    final Map<Integer, Claim> claimsByApplication = new ConcurrentHashMap<>();
+    
+    final Map<Integer, LoanDecision> decisions = new ConcurrentHashMap<>();
+    final Map<Integer, IntIndex> decisionIdsByApplication = new ConcurrentHashMap<>();
+    final Map<Integer, IntIndex> decisionIdsByOfficer = new ConcurrentHashMap<>();
+    // Append-only decision history per application, oldest first
+    final Map<Integer, List<LoanDecisionEvent>> decisionEventsByApplication = new ConcurrentHashMap<>();
+    
+    final Map<Integer, FinancialInfo> financialInfoByUser = new ConcurrentHashMap<>();
+    
+    final AtomicInteger userSequence = new AtomicInteger();
+    final AtomicInteger applicationSequence = new AtomicInteger();
+    final AtomicInteger decisionSequence = new AtomicInteger();
+    final AtomicLong decisionEventSequence = new AtomicLong();
+    final AtomicInteger financialInfoSequence = new AtomicInteger();
+    
+    // Attached after replay, so replayed records are not written again
+    private InMemoryJournal journal;
+    
+    /**
+     * Create an empty store without persistence.
+     */
+    public InMemoryStore() {
+        for (int i = 0; i < applicationIdsByStatus.length; i++) {
+            applicationIdsByStatus[i] = new IntIndex();
+        }
+    }
+    
+    /**
+     * Open a store persisted to an append-only journal file.
+     * Existing records in the file are replayed into the store.
+     * @param journalFile The journal file, created if it does not exist
+     * @return The opened store
+     * @throws IOException if the journal cannot be read or written
+     */
+    public static InMemoryStore open(File journalFile) throws IOException {
+        InMemoryStore store = new InMemoryStore();
+        store.journal = InMemoryJournal.open(journalFile, store);
+        return store;
+    }
+    
+    /**
+     * Check whether the store holds no users.
+     * @return true if the store is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return users.isEmpty();
+    }
+    
+    /**
+     * Close the journal of a persistent store.
+     * @throws IOException if the journal cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+    
+    // Users
+    
+    void putUser(User user) {
+        final User stored = copyOf(user);
+        users.compute(stored.getUserId(), (id, previous) -> {
+            if (previous != null) {
+                userIdsByUsername.remove(previous.getUsername(), id);
+                userIdsByEmail.remove(previous.getEmail(), id);
+            }
+            userIdsByUsername.put(stored.getUsername(), id);
+            userIdsByEmail.put(stored.getEmail(), id);
+            if (journal != null) {
+                journal.writeUser(stored);
+            }
+            return stored;
+        });
+    }
+    
+    void replayUser(User user) {
+        putUser(user);
+        advance(userSequence, user.getUserId());
+    }
+    
+    boolean removeUser(int userId) {
+        final boolean[] removed = new boolean[1];
+        users.computeIfPresent(userId, (id, previous) -> {
+            userIdsByUsername.remove(previous.getUsername(), id);
+            userIdsByEmail.remove(previous.getEmail(), id);
+            if (journal != null) {
+                journal.writeUserRemoval(id);
+            }
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+    
+    // Loan applications
+    
+    void putApplication(LoanApplication application) {
+        final LoanApplication stored = copyOf(application);
+        stored.setUserName(null);
+        applications.compute(stored.getApplicationId(), (id, previous) -> {
+            reindexApplication(previous, stored);
+            if (journal != null) {
+                journal.writeApplication(stored);
+            }
+            return stored;
+        });
+    }
+    
+    void replayApplication(LoanApplication application) {
+        putApplication(application);
+        advance(applicationSequence, application.getApplicationId());
+    }
+    
+    /**
+     * Atomically update a stored loan application.
+     * @param applicationId The ID of the application to update
+     * @param mutator Receives a copy of the stored application and returns the new
+     *                version, or null to leave the application unchanged
+     * @return The new version of the application, or null if it was not found or not changed
+     */
+    LoanApplication updateApplication(int applicationId, UnaryOperator<LoanApplication> mutator) {
+        final LoanApplication[] result = new LoanApplication[1];
+        applications.computeIfPresent(applicationId, (id, previous) -> {
+            LoanApplication updated = mutator.apply(copyOf(previous));
+            if (updated == null) {
+                return previous;
+            }
+            updated.setApplicationId(id);
+            updated.setVersion(previous.getVersion() + 1);
+            reindexApplication(previous, updated);
+            if (journal != null) {
+                journal.writeApplication(updated);
+            }
+            result[0] = updated;
+            return updated;
+        });
+        return result[0];
+    }
+    
+    boolean removeApplication(int applicationId) {
+        final boolean[] removed = new boolean[1];
+        applications.computeIfPresent(applicationId, (id, previous) -> {
+            reindexApplication(previous, null);
+            if (journal != null) {
+                journal.writeApplicationRemoval(id);
+            }
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+    
+    private void reindexApplication(LoanApplication previous, LoanApplication current) {
+        if (previous != null) {
+            if (current == null || previous.getUserId() != current.getUserId()) {
+                IntIndex byUser = applicationIdsByUser.get(previous.getUserId());
+                if (byUser != null) {
+                    byUser.remove(previous.getApplicationId());
+                }
+            }
+            if (current == null || previous.getStatus() != current.getStatus()) {
+                applicationIdsByStatus[previous.getStatus().ordinal()].remove(previous.getApplicationId());
+            }
+        }
+        if (current != null) {
+            index(applicationIdsByUser, current.getUserId()).add(current.getApplicationId());
+            applicationIdsByStatus[current.getStatus().ordinal()].add(current.getApplicationId());
+        }
+    }
+    
+    // Loan decisions
+    
+    void putDecision(LoanDecision decision) {
+        final LoanDecision stored = copyOf(decision);
+        stored.setOfficerName(null);
+        decisions.compute(stored.getDecisionId(), (id, previous) -> {
+            reindexDecision(previous, stored);
+            if (journal != null) {
+                journal.writeDecision(stored);
+            }
+            return stored;
+        });
+    }
+    
+    void replayDecision(LoanDecision decision) {
+        putDecision(decision);
+        advance(decisionSequence, decision.getDecisionId());
+    }
+    
+    /**
+     * Atomically update a stored loan decision.
+     * @param decisionId The ID of the decision to update
+     * @param mutator Receives a copy of the stored decision and returns the new
+     *                version, or null to leave the decision unchanged
+     * @return The new version of the decision, or null if it was not found or not changed
+     */
+    LoanDecision updateDecision(int decisionId, UnaryOperator<LoanDecision> mutator) {
+        final LoanDecision[] result = new LoanDecision[1];
+        decisions.computeIfPresent(decisionId, (id, previous) -> {
+            LoanDecision updated = mutator.apply(copyOf(previous));
+            if (updated == null) {
+                return previous;
+            }
+            updated.setDecisionId(id);
+            updated.setVersion(previous.getVersion() + 1);
+            reindexDecision(previous, updated);
+            if (journal != null) {
+                journal.writeDecision(updated);
+            }
+            result[0] = updated;
+            return updated;
+        });
+        return result[0];
+    }
+    
+    LoanDecision removeDecision(int decisionId) {
+        final LoanDecision[] removed = new LoanDecision[1];
+        decisions.computeIfPresent(decisionId, (id, previous) -> {
+            reindexDecision(previous, null);
+            if (journal != null) {
+                journal.writeDecisionRemoval(id);
+            }
+            removed[0] = previous;
+            return null;
+        });
+        return removed[0];
+    }
+    
+    /**
+     * Append an event to the decision history of its application.
+     * @param event The event; its ID is assigned here
+     */
+    void appendDecisionEvent(LoanDecisionEvent event) {
+        event.setEventId(decisionEventSequence.incrementAndGet());
+        putDecisionEvent(event);
+    }
+    
+    void replayDecisionEvent(LoanDecisionEvent event) {
+        putDecisionEvent(event);
+        if (decisionEventSequence.get() < event.getEventId()) {
+            decisionEventSequence.set(event.getEventId());
+        }
+    }
+    
+    private void putDecisionEvent(LoanDecisionEvent event) {
+        final LoanDecisionEvent stored = copyOf(event);
+        stored.setOfficerName(null);
+        decisionEventsByApplication.compute(stored.getApplicationId(), (id, events) -> {
+            List<LoanDecisionEvent> appended = events == null ? new ArrayList<>() : events;
+            appended.add(stored);
+            if (journal != null) {
+                journal.writeDecisionEvent(stored);
+            }
+            return appended;
+        });
+    }
+    
+    /**
+     * Get the decision history of an application.
+     * @param applicationId The ID of the application
+     * @return Copies of the application's events, oldest first
+     */
+    List<LoanDecisionEvent> getDecisionEvents(int applicationId) {
+        List<LoanDecisionEvent> copies = new ArrayList<>();
+        // Read under the map's bin lock, so no event is appended while the list is copied
+        decisionEventsByApplication.computeIfPresent(applicationId, (id, events) -> {
+            for (LoanDecisionEvent event : events) {
+                copies.add(copyOf(event));
+            }
+            return events;
+        });
+        return copies;
+    }
+    
+    private void reindexDecision(LoanDecision previous, LoanDecision current) {
+        if (previous != null) {
+            if (current == null || previous.getApplicationId() != current.getApplicationId()) {
+                IntIndex byApplication = decisionIdsByApplication.get(previous.getApplicationId());
+                if (byApplication != null) {
+                    byApplication.remove(previous.getDecisionId());
+                }
+            }
+            if (current == null || previous.getOfficerId() != current.getOfficerId()) {
+                IntIndex byOfficer = decisionIdsByOfficer.get(previous.getOfficerId());
+                if (byOfficer != null) {
+                    byOfficer.remove(previous.getDecisionId());
+                }
+            }
+        }
+        if (current != null) {
+            index(decisionIdsByApplication, current.getApplicationId()).add(current.getDecisionId());
+            index(decisionIdsByOfficer, current.getOfficerId()).add(current.getDecisionId());
+        }
+    }
+    
+    // Financial information
+    
+    void putFinancialInfo(FinancialInfo financialInfo) {
+        final FinancialInfo stored = copyOf(financialInfo);
+        financialInfoByUser.compute(stored.getUserId(), (id, previous) -> {
+            if (journal != null) {
+                journal.writeFinancialInfo(stored);
+            }
+            return stored;
+        });
+    }
+    
+    void replayFinancialInfo(FinancialInfo financialInfo) {
+        putFinancialInfo(financialInfo);
+        advance(financialInfoSequence, financialInfo.getFinancialInfoId());
+    }
+    
+    boolean removeFinancialInfo(int userId) {
+        final boolean[] removed = new boolean[1];
+        financialInfoByUser.computeIfPresent(userId, (id, previous) -> {
+            if (journal != null) {
+                journal.writeFinancialInfoRemoval(id);
+            }
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+    
+    // Claims
+    
+    /**
+     * Find the officer other than the given one holding an unexpired claim on an application.
+     * @param applicationId The ID of the application
+     * @param officerId The ID of the officer deciding the application
+     * @return The ID of the claiming officer, or 0 if no other officer holds a claim
+     */
+    int claimingOfficer(int applicationId, int officerId) {
+        Claim claim = claimsByApplication.get(applicationId);
+        if (claim == null || claim.officerId == officerId || claim.expiresAtMillis < System.currentTimeMillis()) {
+            return 0;
+        }
+        return claim.officerId;
+    }
+    
+    // Helpers
+    
+    private static IntIndex index(Map<Integer, IntIndex> indexes, int key) {
+        IntIndex index = indexes.get(key);
+        return index != null ? index : indexes.computeIfAbsent(key, k -> new IntIndex());
+    }
+    
+    private static void advance(AtomicInteger sequence, int id) {
+        int current;
+        while ((current = sequence.get()) < id) {
+            if (sequence.compareAndSet(current, id)) {
+                return;
+            }
+        }
+    }
+    
+    static User copyOf(User user) {
+        return new User(user.getUserId(), user.getUsername(), user.getPassword(), user.getFullName(),
+                user.getEmail(), user.getPhone(), user.getAddress(), copyOf(user.getRegistrationDate()),
+                user.getUserType());
+    }
+    
+    static LoanApplication copyOf(LoanApplication application) {
+        LoanApplication copy = new LoanApplication(application.getApplicationId(), application.getUserId(),
+                application.getLoanAmount(), application.getLoanPurpose(),
+                copyOf(application.getApplicationDate()), application.getDurationMonths(),
+                application.getInterestRate(), application.getStatus());
+        copy.setUserName(application.getUserName());
+        copy.setVersion(application.getVersion());
+        return copy;
+    }
+    
+    static LoanDecision copyOf(LoanDecision decision) {
+        LoanDecision copy = new LoanDecision(decision.getDecisionId(), decision.getApplicationId(),
+                decision.getOfficerId(), copyOf(decision.getDecisionDate()), decision.getStatus(),
+                decision.getComments());
+        copy.setOfficerName(decision.getOfficerName());
+        copy.setVersion(decision.getVersion());
+        return copy;
+    }
+    
+    static LoanDecisionEvent copyOf(LoanDecisionEvent event) {
+        LoanDecisionEvent copy = new LoanDecisionEvent();
+        copy.setEventId(event.getEventId());
+        copy.setApplicationId(event.getApplicationId());
+        copy.setDecisionId(event.getDecisionId());
+        copy.setOfficerId(event.getOfficerId());
+        copy.setEventType(event.getEventType());
+        copy.setStatus(event.getStatus());
+        copy.setComments(event.getComments());
+        copy.setEventTime(copyOf(event.getEventTime()));
+        copy.setOfficerName(event.getOfficerName());
+        return copy;
+    }
+    
+    static FinancialInfo copyOf(FinancialInfo financialInfo) {
+        return new FinancialInfo(financialInfo.getFinancialInfoId(), financialInfo.getUserId(),
+                financialInfo.getAnnualIncome(), financialInfo.getEmploymentStatus(),
+                financialInfo.getEmployerName(), financialInfo.getJobTitle(),
+                financialInfo.getEmploymentDuration(), financialInfo.getCreditScore(),
+                financialInfo.getExistingDebts());
+    }
+    
+    private static Date copyOf(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+    
+    /**
+     * An officer's lease on a pending loan application.
+     */
+    static final class Claim {
+        final int officerId;
+        final long expiresAtMillis;
+        
+        Claim(int officerId, long expiresAtMillis) {
+            this.officerId = officerId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ipcapstone.dao.memory;
+
+import ipcapstone.dao.UserDao;
+import ipcapstone.model.User;
+import ipcapstone.model.User.UserType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * In-memory implementation of {@link UserDao} backed by an {@link InMemoryStore}.
+ */
+public class InMemoryUserDao implements UserDao {
+    private final InMemoryStore store;
+    
+    /**
+     * Create a new InMemoryUserDao.
+     * @param store The store holding the users
+     */
+    public InMemoryUserDao(InMemoryStore store) {
+        this.store = store;
+    }
+    
+    @Override
+    public User authenticateUser(String username, String password) {
+        Integer userId = username == null ? null : store.userIdsByUsername.get(username);
+        User user = userId == null ? null : store.users.get(userId);
+        
+        if (user != null && user.getPassword().equals(password)) {
+            return InMemoryStore.copyOf(user);
+        }
+        return null;
+    }
+    
+    @Override
+    public User getUserById(int userId) {
+        User user = store.users.get(userId);
+        return user == null ? null : InMemoryStore.copyOf(user);
+    }
+    
+    @Override
+    public List<User> getUsersByType(UserType userType) {
+        List<User> users = new ArrayList<>();
+        for (User user : store.users.values()) {
+            if (user.getUserType() == userType) {
+                users.add(InMemoryStore.copyOf(user));
+            }
+        }
+        users.sort(Comparator.comparingInt(User::getUserId));
+        return users;
+    }
+    
+    @Override
+    public boolean insertUser(User user) {
+        if (user.getUsername() == null || user.getPassword() == null || user.getFullName() == null ||
+                user.getEmail() == null || user.getUserType() == null) {
+            return false;
+        }
+        
+        int userId = store.userSequence.incrementAndGet();
+        
+        // Reserve the unique username and email before the user becomes visible
+        if (store.userIdsByUsername.putIfAbsent(user.getUsername(), userId) != null) {
+            return false;
+        }
+        if (store.userIdsByEmail.putIfAbsent(user.getEmail(), userId) != null) {
+            store.userIdsByUsername.remove(user.getUsername(), userId);
+            return false;
+        }
+        
+        User stored = InMemoryStore.copyOf(user);
+        stored.setUserId(userId);
+        stored.setRegistrationDate(new Date());
+        store.putUser(stored);
+        
+        user.setUserId(userId);
+        return true;
+    }
+    
+    @Override
+    public boolean updateUser(User user) {
+        User existing = store.users.get(user.getUserId());
+        if (existing == null || user.getPassword() == null || user.getFullName() == null ||
+                user.getEmail() == null) {
+            return false;
+        }
+        
+        boolean emailChanged = !existing.getEmail().equals(user.getEmail());
+        if (emailChanged && store.userIdsByEmail.putIfAbsent(user.getEmail(), user.getUserId()) != null) {
+            return false;
+        }
+        
+        User updated = InMemoryStore.copyOf(existing);
+        updated.setPassword(user.getPassword());
+        updated.setFullName(user.getFullName());
+        updated.setEmail(user.getEmail());
+        updated.setPhone(user.getPhone());
+        updated.setAddress(user.getAddress());
+        store.putUser(updated);
+        return true;
+    }
+    
+    @Override
+    public boolean deleteUser(int userId) {
+        // Mirror the foreign keys of the database schema
+        IntIndex applications = store.applicationIdsByUser.get(userId);
+        IntIndex decisions = store.decisionIdsByOfficer.get(userId);
+        if ((applications != null && !applications.isEmpty()) ||
+                (decisions != null && !decisions.isEmpty()) ||
+                store.financialInfoByUser.containsKey(userId)) {
+            return false;
+        }
+        
+        return store.removeUser(userId);
+    }
+    
+    @Override
+    public boolean usernameExists(String username) {
+        return username != null && store.userIdsByUsername.containsKey(username);
+    }
+}
@@ -0,0 +1,77 @@
+package ipcapstone.dao.memory;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of primitive int IDs used as a secondary index by the in-memory store.
+ * IDs are mostly added in increasing order, which is an append.
+ */
+final class IntIndex {
+    private static final int[] EMPTY = new int[0];
+    
+    private int[] ids = new int[4];
+    private int size;
+    
+    /**
+     * Add an ID to the index.
+     * @param id The ID to add
+     */
+    synchronized void add(int id) {
+        int position;
+        if (size == 0 || id > ids[size - 1]) {
+            position = size;
+        } else {
+            position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+        }
+        
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+    
+    /**
+     * Remove an ID from the index.
+     * @param id The ID to remove
+     * @return true if the ID was present, false otherwise
+     */
+    synchronized boolean remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+    
+    /**
+     * Get the smallest ID in the index.
+     * @return The smallest ID, or -1 if the index is empty
+     */
+    synchronized int first() {
+        return size == 0 ? -1 : ids[0];
+    }
+    
+    /**
+     * Check whether the index is empty.
+     * @return true if the index holds no IDs, false otherwise
+     */
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Get a snapshot of the IDs in ascending order.
+     * @return The IDs in the index
+     */
+    synchronized int[] toArray() {
+        return size == 0 ? EMPTY : Arrays.copyOf(ids, size);
+    }
+}
@@ -0,0 +1,72 @@
+package ipcapstone.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Records latencies of a single operation type.
+ * A recorder is owned by one simulated user and is not thread-safe;
+ * recorders are merged once the load run has finished.
+ */
+public class LatencyRecorder {
+    private long[] latencies = new long[64];
+    private int count;
+    private int failures;
+    
+    /**
+     * Record a completed operation.
+     * @param latencyNanos The latency of the operation in nanoseconds
+     * @param success true if the operation succeeded, false otherwise
+     */
+    public void record(long latencyNanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!success) {
+            failures++;
+        }
+    }
+    
+    /**
+     * Merge the latencies of another recorder into this one.
+     * @param other The recorder to merge
+     */
+    public void merge(LatencyRecorder other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        failures += other.failures;
+    }
+    
+    /**
+     * Get the number of recorded operations.
+     * @return The operation count
+     */
+    public int getCount() {
+        return count;
+    }
+    
+    /**
+     * Get the number of failed operations.
+     * @return The failure count
+     */
+    public int getFailures() {
+        return failures;
+    }
+    
+    /**
+     * Get the latency at a given percentile.
+     * @param percentile The percentile between 0 and 100
+     * @return The latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(latencies, 0, count);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return latencies[Math.max(0, Math.min(index, count - 1))];
+    }
+}
@@ -0,0 +1,481 @@
+package ipcapstone.loadtest;
+
+import ipcapstone.controller.AuthenticationController;
+import ipcapstone.controller.FinancialInfoController;
+import ipcapstone.controller.LoanApplicationController;
+import ipcapstone.controller.LoanDecisionController;
+import ipcapstone.dao.DatabaseConnection;
+import ipcapstone.dao.FinancialInfoDao;
+import ipcapstone.dao.JdbcFinancialInfoDao;
+import ipcapstone.dao.JdbcLoanApplicationDao;
+import ipcapstone.dao.JdbcLoanDecisionDao;
+import ipcapstone.dao.JdbcUserDao;
+import ipcapstone.dao.LoanApplicationDao;
+import ipcapstone.dao.LoanDecisionDao;
+import ipcapstone.dao.OptimisticLockException;
+import ipcapstone.dao.UserDao;
+import ipcapstone.dao.memory.InMemoryFinancialInfoDao;
+import ipcapstone.dao.memory.InMemoryLoanApplicationDao;
+import ipcapstone.dao.memory.InMemoryLoanDecisionDao;
+import ipcapstone.dao.memory.InMemoryStore;
+import ipcapstone.dao.memory.InMemoryUserDao;
+import ipcapstone.model.FinancialInfo;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+import ipcapstone.model.User;
+import ipcapstone.model.User.UserType;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Headless load generator for the Bank Loan Management System.
+ * Simulates concurrent customers and loan officers driving the controllers
+ * against MySQL or the in-memory store, and reports throughput,
+ * latency percentiles and InnoDB lock-wait/deadlock counts.
+ *
+ * Usage: LoadGenerator [--customers N] [--officers M] [--iterations K] [--backend mysql|memory]
+ *                      [--assignment list|queue]
+ */
+public class LoadGenerator {
+    
+    // Operations measured by the load generator
+    enum Operation {
+        REGISTER, APPLY, CHECK_STATUS, LIST_PENDING, CLAIM, REVIEW, DECIDE
+    }
+    
+    private static final String[] EMPLOYMENT_STATUSES = {
+        "Full-time", "Part-time", "Self-employed", "Retired", "Unemployed"
+    };
+    
+    private static final int MAX_CONSECUTIVE_FAILURES = 50;
+    private static final int CLAIM_BATCH_SIZE = 5;
+    
+    private final int customers;
+    private final int officers;
+    private final int iterations;
+    private final boolean useMysql;
+    private final boolean useQueue;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    
+    private final AuthenticationController authController;
+    private final FinancialInfoController financialInfoController;
+    private final LoanApplicationController loanController;
+    private final LoanDecisionController decisionController;
+    
+    private final CountDownLatch customersDone;
+    
+    /**
+     * Create a new LoadGenerator.
+     * @param customers Number of simulated customers
+     * @param officers Number of simulated loan officers
+     * @param iterations Number of loan applications submitted per customer
+     * @param useMysql true to run against MySQL, false to use the in-memory store
+     */
+    public LoadGenerator(int customers, int officers, int iterations, boolean useMysql) {
+        this(customers, officers, iterations, useMysql, false);
+    }
+    
+    /**
+     * Create a new LoadGenerator.
+     * @param customers Number of simulated customers
+     * @param officers Number of simulated loan officers
+     * @param iterations Number of loan applications submitted per customer
+     * @param useMysql true to run against MySQL, false to use the in-memory store
+     * @param useQueue true for officers to claim applications from the work queue,
+     *                 false to pick them from the shared pending list
+     */
+    public LoadGenerator(int customers, int officers, int iterations, boolean useMysql, boolean useQueue) {
+        this.customers = customers;
+        this.officers = officers;
+        this.iterations = iterations;
+        this.useMysql = useMysql;
+        this.useQueue = useQueue;
+        this.customersDone = new CountDownLatch(customers);
+        
+        UserDao userDao;
+        FinancialInfoDao financialInfoDao;
+        LoanApplicationDao loanApplicationDao;
+        LoanDecisionDao loanDecisionDao;
+        
+        if (useMysql) {
+            userDao = new JdbcUserDao();
+            financialInfoDao = new JdbcFinancialInfoDao();
+            loanApplicationDao = new JdbcLoanApplicationDao();
+            loanDecisionDao = new JdbcLoanDecisionDao();
+        } else {
+            InMemoryStore store = new InMemoryStore();
+            userDao = new InMemoryUserDao(store);
+            financialInfoDao = new InMemoryFinancialInfoDao(store);
+            loanApplicationDao = new InMemoryLoanApplicationDao(store);
+            loanDecisionDao = new InMemoryLoanDecisionDao(store);
+        }
+        
+        this.authController = new AuthenticationController(userDao);
+        this.financialInfoController = new FinancialInfoController(financialInfoDao);
+        this.loanController = new LoanApplicationController(loanApplicationDao);
+        this.decisionController = new LoanDecisionController(loanDecisionDao, loanApplicationDao);
+    }
+    
+    /**
+     * Main method to run the load generator.
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) throws Exception {
+        int customers = 50;
+        int officers = 5;
+        int iterations = 10;
+        boolean useMysql = false;
+        boolean useQueue = false;
+        
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--customers":
+                    customers = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--officers":
+                    officers = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--backend":
+                    useMysql = args[i + 1].equalsIgnoreCase("mysql");
+                    break;
+                case "--assignment":
+                    useQueue = args[i + 1].equalsIgnoreCase("queue");
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+        
+        if (useMysql && !DatabaseConnection.testConnection()) {
+            System.err.println("Cannot run against MySQL: database connection failed.");
+            return;
+        }
+        
+        new LoadGenerator(customers, officers, iterations, useMysql, useQueue).run();
+    }
+    
+    /**
+     * Run the simulation and print the report.
+     */
+    public void run() throws InterruptedException, ExecutionException {
+        long[] lockStatsBefore = useMysql ? readLockStats() : null;
+        
+        List<Future<LatencyRecorder[]>> futures = new ArrayList<>();
+        ExecutorService executor = newExecutor(customers + officers);
+        long start = System.nanoTime();
+        
+        try {
+            for (int i = 0; i < customers; i++) {
+                final int customerIndex = i;
+                futures.add(executor.submit(new Callable<LatencyRecorder[]>() {
+                    @Override
+                    public LatencyRecorder[] call() {
+                        try {
+                            return simulateCustomer(customerIndex);
+                        } finally {
+                            customersDone.countDown();
+                            releaseConnections();
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < officers; i++) {
+                final int officerIndex = i;
+                futures.add(executor.submit(new Callable<LatencyRecorder[]>() {
+                    @Override
+                    public LatencyRecorder[] call() throws InterruptedException {
+                        try {
+                            return simulateOfficer(officerIndex);
+                        } finally {
+                            releaseConnections();
+                        }
+                    }
+                }));
+            }
+            
+            LatencyRecorder[] totals = newRecorders();
+            for (Future<LatencyRecorder[]> future : futures) {
+                LatencyRecorder[] recorders = future.get();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i].merge(recorders[i]);
+                }
+            }
+            
+            long elapsedNanos = System.nanoTime() - start;
+            long[] lockStatsAfter = useMysql ? readLockStats() : null;
+            printReport(totals, elapsedNanos, lockStatsBefore, lockStatsAfter);
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Simulate a customer: register, then repeatedly apply for a loan and check its status.
+     */
+    private LatencyRecorder[] simulateCustomer(int customerIndex) {
+        LatencyRecorder[] recorders = newRecorders();
+        Random random = new Random(customerIndex);
+        
+        final User customer = new User("lt_" + runId + "_c" + customerIndex, "password",
+                "Load Test Customer " + customerIndex, "lt_" + runId + "_c" + customerIndex + "@example.com",
+                UserType.USER);
+        boolean registered = timed(recorders[Operation.REGISTER.ordinal()],
+                () -> authController.registerUser(customer));
+        if (!registered) {
+            return recorders;
+        }
+        
+        FinancialInfo financialInfo = new FinancialInfo(customer.getUserId(), 20000 + random.nextInt(120000),
+                EMPLOYMENT_STATUSES[random.nextInt(EMPLOYMENT_STATUSES.length)]);
+        financialInfo.setEmploymentDuration(random.nextInt(120));
+        financialInfo.setCreditScore(500 + random.nextInt(350));
+        financialInfo.setExistingDebts(random.nextInt(40000));
+        financialInfoController.saveFinancialInfo(financialInfo);
+        
+        for (int i = 0; i < iterations; i++) {
+            final LoanApplication application = new LoanApplication(customer.getUserId(),
+                    5000 + random.nextInt(500000), "Load test purpose " + i, 12 * (1 + random.nextInt(10)));
+            application.setInterestRate(6.5 + random.nextInt(60) / 10.0);
+            
+            timed(recorders[Operation.APPLY.ordinal()],
+                    () -> loanController.createLoanApplication(application));
+            timed(recorders[Operation.CHECK_STATUS.ordinal()],
+                    () -> !loanController.getLoanApplicationsByUserId(customer.getUserId()).isEmpty());
+        }
+        
+        return recorders;
+    }
+    
+    /**
+     * Simulate an officer: list pending applications, review one and decide on it,
+     * until the customers are done and no pending applications are left.
+     */
+    private LatencyRecorder[] simulateOfficer(int officerIndex) throws InterruptedException {
+        LatencyRecorder[] recorders = newRecorders();
+        Random random = new Random(-1 - officerIndex);
+        
+        final User officer = new User("lt_" + runId + "_o" + officerIndex, "password",
+                "Load Test Officer " + officerIndex, "lt_" + runId + "_o" + officerIndex + "@example.com",
+                UserType.OFFICER);
+        boolean registered = timed(recorders[Operation.REGISTER.ordinal()],
+                () -> authController.registerUser(officer));
+        if (!registered) {
+            return recorders;
+        }
+        
+        if (useQueue) {
+            return drainQueue(officer, recorders);
+        }
+        
+        int consecutiveFailures = 0;
+        while (consecutiveFailures < MAX_CONSECUTIVE_FAILURES) {
+            long start = System.nanoTime();
+            List<LoanApplication> pending = loanController.getLoanApplicationsByStatus(LoanStatus.PENDING);
+            recorders[Operation.LIST_PENDING.ordinal()].record(System.nanoTime() - start, true);
+            
+            if (pending.isEmpty()) {
+                if (customersDone.getCount() == 0) {
+                    break;
+                }
+                Thread.sleep(1);
+                continue;
+            }
+            
+            LoanApplication candidate = pending.get(random.nextInt(Math.min(pending.size(), officers)));
+            boolean decided = reviewAndDecide(officer, candidate, recorders);
+            consecutiveFailures = decided ? 0 : consecutiveFailures + 1;
+        }
+        
+        return recorders;
+    }
+    
+    /**
+     * Simulate an officer working the queue: claim a batch of pending applications and
+     * decide on each of them, until the customers are done and the queue is empty.
+     */
+    private LatencyRecorder[] drainQueue(User officer, LatencyRecorder[] recorders) throws InterruptedException {
+        int consecutiveFailures = 0;
+        while (consecutiveFailures < MAX_CONSECUTIVE_FAILURES) {
+            long start = System.nanoTime();
+            List<LoanApplication> claimed = loanController.claimNextApplications(officer.getUserId(),
+                    CLAIM_BATCH_SIZE);
+            recorders[Operation.CLAIM.ordinal()].record(System.nanoTime() - start, true);
+            
+            if (claimed.isEmpty()) {
+                if (customersDone.getCount() == 0) {
+                    break;
+                }
+                Thread.sleep(1);
+                continue;
+            }
+            
+            for (LoanApplication candidate : claimed) {
+                boolean decided = reviewAndDecide(officer, candidate, recorders);
+                consecutiveFailures = decided ? 0 : consecutiveFailures + 1;
+            }
+        }
+        
+        return recorders;
+    }
+    
+    /**
+     * Review an application and decide on it.
+     * @return true if the decision was made, or another officer decided first
+     */
+    private boolean reviewAndDecide(User officer, LoanApplication candidate, LatencyRecorder[] recorders) {
+        final int[] score = new int[1];
+        final int[] version = new int[1];
+        boolean reviewed = timed(recorders[Operation.REVIEW.ordinal()], () -> {
+            LoanApplication application = loanController.getLoanApplicationById(candidate.getApplicationId());
+            score[0] = financialInfoController.calculateCreditWorthinessScore(candidate.getUserId());
+            if (application == null) {
+                return false;
+            }
+            version[0] = application.getVersion();
+            return true;
+        });
+        if (!reviewed) {
+            return false;
+        }
+        
+        // Officers racing for the same application is expected; the loser simply moves on
+        return timed(recorders[Operation.DECIDE.ordinal()], () -> {
+            try {
+                return decisionController.processLoanApplication(candidate.getApplicationId(),
+                        version[0], officer.getUserId(), score[0] >= 50, "Load test decision");
+            } catch (OptimisticLockException e) {
+                return true;
+            }
+        });
+    }
+    
+    /**
+     * Run an operation and record its latency.
+     */
+    private static boolean timed(LatencyRecorder recorder, BooleanSupplier operation) {
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            success = operation.getAsBoolean();
+        } catch (RuntimeException e) {
+            success = false;
+        }
+        recorder.record(System.nanoTime() - start, success);
+        return success;
+    }
+    
+    private static LatencyRecorder[] newRecorders() {
+        LatencyRecorder[] recorders = new LatencyRecorder[Operation.values().length];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new LatencyRecorder();
+        }
+        return recorders;
+    }
+    
+    /**
+     * Close the connections the DAOs opened for the current simulated user.
+     * Every simulated user runs on its own thread and so on its own connections.
+     */
+    private void releaseConnections() {
+        if (useMysql) {
+            DatabaseConnection.releaseThreadConnections();
+        }
+    }
+    
+    /**
+     * Create an executor running each simulated user on a virtual thread when the
+     * JVM supports them (Java 21+), falling back to a platform thread pool otherwise.
+     */
+    private static ExecutorService newExecutor(int threads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            System.out.println("Running simulated users on virtual threads");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads not available, using " + threads + " platform threads");
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+    
+    /**
+     * Read the InnoDB row lock wait, lock wait timeout and deadlock counters.
+     * @return {lock waits, lock wait timeouts, deadlocks}, or null if they cannot be read
+     */
+    private static long[] readLockStats() {
+        String sql = "SELECT " +
+                     "(SELECT VARIABLE_VALUE FROM performance_schema.global_status " +
+                     "WHERE VARIABLE_NAME = 'Innodb_row_lock_waits'), " +
+                     "(SELECT `COUNT` FROM information_schema.INNODB_METRICS WHERE NAME = 'lock_timeouts'), " +
+                     "(SELECT `COUNT` FROM information_schema.INNODB_METRICS WHERE NAME = 'lock_deadlocks')";
+        
+        try (Connection conn = DatabaseConnection.openConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            if (rs.next()) {
+                return new long[] {rs.getLong(1), rs.getLong(2), rs.getLong(3)};
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading InnoDB lock statistics: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Print throughput, latency percentiles and lock statistics.
+     */
+    private void printReport(LatencyRecorder[] totals, long elapsedNanos, long[] lockStatsBefore,
+                             long[] lockStatsAfter) {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        int totalOperations = 0;
+        
+        System.out.println();
+        System.out.printf("Backend: %s, customers: %d, officers: %d, applications per customer: %d, " +
+                "assignment: %s%n", useMysql ? "MySQL" : "in-memory", customers, officers, iterations,
+                useQueue ? "queue" : "list");
+        System.out.printf("Elapsed: %.2f s%n%n", elapsedSeconds);
+        System.out.printf("%-14s %9s %8s %10s %10s %10s %10s %10s%n",
+                "Operation", "Count", "Failed", "Ops/s", "p50 (ms)", "p90 (ms)", "p99 (ms)", "Max (ms)");
+        
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder recorder = totals[operation.ordinal()];
+            totalOperations += recorder.getCount();
+            System.out.printf("%-14s %9d %8d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                    operation, recorder.getCount(), recorder.getFailures(),
+                    recorder.getCount() / elapsedSeconds,
+                    recorder.getPercentile(50) / 1e6, recorder.getPercentile(90) / 1e6,
+                    recorder.getPercentile(99) / 1e6, recorder.getPercentile(100) / 1e6);
+        }
+        
+        System.out.printf("%nTotal throughput: %.1f ops/s%n", totalOperations / elapsedSeconds);
+        System.out.printf("Decision conflicts: %d%n", LoanDecisionController.getConflictCount());
+        
+        if (lockStatsBefore != null && lockStatsAfter != null) {
+            System.out.printf("InnoDB row lock waits: %d, lock wait timeouts: %d, deadlocks: %d%n",
+                    lockStatsAfter[0] - lockStatsBefore[0],
+                    lockStatsAfter[1] - lockStatsBefore[1],
+                    lockStatsAfter[2] - lockStatsBefore[2]);
+        } else if (useMysql) {
+            System.out.println("InnoDB lock statistics not available");
+        }
+    }
+}
@@ -18,6 +18,16 @@ public class LoanApplication {
     // User's name for display purposes (not stored in DB)
     private String userName;
     
+    // Client-generated key that makes repeated submissions of the same application idempotent
+    private String idempotencyKey;
+    
+    // Incremented by every update; an update based on an older version is rejected
+    private int version;
+    
+    // Officer holding a lease on the pending application (0 for none), and when the lease ends
+    private int claimedBy;
+    private Date claimExpiresAt;
+    
     // Enum for loan status
     public enum LoanStatus {
         PENDING, APPROVED, REJECTED
@@ -125,8 +135,50 @@ public class LoanApplication {
         this.userName = userName;
     }
     
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+    
+    public int getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(int claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+    
+    public Date getClaimExpiresAt() {
+        return claimExpiresAt;
+    }
+
+    public void setClaimExpiresAt(Date claimExpiresAt) {
+        this.claimExpiresAt = claimExpiresAt;
+    }
+    
+    // Check whether an officer other than the given one holds an unexpired claim
+    public boolean isClaimedByOther(int officerId) {
+        return claimedBy != 0 && claimedBy != officerId && claimExpiresAt != null && claimExpiresAt.after(new Date());
+    }
+    
     // Calculate monthly payment
     public double calculateMonthlyPayment() {
+        return calculateMonthlyPayment(loanAmount, interestRate, durationMonths);
+    }
+    
+    // Calculate the monthly payment of an amortising loan at an annual interest rate in percent
+    public static double calculateMonthlyPayment(double loanAmount, double interestRate, int durationMonths) {
         double monthlyRate = interestRate / 100.0 / 12.0;
         double payment = loanAmount * monthlyRate * Math.pow(1 + monthlyRate, durationMonths) / 
                         (Math.pow(1 + monthlyRate, durationMonths) - 1);
@@ -13,6 +13,9 @@ public class LoanDecision {
     private DecisionStatus status;
     private String comments;
     
+    // Incremented by every update; an update based on an older version is rejected
+    private int version;
+    
     // Officer's name for display purposes (not stored in DB)
     private String officerName;
     
@@ -94,6 +97,14 @@ public class LoanDecision {
         this.comments = comments;
     }
     
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+    
     public String getOfficerName() {
         return officerName;
     }
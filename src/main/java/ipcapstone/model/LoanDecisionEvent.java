@@ -0,0 +1,130 @@
+package ipcapstone.model;
+
+import ipcapstone.model.LoanDecision.DecisionStatus;
+
+import java.util.Date;
+
+/**
+ * An entry in the decision history of a loan application. Events are only ever
+ * appended, so the history survives decisions being revised or withdrawn.
+ */
+public class LoanDecisionEvent {
+    private long eventId;
+    private int applicationId;
+    private int decisionId;
+    private int officerId;
+    private EventType eventType;
+    private DecisionStatus status;
+    private String comments;
+    private Date eventTime;
+    
+    // Officer's name for display purposes (not stored in DB)
+    private String officerName;
+    
+    // Enum for what happened to the decision
+    public enum EventType {
+        DECIDED, REVISED, WITHDRAWN
+    }
+    
+    // Default constructor
+    public LoanDecisionEvent() {
+        this.eventTime = new Date();
+    }
+    
+    // Constructor recording an event for a decision
+    public LoanDecisionEvent(LoanDecision decision, EventType eventType) {
+        this.applicationId = decision.getApplicationId();
+        this.decisionId = decision.getDecisionId();
+        this.officerId = decision.getOfficerId();
+        this.eventType = eventType;
+        this.status = decision.getStatus();
+        this.comments = decision.getComments();
+        this.eventTime = new Date();
+    }
+    
+    // Getters and Setters
+    public long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
+
+    public int getApplicationId() {
+        return applicationId;
+    }
+
+    public void setApplicationId(int applicationId) {
+        this.applicationId = applicationId;
+    }
+
+    public int getDecisionId() {
+        return decisionId;
+    }
+
+    public void setDecisionId(int decisionId) {
+        this.decisionId = decisionId;
+    }
+
+    public int getOfficerId() {
+        return officerId;
+    }
+
+    public void setOfficerId(int officerId) {
+        this.officerId = officerId;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(EventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public DecisionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DecisionStatus status) {
+        this.status = status;
+    }
+
+    public String getComments() {
+        return comments;
+    }
+
+    public void setComments(String comments) {
+        this.comments = comments;
+    }
+
+    public Date getEventTime() {
+        return eventTime;
+    }
+
+    public void setEventTime(Date eventTime) {
+        this.eventTime = eventTime;
+    }
+
+    public String getOfficerName() {
+        return officerName;
+    }
+
+    public void setOfficerName(String officerName) {
+        this.officerName = officerName;
+    }
+    
+    @Override
+    public String toString() {
+        return "LoanDecisionEvent{" +
+                "eventId=" + eventId +
+                ", applicationId=" + applicationId +
+                ", decisionId=" + decisionId +
+                ", officerId=" + officerId +
+                ", eventType=" + eventType +
+                ", status=" + status +
+                ", eventTime=" + eventTime +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package ipcapstone.model;
+
+import java.util.Date;
+
+/**
+ * Loan application and decision counts for one calendar month.
+ */
+public class MonthlyLoanVolume {
+    private Date month;
+    private int applications;
+    private double totalAmount;
+    private int approved;
+    private int rejected;
+    
+    // Default constructor
+    public MonthlyLoanVolume() {
+    }
+    
+    // Full constructor
+    public MonthlyLoanVolume(Date month, int applications, double totalAmount, int approved, int rejected) {
+        this.month = month;
+        this.applications = applications;
+        this.totalAmount = totalAmount;
+        this.approved = approved;
+        this.rejected = rejected;
+    }
+    
+    // Getters and Setters
+    public Date getMonth() {
+        return month;
+    }
+
+    public void setMonth(Date month) {
+        this.month = month;
+    }
+
+    public int getApplications() {
+        return applications;
+    }
+
+    public void setApplications(int applications) {
+        this.applications = applications;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public int getApproved() {
+        return approved;
+    }
+
+    public void setApproved(int approved) {
+        this.approved = approved;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+    
+    @Override
+    public String toString() {
+        return "MonthlyLoanVolume{" +
+                "month=" + month +
+                ", applications=" + applications +
+                ", totalAmount=" + totalAmount +
+                ", approved=" + approved +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package ipcapstone.model;
+
+/**
+ * The decisions made by one loan officer.
+ */
+public class OfficerApprovalSummary {
+    private int officerId;
+    private int approved;
+    private int rejected;
+    
+    // Officer's name for display purposes (not stored in DB)
+    private String officerName;
+    
+    // Default constructor
+    public OfficerApprovalSummary() {
+    }
+    
+    // Full constructor
+    public OfficerApprovalSummary(int officerId, int approved, int rejected) {
+        this.officerId = officerId;
+        this.approved = approved;
+        this.rejected = rejected;
+    }
+    
+    // Getters and Setters
+    public int getOfficerId() {
+        return officerId;
+    }
+
+    public void setOfficerId(int officerId) {
+        this.officerId = officerId;
+    }
+
+    public int getApproved() {
+        return approved;
+    }
+
+    public void setApproved(int approved) {
+        this.approved = approved;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public String getOfficerName() {
+        return officerName;
+    }
+
+    public void setOfficerName(String officerName) {
+        this.officerName = officerName;
+    }
+    
+    /**
+     * Get the share of the officer's decisions that were approvals.
+     * @return The approval rate between 0 and 1, or 0 if there are no decisions
+     */
+    public double getApprovalRate() {
+        int decisions = approved + rejected;
+        return decisions == 0 ? 0 : (double) approved / decisions;
+    }
+    
+    @Override
+    public String toString() {
+        return "OfficerApprovalSummary{" +
+                "officerId=" + officerId +
+                ", officerName='" + officerName + '\'' +
+                ", approved=" + approved +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
@@ -0,0 +1,130 @@
+package ipcapstone.model;
+
+/**
+ * Distribution of credit losses and net interest income over the simulated paths
+ * completed so far. All amounts are totals over the whole loan book.
+ */
+public class PortfolioSimulationResult {
+    private int pathsCompleted;
+    private int totalPaths;
+    private int loanCount;
+    private double totalPrincipal;
+    private double expectedLoss;
+    private double lossP50;
+    private double lossP95;
+    private double lossP99;
+    private double expectedNetIncome;
+    private double netIncomeP5;
+    private double netIncomeP50;
+    
+    // Default constructor
+    public PortfolioSimulationResult() {
+    }
+    
+    // Getters and Setters
+    public int getPathsCompleted() {
+        return pathsCompleted;
+    }
+
+    public void setPathsCompleted(int pathsCompleted) {
+        this.pathsCompleted = pathsCompleted;
+    }
+
+    public int getTotalPaths() {
+        return totalPaths;
+    }
+
+    public void setTotalPaths(int totalPaths) {
+        this.totalPaths = totalPaths;
+    }
+
+    public int getLoanCount() {
+        return loanCount;
+    }
+
+    public void setLoanCount(int loanCount) {
+        this.loanCount = loanCount;
+    }
+
+    public double getTotalPrincipal() {
+        return totalPrincipal;
+    }
+
+    public void setTotalPrincipal(double totalPrincipal) {
+        this.totalPrincipal = totalPrincipal;
+    }
+
+    public double getExpectedLoss() {
+        return expectedLoss;
+    }
+
+    public void setExpectedLoss(double expectedLoss) {
+        this.expectedLoss = expectedLoss;
+    }
+
+    public double getLossP50() {
+        return lossP50;
+    }
+
+    public void setLossP50(double lossP50) {
+        this.lossP50 = lossP50;
+    }
+
+    public double getLossP95() {
+        return lossP95;
+    }
+
+    public void setLossP95(double lossP95) {
+        this.lossP95 = lossP95;
+    }
+
+    public double getLossP99() {
+        return lossP99;
+    }
+
+    public void setLossP99(double lossP99) {
+        this.lossP99 = lossP99;
+    }
+
+    public double getExpectedNetIncome() {
+        return expectedNetIncome;
+    }
+
+    public void setExpectedNetIncome(double expectedNetIncome) {
+        this.expectedNetIncome = expectedNetIncome;
+    }
+
+    public double getNetIncomeP5() {
+        return netIncomeP5;
+    }
+
+    public void setNetIncomeP5(double netIncomeP5) {
+        this.netIncomeP5 = netIncomeP5;
+    }
+
+    public double getNetIncomeP50() {
+        return netIncomeP50;
+    }
+
+    public void setNetIncomeP50(double netIncomeP50) {
+        this.netIncomeP50 = netIncomeP50;
+    }
+    
+    // Whether all requested paths have been simulated
+    public boolean isComplete() {
+        return pathsCompleted == totalPaths;
+    }
+    
+    @Override
+    public String toString() {
+        return "PortfolioSimulationResult{" +
+                "pathsCompleted=" + pathsCompleted +
+                ", totalPaths=" + totalPaths +
+                ", loanCount=" + loanCount +
+                ", expectedLoss=" + expectedLoss +
+                ", lossP95=" + lossP95 +
+                ", lossP99=" + lossP99 +
+                ", expectedNetIncome=" + expectedNetIncome +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package ipcapstone.model;
+
+/**
+ * The loan applications submitted for one loan purpose.
+ */
+public class PurposeAmountSummary {
+    private String loanPurpose;
+    private int applications;
+    private double totalAmount;
+    
+    // Default constructor
+    public PurposeAmountSummary() {
+    }
+    
+    // Full constructor
+    public PurposeAmountSummary(String loanPurpose, int applications, double totalAmount) {
+        this.loanPurpose = loanPurpose;
+        this.applications = applications;
+        this.totalAmount = totalAmount;
+    }
+    
+    // Getters and Setters
+    public String getLoanPurpose() {
+        return loanPurpose;
+    }
+
+    public void setLoanPurpose(String loanPurpose) {
+        this.loanPurpose = loanPurpose;
+    }
+
+    public int getApplications() {
+        return applications;
+    }
+
+    public void setApplications(int applications) {
+        this.applications = applications;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    /**
+     * Get the average requested loan amount.
+     * @return The average amount, or 0 if there are no applications
+     */
+    public double getAverageAmount() {
+        return applications == 0 ? 0 : totalAmount / applications;
+    }
+    
+    @Override
+    public String toString() {
+        return "PurposeAmountSummary{" +
+                "loanPurpose='" + loanPurpose + '\'' +
+                ", applications=" + applications +
+                ", totalAmount=" + totalAmount +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package ipcapstone.model;
+
+/**
+ * Stress assumptions for a Monte Carlo simulation of the approved loan book.
+ * Default probabilities are given per credit score band, from the lowest band
+ * (scores below 600, or no credit score) to the highest (750 and above).
+ */
+public class SimulationScenario {
+    private double[] annualDefaultProbabilities = {0.08, 0.05, 0.03, 0.015, 0.007};
+    private double defaultMultiplier = 1.0;
+    private double rateShock;
+    private double paymentShockSensitivity = 1.0;
+    private double annualPrepaymentRate = 0.05;
+    private double lossGivenDefault = 0.45;
+    
+    // Default constructor
+    public SimulationScenario() {
+    }
+    
+    // Getters and Setters
+    public double[] getAnnualDefaultProbabilities() {
+        return annualDefaultProbabilities.clone();
+    }
+
+    public void setAnnualDefaultProbabilities(double[] annualDefaultProbabilities) {
+        this.annualDefaultProbabilities = annualDefaultProbabilities.clone();
+    }
+
+    public double getDefaultMultiplier() {
+        return defaultMultiplier;
+    }
+
+    public void setDefaultMultiplier(double defaultMultiplier) {
+        this.defaultMultiplier = defaultMultiplier;
+    }
+
+    // Percentage points added to the interest rate of every loan
+    public double getRateShock() {
+        return rateShock;
+    }
+
+    public void setRateShock(double rateShock) {
+        this.rateShock = rateShock;
+    }
+
+    // Relative increase in default probability per relative increase in the monthly payment
+    public double getPaymentShockSensitivity() {
+        return paymentShockSensitivity;
+    }
+
+    public void setPaymentShockSensitivity(double paymentShockSensitivity) {
+        this.paymentShockSensitivity = paymentShockSensitivity;
+    }
+
+    public double getAnnualPrepaymentRate() {
+        return annualPrepaymentRate;
+    }
+
+    public void setAnnualPrepaymentRate(double annualPrepaymentRate) {
+        this.annualPrepaymentRate = annualPrepaymentRate;
+    }
+
+    public double getLossGivenDefault() {
+        return lossGivenDefault;
+    }
+
+    public void setLossGivenDefault(double lossGivenDefault) {
+        this.lossGivenDefault = lossGivenDefault;
+    }
+    
+    @Override
+    public String toString() {
+        return "SimulationScenario{" +
+                "defaultMultiplier=" + defaultMultiplier +
+                ", rateShock=" + rateShock +
+                ", paymentShockSensitivity=" + paymentShockSensitivity +
+                ", annualPrepaymentRate=" + annualPrepaymentRate +
+                ", lossGivenDefault=" + lossGivenDefault +
+                '}';
+    }
+}
@@ -0,0 +1,611 @@
+package ipcapstone.search;
+
+import ipcapstone.dao.LoanApplicationDao;
+import ipcapstone.dao.UserDao;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.User;
+import ipcapstone.model.User.UserType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index of loan applications over the applicant's full name and
+ * email and the loan purpose.
+ * Query words match index terms exactly, as a prefix, or (for words of four or more
+ * letters) with one typo: a missing, extra, wrong or swapped letter. Typo candidates
+ * are found through a deletion index (every term is also indexed under each variant
+ * with one letter deleted), so no scan of the dictionary is needed. Every query word
+ * must match; applications are ranked by the quality of their matches, weighting
+ * names above emails above purposes.
+ * <p>
+ * The index is loaded from the DAOs on the first search and then kept current by the
+ * indexing DAOs; it is safe for concurrent use. Applications written without going
+ * through the indexing DAOs, such as those replayed from the journal, stored on shards
+ * or submitted on other instances, are picked up by the scheduled rebuilds. A rebuild
+ * loads a new copy of the index without holding the lock, so searches and updates carry
+ * on against the old copy until the new one is swapped in.
+ */
+public class ApplicationSearchIndex {
+    private static final int NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int PURPOSE = 4;
+    
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_PREFIX_TERMS = 64;
+    
+    private static final double EXACT_SCORE = 1.0;
+    private static final double PREFIX_SCORE = 0.7;
+    private static final double FUZZY_SCORE = 0.5;
+    
+    private final UserDao userDao;
+    private final LoanApplicationDao loanApplicationDao;
+    
+    // Guarded by lock
+    private Contents contents = new Contents();
+    private boolean loaded;
+    // Updates made while a rebuild is loading, replayed onto the new contents; null when no rebuild is running
+    private List<Consumer<Contents>> updatesDuringRebuild;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes rebuilds, which run without holding lock
+    private final Object rebuildLock = new Object();
+    
+    /**
+     * Create a new ApplicationSearchIndex.
+     * @param userDao The DAO the applicants are loaded from
+     * @param loanApplicationDao The DAO the loan applications are loaded from
+     */
+    public ApplicationSearchIndex(UserDao userDao, LoanApplicationDao loanApplicationDao) {
+        this.userDao = userDao;
+        this.loanApplicationDao = loanApplicationDao;
+    }
+    
+    /**
+     * The indexed terms of an application's own fields.
+     */
+    private static final class IndexedApplication {
+        private final int userId;
+        private final List<String> purposeTerms;
+        
+        private IndexedApplication(int userId, List<String> purposeTerms) {
+            this.userId = userId;
+            this.purposeTerms = purposeTerms;
+        }
+    }
+    
+    /**
+     * The indexed terms of an applicant, shared by all of the applicant's applications.
+     */
+    private static final class IndexedUser {
+        private List<String> nameTerms = Collections.emptyList();
+        private List<String> emailTerms = Collections.emptyList();
+        private final Set<Integer> applicationIds = new HashSet<>();
+    }
+    
+    /**
+     * The postings, deletion index and indexed fields making up one copy of the index.
+     */
+    private static final class Contents {
+        // Term -> (application ID -> bit mask of the fields containing the term)
+        private final TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+        // Term with one letter deleted -> terms it was derived from
+        private final Map<String, Set<String>> deletions = new HashMap<>();
+        
+        private final Map<Integer, IndexedApplication> applications = new HashMap<>();
+        private final Map<Integer, IndexedUser> users = new HashMap<>();
+        
+        private Map<Integer, Double> matchWord(String word) {
+            Map<Integer, Double> scores = new HashMap<>();
+            
+            addMatches(scores, postings.get(word), EXACT_SCORE);
+            
+            if (word.length() >= MIN_PREFIX_LENGTH) {
+                int expanded = 0;
+                for (Map.Entry<String, Map<Integer, Integer>> entry
+                        : postings.subMap(word, false, word + Character.MAX_VALUE, false).entrySet()) {
+                    if (++expanded > MAX_PREFIX_TERMS) {
+                        break;
+                    }
+                    addMatches(scores, entry.getValue(), PREFIX_SCORE);
+                }
+            }
+            
+            if (word.length() >= MIN_FUZZY_LENGTH) {
+                for (String term : fuzzyCandidates(word)) {
+                    addMatches(scores, postings.get(term), FUZZY_SCORE);
+                }
+            }
+            return scores;
+        }
+        
+        /**
+         * Find the terms within one edit of a word using the deletion index.
+         */
+        private Set<String> fuzzyCandidates(String word) {
+            Set<String> candidates = new HashSet<>();
+            List<String> wordDeletions = deletionsOf(word);
+            
+            // A letter missing from the word
+            addAll(candidates, deletions.get(word));
+            for (String deletion : wordDeletions) {
+                // An extra letter in the word
+                if (postings.containsKey(deletion)) {
+                    candidates.add(deletion);
+                }
+                // A wrong or swapped letter
+                addAll(candidates, deletions.get(deletion));
+            }
+            
+            candidates.remove(word);
+            candidates.removeIf(term -> !withinOneEdit(word, term));
+            return candidates;
+        }
+        
+        private void removeUser(int userId) {
+            IndexedUser indexed = users.remove(userId);
+            if (indexed != null) {
+                for (int applicationId : indexed.applicationIds) {
+                    removeTerms(indexed.nameTerms, applicationId, NAME);
+                    removeTerms(indexed.emailTerms, applicationId, EMAIL);
+                }
+            }
+        }
+        
+        private void putUser(User user) {
+            IndexedUser indexed = users.get(user.getUserId());
+            if (indexed == null) {
+                indexed = new IndexedUser();
+                users.put(user.getUserId(), indexed);
+            }
+            
+            List<String> nameTerms = tokenize(user.getFullName());
+            List<String> emailTerms = tokenize(user.getEmail());
+            for (int applicationId : indexed.applicationIds) {
+                removeTerms(indexed.nameTerms, applicationId, NAME);
+                removeTerms(indexed.emailTerms, applicationId, EMAIL);
+                addTerms(nameTerms, applicationId, NAME);
+                addTerms(emailTerms, applicationId, EMAIL);
+            }
+            indexed.nameTerms = nameTerms;
+            indexed.emailTerms = emailTerms;
+        }
+        
+        private void putApplication(LoanApplication application) {
+            int applicationId = application.getApplicationId();
+            removeApplication(applicationId);
+            
+            IndexedApplication indexed = new IndexedApplication(application.getUserId(),
+                    tokenize(application.getLoanPurpose()));
+            applications.put(applicationId, indexed);
+            addTerms(indexed.purposeTerms, applicationId, PURPOSE);
+            
+            IndexedUser user = users.get(application.getUserId());
+            if (user == null) {
+                // The applicant is not known yet; index the name shown with the application
+                user = new IndexedUser();
+                user.nameTerms = tokenize(application.getUserName());
+                users.put(application.getUserId(), user);
+            }
+            user.applicationIds.add(applicationId);
+            addTerms(user.nameTerms, applicationId, NAME);
+            addTerms(user.emailTerms, applicationId, EMAIL);
+        }
+        
+        private void removeApplication(int applicationId) {
+            IndexedApplication indexed = applications.remove(applicationId);
+            if (indexed == null) {
+                return;
+            }
+            
+            removeTerms(indexed.purposeTerms, applicationId, PURPOSE);
+            IndexedUser user = users.get(indexed.userId);
+            if (user != null) {
+                user.applicationIds.remove(applicationId);
+                removeTerms(user.nameTerms, applicationId, NAME);
+                removeTerms(user.emailTerms, applicationId, EMAIL);
+            }
+        }
+        
+        private void addTerms(List<String> terms, int applicationId, int field) {
+            for (String term : terms) {
+                Map<Integer, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    posting = new HashMap<>();
+                    postings.put(term, posting);
+                    if (term.length() >= MIN_FUZZY_LENGTH - 1) {
+                        for (String deletion : deletionsOf(term)) {
+                            deletions.computeIfAbsent(deletion, key -> new HashSet<>()).add(term);
+                        }
+                    }
+                }
+                posting.merge(applicationId, field, (a, b) -> a | b);
+            }
+        }
+        
+        private void removeTerms(List<String> terms, int applicationId, int field) {
+            for (String term : terms) {
+                Map<Integer, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                
+                Integer fields = posting.get(applicationId);
+                if (fields != null) {
+                    int remaining = fields & ~field;
+                    if (remaining == 0) {
+                        posting.remove(applicationId);
+                    } else {
+                        posting.put(applicationId, remaining);
+                    }
+                }
+                
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    for (String deletion : deletionsOf(term)) {
+                        Set<String> derived = deletions.get(deletion);
+                        if (derived != null && derived.remove(term) && derived.isEmpty()) {
+                            deletions.remove(deletion);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reload the index from the DAOs, replacing its contents.
+     * The DAOs are read without holding the lock; updates made meanwhile are applied
+     * to the new contents before they replace the old ones.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                updatesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            
+            Contents rebuilt = new Contents();
+            try {
+                for (User user : userDao.getUsersByType(UserType.USER)) {
+                    rebuilt.putUser(user);
+                }
+                for (LoanApplication application : loanApplicationDao.getAllLoanApplications()) {
+                    rebuilt.putApplication(application);
+                }
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    updatesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            
+            lock.writeLock().lock();
+            try {
+                for (Consumer<Contents> update : updatesDuringRebuild) {
+                    update.accept(rebuilt);
+                }
+                updatesDuringRebuild = null;
+                contents = rebuilt;
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    /**
+     * Rebuild the index at a fixed interval on a background thread.
+     * Nothing is rebuilt until the first search has loaded the index.
+     * @param intervalMinutes The number of minutes between rebuilds
+     */
+    public void scheduleRebuild(long intervalMinutes) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "search-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        executor.scheduleWithFixedDelay(() -> {
+            lock.readLock().lock();
+            try {
+                if (!loaded) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                System.err.println("Error rebuilding search index: " + e.getMessage());
+            }
+        }, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+    
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        synchronized (rebuildLock) {
+            if (!isLoaded()) {
+                rebuild();
+            }
+        }
+    }
+    
+    private boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Apply an update to the index, and to the contents being loaded if a rebuild is running.
+     * Must be called holding the write lock.
+     */
+    private void applyLocked(Consumer<Contents> update) {
+        // Until the first search loads the index there is nothing to keep current
+        if (loaded) {
+            update.accept(contents);
+        }
+        if (updatesDuringRebuild != null) {
+            updatesDuringRebuild.add(update);
+        }
+    }
+    
+    /**
+     * Add or replace an applicant's name and email, reindexing their applications.
+     * @param user The applicant
+     */
+    public void putUser(User user) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(current -> current.putUser(user));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove an applicant's name and email from the index.
+     * @param userId The ID of the applicant
+     */
+    public void removeUser(int userId) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(current -> current.removeUser(userId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Add or replace a loan application.
+     * @param application The loan application; ignored if it has no ID yet
+     */
+    public void putApplication(LoanApplication application) {
+        if (application.getApplicationId() <= 0) {
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            applyLocked(current -> current.putApplication(application));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove a loan application from the index.
+     * @param applicationId The ID of the loan application
+     */
+    public void removeApplication(int applicationId) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(current -> current.removeApplication(applicationId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Find the loan applications best matching a query.
+     * @param query The words to search for
+     * @param limit The maximum number of results
+     * @return The IDs of the matching applications, best match first
+     */
+    public List<Integer> search(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (String word : words) {
+                Map<Integer, Double> wordScores = contents.matchWord(word);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    // Every word must match: keep the applications matched by all words so far
+                    Map<Integer, Double> combined = new HashMap<>();
+                    for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                        Double score = wordScores.get(entry.getKey());
+                        if (score != null) {
+                            combined.put(entry.getKey(), entry.getValue() + score);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Get the number of indexed applications.
+     * @return The application count
+     */
+    public int size() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return contents.applications.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static void addAll(Set<String> target, Set<String> terms) {
+        if (terms != null) {
+            target.addAll(terms);
+        }
+    }
+    
+    private static void addMatches(Map<Integer, Double> scores, Map<Integer, Integer> posting, double matchScore) {
+        if (posting == null) {
+            return;
+        }
+        for (Map.Entry<Integer, Integer> entry : posting.entrySet()) {
+            double score = matchScore * fieldWeight(entry.getValue());
+            scores.merge(entry.getKey(), score, Math::max);
+        }
+    }
+    
+    private static double fieldWeight(int fields) {
+        if ((fields & NAME) != 0) {
+            return 3;
+        }
+        return (fields & EMAIL) != 0 ? 2 : 1;
+    }
+    
+    private static List<Integer> topK(Map<Integer, Double> scores, int limit) {
+        // Newer applications (higher IDs) win ties
+        PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(limit + 1, (a, b) -> {
+            int byScore = Double.compare(a.getValue(), b.getValue());
+            return byScore != 0 ? byScore : Integer.compare(a.getKey(), b.getKey());
+        });
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            heap.add(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        
+        List<Integer> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().getKey());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+    
+    /**
+     * Split text into lower-case words of letters and digits.
+     * @param text The text to split, may be null
+     * @return The distinct words in order of appearance
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        List<String> words = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = lower.substring(start, i);
+                if (!words.contains(word)) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+    
+    private static List<String> deletionsOf(String term) {
+        List<String> result = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            String deletion = term.substring(0, i) + term.substring(i + 1);
+            if (!result.contains(deletion)) {
+                result.add(deletion);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Check whether two words differ by at most one insertion, deletion,
+     * substitution or transposition of adjacent letters.
+     */
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDifference = a.length() - b.length();
+        if (Math.abs(lengthDifference) > 1) {
+            return false;
+        }
+        
+        int prefix = 0;
+        int limit = Math.min(a.length(), b.length());
+        while (prefix < limit && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix == limit) {
+            return true;
+        }
+        
+        if (lengthDifference > 0) {
+            return a.substring(prefix + 1).equals(b.substring(prefix));
+        } else if (lengthDifference < 0) {
+            return a.substring(prefix).equals(b.substring(prefix + 1));
+        }
+        if (a.substring(prefix + 1).equals(b.substring(prefix + 1))) {
+            return true;
+        }
+        return prefix + 1 < a.length() && a.charAt(prefix) == b.charAt(prefix + 1) &&
+                a.charAt(prefix + 1) == b.charAt(prefix) && a.substring(prefix + 2).equals(b.substring(prefix + 2));
+    }
+}
@@ -0,0 +1,113 @@
+package ipcapstone.search;
+
+import ipcapstone.dao.LoanApplicationDao;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * {@link LoanApplicationDao} that keeps an {@link ApplicationSearchIndex} current.
+ * Successful inserts, updates and deletes are applied to the index after they reach
+ * the delegate. Applications that were journaled have no ID yet and are indexed when
+ * the index is next rebuilt.
+ */
+public class IndexingLoanApplicationDao implements LoanApplicationDao {
+    private final LoanApplicationDao delegate;
+    private final ApplicationSearchIndex index;
+    
+    /**
+     * Create a new IndexingLoanApplicationDao.
+     * @param delegate The DAO that stores the loan applications
+     * @param index The index to update
+     */
+    public IndexingLoanApplicationDao(LoanApplicationDao delegate, ApplicationSearchIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+    
+    @Override
+    public List<LoanApplication> getAllLoanApplications() {
+        return delegate.getAllLoanApplications();
+    }
+    
+    @Override
+    public List<LoanApplication> getAllLoanApplications(Date from, Date to) {
+        return delegate.getAllLoanApplications(from, to);
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByUserId(int userId) {
+        return delegate.getLoanApplicationsByUserId(userId);
+    }
+    
+    @Override
+    public LoanApplication getLoanApplicationById(int applicationId) {
+        return delegate.getLoanApplicationById(applicationId);
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status) {
+        return delegate.getLoanApplicationsByStatus(status);
+    }
+    
+    @Override
+    public List<LoanApplication> getLoanApplicationsByStatus(LoanStatus status, Date from, Date to) {
+        return delegate.getLoanApplicationsByStatus(status, from, to);
+    }
+    
+    @Override
+    public boolean insertLoanApplication(LoanApplication application) {
+        if (delegate.insertLoanApplication(application)) {
+            index.putApplication(application);
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus) {
+        // The status is not indexed
+        return delegate.updateLoanApplicationStatus(applicationId, newStatus);
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus, int expectedVersion) {
+        return delegate.updateLoanApplicationStatus(applicationId, newStatus, expectedVersion);
+    }
+    
+    @Override
+    public boolean updateLoanApplicationStatus(int applicationId, LoanStatus newStatus, int expectedVersion,
+            int officerId) {
+        return delegate.updateLoanApplicationStatus(applicationId, newStatus, expectedVersion, officerId);
+    }
+    
+    @Override
+    public boolean updateLoanApplication(LoanApplication application) {
+        if (delegate.updateLoanApplication(application)) {
+            index.putApplication(application);
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public List<LoanApplication> claimPendingApplications(int officerId, int limit, int leaseSeconds) {
+        return delegate.claimPendingApplications(officerId, limit, leaseSeconds);
+    }
+    
+    @Override
+    public boolean releaseClaim(int applicationId, int officerId) {
+        return delegate.releaseClaim(applicationId, officerId);
+    }
+    
+    @Override
+    public boolean deleteLoanApplication(int applicationId) {
+        if (delegate.deleteLoanApplication(applicationId)) {
+            index.removeApplication(applicationId);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+package ipcapstone.search;
+
+import ipcapstone.dao.UserDao;
+import ipcapstone.model.User;
+import ipcapstone.model.User.UserType;
+
+import java.util.List;
+
+/**
+ * {@link UserDao} that keeps the applicant names and emails in an
+ * {@link ApplicationSearchIndex} current.
+ */
+public class IndexingUserDao implements UserDao {
+    private final UserDao delegate;
+    private final ApplicationSearchIndex index;
+    
+    /**
+     * Create a new IndexingUserDao.
+     * @param delegate The DAO that stores the users
+     * @param index The index to update
+     */
+    public IndexingUserDao(UserDao delegate, ApplicationSearchIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+    
+    @Override
+    public User authenticateUser(String username, String password) {
+        return delegate.authenticateUser(username, password);
+    }
+    
+    @Override
+    public User getUserById(int userId) {
+        return delegate.getUserById(userId);
+    }
+    
+    @Override
+    public List<User> getUsersByType(UserType userType) {
+        return delegate.getUsersByType(userType);
+    }
+    
+    @Override
+    public boolean insertUser(User user) {
+        if (delegate.insertUser(user)) {
+            index.putUser(user);
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public boolean updateUser(User user) {
+        if (delegate.updateUser(user)) {
+            index.putUser(user);
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public boolean deleteUser(int userId) {
+        if (delegate.deleteUser(userId)) {
+            index.removeUser(userId);
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public boolean usernameExists(String username) {
+        return delegate.usernameExists(username);
+    }
+}
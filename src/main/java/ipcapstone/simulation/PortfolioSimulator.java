@@ -0,0 +1,343 @@
+package ipcapstone.simulation;
+
+import ipcapstone.controller.PortfolioSimulationController;
+import ipcapstone.model.FinancialInfo;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.PortfolioSimulationResult;
+import ipcapstone.model.SimulationScenario;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Monte Carlo simulator of credit losses and interest income on a book of approved loans.
+ *
+ * The book is copied into primitive arrays once. Each simulated path draws, for every loan,
+ * the month of its first default or prepayment from a geometric distribution, so a path costs
+ * one or two random numbers per loan rather than one per loan per month. Paths are split
+ * over a fork/join pool; every task gets its own SplittableRandom split from its parent, so
+ * the results for a given seed do not depend on the number of threads.
+ */
+public class PortfolioSimulator {
+    // Lower bounds of the credit score bands above the lowest one
+    private static final int[] SCORE_BAND_LIMITS = {600, 650, 700, 750};
+    
+    // Paths simulated by one fork/join task without splitting further
+    private static final int PATHS_PER_TASK = 1024;
+    
+    private final ForkJoinPool pool;
+    
+    private final int loanCount;
+    private final double[] principal;
+    private final double[] interestRate;
+    private final int[] durationMonths;
+    private final int[] scoreBand;
+    private final double totalPrincipal;
+    
+    /**
+     * Create a new PortfolioSimulator running on the common fork/join pool.
+     * @param loans The approved loans to simulate
+     * @param financialInfoByUser The financial information of the borrowers, by user ID
+     */
+    public PortfolioSimulator(List<LoanApplication> loans, Map<Integer, FinancialInfo> financialInfoByUser) {
+        this(loans, financialInfoByUser, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Create a new PortfolioSimulator running on the given fork/join pool.
+     * @param loans The approved loans to simulate
+     * @param financialInfoByUser The financial information of the borrowers, by user ID
+     * @param pool The pool the paths are simulated on
+     */
+    public PortfolioSimulator(List<LoanApplication> loans, Map<Integer, FinancialInfo> financialInfoByUser,
+                              ForkJoinPool pool) {
+        this.pool = pool;
+        this.loanCount = loans.size();
+        this.principal = new double[loanCount];
+        this.interestRate = new double[loanCount];
+        this.durationMonths = new int[loanCount];
+        this.scoreBand = new int[loanCount];
+        
+        double total = 0;
+        for (int i = 0; i < loanCount; i++) {
+            LoanApplication loan = loans.get(i);
+            principal[i] = loan.getLoanAmount();
+            interestRate[i] = loan.getInterestRate();
+            durationMonths[i] = Math.max(1, loan.getDurationMonths());
+            scoreBand[i] = scoreBand(financialInfoByUser.get(loan.getUserId()));
+            total += principal[i];
+        }
+        this.totalPrincipal = total;
+    }
+    
+    /**
+     * Get the credit score band of a borrower.
+     * @param financialInfo The borrower's financial information, or null if unknown
+     * @return The band, from 0 (below 600 or unknown) to 4 (750 and above)
+     */
+    public static int scoreBand(FinancialInfo financialInfo) {
+        int band = 0;
+        if (financialInfo != null) {
+            while (band < SCORE_BAND_LIMITS.length && financialInfo.getCreditScore() >= SCORE_BAND_LIMITS[band]) {
+                band++;
+            }
+        }
+        return band;
+    }
+    
+    /**
+     * Get the number of loans in the simulated book.
+     * @return The number of loans
+     */
+    public int getLoanCount() {
+        return loanCount;
+    }
+    
+    /**
+     * Simulate the loan book under a scenario.
+     * @param scenario The stress assumptions
+     * @param paths The number of paths to simulate
+     * @param seed The seed of the random numbers; the same seed gives the same result
+     * @param updates The number of intermediate results passed to the listener
+     * @param listener Receives the result over the paths completed so far after each update,
+     *                 or null for none
+     * @return The result over all paths
+     * @throws IllegalArgumentException if the number of paths is negative
+     */
+    public PortfolioSimulationResult simulate(SimulationScenario scenario, int paths, long seed, int updates,
+                                              Consumer<PortfolioSimulationResult> listener) {
+        if (paths < 0) {
+            throw new IllegalArgumentException("Number of paths must not be negative: " + paths);
+        }
+        LoanParameters parameters = new LoanParameters(scenario);
+        double[] losses = new double[paths];
+        double[] netIncomes = new double[paths];
+        SplittableRandom random = new SplittableRandom(seed);
+        
+        int rounds = Math.max(1, Math.min(updates, paths / PATHS_PER_TASK));
+        PortfolioSimulationResult result = null;
+        int completed = 0;
+        for (int round = 1; round <= rounds; round++) {
+            int end = (int) ((long) paths * round / rounds);
+            pool.invoke(new PathTask(parameters, losses, netIncomes, completed, end, random.split()));
+            completed = end;
+            
+            result = summarize(losses, netIncomes, completed, paths);
+            if (listener != null) {
+                listener.accept(result);
+            }
+        }
+        return result;
+    }
+    
+    private PortfolioSimulationResult summarize(double[] losses, double[] netIncomes, int completed, int paths) {
+        double[] sortedLosses = Arrays.copyOf(losses, completed);
+        double[] sortedNetIncomes = Arrays.copyOf(netIncomes, completed);
+        Arrays.parallelSort(sortedLosses);
+        Arrays.parallelSort(sortedNetIncomes);
+        
+        PortfolioSimulationResult result = new PortfolioSimulationResult();
+        result.setPathsCompleted(completed);
+        result.setTotalPaths(paths);
+        result.setLoanCount(loanCount);
+        result.setTotalPrincipal(totalPrincipal);
+        result.setExpectedLoss(mean(sortedLosses));
+        result.setLossP50(percentile(sortedLosses, 0.50));
+        result.setLossP95(percentile(sortedLosses, 0.95));
+        result.setLossP99(percentile(sortedLosses, 0.99));
+        result.setExpectedNetIncome(mean(sortedNetIncomes));
+        result.setNetIncomeP5(percentile(sortedNetIncomes, 0.05));
+        result.setNetIncomeP50(percentile(sortedNetIncomes, 0.50));
+        return result;
+    }
+    
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return values.length == 0 ? 0 : sum / values.length;
+    }
+    
+    // Nearest-rank percentile of sorted values
+    private static double percentile(double[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+    
+    /**
+     * Per-loan amounts and monthly event probabilities under one scenario.
+     */
+    private final class LoanParameters {
+        final double lossGivenDefault;
+        final double[] monthlyRate;
+        final double[] payment;
+        // log(1 - p), where p is the monthly probability of a default or prepayment
+        final double[] logSurvival;
+        // Probability that the loan runs to maturity without a default or prepayment
+        final double[] maturitySurvival;
+        // Probability that the first event is a default rather than a prepayment
+        final double[] defaultShare;
+        // Interest paid when the loan runs to maturity
+        final double[] maturityInterest;
+        
+        LoanParameters(SimulationScenario scenario) {
+            lossGivenDefault = scenario.getLossGivenDefault();
+            monthlyRate = new double[loanCount];
+            payment = new double[loanCount];
+            logSurvival = new double[loanCount];
+            maturitySurvival = new double[loanCount];
+            defaultShare = new double[loanCount];
+            maturityInterest = new double[loanCount];
+            
+            double[] bandProbabilities = scenario.getAnnualDefaultProbabilities();
+            double prepaymentHazard = monthlyHazard(scenario.getAnnualPrepaymentRate());
+            
+            for (int i = 0; i < loanCount; i++) {
+                double shockedRate = Math.max(0, interestRate[i] + scenario.getRateShock());
+                monthlyRate[i] = shockedRate / 100.0 / 12.0;
+                payment[i] = payment(principal[i], shockedRate, durationMonths[i]);
+                maturityInterest[i] = payment[i] * durationMonths[i] - principal[i];
+                
+                // Borrowers facing a higher payment default more often
+                double paymentShock = payment[i] / payment(principal[i], interestRate[i], durationMonths[i]) - 1;
+                double annualDefault = bandProbabilities[Math.min(scoreBand[i], bandProbabilities.length - 1)] *
+                        scenario.getDefaultMultiplier() *
+                        Math.max(0, 1 + scenario.getPaymentShockSensitivity() * paymentShock);
+                double defaultHazard = monthlyHazard(Math.min(annualDefault, 1));
+                
+                double eventProbability = defaultHazard + (1 - defaultHazard) * prepaymentHazard;
+                logSurvival[i] = Math.log1p(-eventProbability);
+                maturitySurvival[i] = Math.exp(logSurvival[i] * durationMonths[i]);
+                defaultShare[i] = eventProbability > 0 ? defaultHazard / eventProbability : 0;
+            }
+        }
+        
+        // Outstanding balance after the given number of monthly payments
+        double balance(int loan, int payments) {
+            double rate = monthlyRate[loan];
+            if (rate == 0) {
+                return principal[loan] - payment[loan] * payments;
+            }
+            double growth = Math.pow(1 + rate, payments);
+            return principal[loan] * growth - payment[loan] * (growth - 1) / rate;
+        }
+        
+        // Interest contained in the given number of monthly payments
+        double interest(int loan, int payments, double balance) {
+            return payment[loan] * payments - (principal[loan] - balance);
+        }
+    }
+    
+    private static double payment(double principal, double annualRate, int durationMonths) {
+        return annualRate > 0 ? LoanApplication.calculateMonthlyPayment(principal, annualRate, durationMonths)
+                              : principal / durationMonths;
+    }
+    
+    // Monthly probability equivalent to an annual probability
+    private static double monthlyHazard(double annualProbability) {
+        return annualProbability >= 1 ? 1 : -Math.expm1(Math.log1p(-annualProbability) / 12.0);
+    }
+    
+    /**
+     * Simulates a range of paths, splitting it in halves until it is small enough.
+     */
+    private final class PathTask extends RecursiveAction {
+        private final LoanParameters parameters;
+        private final double[] losses;
+        private final double[] netIncomes;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+        
+        PathTask(LoanParameters parameters, double[] losses, double[] netIncomes, int from, int to,
+                 SplittableRandom random) {
+            this.parameters = parameters;
+            this.losses = losses;
+            this.netIncomes = netIncomes;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= PATHS_PER_TASK) {
+                for (int path = from; path < to; path++) {
+                    simulatePath(path);
+                }
+                return;
+            }
+            
+            int middle = (from + to) >>> 1;
+            invokeAll(new PathTask(parameters, losses, netIncomes, from, middle, random.split()),
+                      new PathTask(parameters, losses, netIncomes, middle, to, random));
+        }
+        
+        private void simulatePath(int path) {
+            double loss = 0;
+            double interest = 0;
+            for (int loan = 0; loan < loanCount; loan++) {
+                // Most loans mature, which needs no logarithm: u < (1 - p)^term exactly when
+                // the geometric month of the first event, ceil(log(u) / log(1 - p)), exceeds the term
+                double u = 1.0 - random.nextDouble();
+                if (u <= parameters.maturitySurvival[loan]) {
+                    interest += parameters.maturityInterest[loan];
+                    continue;
+                }
+                
+                int month = (int) Math.ceil(Math.log(u) / parameters.logSurvival[loan]);
+                if (random.nextDouble() < parameters.defaultShare[loan]) {
+                    // Defaults before paying this month's installment
+                    int payments = Math.max(0, month - 1);
+                    double balance = parameters.balance(loan, payments);
+                    loss += parameters.lossGivenDefault * balance;
+                    interest += parameters.interest(loan, payments, balance);
+                } else {
+                    // Pays this month's installment and repays the rest
+                    int payments = Math.max(1, month);
+                    interest += parameters.interest(loan, payments, parameters.balance(loan, payments));
+                }
+            }
+            losses[path] = loss;
+            netIncomes[path] = interest - loss;
+        }
+    }
+    
+    /**
+     * Simulate the approved loan book from the command line.
+     * Usage: PortfolioSimulator [paths] [rateShock] [defaultMultiplier]
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        int paths = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        SimulationScenario scenario = new SimulationScenario();
+        if (args.length > 1) {
+            scenario.setRateShock(Double.parseDouble(args[1]));
+        }
+        if (args.length > 2) {
+            scenario.setDefaultMultiplier(Double.parseDouble(args[2]));
+        }
+        
+        PortfolioSimulationController controller = new PortfolioSimulationController();
+        long start = System.nanoTime();
+        PortfolioSimulationResult result = controller.simulate(scenario, paths, progress ->
+                System.out.printf("%,d/%,d paths: expected loss %,.2f, 95%% %,.2f, 99%% %,.2f%n",
+                        progress.getPathsCompleted(), progress.getTotalPaths(), progress.getExpectedLoss(),
+                        progress.getLossP95(), progress.getLossP99()));
+        
+        System.out.printf("%nLoans: %d, principal: %,.2f, %s%n", result.getLoanCount(),
+                result.getTotalPrincipal(), scenario);
+        System.out.printf("Net interest income: expected %,.2f, median %,.2f, 5%% %,.2f%n",
+                result.getExpectedNetIncome(), result.getNetIncomeP50(), result.getNetIncomeP5());
+        System.out.printf("Simulated in %.2f s%n", (System.nanoTime() - start) / 1e9);
+    }
+}
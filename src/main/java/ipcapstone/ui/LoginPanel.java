@@ -29,7 +29,6 @@ public class LoginPanel extends JPanel {
      */
     public LoginPanel(MainFrame parent) {
         this.parent = parent;
-        this.authController = new AuthenticationController();
         
         initComponents();
         layoutComponents();
@@ -276,6 +275,11 @@ public class LoginPanel extends JPanel {
             return;
         }
         
+        // The controller is created on the first login so that showing the login screen
+        // does not wait for the DAOs to be set up
+        if (authController == null) {
+            authController = new AuthenticationController();
+        }
         User user = authController.authenticateUser(username, password);
         
         if (user == null) {
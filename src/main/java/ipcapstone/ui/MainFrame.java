@@ -66,15 +66,11 @@ public class MainFrame extends JFrame {
         mainPanel = new JPanel(cardLayout);
         mainPanel.setBorder(new EmptyBorder(0, 0, 0, 0));
         
-        // Initialize panels
+        // Initialize the login panel; the dashboards are created on first use
         loginPanel = new LoginPanel(this);
-        userDashboardPanel = new UserDashboardPanel(this);
-        officerDashboardPanel = new OfficerDashboardPanel(this);
         
         // Add panels to card layout
         mainPanel.add(loginPanel, "LOGIN");
-        mainPanel.add(userDashboardPanel, "USER_DASHBOARD");
-        mainPanel.add(officerDashboardPanel, "OFFICER_DASHBOARD");
         
         // Set initial panel
         cardLayout.show(mainPanel, "LOGIN");
@@ -82,6 +78,30 @@ public class MainFrame extends JFrame {
         add(mainPanel, BorderLayout.CENTER);
     }
     
+    /**
+     * Get the user dashboard panel, creating it on first use.
+     * @return The user dashboard panel
+     */
+    private UserDashboardPanel getUserDashboardPanel() {
+        if (userDashboardPanel == null) {
+            userDashboardPanel = new UserDashboardPanel(this);
+            mainPanel.add(userDashboardPanel, "USER_DASHBOARD");
+        }
+        return userDashboardPanel;
+    }
+    
+    /**
+     * Get the officer dashboard panel, creating it on first use.
+     * @return The officer dashboard panel
+     */
+    private OfficerDashboardPanel getOfficerDashboardPanel() {
+        if (officerDashboardPanel == null) {
+            officerDashboardPanel = new OfficerDashboardPanel(this);
+            mainPanel.add(officerDashboardPanel, "OFFICER_DASHBOARD");
+        }
+        return officerDashboardPanel;
+    }
+    
     /**
      * Set up the application menu bar.
      */
@@ -198,9 +218,13 @@ public class MainFrame extends JFrame {
         // Show login panel
         cardLayout.show(mainPanel, "LOGIN");
         
-        // Reset dashboard panels
-        userDashboardPanel.resetPanel();
-        officerDashboardPanel.resetPanel();
+        // Reset the dashboard panels that have been created
+        if (userDashboardPanel != null) {
+            userDashboardPanel.resetPanel();
+        }
+        if (officerDashboardPanel != null) {
+            officerDashboardPanel.resetPanel();
+        }
     }
     
     /**
@@ -211,7 +235,7 @@ public class MainFrame extends JFrame {
         setJMenuBar(menuBar);
         
         // Refresh dashboard data
-        userDashboardPanel.refreshData();
+        getUserDashboardPanel().refreshData();
         
         // Show user dashboard panel
         cardLayout.show(mainPanel, "USER_DASHBOARD");
@@ -225,7 +249,7 @@ public class MainFrame extends JFrame {
         setJMenuBar(menuBar);
         
         // Refresh dashboard data
-        officerDashboardPanel.refreshData();
+        getOfficerDashboardPanel().refreshData();
         
         // Show officer dashboard panel
         cardLayout.show(mainPanel, "OFFICER_DASHBOARD");
@@ -244,6 +268,10 @@ public class MainFrame extends JFrame {
         );
         
         if (response == JOptionPane.YES_OPTION) {
+            // Hand the officer's claimed applications back to the queue
+            if (officerDashboardPanel != null) {
+                officerDashboardPanel.releaseClaims();
+            }
             showLoginPanel();
         }
     }
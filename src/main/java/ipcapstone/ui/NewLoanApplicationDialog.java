@@ -12,6 +12,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.text.NumberFormat;
 import java.util.Hashtable;
+import java.util.UUID;
 
 /**
  * Dialog for creating a new loan application.
@@ -44,6 +45,9 @@ public class NewLoanApplicationDialog extends JDialog {
     
     private boolean applicationCreated = false;
     
+    // Identifies this submission, so that retrying it never creates a second application
+    private final String idempotencyKey = UUID.randomUUID().toString();
+    
     /**
      * Create a new NewLoanApplicationDialog.
      * @param parent The parent frame
@@ -406,11 +410,20 @@ public class NewLoanApplicationDialog extends JDialog {
         application.setLoanPurpose(purposeField.getText().trim());
         application.setDurationMonths(durationSlider.getValue());
         application.setInterestRate(10.75); // Updated interest rate
+        application.setIdempotencyKey(idempotencyKey);
         
         if (loanController.createLoanApplication(application)) {
-            JOptionPane.showMessageDialog(this,
-                    "Loan application submitted successfully!",
-                    "Application Submitted", JOptionPane.INFORMATION_MESSAGE);
+            if (application.getApplicationId() == 0) {
+                // Journaled while the database is unavailable
+                JOptionPane.showMessageDialog(this,
+                        "Your loan application has been received and will appear in your history\n" +
+                        "as soon as the bank's database is available again.",
+                        "Application Queued", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this,
+                        "Loan application submitted successfully!",
+                        "Application Submitted", JOptionPane.INFORMATION_MESSAGE);
+            }
             applicationCreated = true;
             dispose();
         } else {
@@ -2,6 +2,9 @@ package ipcapstone.ui;
 
 import ipcapstone.controller.LoanApplicationController;
 import ipcapstone.controller.LoanDecisionController;
+import ipcapstone.controller.SearchController;
+import ipcapstone.dao.ApplicationClaimedException;
+import ipcapstone.dao.OptimisticLockException;
 import ipcapstone.model.LoanApplication;
 import ipcapstone.model.LoanApplication.LoanStatus;
 import ipcapstone.model.User;
@@ -9,6 +12,8 @@ import ipcapstone.model.User;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
@@ -17,7 +22,13 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.geom.RoundRectangle2D;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Dashboard panel for loan officers.
@@ -26,6 +37,7 @@ public class OfficerDashboardPanel extends JPanel {
     private MainFrame parent;
     private LoanApplicationController loanController;
     private LoanDecisionController decisionController;
+    private SearchController searchController;
     
     // UI Components
     private JLabel welcomeLabel;
@@ -33,12 +45,29 @@ public class OfficerDashboardPanel extends JPanel {
     private JTable loanApplicationsTable;
     private DefaultTableModel tableModel;
     private JComboBox<String> statusFilterCombo;
+    private JComboBox<String> periodFilterCombo;
+    private JTextField searchField;
+    private Timer searchTimer;
     private JButton refreshButton;
+    private JButton claimNextButton;
+    private Timer claimRenewalTimer;
     private JButton viewButton;
     private JButton approveButton;
     private JButton rejectButton;
     private JLabel applicationsCountLabel;
     
+    // Version of each listed application, so decisions are based on what the officer saw
+    private final Map<Integer, Integer> applicationVersions = new HashMap<>();
+    
+    // Listed applications that other officers are working on
+    private final Set<Integer> claimedByOthers = new HashSet<>();
+    
+    // Search
+    private static final int SEARCH_DELAY_MILLIS = 250;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int QUEUE_BATCH_SIZE = 10;
+    private static final int CLAIM_RENEWAL_MILLIS = LoanApplicationController.CLAIM_LEASE_SECONDS * 1000 / 3;
+    
     // Colors
     private final Color PRIMARY_COLOR = new Color(25, 118, 210); // Material Blue 
     private final Color SECONDARY_COLOR = new Color(33, 150, 243); // Lighter Blue
@@ -58,6 +87,7 @@ public class OfficerDashboardPanel extends JPanel {
         this.parent = parent;
         this.loanController = new LoanApplicationController();
         this.decisionController = new LoanDecisionController();
+        this.searchController = new SearchController();
         
         setBackground(BACKGROUND_COLOR);
         
@@ -182,7 +212,7 @@ public class OfficerDashboardPanel extends JPanel {
         }
         
         // Create styled filter combo box
-        String[] statusOptions = {"All Applications", "Pending", "Approved", "Rejected"};
+        String[] statusOptions = {"All Applications", "Pending", "Approved", "Rejected", "My Queue"};
         statusFilterCombo = new JComboBox<>(statusOptions);
         statusFilterCombo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         statusFilterCombo.setBackground(Color.WHITE);
@@ -190,6 +220,24 @@ public class OfficerDashboardPanel extends JPanel {
                 BorderFactory.createLineBorder(new Color(200, 200, 200)),
                 BorderFactory.createEmptyBorder(5, 10, 5, 10)));
         
+        // Create styled period combo box; recent periods only touch recent partitions
+        String[] periodOptions = {"Last 30 Days", "Last 90 Days", "Last 12 Months", "All Time"};
+        periodFilterCombo = new JComboBox<>(periodOptions);
+        periodFilterCombo.setSelectedIndex(3);
+        periodFilterCombo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        periodFilterCombo.setBackground(Color.WHITE);
+        periodFilterCombo.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(200, 200, 200)),
+                BorderFactory.createEmptyBorder(5, 10, 5, 10)));
+        
+        // Create styled search field for applicant names, emails and loan purposes
+        searchField = new JTextField(16);
+        searchField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        searchField.setToolTipText("Search by applicant name, email or loan purpose");
+        searchField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(200, 200, 200)),
+                BorderFactory.createEmptyBorder(5, 10, 5, 10)));
+        
         // Create styled buttons
         Font buttonFont = new Font("Segoe UI", Font.BOLD, 14);
         
@@ -197,6 +245,9 @@ public class OfficerDashboardPanel extends JPanel {
         // Commented out to avoid NullPointerException since icons are not available
         // refreshButton.setIcon(new ImageIcon(getClass().getResource("/images/refresh.png")));
         
+        claimNextButton = createStyledButton("Claim Next", buttonFont, PRIMARY_COLOR);
+        claimNextButton.setToolTipText("Claim the next pending applications for review");
+        
         viewButton = createStyledButton("View Details", buttonFont, PRIMARY_COLOR);
         // viewButton.setIcon(new ImageIcon(getClass().getResource("/images/view.png")));
         
@@ -321,9 +372,13 @@ public class OfficerDashboardPanel extends JPanel {
         
         JPanel headerControlsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 15, 0));
         headerControlsPanel.setOpaque(false);
+        headerControlsPanel.add(new JLabel("Search:"));
+        headerControlsPanel.add(searchField);
         headerControlsPanel.add(new JLabel("Filter:"));
         headerControlsPanel.add(statusFilterCombo);
+        headerControlsPanel.add(periodFilterCombo);
         headerControlsPanel.add(refreshButton);
+        headerControlsPanel.add(claimNextButton);
         
         headerContent.add(titlePanel, BorderLayout.WEST);
         headerContent.add(headerControlsPanel, BorderLayout.EAST);
@@ -405,6 +460,34 @@ public class OfficerDashboardPanel extends JPanel {
             }
         });
         
+        // Period combo box listener
+        periodFilterCombo.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refreshData();
+            }
+        });
+        
+        // Search field listener; refresh once typing pauses
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> refreshData());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        
         // Refresh button listener
         refreshButton.addActionListener(new ActionListener() {
             @Override
@@ -413,6 +496,17 @@ public class OfficerDashboardPanel extends JPanel {
             }
         });
         
+        // Claim next button listener; applications are only claimed on request
+        claimNextButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                claimNextApplications();
+            }
+        });
+        
+        // Renew the officer's claims while there are any, so they do not lapse mid-review
+        claimRenewalTimer = new Timer(CLAIM_RENEWAL_MILLIS, e -> renewClaims());
+        
         // View button listener
         viewButton.addActionListener(new ActionListener() {
             @Override
@@ -466,21 +560,36 @@ public class OfficerDashboardPanel extends JPanel {
             
             // Clear table
             tableModel.setRowCount(0);
+            applicationVersions.clear();
+            claimedByOthers.clear();
             
             // Get selected filter
             String selectedFilter = (String) statusFilterCombo.getSelectedItem();
             List<LoanApplication> applications;
             
+            Date from = getPeriodStart();
+            
             // Apply filter
             if (selectedFilter.equals("Pending")) {
-                applications = loanController.getLoanApplicationsByStatus(LoanStatus.PENDING);
+                // Open work is listed whatever its age, so no application is left undecided;
+                // applications other officers are working on are left out
+                applications = loanController.getPendingApplicationsFor(officer.getUserId());
             } else if (selectedFilter.equals("Approved")) {
-                applications = loanController.getLoanApplicationsByStatus(LoanStatus.APPROVED);
+                applications = loanController.getLoanApplicationsByStatus(LoanStatus.APPROVED, from, null);
             } else if (selectedFilter.equals("Rejected")) {
-                applications = loanController.getLoanApplicationsByStatus(LoanStatus.REJECTED);
+                applications = loanController.getLoanApplicationsByStatus(LoanStatus.REJECTED, from, null);
+            } else if (selectedFilter.equals("My Queue")) {
+                // Pending applications claimed by this officer; refreshing does not claim more
+                applications = loanController.getClaimedApplications(officer.getUserId());
             } else {
                 // "All Applications"
-                applications = loanController.getAllLoanApplications();
+                applications = loanController.getAllLoanApplications(from, null);
+            }
+            
+            // Apply search, ordering the applications by relevance
+            String query = searchField.getText().trim();
+            if (!query.isEmpty()) {
+                applications = searchController.filterApplications(applications, query, MAX_SEARCH_RESULTS);
             }
             
             // Update applications count label
@@ -492,16 +601,11 @@ public class OfficerDashboardPanel extends JPanel {
             
             // Add applications to table
             for (LoanApplication app : applications) {
-                Object[] row = {
-                    app.getApplicationId(),
-                    app.getUserName(),
-                    String.format("₹%.2f", app.getLoanAmount()),
-                    app.getLoanPurpose(),
-                    dateFormat.format(app.getApplicationDate()),
-                    app.getDurationMonths(),
-                    app.getStatus().toString()
-                };
-                tableModel.addRow(row);
+                tableModel.addRow(createTableRow(app, dateFormat));
+                applicationVersions.put(app.getApplicationId(), app.getVersion());
+                if (app.isClaimedByOther(officer.getUserId())) {
+                    claimedByOthers.add(app.getApplicationId());
+                }
             }
             
             // Update button states based on selection
@@ -512,6 +616,95 @@ public class OfficerDashboardPanel extends JPanel {
         }
     }
     
+    /**
+     * Claim the next batch of pending applications for the officer and show the queue.
+     */
+    private void claimNextApplications() {
+        User officer = parent.getLoggedInUser();
+        if (officer != null) {
+            List<LoanApplication> claimed = loanController.claimNextApplications(officer.getUserId(), QUEUE_BATCH_SIZE);
+            if (claimed.isEmpty()) {
+                claimRenewalTimer.stop();
+                JOptionPane.showMessageDialog(
+                        this,
+                        "There are no pending loan applications to claim.",
+                        "Queue Empty",
+                        JOptionPane.INFORMATION_MESSAGE
+                );
+            } else {
+                claimRenewalTimer.restart();
+            }
+            
+            // Show the queue; selecting it refreshes the table
+            if ("My Queue".equals(statusFilterCombo.getSelectedItem())) {
+                refreshData();
+            } else {
+                statusFilterCombo.setSelectedItem("My Queue");
+            }
+        }
+    }
+    
+    /**
+     * Renew the lease of the officer's claims, stopping once the officer holds none.
+     */
+    private void renewClaims() {
+        User officer = parent.getLoggedInUser();
+        if (officer == null || loanController.renewClaims(officer.getUserId()).isEmpty()) {
+            claimRenewalTimer.stop();
+        }
+    }
+    
+    /**
+     * Return the officer's claimed applications to the queue, e.g. on logout.
+     */
+    public void releaseClaims() {
+        claimRenewalTimer.stop();
+        User officer = parent.getLoggedInUser();
+        if (officer != null && officer.getUserType() == User.UserType.OFFICER) {
+            loanController.releaseClaims(officer.getUserId());
+        }
+    }
+    
+    /**
+     * Get the start of the period selected in the period combo box.
+     * @return The start date, or null for all time
+     */
+    private Date getPeriodStart() {
+        Calendar calendar = Calendar.getInstance();
+        switch (periodFilterCombo.getSelectedIndex()) {
+            case 0:
+                calendar.add(Calendar.DAY_OF_MONTH, -30);
+                break;
+            case 1:
+                calendar.add(Calendar.DAY_OF_MONTH, -90);
+                break;
+            case 2:
+                calendar.add(Calendar.MONTH, -12);
+                break;
+            default:
+                return null;
+        }
+        return calendar.getTime();
+    }
+    
+    /**
+     * Format a loan application as a row of the applications table.
+     * @param app The loan application to format
+     * @param dateFormat The format used for the application date
+     * @return The table row values
+     */
+    static Object[] createTableRow(LoanApplication app, SimpleDateFormat dateFormat) {
+        return new Object[] {
+            app.getApplicationId(),
+            app.getUserName(),
+            String.format("₹%.2f", app.getLoanAmount()),
+            app.getLoanPurpose(),
+            dateFormat.format(app.getApplicationDate()),
+            app.getDurationMonths(),
+            app.getStatus().toString()
+        };
+    }
+    
     /**
      * Reset the panel.
      */
@@ -520,6 +713,11 @@ public class OfficerDashboardPanel extends JPanel {
         applicationsCountLabel.setText("0 loan applications found");
         tableModel.setRowCount(0);
         statusFilterCombo.setSelectedIndex(0);
+        periodFilterCombo.setSelectedIndex(3);
+        searchField.setText("");
+        searchTimer.stop();
+        claimRenewalTimer.stop();
+        claimedByOthers.clear();
         updateButtonStates();
     }
     
@@ -533,11 +731,13 @@ public class OfficerDashboardPanel extends JPanel {
         viewButton.setEnabled(hasSelection);
         
         if (hasSelection) {
+            int applicationId = Integer.parseInt(tableModel.getValueAt(selectedRow, 0).toString());
             String status = (String) tableModel.getValueAt(selectedRow, 6);
-            boolean isPending = status.equals(LoanStatus.PENDING.toString());
+            boolean canDecide = status.equals(LoanStatus.PENDING.toString()) &&
+                    !claimedByOthers.contains(applicationId);
             
-            approveButton.setEnabled(isPending);
-            rejectButton.setEnabled(isPending);
+            approveButton.setEnabled(canDecide);
+            rejectButton.setEnabled(canDecide);
         } else {
             approveButton.setEnabled(false);
             rejectButton.setEnabled(false);
@@ -561,9 +761,13 @@ public class OfficerDashboardPanel extends JPanel {
                 );
                 dialog.setVisible(true);
                 
-                // Refresh data if a decision was made
+                // Refresh data if a decision was made; otherwise hand a claimed application back
+                int officerId = parent.getLoggedInUser().getUserId();
                 if (dialog.isDecisionMade()) {
                     refreshData();
+                } else if (application.getClaimedBy() == officerId &&
+                        loanController.releaseClaim(applicationId, officerId)) {
+                    refreshData();
                 }
             }
         }
@@ -599,13 +803,37 @@ public class OfficerDashboardPanel extends JPanel {
                         JOptionPane.PLAIN_MESSAGE
                 );
                 
-                // Process decision
-                boolean success = decisionController.processLoanApplication(
-                        applicationId,
-                        parent.getLoggedInUser().getUserId(),
-                        approve,
-                        comment
-                );
+                // Process decision, provided the application has not changed since it was listed
+                boolean success;
+                try {
+                    success = decisionController.processLoanApplication(
+                            applicationId,
+                            applicationVersions.getOrDefault(applicationId, 0),
+                            parent.getLoggedInUser().getUserId(),
+                            approve,
+                            comment
+                    );
+                } catch (ApplicationClaimedException e) {
+                    refreshData();
+                    JOptionPane.showMessageDialog(
+                            this,
+                            "This loan application is being reviewed by another officer.\n" +
+                            "The list has been refreshed; please choose another application.",
+                            "Application Claimed",
+                            JOptionPane.WARNING_MESSAGE
+                    );
+                    return;
+                } catch (OptimisticLockException e) {
+                    refreshData();
+                    JOptionPane.showMessageDialog(
+                            this,
+                            "This loan application was modified by another officer.\n" +
+                            "The list has been refreshed; please check the application and try again.",
+                            "Application Changed",
+                            JOptionPane.WARNING_MESSAGE
+                    );
+                    return;
+                }
                 
                 if (success) {
                     JOptionPane.showMessageDialog(
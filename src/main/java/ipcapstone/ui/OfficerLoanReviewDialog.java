@@ -4,9 +4,12 @@ import ipcapstone.controller.FinancialInfoController;
 import ipcapstone.controller.LoanApplicationController;
 import ipcapstone.controller.LoanDecisionController;
 import ipcapstone.controller.UserController;
+import ipcapstone.dao.ApplicationClaimedException;
+import ipcapstone.dao.OptimisticLockException;
 import ipcapstone.model.FinancialInfo;
 import ipcapstone.model.LoanApplication;
 import ipcapstone.model.LoanDecision;
+import ipcapstone.model.LoanDecisionEvent;
 import ipcapstone.model.User;
 
 import javax.swing.*;
@@ -16,6 +19,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
+import java.util.List;
 
 /**
  * Dialog for loan officers to review loan applications and make decisions.
@@ -27,6 +31,7 @@ public class OfficerLoanReviewDialog extends JDialog {
     private FinancialInfo financialInfo;
     private User applicant;
     private LoanDecision previousDecision;
+    private List<LoanDecisionEvent> decisionTimeline;
     
     private LoanApplicationController loanController;
     private UserController userController;
@@ -104,6 +109,7 @@ public class OfficerLoanReviewDialog extends JDialog {
         applicant = userController.getUserById(application.getUserId());
         financialInfo = financialController.getFinancialInfoByUserId(application.getUserId());
         previousDecision = decisionController.getLoanDecisionByApplicationId(application.getApplicationId());
+        decisionTimeline = decisionController.getDecisionTimeline(application.getApplicationId());
     }
     
     /**
@@ -545,6 +551,19 @@ public class OfficerLoanReviewDialog extends JDialog {
             }
         }
         
+        // Show the full decision history when hovering over the previous decision
+        if (!decisionTimeline.isEmpty()) {
+            StringBuilder history = new StringBuilder("<html>");
+            for (LoanDecisionEvent event : decisionTimeline) {
+                history.append(dateFormat.format(event.getEventTime())).append(": ")
+                       .append(event.getEventType()).append(' ').append(event.getStatus())
+                       .append(" by ").append(event.getOfficerName() != null ?
+                               escapeHtml(event.getOfficerName()) : "officer #" + event.getOfficerId())
+                       .append("<br>");
+            }
+            previousDecisionLabel.setToolTipText(history.append("</html>").toString());
+        }
+        
         // Enable/disable decision making based on application status
         boolean canMakeDecision = application.getStatus() == LoanApplication.LoanStatus.PENDING;
         approveRadio.setEnabled(canMakeDecision);
@@ -565,6 +584,15 @@ public class OfficerLoanReviewDialog extends JDialog {
         }
     }
     
+    /**
+     * Escape text for use in an HTML label or tooltip.
+     * @param text The text to escape
+     * @return The text with &, < and > replaced by entities
+     */
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+    
     /**
      * Set up action listeners for the buttons.
      */
@@ -608,12 +636,30 @@ public class OfficerLoanReviewDialog extends JDialog {
                 "Confirm " + decisionCap, JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            // Process the application
-            boolean success = decisionController.processLoanApplication(
-                    application.getApplicationId(), 
-                    officer.getUserId(), 
-                    isApproved, 
-                    commentsArea.getText());
+            // Process the application, provided nobody changed it while it was being reviewed
+            boolean success;
+            try {
+                success = decisionController.processLoanApplication(
+                        application.getApplicationId(), 
+                        application.getVersion(),
+                        officer.getUserId(), 
+                        isApproved, 
+                        commentsArea.getText());
+            } catch (ApplicationClaimedException e) {
+                JOptionPane.showMessageDialog(this,
+                        "This loan application is being reviewed by another officer.\n" +
+                        "It cannot be decided until their claim is released or expires.",
+                        "Application Claimed", JOptionPane.WARNING_MESSAGE);
+                dispose();
+                return;
+            } catch (OptimisticLockException e) {
+                reloadApplication();
+                JOptionPane.showMessageDialog(this,
+                        "This loan application was modified by another officer while you were reviewing it.\n" +
+                        "The latest details have been loaded; please review them and submit again.",
+                        "Application Changed", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
             
             if (success) {
                 JOptionPane.showMessageDialog(this,
@@ -629,6 +675,18 @@ public class OfficerLoanReviewDialog extends JDialog {
         }
     }
     
+    /**
+     * Reload the application and its related data after it was changed by someone else.
+     */
+    private void reloadApplication() {
+        LoanApplication latest = loanController.getLoanApplicationById(application.getApplicationId());
+        if (latest != null) {
+            application = latest;
+        }
+        loadRelatedData();
+        populateData();
+    }
+    
     /**
      * Check if a decision was made.
      * @return true if a decision was made, false otherwise
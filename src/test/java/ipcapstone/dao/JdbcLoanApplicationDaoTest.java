@@ -0,0 +1,161 @@
+package ipcapstone.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ipcapstone.model.LoanApplication;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the idempotent batch insert of {@link JdbcLoanApplicationDao}, run against
+ * a fake connection that answers like MySQL does for INSERT IGNORE.
+ */
+public class JdbcLoanApplicationDaoTest {
+    
+    /**
+     * A connection holding the stored idempotency keys and the keys added to the summaries.
+     */
+    static class FakeDatabase {
+        final Set<String> storedKeys = new HashSet<>();
+        // Keys whose rows MySQL skips for another reason, such as a missing user
+        final Set<String> rejectedKeys = new HashSet<>();
+        final List<String> summarizedKeys = new ArrayList<>();
+        // Whether the batch reports a count per row, or SUCCESS_NO_INFO as with rewriteBatchedStatements
+        boolean countsPerRow = true;
+        
+        Connection connection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("prepareStatement")) {
+                            return statement((String) args[0]);
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+        
+        private PreparedStatement statement(String sql) {
+            List<String> batch = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "setString":
+                                // The only string parameter of the other statements is the key
+                                if (!sql.startsWith("INSERT IGNORE") || (int) args[0] == 7) {
+                                    keys.add((String) args[1]);
+                                }
+                                return null;
+                            case "addBatch":
+                                batch.add(keys.remove(0));
+                                return null;
+                            case "executeBatch":
+                                int[] counts = new int[batch.size()];
+                                for (int i = 0; i < counts.length; i++) {
+                                    String batchKey = batch.get(i);
+                                    counts[i] = rejectedKeys.contains(batchKey) || !storedKeys.add(batchKey) ? 0 : 1;
+                                    if (!countsPerRow) {
+                                        counts[i] = Statement.SUCCESS_NO_INFO;
+                                    }
+                                }
+                                return counts;
+                            case "executeUpdate":
+                                summarizedKeys.addAll(keys);
+                                return keys.size();
+                            case "executeQuery":
+                                return result(storedKeys.contains(keys.get(0)));
+                            case "close":
+                                return null;
+                            default:
+                                if (method.getName().startsWith("set")) {
+                                    return null;
+                                }
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+        
+        private static ResultSet result(boolean found) {
+            boolean[] next = {found};
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "next":
+                                boolean hasNext = next[0];
+                                next[0] = false;
+                                return hasNext;
+                            case "getInt":
+                                return 1;
+                            case "close":
+                                return null;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+    
+    private static List<LoanApplication> applications(String... idempotencyKeys) {
+        List<LoanApplication> applications = new ArrayList<>();
+        for (String idempotencyKey : idempotencyKeys) {
+            LoanApplication application = new LoanApplication(1, 10000, "Car", 12);
+            application.setIdempotencyKey(idempotencyKey);
+            applications.add(application);
+        }
+        return applications;
+    }
+    
+    @Test
+    public void testReplayedBatchInsertsNothing() throws SQLException {
+        FakeDatabase database = new FakeDatabase();
+        JdbcLoanApplicationDao dao = new JdbcLoanApplicationDao();
+        
+        assertEquals(3, dao.insertLoanApplicationBatch(database.connection(), applications("a", "b", "c")));
+        assertEquals(0, dao.insertLoanApplicationBatch(database.connection(), applications("a", "b", "c")));
+        assertEquals(Arrays.asList("a", "b", "c"), database.summarizedKeys);
+    }
+    
+    @Test
+    public void testPartlyReplayedBatch() throws SQLException {
+        FakeDatabase database = new FakeDatabase();
+        JdbcLoanApplicationDao dao = new JdbcLoanApplicationDao();
+        
+        assertEquals(2, dao.insertLoanApplicationBatch(database.connection(), applications("a", "b")));
+        assertEquals(1, dao.insertLoanApplicationBatch(database.connection(), applications("b", "c")));
+        assertEquals(Arrays.asList("a", "b", "c"), database.summarizedKeys);
+    }
+    
+    @Test
+    public void testBatchWithoutUpdateCountsFails() {
+        FakeDatabase database = new FakeDatabase();
+        database.countsPerRow = false;
+        JdbcLoanApplicationDao dao = new JdbcLoanApplicationDao();
+        
+        assertThrows(SQLException.class,
+                () -> dao.insertLoanApplicationBatch(database.connection(), applications("a", "b")));
+        assertEquals(Collections.emptyList(), database.summarizedKeys);
+    }
+    
+    @Test
+    public void testRejectedApplicationFailsBatch() {
+        FakeDatabase database = new FakeDatabase();
+        database.rejectedKeys.add("b");
+        JdbcLoanApplicationDao dao = new JdbcLoanApplicationDao();
+        
+        assertThrows(SQLException.class,
+                () -> dao.insertLoanApplicationBatch(database.connection(), applications("a", "b")));
+    }
+}
@@ -0,0 +1,216 @@
+package ipcapstone.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ipcapstone.dao.memory.InMemoryLoanApplicationDao;
+import ipcapstone.dao.memory.InMemoryStore;
+import ipcapstone.dao.memory.InMemoryUserDao;
+import ipcapstone.model.LoanApplication;
+import ipcapstone.model.LoanApplication.LoanStatus;
+import ipcapstone.model.User;
+import ipcapstone.model.User.UserType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ApplicationSearchIndex}: the tokenizer and edit distance check, and
+ * searches over applications kept in the in-memory store.
+ */
+public class ApplicationSearchIndexTest {
+    
+    private InMemoryStore store;
+    private InMemoryUserDao userDao;
+    private ApplicationSearchIndex index;
+    private IndexingLoanApplicationDao loanApplicationDao;
+    
+    @BeforeEach
+    public void setUp() {
+        store = new InMemoryStore();
+        userDao = new InMemoryUserDao(store);
+        index = new ApplicationSearchIndex(userDao, new InMemoryLoanApplicationDao(store));
+        loanApplicationDao = new IndexingLoanApplicationDao(new InMemoryLoanApplicationDao(store), index);
+    }
+    
+    private int addUser(String fullName, String email) {
+        User user = new User();
+        user.setUsername(email);
+        user.setPassword("secret");
+        user.setEmail(email);
+        user.setFullName(fullName);
+        user.setUserType(UserType.USER);
+        assertTrue(userDao.insertUser(user));
+        return user.getUserId();
+    }
+    
+    private LoanApplication addApplication(int userId, String loanPurpose) {
+        LoanApplication application = new LoanApplication();
+        application.setUserId(userId);
+        application.setLoanAmount(50000);
+        application.setLoanPurpose(loanPurpose);
+        application.setApplicationDate(new Date());
+        application.setDurationMonths(24);
+        application.setStatus(LoanStatus.PENDING);
+        assertTrue(loanApplicationDao.insertLoanApplication(application));
+        return application;
+    }
+    
+    @Test
+    public void testTokenize() {
+        assertEquals(Collections.emptyList(), ApplicationSearchIndex.tokenize(null));
+        assertEquals(Collections.emptyList(), ApplicationSearchIndex.tokenize(""));
+        assertEquals(Collections.emptyList(), ApplicationSearchIndex.tokenize(" ,.-@ "));
+        
+        assertEquals(Arrays.asList("arya", "tiwari"), ApplicationSearchIndex.tokenize("Arya Tiwari"));
+        assertEquals(Arrays.asList("arya", "tcet", "com"), ApplicationSearchIndex.tokenize("arya@tcet.com"));
+        assertEquals(Arrays.asList("home", "renovation", "2024"),
+                ApplicationSearchIndex.tokenize("  Home-renovation (2024)  "));
+    }
+    
+    @Test
+    public void testTokenizeKeepsDistinctWordsInOrder() {
+        assertEquals(Arrays.asList("car", "loan"), ApplicationSearchIndex.tokenize("Car loan, CAR LOAN car"));
+    }
+    
+    @Test
+    public void testTokenizeKeepsNonAsciiLetters() {
+        assertEquals(Arrays.asList("josé", "müller"), ApplicationSearchIndex.tokenize("JOSÉ Müller"));
+    }
+    
+    @Test
+    public void testWithinOneEditIdentical() {
+        assertTrue(ApplicationSearchIndex.withinOneEdit("", ""));
+        assertTrue(ApplicationSearchIndex.withinOneEdit("singh", "singh"));
+    }
+    
+    @Test
+    public void testWithinOneEditInsertionAndDeletion() {
+        assertTrue(ApplicationSearchIndex.withinOneEdit("singh", "sing"));
+        assertTrue(ApplicationSearchIndex.withinOneEdit("sing", "singh"));
+        assertTrue(ApplicationSearchIndex.withinOneEdit("singh", "ingh"));
+        assertTrue(ApplicationSearchIndex.withinOneEdit("singh", "sinngh"));
+        assertTrue(ApplicationSearchIndex.withinOneEdit("a", ""));
+        
+        assertFalse(ApplicationSearchIndex.withinOneEdit("singh", "sin"));
+        assertFalse(ApplicationSearchIndex.withinOneEdit("singh", "snighx"));
+        assertFalse(ApplicationSearchIndex.withinOneEdit("singh", "xsingx"));
+    }
+    
+    @Test
+    public void testWithinOneEditSubstitution() {
+        assertTrue(ApplicationSearchIndex.withinOneEdit("singh", "sengh"));
+        assertTrue(ApplicationSearchIndex.withinOneEdit("singh", "singx"));
+        assertTrue(ApplicationSearchIndex.withinOneEdit("singh", "xingh"));
+        
+        assertFalse(ApplicationSearchIndex.withinOneEdit("singh", "sxngx"));
+    }
+    
+    @Test
+    public void testWithinOneEditTransposition() {
+        assertTrue(ApplicationSearchIndex.withinOneEdit("singh", "isngh"));
+        assertTrue(ApplicationSearchIndex.withinOneEdit("singh", "sinhg"));
+        assertTrue(ApplicationSearchIndex.withinOneEdit("tiwari", "tiwrai"));
+        
+        assertFalse(ApplicationSearchIndex.withinOneEdit("singh", "sgnih"));
+        assertFalse(ApplicationSearchIndex.withinOneEdit("singh", "hsing"));
+    }
+    
+    @Test
+    public void testSearchRanksNamesAboveEmailsAbovePurposes() {
+        int byPurpose = addApplication(addUser("Neha Iyer", "neha@tcet.com"), "Rohan street shop").getApplicationId();
+        int byName = addApplication(addUser("Rohan Mehta", "mehta@tcet.com"), "Car").getApplicationId();
+        int byEmail = addApplication(addUser("Kavya Shah", "rohan.fan@tcet.com"), "Education").getApplicationId();
+        
+        assertEquals(Arrays.asList(byName, byEmail, byPurpose), index.search("rohan", 10));
+        assertEquals(Arrays.asList(byName, byEmail), index.search("rohan", 2));
+        assertEquals(Collections.singletonList(byName), index.search("rohan mehta", 10));
+        assertEquals(Collections.emptyList(), index.search("rohan unknown", 10));
+    }
+    
+    @Test
+    public void testSearchRanksExactMatchesAbovePrefixes() {
+        int prefix = addApplication(addUser("Arya Tiwari", "arya@tcet.com"), "Home renovation").getApplicationId();
+        int exact = addApplication(addUser("Ary Singh", "singh@tcet.com"), "Car").getApplicationId();
+        
+        assertEquals(Arrays.asList(exact, prefix), index.search("ary", 10));
+        assertEquals(Collections.singletonList(prefix), index.search("reno", 10));
+    }
+    
+    @Test
+    public void testSearchFindsTermsWithinOneTypo() {
+        int tiwari = addApplication(addUser("Arya Tiwari", "arya@tcet.com"), "Home").getApplicationId();
+        
+        // A wrong, missing, extra and swapped letter
+        assertEquals(Collections.singletonList(tiwari), index.search("tiwary", 10));
+        assertEquals(Collections.singletonList(tiwari), index.search("tiwri", 10));
+        assertEquals(Collections.singletonList(tiwari), index.search("tiwarii", 10));
+        assertEquals(Collections.singletonList(tiwari), index.search("tiawri", 10));
+        assertEquals(Collections.singletonList(tiwari), index.search("arua", 10));
+        
+        // Two typos, or a typo in a word too short for fuzzy matching
+        assertEquals(Collections.emptyList(), index.search("tiwxry", 10));
+        assertEquals(Collections.emptyList(), index.search("hme", 10));
+    }
+    
+    @Test
+    public void testIndexFollowsUpdatesAfterStatusChange() {
+        int userId = addUser("Arya Tiwari", "arya@tcet.com");
+        addApplication(userId, "Car");
+        assertEquals(1, index.size());
+        
+        // Written after the first search loaded the index
+        LoanApplication application = addApplication(userId, "Home renovation");
+        int applicationId = application.getApplicationId();
+        assertEquals(Collections.singletonList(applicationId), index.search("renovation", 10));
+        
+        assertTrue(loanApplicationDao.updateLoanApplicationStatus(applicationId, LoanStatus.APPROVED));
+        assertEquals(Collections.singletonList(applicationId), index.search("renovation", 10));
+        
+        LoanApplication decided = loanApplicationDao.getLoanApplicationById(applicationId);
+        assertEquals(LoanStatus.APPROVED, decided.getStatus());
+        decided.setLoanPurpose("Wedding");
+        assertTrue(loanApplicationDao.updateLoanApplication(decided));
+        assertEquals(Collections.emptyList(), index.search("renovation", 10));
+        assertEquals(Collections.singletonList(applicationId), index.search("wedding", 10));
+        assertEquals(2, index.search("arya", 10).size());
+        
+        assertTrue(loanApplicationDao.deleteLoanApplication(applicationId));
+        assertEquals(Collections.emptyList(), index.search("wedding", 10));
+        assertEquals(1, index.search("arya", 10).size());
+        assertEquals(1, index.size());
+    }
+    
+    @Test
+    public void testRebuildKeepsUpdatesMadeWhileLoading() {
+        int userId = addUser("Arya Tiwari", "arya@tcet.com");
+        int stored = addApplication(userId, "Car").getApplicationId();
+        assertEquals(1, index.size());
+        
+        // An application indexed while the rebuild is reading the users, as from another instance
+        LoanApplication elsewhere = new LoanApplication();
+        elsewhere.setApplicationId(1000);
+        elsewhere.setUserId(userId);
+        elsewhere.setLoanPurpose("Wedding");
+        final ApplicationSearchIndex[] rebuilding = new ApplicationSearchIndex[1];
+        InMemoryUserDao scanningUserDao = new InMemoryUserDao(store) {
+            @Override
+            public List<User> getUsersByType(UserType userType) {
+                rebuilding[0].putApplication(elsewhere);
+                return super.getUsersByType(userType);
+            }
+        };
+        rebuilding[0] = new ApplicationSearchIndex(scanningUserDao, new InMemoryLoanApplicationDao(store));
+        rebuilding[0].rebuild();
+        
+        assertEquals(Collections.singletonList(stored), rebuilding[0].search("car", 10));
+        assertEquals(Collections.singletonList(1000), rebuilding[0].search("wedding", 10));
+        assertEquals(Arrays.asList(1000, stored), rebuilding[0].search("arya", 10));
+    }
+}